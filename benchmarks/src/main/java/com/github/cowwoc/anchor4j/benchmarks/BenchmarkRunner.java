@@ -0,0 +1,39 @@
+package com.github.cowwoc.anchor4j.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler enabled, so that each benchmark reports its allocation rate
+ * ({@code gc.alloc.rate.norm}) alongside its score.
+ * <p>
+ * Accepts the same arguments as {@code org.openjdk.jmh.Main}. For example, {@code Parser} only runs the
+ * benchmarks whose name contains {@code Parser}.
+ */
+public final class BenchmarkRunner
+{
+	private BenchmarkRunner()
+	{
+	}
+
+	/**
+	 * The entry point of the benchmarks.
+	 *
+	 * @param args the command-line arguments
+	 * @throws CommandLineOptionException if the command-line arguments are invalid
+	 * @throws RunnerException            if a benchmark fails
+	 */
+	public static void main(String[] args) throws CommandLineOptionException, RunnerException
+	{
+		Options options = new OptionsBuilder().
+			parent(new CommandLineOptions(args)).
+			addProfiler(GCProfiler.class).
+			build();
+		new Runner(options).run();
+	}
+}
@@ -0,0 +1,265 @@
+package com.github.cowwoc.anchor4j.benchmarks;
+
+import com.github.cowwoc.anchor4j.core.internal.client.CommandResult;
+import com.github.cowwoc.anchor4j.docker.client.Docker;
+import com.github.cowwoc.anchor4j.docker.internal.client.InternalDocker;
+import com.github.cowwoc.anchor4j.docker.internal.resource.ContainerParser;
+import com.github.cowwoc.anchor4j.docker.internal.resource.ImageParser;
+import com.github.cowwoc.anchor4j.docker.internal.resource.NodeParser;
+import com.github.cowwoc.anchor4j.docker.resource.Container;
+import com.github.cowwoc.anchor4j.docker.resource.Image;
+import com.github.cowwoc.anchor4j.testsupport.FakeExecutable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Measures the parsing of the {@code docker} executable's output, using synthetic output that resembles
+ * that of a busy host.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParserBenchmark
+{
+	/**
+	 * The number of lines in the output of the list commands.
+	 */
+	@Param("10000")
+	public int lines;
+	private FakeExecutable executable;
+	private InternalDocker client;
+	private ContainerParser containerParser;
+	private ImageParser imageParser;
+	private NodeParser nodeParser;
+	private CommandResult containerInspect;
+	private CommandResult imageInspect;
+	private byte[] containerList;
+	private byte[] imageList;
+	private byte[] taskList;
+
+	/**
+	 * Generates the output of the commands.
+	 *
+	 * @throws IOException if the executable cannot be created
+	 */
+	@Setup
+	public void setup() throws IOException
+	{
+		executable = FakeExecutable.docker().build();
+		client = (InternalDocker) Docker.connect(executable.getPath());
+		containerParser = client.getContainerParser();
+		imageParser = client.getImageParser();
+		nodeParser = client.getNodeParser();
+
+		containerInspect = new CommandResult(List.of("docker", "container", "inspect", "frontend"),
+			Path.of("."), getContainerInspect(), "", 0);
+		imageInspect = new CommandResult(List.of("docker", "image", "inspect", "nginx"), Path.of("."),
+			getImageInspect(), "", 0);
+		containerList = getContainerList(lines);
+		imageList = getImageList(lines);
+		taskList = getTaskList(lines);
+	}
+
+	/**
+	 * Releases the client.
+	 *
+	 * @throws IOException if the executable cannot be deleted
+	 */
+	@TearDown
+	public void tearDown() throws IOException
+	{
+		client.close();
+		executable.close();
+	}
+
+	/**
+	 * @param index the index of a resource
+	 * @return a unique, 64-character hexadecimal ID whose prefixes are also unique
+	 */
+	private static String getId(int index)
+	{
+		// Fibonacci hashing spreads consecutive indexes across the most significant bits
+		long value = (index + 1) * 0x9E3779B97F4A7C15L;
+		HexFormat hex = HexFormat.of();
+		return hex.toHexDigits(value) + hex.toHexDigits(Long.reverse(value)) + hex.toHexDigits(~value) +
+			hex.toHexDigits(Long.reverseBytes(value));
+	}
+
+	/**
+	 * @return the output of {@code container inspect} for a single container
+	 */
+	private static String getContainerInspect()
+	{
+		return """
+			[{"Id":"%s","Created":"2025-06-01T10:00:00.000000000Z","Path":"/docker-entrypoint.sh",\
+			"Args":["nginx","-g","daemon off;"],"State":{"Status":"running","Running":true,"Paused":false,\
+			"Restarting":false,"OOMKilled":false,"Dead":false,"Pid":4242,"ExitCode":0,"Error":"",\
+			"StartedAt":"2025-06-01T10:00:01.000000000Z","FinishedAt":"0001-01-01T00:00:00Z"},\
+			"Image":"sha256:%s","Name":"/frontend","RestartCount":0,"Driver":"overlay2",\
+			"HostConfig":{"NetworkMode":"bridge","PortBindings":{"80/tcp":[{"HostIp":"","HostPort":"8080"}],\
+			"443/tcp":[{"HostIp":"127.0.0.1","HostPort":"8443"}]},"RestartPolicy":{"Name":"no",\
+			"MaximumRetryCount":0},"AutoRemove":false,"Memory":0,"NanoCpus":0},\
+			"Mounts":[{"Type":"volume","Name":"data","Source":"/var/lib/docker/volumes/data/_data",\
+			"Destination":"/data","Driver":"local","Mode":"z","RW":true,"Propagation":""}],\
+			"Config":{"Hostname":"frontend","User":"","Env":["PATH=/usr/local/sbin:/usr/local/bin:/usr/bin",\
+			"NGINX_VERSION=1.27.0"],"Cmd":["nginx","-g","daemon off;"],"Image":"nginx:1.27",\
+			"Labels":{"com.example.team":"web","com.example.tier":"frontend"}},\
+			"NetworkSettings":{"Ports":{"80/tcp":[{"HostIp":"0.0.0.0","HostPort":"8080"},\
+			{"HostIp":"::","HostPort":"8080"}],"443/tcp":[{"HostIp":"127.0.0.1","HostPort":"8443"}]},\
+			"Networks":{"bridge":{"IPAddress":"172.17.0.2","Gateway":"172.17.0.1","MacAddress":\
+			"02:42:ac:11:00:02"}}}}]""".formatted(getId(1), getId(2));
+	}
+
+	/**
+	 * @return the output of {@code image inspect} for a single image
+	 */
+	private static String getImageInspect()
+	{
+		return """
+			[{"Id":"sha256:%1$s","RepoTags":["nginx:1.27","nginx:latest",\
+			"registry.example.com:5000/web/nginx:1.27","registry.example.com:5000/web/nginx:stable"],\
+			"RepoDigests":["nginx@sha256:%2$s","registry.example.com:5000/web/nginx@sha256:%2$s"],\
+			"Created":"2025-06-01T10:00:00.000000000Z","Size":187694648}]""".formatted(getId(3), getId(4));
+	}
+
+	/**
+	 * @param lines the number of containers
+	 * @return the output of {@code container ls --format json}
+	 */
+	private static byte[] getContainerList(int lines)
+	{
+		StringBuilder output = new StringBuilder();
+		for (int i = 0; i < lines; ++i)
+		{
+			output.append("""
+				{"Command":"\\"/docker-entrypoint.…\\"","CreatedAt":"2025-06-01 10:00:00 +0000 UTC",\
+				"ID":"%s","Image":"nginx:1.27","Labels":"com.example.team=web","LocalVolumes":"1",\
+				"Mounts":"data","Names":"frontend-%d","Networks":"bridge","Ports":"0.0.0.0:8080->80/tcp",\
+				"RunningFor":"2 hours ago","Size":"0B","State":"running","Status":"Up 2 hours"}
+				""".formatted(getId(i).substring(0, 12), i));
+		}
+		return output.toString().getBytes(UTF_8);
+	}
+
+	/**
+	 * @param lines the number of references
+	 * @return the output of {@code image ls --format json}, listing two references per image
+	 */
+	private static byte[] getImageList(int lines)
+	{
+		StringBuilder output = new StringBuilder();
+		for (int i = 0; i < lines; ++i)
+		{
+			int image = i / 2;
+			String tag;
+			if (i % 2 == 0)
+				tag = "latest";
+			else
+				tag = "1." + image;
+			output.append("""
+				{"Containers":"N/A","CreatedAt":"2025-06-01 10:00:00 +0000 UTC","CreatedSince":"2 weeks ago",\
+				"Digest":"<none>","ID":"%s","Repository":"example/app-%d","SharedSize":"N/A","Size":"187MB",\
+				"Tag":"%s","UniqueSize":"N/A","VirtualSize":"187.1MB"}
+				""".formatted(getId(image).substring(0, 12), image, tag));
+		}
+		return output.toString().getBytes(UTF_8);
+	}
+
+	/**
+	 * @param lines the number of tasks
+	 * @return the output of {@code node ps --format json}
+	 */
+	private static byte[] getTaskList(int lines)
+	{
+		StringBuilder output = new StringBuilder();
+		for (int i = 0; i < lines; ++i)
+		{
+			output.append("""
+				{"CurrentState":"Running 2 hours ago","DesiredState":"Running","Error":"","ID":"%s",\
+				"Image":"nginx:1.27","Name":"frontend.%d","Node":"worker-1","Ports":""}
+				""".formatted(getId(i).substring(0, 25), i + 1));
+		}
+		return output.toString().getBytes(UTF_8);
+	}
+
+	/**
+	 * Parses the output of {@code container inspect}.
+	 *
+	 * @return the container
+	 */
+	@Benchmark
+	public Container getContainer()
+	{
+		return containerParser.get(containerInspect);
+	}
+
+	/**
+	 * Parses the output of {@code image inspect}.
+	 *
+	 * @return the image
+	 */
+	@Benchmark
+	public Image getImage()
+	{
+		return imageParser.get(imageInspect);
+	}
+
+	/**
+	 * Parses the output of {@code container ls}.
+	 *
+	 * @param blackhole consumes the containers
+	 * @throws IOException if the output cannot be parsed
+	 */
+	@Benchmark
+	public void listContainers(Blackhole blackhole) throws IOException
+	{
+		containerParser.list(new ByteArrayInputStream(containerList), blackhole::consume);
+	}
+
+	/**
+	 * Parses the output of {@code image ls}.
+	 *
+	 * @param blackhole consumes the images
+	 * @throws IOException if the output cannot be parsed
+	 */
+	@Benchmark
+	public void listImages(Blackhole blackhole) throws IOException
+	{
+		imageParser.list(new ByteArrayInputStream(imageList), blackhole::consume);
+	}
+
+	/**
+	 * Parses the output of {@code node ps}.
+	 *
+	 * @param blackhole consumes the tasks
+	 * @throws IOException if the output cannot be parsed
+	 */
+	@Benchmark
+	public void listTasksByNode(Blackhole blackhole) throws IOException
+	{
+		nodeParser.listTasks(new ByteArrayInputStream(taskList), blackhole::consume);
+	}
+}
@@ -0,0 +1,92 @@
+package com.github.cowwoc.anchor4j.benchmarks;
+
+import com.github.cowwoc.anchor4j.core.internal.client.CommandResult;
+import com.github.cowwoc.anchor4j.docker.client.Docker;
+import com.github.cowwoc.anchor4j.docker.internal.client.InternalDocker;
+import com.github.cowwoc.anchor4j.testsupport.FakeExecutable;
+import com.github.cowwoc.anchor4j.testsupport.Reply;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the overhead of running a command, using a shell script in place of the {@code docker}
+ * executable. Compares forking a new process per command against running commands in pooled processes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProcessRunnerBenchmark
+{
+	private static final List<String> ARGUMENTS = List.of("container", "ls", "--format", "json");
+	/**
+	 * The number of pooled processes, or {@code 0} to fork a new process for each command.
+	 */
+	@Param({"0", "4"})
+	public int processPoolSize;
+	private FakeExecutable executable;
+	private InternalDocker client;
+
+	/**
+	 * Creates a client.
+	 *
+	 * @throws IOException if the executable cannot be created
+	 */
+	@Setup
+	public void setup() throws IOException
+	{
+		StringBuilder stdout = new StringBuilder();
+		for (int i = 0; i < 10; ++i)
+		{
+			stdout.append("""
+				{"ID":"%012x","Image":"nginx:1.27","Names":"frontend-%d","State":"running","Status":"Up 2 hours"}
+				""".formatted(i, i));
+		}
+		executable = FakeExecutable.docker().
+			on("container ls *", new Reply().stdout(stdout.toString())).
+			build();
+		client = (InternalDocker) Docker.connect(executable.getPath()).
+			setProcessPoolSize(processPoolSize);
+	}
+
+	/**
+	 * Releases the client.
+	 *
+	 * @throws IOException if the executable cannot be deleted
+	 */
+	@TearDown
+	public void tearDown() throws IOException
+	{
+		client.close();
+		executable.close();
+	}
+
+	/**
+	 * Runs a command and captures its output.
+	 *
+	 * @return the result of the command
+	 * @throws IOException          if the command cannot be run
+	 * @throws InterruptedException if the thread is interrupted
+	 */
+	@Benchmark
+	public CommandResult run() throws IOException, InterruptedException
+	{
+		return client.run(ARGUMENTS);
+	}
+}
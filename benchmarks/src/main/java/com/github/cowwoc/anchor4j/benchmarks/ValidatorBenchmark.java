@@ -0,0 +1,130 @@
+package com.github.cowwoc.anchor4j.benchmarks;
+
+import com.github.cowwoc.anchor4j.core.internal.client.ImageReferenceValidator;
+import com.github.cowwoc.anchor4j.core.resource.ImageReference;
+import com.github.cowwoc.anchor4j.docker.client.Docker;
+import com.github.cowwoc.anchor4j.docker.internal.client.InternalDocker;
+import com.github.cowwoc.anchor4j.testsupport.FakeExecutable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the validation of names and references, which runs before every command.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidatorBenchmark
+{
+	private static final String CONTAINER_ID = "4f66ad9a0b2e5c3a1c1a1b4e4c9d0c1f5e1f0a2b3c4d5e6f7a8b9c0d1e2f3a4b";
+	private static final String CONTAINER_NAME = "frontend_web.1-canary";
+	private FakeExecutable executable;
+	private InternalDocker client;
+
+	/**
+	 * Creates a client.
+	 *
+	 * @throws IOException if the executable cannot be created
+	 */
+	@Setup
+	public void setup() throws IOException
+	{
+		executable = FakeExecutable.docker().build();
+		client = (InternalDocker) Docker.connect(executable.getPath());
+	}
+
+	/**
+	 * Releases the client.
+	 *
+	 * @throws IOException if the executable cannot be deleted
+	 */
+	@TearDown
+	public void tearDown() throws IOException
+	{
+		client.close();
+		executable.close();
+	}
+
+	/**
+	 * Validates an image reference.
+	 *
+	 * @param references the reference to validate
+	 */
+	@Benchmark
+	public void validateImageReference(References references)
+	{
+		ImageReferenceValidator.validate(references.reference, "reference");
+	}
+
+	/**
+	 * Parses an image reference.
+	 *
+	 * @param references the reference to parse
+	 * @return the parsed reference
+	 */
+	@Benchmark
+	public ImageReference parseImageReference(References references)
+	{
+		return ImageReference.parse(references.reference);
+	}
+
+	/**
+	 * Validates a container name.
+	 */
+	@Benchmark
+	public void validateName()
+	{
+		client.validateName(CONTAINER_NAME, "name");
+	}
+
+	/**
+	 * Validates a container ID.
+	 */
+	@Benchmark
+	public void validateContainerId()
+	{
+		client.validateContainerIdOrName(CONTAINER_ID, "id");
+	}
+
+	/**
+	 * Validates a container name using the method that also accepts IDs.
+	 */
+	@Benchmark
+	public void validateContainerName()
+	{
+		client.validateContainerIdOrName(CONTAINER_NAME, "id");
+	}
+
+	/**
+	 * The image references to validate.
+	 */
+	@State(Scope.Benchmark)
+	public static class References
+	{
+		/**
+		 * The reference.
+		 */
+		@Param({
+			"nginx",
+			"registry.example.com:5000/team/frontend:1.2.3",
+			"ghcr.io/cowwoc/anchor4j@sha256:9b2a1e6f0c4d3b8a7e5f1c2d3e4f5a6b7c8d9e0f1a2b3c4d5e6f7a8b9c0d1e2f"
+		})
+		public String reference;
+	}
+}
@@ -2,6 +2,7 @@
 
 import com.github.cowwoc.anchor4j.buildx.internal.client.DefaultBuildX;
 import com.github.cowwoc.anchor4j.core.client.Client;
+import com.github.cowwoc.anchor4j.core.metrics.CommandMetrics;
 
 import java.io.IOException;
 import java.nio.file.Path;
@@ -37,4 +38,10 @@ static BuildX connect(Path executable) throws IOException
 	{
 		return new DefaultBuildX(executable);
 	}
-}
\ No newline at end of file
+
+	@Override
+	BuildX setProcessPoolSize(int size);
+
+	@Override
+	BuildX setCommandMetrics(CommandMetrics metrics);
+}
@@ -1,13 +1,18 @@
 package com.github.cowwoc.anchor4j.buildx.internal.client;
 
+import com.github.cowwoc.anchor4j.buildx.client.BuildX;
+import com.github.cowwoc.anchor4j.core.client.AsyncClient;
 import com.github.cowwoc.anchor4j.core.internal.client.AbstractInternalClient;
+import com.github.cowwoc.anchor4j.core.internal.client.DefaultAsyncClient;
 import com.github.cowwoc.anchor4j.core.internal.util.Paths;
+import com.github.cowwoc.anchor4j.core.metrics.CommandMetrics;
 import com.github.cowwoc.pouch.core.ConcurrentLazyReference;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -44,6 +49,8 @@ private static Path getExecutableFromPath() throws IOException
 	}
 
 	private final boolean executableIsBuildX;
+	@SuppressWarnings("this-escape")
+	private final AsyncClient async = new DefaultAsyncClient(this);
 
 	/**
 	 * Creates a client that uses the {@code buildx} executable located in the {@code PATH} environment
@@ -84,4 +91,34 @@ public ProcessBuilder getProcessBuilder(List<String> arguments)
 		command.addAll(arguments);
 		return new ProcessBuilder(command);
 	}
+
+	@Override
+	public boolean imageExists(String id, Collection<String> references)
+		throws IOException, InterruptedException
+	{
+		// The standalone buildx executable cannot access the local image store
+		if (executableIsBuildX)
+			return false;
+		return super.imageExists(id, references);
+	}
+
+	@Override
+	public BuildX setProcessPoolSize(int size)
+	{
+		super.setProcessPoolSize(size);
+		return this;
+	}
+
+	@Override
+	public BuildX setCommandMetrics(CommandMetrics metrics)
+	{
+		super.setCommandMetrics(metrics);
+		return this;
+	}
+
+	@Override
+	public AsyncClient async()
+	{
+		return async;
+	}
 }
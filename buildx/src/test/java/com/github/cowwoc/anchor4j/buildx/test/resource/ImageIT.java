@@ -5,10 +5,19 @@
 import com.github.cowwoc.anchor4j.buildx.client.BuildX;
 import com.github.cowwoc.anchor4j.buildx.internal.client.InternalBuildX;
 import com.github.cowwoc.anchor4j.core.internal.util.Paths;
+import com.github.cowwoc.anchor4j.core.resource.BuildReport;
+import com.github.cowwoc.anchor4j.core.resource.BuildReport.Step;
+import com.github.cowwoc.anchor4j.core.resource.BuildScheduler;
+import com.github.cowwoc.anchor4j.core.resource.BuildScheduler.Job;
 import com.github.cowwoc.anchor4j.core.resource.BuilderCreator.Driver;
 import com.github.cowwoc.anchor4j.core.resource.DefaultBuildListener;
 import com.github.cowwoc.anchor4j.core.resource.ImageBuilder;
+import com.github.cowwoc.anchor4j.core.resource.ImageBuilder.CacheBackend;
+import com.github.cowwoc.anchor4j.core.resource.ImageBuilder.CacheMode;
+import com.github.cowwoc.anchor4j.core.resource.ImageBuilder.CompressionType;
 import com.github.cowwoc.anchor4j.core.resource.ImageBuilder.Exporter;
+import com.github.cowwoc.anchor4j.core.resource.RawJsonBuildListener;
+import com.github.cowwoc.anchor4j.core.resource.TarSource;
 import com.github.cowwoc.anchor4j.core.test.TestBuildListener;
 import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
 import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
@@ -25,10 +34,12 @@
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import static com.github.cowwoc.requirements11.java.DefaultJavaValidators.requireThat;
+import static java.nio.charset.StandardCharsets.UTF_8;
 
 public final class ImageIT
 {
@@ -211,6 +222,164 @@ public void onStderrLine(String line)
 		Files.delete(tempFile);
 	}
 
+	@Test
+	public void buildWithLocalCache() throws IOException, InterruptedException
+	{
+		BuildX client = BuildX.connect();
+		Path buildContext = Path.of("src/test/resources");
+
+		// The docker driver does not support exporting the cache to a directory
+		String exportingBuilder = client.createBuilder().driver(Driver.dockerContainer().build()).create();
+		Path cacheDirectory = Files.createTempDirectory("");
+		client.buildImage().
+			cacheTo(CacheBackend.local(cacheDirectory.toString()).mode(CacheMode.MAX).build()).
+			builder(exportingBuilder).
+			build(buildContext);
+		requireThat(Files.exists(cacheDirectory.resolve("index.json")), "indexExists").isTrue();
+
+		// A new builder starts with an empty cache
+		String importingBuilder = client.createBuilder().driver(Driver.dockerContainer().build()).create();
+		AtomicBoolean cacheWasUsed = new AtomicBoolean(false);
+		client.buildImage().
+			cacheFrom(CacheBackend.local(cacheDirectory.toString()).build()).
+			builder(importingBuilder).
+			listener(new DefaultBuildListener()
+			{
+				@Override
+				public void onStderrLine(String line)
+				{
+					super.onStderrLine(line);
+					if (line.endsWith("CACHED"))
+						cacheWasUsed.set(true);
+				}
+			}).
+			build(buildContext);
+		requireThat(cacheWasUsed.get(), "cacheWasUsed").isTrue();
+		Paths.deleteRecursively(cacheDirectory);
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void cacheFromInline() throws IOException
+	{
+		BuildX client = BuildX.connect();
+		client.buildImage().cacheFrom(CacheBackend.inline());
+	}
+
+	@Test
+	public void buildWithGeneratedContext() throws IOException, InterruptedException
+	{
+		BuildX client = BuildX.connect();
+
+		Path tempFile = Files.createTempFile("", ".tar");
+		String id = client.buildImage().
+			export(Exporter.ociImage(tempFile.toString()).build()).
+			build(writer ->
+			{
+				writer.addFile("Dockerfile", "FROM scratch\nCOPY hello.txt .\n".getBytes(UTF_8), false);
+				writer.addFile("hello.txt", "Hello world\n".getBytes(UTF_8), false);
+			});
+		requireThat(id, "id").isNotNull();
+
+		Set<String> entries = getTarEntries(tempFile.toFile());
+		requireThat(entries, "entries").isNotEmpty();
+		Files.delete(tempFile);
+	}
+
+	@Test
+	public void buildWithCompressedDirectoryContext() throws IOException, InterruptedException
+	{
+		BuildX client = BuildX.connect();
+		Path buildContext = Path.of("src/test/resources");
+
+		Path tempFile = Files.createTempFile("", ".tar");
+		String id = client.buildImage().
+			dockerfile(Path.of("custom/Dockerfile")).
+			contextCompression(CompressionType.GZIP).
+			export(Exporter.ociImage(tempFile.toString()).build()).
+			build(TarSource.directory(buildContext));
+		requireThat(id, "id").isNotNull();
+
+		Set<String> entries = getTarEntries(tempFile.toFile());
+		requireThat(entries, "entries").isNotEmpty();
+		Files.delete(tempFile);
+	}
+
+	@Test
+	public void buildWithRawJsonProgress() throws IOException, InterruptedException
+	{
+		BuildX client = BuildX.connect();
+		Path buildContext = Path.of("src/test/resources");
+
+		client.buildImage().build(buildContext);
+		RawJsonBuildListener listener = new RawJsonBuildListener();
+		client.buildImage().listener(listener).build(buildContext);
+		BuildReport report = listener.getReport();
+		requireThat(report.steps(), "steps").withContext(report, "report").isNotEmpty();
+		requireThat(report.getCachedStepCount(), "cachedStepCount").withContext(report, "report").
+			isPositive();
+		for (Step step : report.steps())
+		{
+			requireThat(step.completed(), "step.completed()").withContext(report, "report").isNotNull();
+			requireThat(step.error(), "step.error()").withContext(report, "report").isEmpty();
+		}
+	}
+
+	@Test
+	public void scheduleBuilds() throws IOException, InterruptedException
+	{
+		BuildX client = BuildX.connect();
+		Path buildContext = Path.of("src/test/resources");
+
+		List<Path> tempFiles = new ArrayList<>();
+		for (int i = 0; i < 3; ++i)
+			tempFiles.add(Files.createTempFile("", ".tar"));
+		try
+		{
+			BuildScheduler scheduler = client.scheduleBuilds();
+			Job first = scheduler.add("first", client.buildImage().
+				export(Exporter.ociImage(tempFiles.get(0).toString()).build()), buildContext);
+			Job second = scheduler.add("second", client.buildImage().
+				dockerfile(buildContext.resolve("custom/Dockerfile")).
+				export(Exporter.ociImage(tempFiles.get(1).toString()).build()), buildContext);
+			scheduler.add("third", client.buildImage().
+				export(Exporter.ociImage(tempFiles.get(2).toString()).build()), buildContext, first, second);
+			Map<String, String> nameToImageId = scheduler.run();
+			requireThat(nameToImageId.keySet(), "nameToImageId.keySet()").
+				isEqualTo(Set.of("first", "second", "third"));
+			for (String imageId : nameToImageId.values())
+				requireThat(imageId, "imageId").withContext(nameToImageId, "nameToImageId").isNotNull();
+		}
+		finally
+		{
+			for (Path tempFile : tempFiles)
+				Files.delete(tempFile);
+		}
+	}
+
+	@Test
+	public void scheduleBuildsSkipsDependentsOfFailedJobs() throws IOException, InterruptedException
+	{
+		BuildX client = BuildX.connect();
+		Path buildContext = Path.of("src/test/resources");
+
+		BuildScheduler scheduler = client.scheduleBuilds();
+		Job missing = scheduler.add("missing", client.buildImage().
+			dockerfile(buildContext.resolve("missing/Dockerfile")), buildContext);
+		TestBuildListener listener = new TestBuildListener();
+		scheduler.add("dependent", client.buildImage().listener(listener), buildContext, missing);
+		try
+		{
+			scheduler.run();
+		}
+		catch (IOException e)
+		{
+			requireThat(e.getMessage(), "e.getMessage()").contains("dependent");
+			requireThat(listener.buildStarted.get(), "buildStarted").isFalse();
+			return;
+		}
+		throw new AssertionError("Expected the scheduler to fail");
+	}
+
 	@Test(expectedExceptions = FileNotFoundException.class)
 	public void buildWithDockerfileOutsideOfContextPath() throws IOException, InterruptedException
 	{
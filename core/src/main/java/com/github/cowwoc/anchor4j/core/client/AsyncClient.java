@@ -0,0 +1,133 @@
+package com.github.cowwoc.anchor4j.core.client;
+
+import com.github.cowwoc.anchor4j.core.resource.Builder;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * An asynchronous view of a {@link Client}.
+ * <p>
+ * Each operation runs on its own virtual thread. The number of operations that may run concurrently is
+ * limited per client, and therefore per Docker Engine; operations that exceed this limit wait for a permit.
+ * To provide backpressure, the number of waiting operations is limited as well. Once it is reached, new
+ * operations are rejected until existing operations complete.
+ * <p>
+ * Cancelling a returned future using {@code cancel(true)} interrupts the operation, which terminates any
+ * process that it is waiting on. Commands that run in a pooled helper process (see
+ * {@link Client#setProcessPoolSize(int)}) are terminated along with the helper process. Commands that may block
+ * indefinitely, such as waiting for a container to stop, are never pooled.
+ * <p>
+ * <b>Thread Safety</b>: This class is thread-safe.
+ */
+public interface AsyncClient
+{
+	/**
+	 * Sets the maximum number of operations that may run concurrently. Operations that are already running are
+	 * not affected.
+	 *
+	 * @param maximumConcurrency the maximum number of concurrent operations
+	 * @return this
+	 * @throws IllegalArgumentException if {@code maximumConcurrency} is not positive
+	 */
+	AsyncClient setMaximumConcurrency(int maximumConcurrency);
+
+	/**
+	 * Returns the maximum number of operations that may run concurrently.
+	 *
+	 * @return the maximum number of concurrent operations
+	 */
+	int getMaximumConcurrency();
+
+	/**
+	 * Sets the maximum number of operations that may wait for a permit to run. Operations that are already
+	 * waiting are not affected.
+	 *
+	 * @param maximumPending the maximum number of waiting operations
+	 * @return this
+	 * @throws IllegalArgumentException if {@code maximumPending} is negative
+	 */
+	AsyncClient setMaximumPending(int maximumPending);
+
+	/**
+	 * Returns the maximum number of operations that may wait for a permit to run.
+	 *
+	 * @return the maximum number of waiting operations
+	 */
+	int getMaximumPending();
+
+	/**
+	 * Runs an operation asynchronously. This can be used to invoke any method of the underlying client, such as
+	 * {@code async.submit(() -> client.getBuilder("name"))}.
+	 *
+	 * @param <T>       the type of value returned by the operation
+	 * @param operation the operation
+	 * @return a future that completes with the operation's result
+	 * @throws NullPointerException       if {@code operation} is null
+	 * @throws RejectedExecutionException if too many operations are waiting to run
+	 */
+	<T> CompletableFuture<T> submit(Operation<T> operation);
+
+	/**
+	 * Looks up the default builder.
+	 *
+	 * @return a future that completes with the builder, or {@code null} if no match is found
+	 * @throws RejectedExecutionException if too many operations are waiting to run
+	 * @see Client#getBuilder()
+	 */
+	CompletableFuture<Builder> getBuilder();
+
+	/**
+	 * Looks up a builder by its name.
+	 *
+	 * @param name the name of the builder
+	 * @return a future that completes with the builder, or {@code null} if no match is found
+	 * @throws RejectedExecutionException if too many operations are waiting to run
+	 * @see Client#getBuilder(String)
+	 */
+	CompletableFuture<Builder> getBuilder(String name);
+
+	/**
+	 * Waits until the default builder is reachable and has a {@code RUNNING} state.
+	 *
+	 * @param deadline the time that the operation must complete by
+	 * @return a future that completes with the builder
+	 * @throws RejectedExecutionException if too many operations are waiting to run
+	 * @see Client#waitUntilBuilderIsReady(Instant)
+	 */
+	CompletableFuture<Builder> waitUntilBuilderIsReady(Instant deadline);
+
+	/**
+	 * Returns the platforms that images can be built for.
+	 *
+	 * @return a future that completes with the platforms
+	 * @throws RejectedExecutionException if too many operations are waiting to run
+	 * @see Client#getSupportedBuildPlatforms()
+	 */
+	CompletableFuture<Set<String>> getSupportedBuildPlatforms();
+
+	/**
+	 * A blocking operation.
+	 *
+	 * @param <T> the type of value returned by the operation
+	 */
+	@FunctionalInterface
+	interface Operation<T>
+	{
+		/**
+		 * Runs the operation.
+		 *
+		 * @return the result of the operation
+		 * @throws IOException          if an I/O error occurs. These errors are typically transient, and
+		 *                              retrying the request may resolve the issue.
+		 * @throws InterruptedException if the thread is interrupted before the operation completes. This can
+		 *                              happen due to shutdown signals or the future being cancelled.
+		 * @throws TimeoutException     if a timeout occurs before the operation completes
+		 */
+		T run() throws IOException, InterruptedException, TimeoutException;
+	}
+}
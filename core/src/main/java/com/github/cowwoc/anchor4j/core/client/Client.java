@@ -1,5 +1,7 @@
 package com.github.cowwoc.anchor4j.core.client;
 
+import com.github.cowwoc.anchor4j.core.metrics.CommandMetrics;
+import com.github.cowwoc.anchor4j.core.resource.BuildScheduler;
 import com.github.cowwoc.anchor4j.core.resource.Builder;
 import com.github.cowwoc.anchor4j.core.resource.BuilderCreator;
 import com.github.cowwoc.anchor4j.core.resource.ImageBuilder;
@@ -13,7 +15,7 @@
 /**
  * Code common to all clients.
  */
-public interface Client
+public interface Client extends AutoCloseable
 {
 	/**
 	 * Looks up the default builder.
@@ -80,4 +82,65 @@ Builder waitUntilBuilderIsReady(Instant deadline)
 	 */
 	@CheckReturnValue
 	ImageBuilder buildImage();
-}
\ No newline at end of file
+
+	/**
+	 * Builds multiple images concurrently, respecting the dependencies between them.
+	 *
+	 * @return a build scheduler
+	 */
+	@CheckReturnValue
+	BuildScheduler scheduleBuilds();
+
+	/**
+	 * Reuses long-lived helper shells to launch short-lived commands, instead of forking the JVM for each
+	 * command. Helper shells are started in the background, retained between commands and restarted
+	 * whenever the client's configuration changes. Only {@code inspect} and {@code ls} commands are pooled;
+	 * commands that read from {@code stdin} or that may block indefinitely, such as {@code container wait},
+	 * always run in a new process. This setting is ignored on Windows.
+	 * <p>
+	 * The helper shells still start a new executable for every command, so this only saves the cost of
+	 * spawning a process from the JVM. The executable continues to read its configuration, resolve the
+	 * client's context and connect to the server on every command.
+	 * <p>
+	 * The pool serves the client's current context. Changing the context closes the pooled shells, and new
+	 * shells are started on demand.
+	 *
+	 * @param size the maximum number of idle helper processes to retain, or {@code 0} to start a new process
+	 *             for each command
+	 * @return this
+	 * @throws IllegalArgumentException if {@code size} is negative
+	 */
+	Client setProcessPoolSize(int size);
+
+	/**
+	 * Reports the latency and outcome of every command that the client runs. By default, metrics are
+	 * disabled.
+	 * <p>
+	 * Commands that return their raw output streams to the caller, such as {@code container logs} and
+	 * {@code container start --attach}, are not reported, whether or not they follow the output. Their duration
+	 * measures how long the caller consumed the streams, not how long the command took. Such commands are
+	 * recorded as {@code com.github.cowwoc.anchor4j.Stream} JDK Flight Recorder events instead. Streams of
+	 * parsed elements, such as the output of {@code image ls}, are reported once they are exhausted or closed.
+	 *
+	 * @param metrics the metrics to report to, or {@link CommandMetrics#DISABLED} to disable metrics
+	 * @return this
+	 * @throws NullPointerException if {@code metrics} is null
+	 * @see com.github.cowwoc.anchor4j.core.metrics.InMemoryCommandMetrics
+	 */
+	Client setCommandMetrics(CommandMetrics metrics);
+
+	/**
+	 * Returns an asynchronous view of this client. All invocations return the same view, so its limits are
+	 * shared by all callers.
+	 *
+	 * @return the asynchronous view
+	 */
+	AsyncClient async();
+
+	/**
+	 * Releases any resources held by the client, such as idle connections. Subsequent requests reacquire
+	 * resources as needed.
+	 */
+	@Override
+	void close();
+}
@@ -0,0 +1,43 @@
+package com.github.cowwoc.anchor4j.core.internal.client;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * The fields that are common to all JDK Flight Recorder events that describe a command.
+ * <p>
+ * <b>Thread Safety</b>: This class is not thread-safe.
+ */
+@Category("Anchor4J")
+@StackTrace(false)
+abstract class AbstractCommandEvent extends Event
+{
+	@Label("Command")
+	@Description("The command line, including the executable")
+	String command;
+	@Label("Verb")
+	@Description("The command, without its arguments (e.g. \"container inspect\")")
+	String verb;
+	@Label("Context")
+	@Description("The Docker context or host that the command ran against, or an empty string for the " +
+		"default context")
+	String context;
+	@Label("Bytes Read")
+	@Description("The number of bytes that the command wrote to its stdout and stderr streams")
+	@DataAmount(DataAmount.BYTES)
+	long bytesRead;
+	@Label("Exit Code")
+	@Description("The exit code of the last process, -1 if the command threw an exception, or -2 if the " +
+		"caller stopped reading its output before the process exited")
+	int exitCode;
+	@Label("Retry Attempt")
+	@Description("The number of times that the command was retried")
+	int retryAttempt;
+	@Label("Error")
+	@Description("The class name of the exception that the command threw")
+	String error;
+}
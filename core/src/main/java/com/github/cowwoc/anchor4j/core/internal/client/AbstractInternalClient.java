@@ -1,9 +1,13 @@
 package com.github.cowwoc.anchor4j.core.internal.client;
 
 import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.github.cowwoc.anchor4j.core.client.Client;
 import com.github.cowwoc.anchor4j.core.internal.resource.BuildXParser;
+import com.github.cowwoc.anchor4j.core.internal.resource.JsonElementReader;
 import com.github.cowwoc.anchor4j.core.internal.resource.SharedSecrets;
 import com.github.cowwoc.anchor4j.core.internal.util.Exceptions;
+import com.github.cowwoc.anchor4j.core.metrics.CommandMetrics;
+import com.github.cowwoc.anchor4j.core.resource.BuildScheduler;
 import com.github.cowwoc.anchor4j.core.resource.Builder;
 import com.github.cowwoc.anchor4j.core.resource.Builder.Status;
 import com.github.cowwoc.anchor4j.core.resource.BuilderCreator;
@@ -13,21 +17,29 @@
 
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.nio.channels.Channels;
 import java.nio.channels.WritableByteChannel;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.StringJoiner;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import static com.github.cowwoc.anchor4j.core.internal.resource.AbstractParser.CONNECTION_RESET;
 import static com.github.cowwoc.requirements11.java.DefaultJavaValidators.requireThat;
@@ -44,6 +56,14 @@ public abstract class AbstractInternalClient implements InternalClient
 	private final static Pattern ID_VALIDATOR = Pattern.compile("[a-f0-9]{64}");
 	// Based on https://github.com/moby/moby/blob/13879e7b496d14fb0724719c49c858731c9e7f60/daemon/names/names.go#L6
 	private final static Pattern NAME_VALIDATOR = Pattern.compile("[a-zA-Z0-9][a-zA-Z0-9_.-]+");
+	/**
+	 * The maximum amount of time to wait between polling attempts.
+	 */
+	private final static Duration MAXIMUM_POLLING_DELAY = Duration.ofSeconds(2);
+	/**
+	 * The subcommands that may run in a pooled helper process.
+	 */
+	private final static Set<String> POOLED_SUBCOMMANDS = Set.of("inspect", "ls");
 	/**
 	 * The path of the command-line executable.
 	 */
@@ -56,6 +76,16 @@ public abstract class AbstractInternalClient implements InternalClient
 		".stdout");
 	private final Logger stderrLog = LoggerFactory.getLogger(AbstractInternalClient.class.getName() +
 		".stderr");
+	private final Object processPoolLock = new Object();
+	/**
+	 * The maximum number of idle helper processes to retain, or {@code 0} to disable pooling.
+	 */
+	private int processPoolSize;
+	/**
+	 * The pool of helper processes, or {@code null} if the pool has not been created or pooling is disabled.
+	 */
+	private volatile ProcessPool processPool;
+	private volatile CommandMetrics commandMetrics = CommandMetrics.DISABLED;
 
 	/**
 	 * Creates a new instance.
@@ -84,69 +114,235 @@ public CommandResult run(List<String> arguments) throws IOException, Interrupted
 		return run(arguments, EMPTY_BYTE_BUFFER);
 	}
 
-	@SuppressWarnings("BusyWait")
 	@Override
 	public CommandResult run(List<String> arguments, ByteBuffer stdin) throws IOException, InterruptedException
 	{
+		return run(arguments, stdin, null);
+	}
+
+	@Override
+	public CommandResult run(List<String> arguments, OutputConsumer stdout)
+		throws IOException, InterruptedException
+	{
+		assert that(stdout, "stdout").isNotNull().elseThrow();
+		return run(arguments, EMPTY_BYTE_BUFFER, stdout);
+	}
+
+	@Override
+	public <E> Stream<E> stream(List<String> arguments, JsonElementReader<E> reader,
+		Consumer<CommandResult> validator) throws IOException
+	{
+		assert that(reader, "reader").isNotNull().elseThrow();
+		assert that(validator, "validator").isNotNull().elseThrow();
 		ProcessBuilder processBuilder = getProcessBuilder(arguments);
+		log.debug("Streaming: {}", processBuilder.command());
+		CommandRecorder recorder = new CommandRecorder(commandMetrics, arguments);
+		JsonLineIterator<E> iterator = new JsonLineIterator<>(processBuilder, jsonMapper, reader, validator,
+			recorder);
+		Spliterator<E> spliterator = Spliterators.spliteratorUnknownSize(iterator,
+			Spliterator.ORDERED | Spliterator.NONNULL);
+		return StreamSupport.stream(spliterator, false).onClose(iterator::close);
+	}
+
+	/**
+	 * Runs a command and returns its output.
+	 *
+	 * @param arguments      the command-line arguments to pass to the executable
+	 * @param stdin          the bytes to pass into the command's stdin stream
+	 * @param stdoutConsumer consumes the command's stdout stream, or {@code null} to capture it in the
+	 *                       returned result
+	 * @return the output of the command
+	 * @throws IOException          if an I/O error occurs. These errors are typically transient, and retrying
+	 *                              the request may resolve the issue.
+	 * @throws InterruptedException if the thread is interrupted before the operation completes. This can happen
+	 *                              due to shutdown signals.
+	 */
+	@SuppressWarnings("BusyWait")
+	private CommandResult run(List<String> arguments, ByteBuffer stdin, OutputConsumer stdoutConsumer)
+		throws IOException, InterruptedException
+	{
+		ProcessBuilder processBuilder = getProcessBuilder(arguments);
+		CommandRecorder recorder = new CommandRecorder(commandMetrics, arguments);
 		Instant deadline = Instant.now().plusSeconds(10);
-		while (true)
+		try
 		{
-			log.debug("Running: {}", processBuilder.command());
-			Process process = processBuilder.start();
-			StringJoiner stdoutJoiner = new StringJoiner("\n");
-			StringJoiner stderrJoiner = new StringJoiner("\n");
-			BlockingQueue<Throwable> exceptions = new LinkedBlockingQueue<>();
-
-			writeIntoStdin(stdin, process, exceptions);
-			Thread parentThread = Thread.currentThread();
-			try (BufferedReader stdoutReader = process.inputReader();
-			     BufferedReader stderrReader = process.errorReader())
+			while (true)
 			{
-				Thread stdoutThread = Thread.startVirtualThread(() ->
+				CommandResult result = null;
+				ProcessPool pool = getProcessPool();
+				if (pool != null && !stdin.hasRemaining() && isPoolable(arguments))
 				{
-					stdoutLog.info("Spawned by thread \"{}\"", parentThread.getName());
-					Processes.consume(stdoutReader, exceptions, line ->
+					log.debug("Running using a pooled process: {}", processBuilder.command());
+					result = pool.run(processBuilder.command());
+					if (result != null)
 					{
-						stdoutJoiner.add(line);
-						stdoutLog.info(line);
-					});
-				});
-				Thread stderrThread = Thread.startVirtualThread(() ->
-				{
-					stderrLog.info("Spawned by thread \"{}\"", parentThread.getName());
-					Processes.consume(stderrReader, exceptions, line ->
-					{
-						stderrJoiner.add(line);
-						stderrLog.info(line);
-					});
-				});
-
-				// We have to invoke Thread.join() to ensure that all the data is read. Blocking on Process.waitFor()
-				// does not guarantee this.
-				stdoutThread.join();
-				stderrThread.join();
-				int exitCode = process.waitFor();
-				IOException exception = Exceptions.combineAsIOException(exceptions);
-				if (exception != null)
-					throw exception;
-				String stdout = stdoutJoiner.toString();
-				String stderr = stderrJoiner.toString();
-
-				Path workingDirectory = Processes.getWorkingDirectory(processBuilder);
-				CommandResult result = new CommandResult(processBuilder.command(), workingDirectory, stdout, stderr,
-					exitCode);
+						recorder.ranInPool(result);
+						if (stdoutConsumer != null && !shouldRetry(result))
+							stdoutConsumer.accept(result.stdoutAsStream());
+					}
+				}
+				if (result == null)
+					result = runInNewProcess(processBuilder, stdin, stdoutConsumer, recorder);
 				if (shouldRetry(result))
 				{
 					Instant now = Instant.now();
 					if (now.isAfter(deadline))
+					{
+						recorder.completed(result.exitCode());
 						throw result.unexpectedResponse();
+					}
+					recorder.retrying();
 					Thread.sleep(100);
 					continue;
 				}
+				recorder.completed(result.exitCode());
 				return result;
 			}
 		}
+		catch (IOException | InterruptedException | RuntimeException e)
+		{
+			recorder.failed(e);
+			throw e;
+		}
+	}
+
+	/**
+	 * Indicates if a command may run in a pooled helper process. Only short, read-only commands are pooled;
+	 * commands that may block indefinitely, such as {@code container wait}, {@code logs} or {@code events},
+	 * would tie up a helper process.
+	 *
+	 * @param arguments the command-line arguments to pass to the executable
+	 * @return {@code true} if the command may run in a pooled helper process
+	 */
+	private static boolean isPoolable(List<String> arguments)
+	{
+		String verb = CommandRecorder.getVerb(arguments);
+		return POOLED_SUBCOMMANDS.contains(verb.substring(verb.lastIndexOf(' ') + 1));
+	}
+
+	/**
+	 * Runs a command in a new process.
+	 *
+	 * @param processBuilder the process builder
+	 * @param stdin          the bytes to pass into the command's stdin stream
+	 * @param stdoutConsumer consumes the command's stdout stream, or {@code null} to capture it in the
+	 *                       returned result
+	 * @param recorder       measures the command
+	 * @return the result of running the command
+	 * @throws IOException          if an I/O error occurs. These errors are typically transient, and retrying
+	 *                              the request may resolve the issue.
+	 * @throws InterruptedException if the thread is interrupted before the operation completes. This can happen
+	 *                              due to shutdown signals.
+	 */
+	private CommandResult runInNewProcess(ProcessBuilder processBuilder, ByteBuffer stdin,
+		OutputConsumer stdoutConsumer, CommandRecorder recorder) throws IOException, InterruptedException
+	{
+		log.debug("Running: {}", processBuilder.command());
+		Process process = recorder.start(processBuilder);
+		StringJoiner stderrJoiner = new StringJoiner("\n");
+		BlockingQueue<Throwable> exceptions = new LinkedBlockingQueue<>();
+
+		writeIntoStdin(stdin, process, exceptions);
+		Thread parentThread = Thread.currentThread();
+		OutputBuffer stdoutBuffer = OutputBuffer.acquire();
+		// The buffer may only be recycled once stdoutThread stops writing into it
+		boolean recycleBuffer = false;
+		try (InputStream stdoutStream = recorder.track(process.getInputStream());
+		     BufferedReader stderrReader = recorder.trackReader(process.getErrorStream()))
+		{
+			// stdout may be large, so it is captured as raw bytes and only decoded if needed
+			Thread stdoutThread = Thread.startVirtualThread(() ->
+			{
+				try
+				{
+					if (stdoutConsumer == null)
+						stdoutBuffer.readFrom(stdoutStream);
+					else
+					{
+						stdoutConsumer.accept(stdoutStream);
+						// Discard any output that the consumer did not read to prevent the process from blocking
+						stdoutStream.transferTo(OutputStream.nullOutputStream());
+					}
+				}
+				catch (IOException | RuntimeException e)
+				{
+					exceptions.add(e);
+					// Prevent the process from blocking on a full stdout pipe
+					process.destroy();
+				}
+			});
+			Thread stderrThread = Thread.startVirtualThread(() ->
+			{
+				stderrLog.info("Spawned by thread \"{}\"", parentThread.getName());
+				Processes.consume(stderrReader, exceptions, line ->
+				{
+					stderrJoiner.add(line);
+					stderrLog.info(line);
+				});
+			});
+
+			// We have to invoke Thread.join() to ensure that all the data is read. Blocking on Process.waitFor()
+			// does not guarantee this.
+			int exitCode;
+			try
+			{
+				stdoutThread.join();
+				recycleBuffer = true;
+				stderrThread.join();
+				exitCode = process.waitFor();
+			}
+			catch (InterruptedException e)
+			{
+				// Terminate the process instead of leaving it running without an owner. If stdoutThread is still
+				// writing into the buffer, the buffer is discarded instead of being recycled.
+				process.destroyForcibly();
+				throw e;
+			}
+			IOException exception = Exceptions.combineAsIOException(exceptions);
+			if (exception != null)
+				throw exception;
+			String stderr = stderrJoiner.toString();
+
+			Path workingDirectory = Processes.getWorkingDirectory(processBuilder);
+			CommandResult result = new CommandResult(processBuilder.command(), workingDirectory,
+				stdoutBuffer.toByteArray(), stderr, exitCode);
+			logStdout(result, parentThread);
+			return result;
+		}
+		finally
+		{
+			if (recycleBuffer)
+				stdoutBuffer.close();
+		}
+	}
+
+	/**
+	 * Logs the standard output stream of a command, one line at a time. Logging is opt-in because it requires
+	 * decoding the entire output.
+	 *
+	 * @param result       the result of executing the command
+	 * @param parentThread the thread that executed the command
+	 */
+	private void logStdout(CommandResult result, Thread parentThread)
+	{
+		if (!stdoutLog.isDebugEnabled())
+			return;
+		stdoutLog.debug("Spawned by thread \"{}\"", parentThread.getName());
+		String stdout = result.stdout();
+		if (stdout.isEmpty())
+			return;
+		int start = 0;
+		while (true)
+		{
+			int end = stdout.indexOf('\n', start);
+			if (end == -1)
+			{
+				stdoutLog.debug(stdout.substring(start));
+				break;
+			}
+			stdoutLog.debug(stdout.substring(start, end));
+			start = end + 1;
+		}
 	}
 
 	/**
@@ -239,6 +435,25 @@ public void validateContainerIdOrName(String value, String name)
 			throw getNameException(value, name);
 	}
 
+	@Override
+	public boolean imageExists(String id, Collection<String> references)
+		throws IOException, InterruptedException
+	{
+		// https://docs.docker.com/reference/cli/docker/image/inspect/
+		List<String> arguments = new ArrayList<>(5 + references.size());
+		arguments.add("image");
+		arguments.add("inspect");
+		arguments.add("--format");
+		arguments.add("{{.Id}}");
+		arguments.add(id);
+		arguments.addAll(references);
+		CommandResult result = run(arguments);
+		if (result.exitCode() != 0)
+			return false;
+		// The command prints the ID of each image that it looked up, one per line
+		return result.stdout().lines().allMatch(id::equals);
+	}
+
 	@Override
 	public BuildXParser getBuildXParser()
 	{
@@ -281,6 +496,9 @@ public Builder getBuilder(String name) throws IOException, InterruptedException
 	public Builder waitUntilBuilderIsReady(Instant deadline)
 		throws IOException, InterruptedException, TimeoutException
 	{
+		// buildx does not report builder state changes as events, so poll with an exponential backoff to
+		// avoid forking a process every 100ms
+		Duration delay = Duration.ofMillis(100);
 		while (true)
 		{
 			Builder builder = getBuilder();
@@ -302,7 +520,11 @@ public Builder waitUntilBuilderIsReady(Instant deadline)
 						builder.getStatus());
 				}
 			}
-			Thread.sleep(100);
+			Duration remaining = Duration.between(now, deadline);
+			Thread.sleep(delay.compareTo(remaining) < 0 ? delay : remaining);
+			delay = delay.multipliedBy(2);
+			if (delay.compareTo(MAXIMUM_POLLING_DELAY) > 0)
+				delay = MAXIMUM_POLLING_DELAY;
 		}
 	}
 
@@ -320,4 +542,81 @@ public ImageBuilder buildImage()
 	{
 		return SharedSecrets.buildImage(this);
 	}
+
+	@Override
+	public BuildScheduler scheduleBuilds()
+	{
+		return SharedSecrets.scheduleBuilds(this);
+	}
+
+	/**
+	 * Returns the pool of helper processes, creating it if necessary.
+	 *
+	 * @return {@code null} if pooling is disabled
+	 */
+	private ProcessPool getProcessPool()
+	{
+		ProcessPool pool = processPool;
+		if (pool != null)
+			return pool;
+		synchronized (processPoolLock)
+		{
+			if (processPool == null && processPoolSize > 0)
+				processPool = new ProcessPool(processPoolSize);
+			return processPool;
+		}
+	}
+
+	@Override
+	public Client setProcessPoolSize(int size)
+	{
+		requireThat(size, "size").isNotNegative();
+		synchronized (processPoolLock)
+		{
+			if (Processes.isWindows())
+			{
+				log.debug("Process pooling is not supported on Windows");
+				return this;
+			}
+			this.processPoolSize = size;
+			drainProcessPool();
+		}
+		return this;
+	}
+
+	/**
+	 * Closes all pooled helper processes. This must be invoked whenever a configuration change, such as the
+	 * client's context, invalidates the processes. New processes are started on demand.
+	 */
+	protected void drainProcessPool()
+	{
+		ProcessPool pool;
+		synchronized (processPoolLock)
+		{
+			pool = processPool;
+			processPool = null;
+		}
+		if (pool != null)
+			pool.close();
+	}
+
+	@Override
+	public Client setCommandMetrics(CommandMetrics metrics)
+	{
+		requireThat(metrics, "metrics").isNotNull();
+		this.commandMetrics = metrics;
+		return this;
+	}
+
+	@Override
+	public CommandMetrics getCommandMetrics()
+	{
+		return commandMetrics;
+	}
+
+	@Override
+	public void close()
+	{
+		drainProcessPool();
+	}
 }
\ No newline at end of file
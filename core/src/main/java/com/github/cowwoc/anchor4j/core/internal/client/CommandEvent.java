@@ -0,0 +1,23 @@
+package com.github.cowwoc.anchor4j.core.internal.client;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * A JDK Flight Recorder event that describes a command that ran to completion, such as
+ * {@code container inspect} or {@code buildx build}.
+ * <p>
+ * Commands that complete faster than the event's {@code threshold} setting are not recorded. The threshold
+ * may be overridden using {@code jdk.jfr.Recording.enable(String)} or a {@code .jfc} file.
+ * <p>
+ * <b>Thread Safety</b>: This class is not thread-safe.
+ */
+@Name("com.github.cowwoc.anchor4j.Command")
+@Label("Command")
+@Description("A docker or buildx command")
+@Threshold("20 ms")
+final class CommandEvent extends AbstractCommandEvent
+{
+}
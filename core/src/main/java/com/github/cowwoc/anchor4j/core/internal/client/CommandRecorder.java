@@ -0,0 +1,339 @@
+package com.github.cowwoc.anchor4j.core.internal.client;
+
+import com.github.cowwoc.anchor4j.core.metrics.CommandMetrics;
+import com.github.cowwoc.anchor4j.core.metrics.CommandSample;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.github.cowwoc.requirements11.java.DefaultJavaValidators.that;
+
+/**
+ * Measures a single command, reports it to a {@link CommandMetrics} and emits a JDK Flight Recorder event.
+ * <p>
+ * A command may start multiple processes if it is retried. The spawn time, time to first byte and output size
+ * describe the last process.
+ * <p>
+ * <b>Thread Safety</b>: The methods that track output may be invoked by any thread. All other methods must
+ * be invoked by the thread that runs the command, or by a thread that happens-after it.
+ */
+public final class CommandRecorder
+{
+	/**
+	 * Commands that group subcommands, such as {@code container} in {@code container inspect}.
+	 */
+	private static final Set<String> MANAGEMENT_COMMANDS = Set.of("builder", "buildx", "checkpoint", "compose",
+		"config", "container", "context", "image", "imagetools", "manifest", "network", "node", "plugin",
+		"secret", "service", "stack", "swarm", "system", "trust", "volume");
+	private final CommandMetrics metrics;
+	private final AbstractCommandEvent event;
+	/**
+	 * {@code true} if the command's output should be measured.
+	 */
+	private final boolean enabled;
+	private final String verb;
+	/**
+	 * The command line of the last process, or {@code null} if no process was started.
+	 */
+	private volatile List<String> command;
+	private final long startTime = System.nanoTime();
+	private long spawnTime;
+	/**
+	 * The time that the last process was started, or {@code -1} if no process was started.
+	 */
+	private long processStartTime = -1;
+	/**
+	 * The time that the last process wrote its first byte, or {@code -1} if it did not write any output.
+	 */
+	private final AtomicLong firstByteTime = new AtomicLong(-1);
+	private final AtomicLong outputBytes = new AtomicLong();
+	private int retries;
+	/**
+	 * {@code true} if the command was reported. Commands whose streams are returned to the user may be reported
+	 * by any thread.
+	 */
+	private final AtomicBoolean recorded = new AtomicBoolean();
+	private final Logger log = LoggerFactory.getLogger(CommandRecorder.class);
+
+	/**
+	 * Creates a new instance.
+	 *
+	 * @param metrics   the metrics to report to
+	 * @param arguments the command-line arguments of the command
+	 */
+	public CommandRecorder(CommandMetrics metrics, List<String> arguments)
+	{
+		this(metrics, new CommandEvent(), arguments);
+	}
+
+	/**
+	 * Creates a new instance.
+	 *
+	 * @param metrics   the metrics to report to
+	 * @param event     the event to emit
+	 * @param arguments the command-line arguments of the command
+	 */
+	private CommandRecorder(CommandMetrics metrics, AbstractCommandEvent event, List<String> arguments)
+	{
+		assert that(metrics, "metrics").isNotNull().elseThrow();
+		this.metrics = metrics;
+		this.event = event;
+		this.enabled = metrics != CommandMetrics.DISABLED || event.isEnabled();
+		this.verb = getVerb(arguments);
+		event.begin();
+	}
+
+	/**
+	 * Returns a recorder for a command whose streams are returned to the user. Such commands are not
+	 * reported to {@code CommandMetrics}, even if they do not follow the output, because their duration
+	 * measures how long the user consumed the streams, not how long the command took.
+	 *
+	 * @param arguments the command-line arguments of the command
+	 * @return the recorder
+	 */
+	public static CommandRecorder forStream(List<String> arguments)
+	{
+		return new CommandRecorder(CommandMetrics.DISABLED, new StreamEvent(), arguments);
+	}
+
+	/**
+	 * Returns the verb of a command.
+	 *
+	 * @param arguments the command-line arguments of the command
+	 * @return the subcommands that precede the first option or operand (e.g. {@code container inspect})
+	 */
+	static String getVerb(List<String> arguments)
+	{
+		if (arguments.isEmpty())
+			return "<none>";
+		StringJoiner verb = new StringJoiner(" ");
+		for (String argument : arguments)
+		{
+			if (argument.startsWith("-") && verb.length() > 0)
+				break;
+			verb.add(argument);
+			if (!MANAGEMENT_COMMANDS.contains(argument))
+				break;
+		}
+		return verb.toString();
+	}
+
+	/**
+	 * Returns the context that a command runs against.
+	 *
+	 * @param command the command line, including the executable
+	 * @return the value of the {@code --context} or {@code --host} option, or an empty string if the command
+	 * 	runs against the default context
+	 */
+	static String getContext(List<String> command)
+	{
+		for (int i = 1; i < command.size() - 1; ++i)
+		{
+			String argument = command.get(i);
+			if (!argument.startsWith("-"))
+				break;
+			if (argument.equals("--context") || argument.equals("--host"))
+				return command.get(i + 1);
+		}
+		return "";
+	}
+
+	/**
+	 * Starts a process on behalf of the command.
+	 *
+	 * @param processBuilder the process to start
+	 * @return the process
+	 * @throws IOException if the process could not be started
+	 */
+	public Process start(ProcessBuilder processBuilder) throws IOException
+	{
+		firstByteTime.set(-1);
+		outputBytes.set(0);
+		command = processBuilder.command();
+		long before = System.nanoTime();
+		Process process = processBuilder.start();
+		processStartTime = System.nanoTime();
+		spawnTime = processStartTime - before;
+		return process;
+	}
+
+	/**
+	 * Indicates that the command was run by a pooled helper process, which does not need to be spawned.
+	 *
+	 * @param result the result of the command
+	 */
+	public void ranInPool(CommandResult result)
+	{
+		// The time to first byte is unknown because the helper process returns its output all at once
+		command = result.command();
+		spawnTime = 0;
+		processStartTime = -1;
+		firstByteTime.set(-1);
+		// stderr was already decoded, so its size is approximated by its number of characters
+		outputBytes.set(result.stdoutSize() + result.stderr().length());
+	}
+
+	/**
+	 * Returns a stream that tracks the output of the last process.
+	 *
+	 * @param in a stream of the process' output
+	 * @return the tracking stream
+	 */
+	public InputStream track(InputStream in)
+	{
+		if (!enabled)
+			return in;
+		return new FilterInputStream(in)
+		{
+			@Override
+			public int read() throws IOException
+			{
+				int result = super.read();
+				if (result != -1)
+					onOutput(1);
+				return result;
+			}
+
+			@Override
+			public int read(byte[] b, int off, int len) throws IOException
+			{
+				int count = super.read(b, off, len);
+				if (count > 0)
+					onOutput(count);
+				return count;
+			}
+		};
+	}
+
+	/**
+	 * Returns a reader that tracks the output of the last process. The output is decoded using the same
+	 * charset as {@link Process#inputReader()}.
+	 *
+	 * @param in a stream of the process' output
+	 * @return the tracking reader
+	 */
+	public BufferedReader trackReader(InputStream in)
+	{
+		Charset charset = Charset.forName(System.getProperty("native.encoding"), Charset.defaultCharset());
+		return new BufferedReader(new InputStreamReader(track(in), charset));
+	}
+
+	/**
+	 * Records that the last process wrote output.
+	 *
+	 * @param bytes the number of bytes
+	 */
+	private void onOutput(long bytes)
+	{
+		if (firstByteTime.get() == -1)
+			firstByteTime.compareAndSet(-1, System.nanoTime());
+		outputBytes.addAndGet(bytes);
+	}
+
+	/**
+	 * Records that the command will be retried.
+	 */
+	public void retrying()
+	{
+		++retries;
+	}
+
+	/**
+	 * Reports that the command completed.
+	 *
+	 * @param exitCode the exit code of the last process
+	 */
+	public void completed(int exitCode)
+	{
+		report(exitCode, null);
+	}
+
+	/**
+	 * Reports that the caller stopped reading the command's output before the process exited. Has no effect if
+	 * the command was already reported.
+	 */
+	public void cancelled()
+	{
+		report(CommandSample.CANCELLED, null);
+	}
+
+	/**
+	 * Reports that the command failed. Has no effect if the command was already reported.
+	 *
+	 * @param error the exception that the command threw
+	 */
+	public void failed(Throwable error)
+	{
+		report(-1, error.getClass());
+	}
+
+	/**
+	 * Reports the command's sample, unless it was already reported.
+	 *
+	 * @param exitCode the exit code of the last process
+	 * @param error    the type of exception that the command threw, or {@code null} if it completed normally
+	 */
+	private void report(int exitCode, Class<? extends Throwable> error)
+	{
+		if (!recorded.compareAndSet(false, true))
+			return;
+		commitEvent(exitCode, error);
+		if (metrics == CommandMetrics.DISABLED)
+			return;
+		Duration timeToFirstByte;
+		long firstByte = firstByteTime.get();
+		if (firstByte == -1 || processStartTime == -1)
+			timeToFirstByte = null;
+		else
+			timeToFirstByte = Duration.ofNanos(firstByte - processStartTime);
+		CommandSample sample = new CommandSample(verb, Duration.ofNanos(System.nanoTime() - startTime),
+			Duration.ofNanos(spawnTime), timeToFirstByte, outputBytes.get(), exitCode, retries, error);
+		try
+		{
+			metrics.record(sample);
+		}
+		catch (RuntimeException e)
+		{
+			// Metrics must not affect the outcome of the command
+			log.warn("Failed to record {}", sample, e);
+		}
+	}
+
+	/**
+	 * Emits the command's event, unless it is disabled or shorter than its threshold.
+	 *
+	 * @param exitCode the exit code of the last process
+	 * @param error    the type of exception that the command threw, or {@code null} if it completed normally
+	 */
+	private void commitEvent(int exitCode, Class<? extends Throwable> error)
+	{
+		event.end();
+		if (!event.shouldCommit())
+			return;
+		if (command != null)
+		{
+			event.command = String.join(" ", command);
+			event.context = getContext(command);
+		}
+		event.verb = verb;
+		event.bytesRead = outputBytes.get();
+		event.exitCode = exitCode;
+		event.retryAttempt = retries;
+		if (error != null)
+			event.error = error.getName();
+		event.commit();
+	}
+}
@@ -1,22 +1,38 @@
 package com.github.cowwoc.anchor4j.core.internal.client;
 
+import com.github.cowwoc.anchor4j.core.internal.util.ToStringBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.Objects;
 
 import static com.github.cowwoc.requirements11.java.DefaultJavaValidators.that;
+import static java.nio.charset.StandardCharsets.UTF_8;
 
 /**
  * Represents the result of executing a command.
- *
- * @param command          the command that was executed
- * @param workingDirectory the directory that the command was executed from
- * @param stdout           the standard output stream of the command
- * @param stderr           the standard error stream of the command
- * @param exitCode         the exit code returned by the command
+ * <p>
+ * The standard output stream may be captured as raw bytes, in which case it is only decoded into a
+ * {@code String} if {@link #stdout()} is invoked. Parsers that consume JSON should prefer
+ * {@link #stdoutAsStream()}.
  */
-public record CommandResult(List<String> command, Path workingDirectory, String stdout, String stderr,
-                            int exitCode)
+public final class CommandResult
 {
+	private final List<String> command;
+	private final Path workingDirectory;
+	/**
+	 * The raw standard output stream, or {@code null} if it was captured as a {@code String}.
+	 */
+	private final byte[] stdoutBytes;
+	/**
+	 * The decoded standard output stream, or {@code null} if it has not been decoded yet.
+	 */
+	private volatile String stdout;
+	private final String stderr;
+	private final int exitCode;
+
 	/**
 	 * @param command          the command that was executed
 	 * @param workingDirectory the directory that the command was invoked from
@@ -32,11 +48,130 @@ public CommandResult(List<String> command, Path workingDirectory, String stdout,
 		assert that(stderr, "stderr").isNotNull().elseThrow();
 		this.command = List.copyOf(command);
 		this.workingDirectory = workingDirectory;
+		this.stdoutBytes = null;
 		this.stdout = stdout;
 		this.stderr = stderr;
 		this.exitCode = exitCode;
 	}
 
+	/**
+	 * @param command          the command that was executed
+	 * @param workingDirectory the directory that the command was invoked from
+	 * @param stdout           the raw standard output stream of the command. The array must not be modified
+	 *                         after it is passed to this constructor.
+	 * @param stderr           the standard error stream of the command
+	 * @param exitCode         the exit code returned by the command
+	 */
+	public CommandResult(List<String> command, Path workingDirectory, byte[] stdout, String stderr,
+		int exitCode)
+	{
+		assert that(command, "command").isNotNull().elseThrow();
+		assert that(stdout, "stdout").isNotNull().elseThrow();
+		assert that(stderr, "stderr").isNotNull().elseThrow();
+		this.command = List.copyOf(command);
+		this.workingDirectory = workingDirectory;
+		this.stdoutBytes = stdout;
+		this.stderr = stderr;
+		this.exitCode = exitCode;
+	}
+
+	/**
+	 * Returns the command that was executed.
+	 *
+	 * @return the command
+	 */
+	public List<String> command()
+	{
+		return command;
+	}
+
+	/**
+	 * Returns the directory that the command was invoked from.
+	 *
+	 * @return the directory
+	 */
+	public Path workingDirectory()
+	{
+		return workingDirectory;
+	}
+
+	/**
+	 * Returns the standard output stream of the command. Line terminators are normalized to {@code \n} and
+	 * the trailing line terminator, if any, is removed.
+	 *
+	 * @return the standard output stream
+	 */
+	public String stdout()
+	{
+		String value = stdout;
+		if (value == null)
+		{
+			value = normalizeLines(new String(stdoutBytes, UTF_8));
+			stdout = value;
+		}
+		return value;
+	}
+
+	/**
+	 * Returns the standard output stream of the command without decoding it.
+	 *
+	 * @return the UTF-8 encoded bytes of the standard output stream
+	 */
+	public InputStream stdoutAsStream()
+	{
+		if (stdoutBytes != null)
+			return new ByteArrayInputStream(stdoutBytes);
+		return new ByteArrayInputStream(stdout.getBytes(UTF_8));
+	}
+
+	/**
+	 * Returns the size of the standard output stream without decoding it.
+	 *
+	 * @return the number of bytes in the standard output stream, or its number of characters if it was not
+	 * 	captured as bytes
+	 */
+	int stdoutSize()
+	{
+		if (stdoutBytes != null)
+			return stdoutBytes.length;
+		return stdout.length();
+	}
+
+	/**
+	 * Returns the standard error stream of the command.
+	 *
+	 * @return the standard error stream
+	 */
+	public String stderr()
+	{
+		return stderr;
+	}
+
+	/**
+	 * Returns the exit code returned by the command.
+	 *
+	 * @return the exit code
+	 */
+	public int exitCode()
+	{
+		return exitCode;
+	}
+
+	/**
+	 * Converts raw output into the format returned by {@code BufferedReader.readLine()} joined by {@code \n}.
+	 *
+	 * @param value the raw output
+	 * @return the normalized output
+	 */
+	private static String normalizeLines(String value)
+	{
+		if (value.indexOf('\r') != -1)
+			value = value.replace("\r\n", "\n").replace('\r', '\n');
+		if (value.endsWith("\n"))
+			return value.substring(0, value.length() - 1);
+		return value;
+	}
+
 	/**
 	 * Returns an AssertionError indicating that the command returned an unexpected response.
 	 *
@@ -46,8 +181,34 @@ public AssertionError unexpectedResponse()
 	{
 		return new AssertionError(command + " returned an unexpected response.\n" +
 			"exitCode   : " + exitCode + ".\n" +
-			"stdout     : " + stdout + "\n" +
+			"stdout     : " + stdout() + "\n" +
 			"stderr     : " + stderr + "\n" +
 			"directory  : " + workingDirectory);
 	}
-}
\ No newline at end of file
+
+	@Override
+	public int hashCode()
+	{
+		return Objects.hash(command, workingDirectory, stdout(), stderr, exitCode);
+	}
+
+	@Override
+	public boolean equals(Object o)
+	{
+		return o instanceof CommandResult other && other.command.equals(command) &&
+			Objects.equals(other.workingDirectory, workingDirectory) && other.stdout().equals(stdout()) &&
+			other.stderr.equals(stderr) && other.exitCode == exitCode;
+	}
+
+	@Override
+	public String toString()
+	{
+		return new ToStringBuilder(CommandResult.class).
+			add("command", command).
+			add("workingDirectory", workingDirectory).
+			add("stdout", stdout()).
+			add("stderr", stderr).
+			add("exitCode", exitCode).
+			toString();
+	}
+}
@@ -0,0 +1,291 @@
+package com.github.cowwoc.anchor4j.core.internal.client;
+
+import com.github.cowwoc.anchor4j.core.client.AsyncClient;
+import com.github.cowwoc.anchor4j.core.client.Client;
+import com.github.cowwoc.anchor4j.core.resource.Builder;
+
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.github.cowwoc.requirements11.java.DefaultJavaValidators.requireThat;
+import static com.github.cowwoc.requirements11.java.DefaultJavaValidators.that;
+
+/**
+ * Default implementation of {@code AsyncClient}.
+ * <p>
+ * <b>Thread Safety</b>: This class is thread-safe.
+ */
+public class DefaultAsyncClient implements AsyncClient
+{
+	/**
+	 * The default maximum number of operations that may run concurrently.
+	 */
+	private static final int DEFAULT_MAXIMUM_CONCURRENCY = 32;
+	/**
+	 * The default maximum number of operations that may wait for a permit to run.
+	 */
+	private static final int DEFAULT_MAXIMUM_PENDING = 1024;
+	private final Client client;
+	private final ReentrantLock lock = new ReentrantLock();
+	/**
+	 * Signaled when an operation may be able to start running.
+	 */
+	private final Condition permitAvailable = lock.newCondition();
+	/**
+	 * Guarded by {@code lock}.
+	 */
+	private int maximumConcurrency = DEFAULT_MAXIMUM_CONCURRENCY;
+	/**
+	 * Guarded by {@code lock}.
+	 */
+	private int maximumPending = DEFAULT_MAXIMUM_PENDING;
+	/**
+	 * The number of operations that are running. Guarded by {@code lock}.
+	 */
+	private int running;
+	/**
+	 * The number of operations that are waiting for a permit to run. Guarded by {@code lock}.
+	 */
+	private int pending;
+
+	/**
+	 * Creates a new instance.
+	 *
+	 * @param client the client that runs the operations
+	 */
+	public DefaultAsyncClient(Client client)
+	{
+		assert that(client, "client").isNotNull().elseThrow();
+		this.client = client;
+	}
+
+	@Override
+	public AsyncClient setMaximumConcurrency(int maximumConcurrency)
+	{
+		requireThat(maximumConcurrency, "maximumConcurrency").isPositive();
+		lock.lock();
+		try
+		{
+			this.maximumConcurrency = maximumConcurrency;
+			permitAvailable.signalAll();
+		}
+		finally
+		{
+			lock.unlock();
+		}
+		return this;
+	}
+
+	@Override
+	public int getMaximumConcurrency()
+	{
+		lock.lock();
+		try
+		{
+			return maximumConcurrency;
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public AsyncClient setMaximumPending(int maximumPending)
+	{
+		requireThat(maximumPending, "maximumPending").isNotNegative();
+		lock.lock();
+		try
+		{
+			this.maximumPending = maximumPending;
+		}
+		finally
+		{
+			lock.unlock();
+		}
+		return this;
+	}
+
+	@Override
+	public int getMaximumPending()
+	{
+		lock.lock();
+		try
+		{
+			return maximumPending;
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public <T> CompletableFuture<T> submit(Operation<T> operation)
+	{
+		requireThat(operation, "operation").isNotNull();
+		boolean mustWait;
+		lock.lock();
+		try
+		{
+			if (running < maximumConcurrency)
+			{
+				++running;
+				mustWait = false;
+			}
+			else if (pending < maximumPending)
+			{
+				++pending;
+				mustWait = true;
+			}
+			else
+			{
+				throw new RejectedExecutionException("Too many operations are waiting to run.\n" +
+					"Running   : " + running + "\n" +
+					"Pending   : " + pending);
+			}
+		}
+		finally
+		{
+			lock.unlock();
+		}
+		OperationFuture<T> future = new OperationFuture<>();
+		Thread.ofVirtual().name("anchor4j-async").start(() -> run(operation, future, mustWait));
+		return future;
+	}
+
+	/**
+	 * Runs an operation on the current thread.
+	 *
+	 * @param <T>       the type of value returned by the operation
+	 * @param operation the operation
+	 * @param future    the future to complete with the operation's outcome
+	 * @param mustWait  {@code true} if the operation must wait for a permit before running
+	 */
+	private <T> void run(Operation<T> operation, OperationFuture<T> future, boolean mustWait)
+	{
+		future.thread = Thread.currentThread();
+		boolean isRunning = !mustWait;
+		try
+		{
+			// If the future was cancelled before its thread was recorded, it will not be interrupted
+			if (future.isDone())
+				return;
+			if (mustWait)
+			{
+				acquirePermit();
+				isRunning = true;
+			}
+			future.complete(operation.run());
+		}
+		catch (Throwable t)
+		{
+			future.completeExceptionally(t);
+		}
+		finally
+		{
+			future.thread = null;
+			releasePermit(isRunning);
+		}
+	}
+
+	/**
+	 * Waits until an operation may start running.
+	 *
+	 * @throws InterruptedException if the thread is interrupted before a permit is acquired
+	 */
+	private void acquirePermit() throws InterruptedException
+	{
+		lock.lock();
+		try
+		{
+			while (running >= maximumConcurrency)
+				permitAvailable.await();
+			--pending;
+			++running;
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Releases the permit of an operation that is done.
+	 *
+	 * @param isRunning {@code true} if the operation held a running permit, {@code false} if it was still
+	 *                  waiting for one
+	 */
+	private void releasePermit(boolean isRunning)
+	{
+		lock.lock();
+		try
+		{
+			if (isRunning)
+			{
+				--running;
+				permitAvailable.signal();
+			}
+			else
+				--pending;
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public CompletableFuture<Builder> getBuilder()
+	{
+		return submit(client::getBuilder);
+	}
+
+	@Override
+	public CompletableFuture<Builder> getBuilder(String name)
+	{
+		return submit(() -> client.getBuilder(name));
+	}
+
+	@Override
+	public CompletableFuture<Builder> waitUntilBuilderIsReady(Instant deadline)
+	{
+		return submit(() -> client.waitUntilBuilderIsReady(deadline));
+	}
+
+	@Override
+	public CompletableFuture<Set<String>> getSupportedBuildPlatforms()
+	{
+		return submit(client::getSupportedBuildPlatforms);
+	}
+
+	/**
+	 * A future that interrupts its operation when it is cancelled.
+	 *
+	 * @param <T> the type of value returned by the operation
+	 */
+	private static final class OperationFuture<T> extends CompletableFuture<T>
+	{
+		/**
+		 * The thread that is running the operation, or {@code null} if the operation is not running.
+		 */
+		private volatile Thread thread;
+
+		@Override
+		public boolean cancel(boolean mayInterruptIfRunning)
+		{
+			boolean cancelled = super.cancel(mayInterruptIfRunning);
+			if (cancelled && mayInterruptIfRunning)
+			{
+				Thread operationThread = thread;
+				if (operationThread != null)
+					operationThread.interrupt();
+			}
+			return cancelled;
+		}
+	}
+}
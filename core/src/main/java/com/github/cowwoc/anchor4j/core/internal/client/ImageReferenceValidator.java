@@ -1,112 +1,146 @@
 package com.github.cowwoc.anchor4j.core.internal.client;
 
-import java.util.regex.Pattern;
-
 import static com.github.cowwoc.requirements11.java.DefaultJavaValidators.that;
 
 /**
  * Validates an image reference.
+ * <p>
+ * The reference is scanned in a single pass, without splitting it or creating substrings, because it is
+ * validated by every operation that accepts an image.
  */
 public final class ImageReferenceValidator
 {
-	// an alphanumeric, or an alphanumeric followed by a hyphen followed by another alphanumeric
-	private static final Pattern DOMAIN_NAME_COMPONENT = Pattern.compile(
-		"[a-zA-Z0-9]|[a-zA-Z0-9][a-zA-Z0-9-]*[a-zA-Z0-9]");
-	private static final Pattern IP_V6 = Pattern.compile("\\[[a-fA-F0-9:]+]");
-	private static final String LOWERCASE_ALPHANUMERIC = "[a-z0-9]+";
-	@SuppressWarnings("RegExpUnnecessaryNonCapturingGroup")
-	private static final String PATH_SEPARATOR = "(?:[._]|__|-+)";
-	private static final Pattern PATH_COMPONENT = Pattern.compile(LOWERCASE_ALPHANUMERIC +
-		"(?:" + PATH_SEPARATOR + LOWERCASE_ALPHANUMERIC + ")*");
-	private static final Pattern TAG = Pattern.compile("\\w[\\w.-]{0,127}");
-	private static final Pattern DIGEST = Pattern.compile("[A-Za-z][A-Za-z0-9]*" +
-		"(?:[-_+.][A-Za-z][A-Za-z0-9]*)*:\\p{XDigit}{32,}");
-	private final String value;
-	private final String name;
-
-	/**
-	 * Creates a new instance.
+	/**
+	 * The maximum length of a tag.
+	 */
+	private static final int MAX_TAG_LENGTH = 128;
+	/**
+	 * The minimum number of hexadecimal characters in a digest.
+	 */
+	private static final int MIN_DIGEST_HEX_LENGTH = 32;
+	private static final String LOCALHOST = "localhost";
+
+	/**
+	 * Validates the String representation of an image reference.
 	 *
 	 * @param value the value to validate
 	 * @param name  the name of the parameter being validated
+	 * @throws NullPointerException     if {@code value} is null
+	 * @throws IllegalArgumentException if the value is not a valid reference
 	 */
-	private ImageReferenceValidator(String value, String name)
+	public static void validate(String value, String name)
 	{
-		assert that(name, "name").isNotNull().elseThrow();
-
-		this.value = value;
-		this.name = name;
+		parse(value, name);
 	}
 
 	/**
-	 * Validates the String representation of an image reference.
+	 * Validates the String representation of an image reference and returns the bounds of its path.
+	 * <p>
+	 * The path is the {@code [NAMESPACE/]REPOSITORY} part of the reference. If the path does not start at
+	 * index {@code 0}, it is preceded by {@code HOST[:PORT]/}. If the path does not end at the end of the
+	 * reference, it is followed by {@code :TAG} or {@code @DIGEST}.
+	 * <p>
+	 * Like the {@code docker} command, the first component of the reference is only treated as a host if it
+	 * contains a dot, a colon or an uppercase letter, or is equal to {@code localhost}. For example,
+	 * {@code nasa/rocket-ship} does not have a host while {@code docker.io/nasa/rocket-ship} does.
 	 *
 	 * @param value the value to validate
 	 * @param name  the name of the parameter being validated
+	 * @return the start index of the path in the upper 32 bits, and its end index (exclusive) in the lower 32
+	 * 	bits
+	 * @throws NullPointerException     if {@code value} is null
 	 * @throws IllegalArgumentException if the value is not a valid reference
 	 */
-	@SuppressWarnings("PMD.ConfusingTernary")
-	public static void validate(String value, String name)
+	public static long parse(String value, String name)
 	{
 		// Based on https://github.com/distribution/reference/blob/727f80d42224f6696b8e1ad16b06aadf2c6b833b/regexp.go
-		ImageReferenceValidator validator = new ImageReferenceValidator(value, name);
+		assert that(name, "name").isNotNull().elseThrow();
+		int length = value.length();
 		int slash = value.indexOf('/');
-		if (slash != -1)
-			validator.validateHostAndPort(value.substring(0, slash));
+		int pathStart;
+		if (slash != -1 && (isHostLike(value, slash) || !isRemoteName(value, 0, slash)))
+		{
+			validateHostAndPort(value, name, slash);
+			pathStart = slash + 1;
+		}
+		else
+			pathStart = 0;
 
-		value = value.substring(slash + 1);
-		int colon = value.indexOf(':');
-		int atSymbol = value.indexOf('@');
+		// The digest contains a colon, so the tag must precede the at sign
+		int atSymbol = value.indexOf('@', slash + 1);
+		int colon;
+		if (atSymbol == -1)
+			colon = value.indexOf(':', slash + 1);
+		else
+			colon = value.indexOf(':', slash + 1, atSymbol);
 		if (colon != -1 && atSymbol != -1)
 		{
 			throw new IllegalArgumentException(name + " may not contain both tag and digest components\n" +
 				"Value: " + value);
 		}
-		String remoteName;
+		int pathEnd;
 		if (colon != -1)
-			remoteName = value.substring(0, colon);
+			pathEnd = colon;
 		else if (atSymbol != -1)
-			remoteName = value.substring(0, atSymbol);
+			pathEnd = atSymbol;
 		else
-			remoteName = value;
-		validator.validateRemoteName(remoteName);
+			pathEnd = length;
+		if (!isRemoteName(value, pathStart, pathEnd))
+		{
+			throw new IllegalArgumentException(name + "'s path components must start with one or more " +
+				"lowercase letters or digits, optionally followed by additional lowercase letters or digits " +
+				"separated by '.', '_', '__', or one or more hyphens.\n" +
+				"Value: " + value);
+		}
 
 		if (colon != -1)
-			validator.validateTag(value.substring(colon + 1));
+			validateTag(value, name, colon + 1);
 		else if (atSymbol != -1)
-			validator.validateDigest(value.substring(atSymbol + 1));
+			validateDigest(value, name, atSymbol + 1);
+		return ((long) pathStart << 32) | pathEnd;
 	}
 
-	private void validateHostAndPort(String hostAndPort)
+	/**
+	 * Validates the host and port of an image reference.
+	 *
+	 * @param value the image reference
+	 * @param name  the name of the parameter being validated
+	 * @param end   the index of the slash that follows the port
+	 * @throws IllegalArgumentException if the host or port are invalid
+	 */
+	private static void validateHostAndPort(String value, String name, int end)
 	{
 		// hostAndPort = HOST[:PORT]
-		int colon = hostAndPort.indexOf(':');
-		String host;
-		if (colon == -1)
-			host = hostAndPort;
-		else
+		// host = `(?:` + domainName + `|` + ipv6address + `)`
+		if (end > 0 && value.charAt(0) == '[')
 		{
-			host = hostAndPort.substring(0, colon);
-			try
-			{
-				Integer.parseInt(hostAndPort.substring(colon + 1));
-			}
-			catch (NumberFormatException e)
+			int closingBracket = value.indexOf(']', 1, end);
+			if (closingBracket == -1 || !isIpV6Address(value, 1, closingBracket))
 			{
-				throw new IllegalArgumentException(name + " contains an invalid port number\n" +
-					"Value: " + value, e);
+				throw new IllegalArgumentException(name + "'s host is not a valid IPv6 address\n" +
+					"Value: " + value);
 			}
-		}
-		// host = `(?:` + domainName + `|` + ipv6address + `)`
-		if (host.startsWith("["))
-		{
-			if (!IP_V6.matcher(host).matches())
+			int hostEnd = closingBracket + 1;
+			if (hostEnd == end)
+				return;
+			if (value.charAt(hostEnd) != ':')
 			{
 				throw new IllegalArgumentException(name + "'s host is not a valid IPv6 address\n" +
 					"Value: " + value);
 			}
+			validatePort(value, name, hostEnd + 1, end);
+			return;
+		}
+		int colon = value.indexOf(':', 0, end);
+		int hostEnd;
+		if (colon == -1)
+			hostEnd = end;
+		else
+		{
+			validatePort(value, name, colon + 1, end);
+			hostEnd = colon;
 		}
-		else if (!validateDomainName(host))
+		if (!isDomainName(value, 0, hostEnd))
 		{
 			throw new IllegalArgumentException(name + "'s host must consist of one or more components " +
 				"separated by dots. Each component may only contain letters, digits, or hyphens, and must not start " +
@@ -116,46 +150,176 @@ else if (!validateDomainName(host))
 	}
 
 	/**
-	 * Validates a domain name or an IPv4 address.
+	 * Validates a port number.
 	 *
-	 * @param domainName the domain name
-	 * @return {@code true} if the domain name was valid
+	 * @param value the image reference
+	 * @param name  the name of the parameter being validated
+	 * @param start the index of the first digit
+	 * @param end   the index after the last digit
+	 * @throws IllegalArgumentException if the port number is invalid
 	 */
-	private boolean validateDomainName(String domainName)
+	private static void validatePort(String value, String name, int start, int end)
+	{
+		long port = 0;
+		for (int i = start; i < end; ++i)
+		{
+			char c = value.charAt(i);
+			if (!isDigit(c))
+			{
+				port = -1;
+				break;
+			}
+			port = port * 10 + (c - '0');
+			if (port > Integer.MAX_VALUE)
+				break;
+		}
+		if (start == end || port < 0 || port > Integer.MAX_VALUE)
+		{
+			throw new IllegalArgumentException(name + " contains an invalid port number\n" +
+				"Value: " + value);
+		}
+	}
+
+	/**
+	 * Indicates if a range contains an IPv6 address, without the surrounding brackets.
+	 *
+	 * @param value the image reference
+	 * @param start the index of the first character
+	 * @param end   the index after the last character
+	 * @return {@code true} if the range consists of one or more hexadecimal digits or colons
+	 */
+	private static boolean isIpV6Address(String value, int start, int end)
+	{
+		if (start == end)
+			return false;
+		for (int i = start; i < end; ++i)
+		{
+			char c = value.charAt(i);
+			if (c != ':' && !isHexDigit(c))
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Indicates if a range contains a domain name or an IPv4 address.
+	 *
+	 * @param value the image reference
+	 * @param start the index of the first character
+	 * @param end   the index after the last character
+	 * @return {@code true} if the domain name is valid
+	 */
+	private static boolean isDomainName(String value, int start, int end)
 	{
 		// domainName = domainNameComponent + `(?:\.` + domainNameComponent + `)*`
-		for (String domainNameComponent : domainName.split("\\."))
+		// domainNameComponent = an alphanumeric, or an alphanumeric followed by alphanumerics or hyphens,
+		// followed by an alphanumeric
+		int componentStart = start;
+		for (int i = start; i <= end; ++i)
 		{
-			if (!DOMAIN_NAME_COMPONENT.matcher(domainNameComponent).matches())
+			if (i < end)
+			{
+				char c = value.charAt(i);
+				if (c != '.')
+				{
+					if (c != '-' && !isAlphanumeric(c))
+						return false;
+					continue;
+				}
+			}
+			// The end of a component
+			if (i == componentStart || value.charAt(componentStart) == '-' || value.charAt(i - 1) == '-')
 				return false;
+			componentStart = i + 1;
 		}
 		return true;
 	}
 
 	/**
-	 * Validates the remote name of a repository.
+	 * Indicates if the first component of an image reference looks like a host. Other components are part of
+	 * the path.
+	 *
+	 * @param value the image reference
+	 * @param end   the index of the slash that follows the first component
+	 * @return {@code true} if the component contains a dot, a colon or an uppercase letter, or is equal to
+	 * 	{@code localhost}
+	 */
+	private static boolean isHostLike(String value, int end)
+	{
+		// Based on splitDockerDomain() in the normalize.go file of the same repository as regexp.go
+		if (end == LOCALHOST.length() && value.startsWith(LOCALHOST))
+			return true;
+		for (int i = 0; i < end; ++i)
+		{
+			char c = value.charAt(i);
+			if (c == '.' || c == ':' || (c >= 'A' && c <= 'Z'))
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Indicates if a range contains the remote name of a repository.
 	 *
-	 * @param remoteName the value to validate
+	 * @param value the image reference
+	 * @param start the index of the first character
+	 * @param end   the index after the last character
+	 * @return {@code true} if the remote name is valid
 	 */
-	private void validateRemoteName(String remoteName)
+	private static boolean isRemoteName(String value, int start, int end)
 	{
 		// [NAMESPACE/]REPOSITORY
 		// remoteName = pathComponent[[/pathComponent] ...]
-		for (String pathComponent : remoteName.split("/"))
+		// pathComponent = `[a-z0-9]+(?:(?:[._]|__|-+)[a-z0-9]+)*`
+		//
+		// "expectAlphanumeric" is true at the start of a component and after a separator
+		boolean expectAlphanumeric = true;
+		for (int i = start; i < end; ++i)
 		{
-			if (!PATH_COMPONENT.matcher(pathComponent).matches())
+			char c = value.charAt(i);
+			if (isLowercaseAlphanumeric(c))
 			{
-				throw new IllegalArgumentException(name + "'s path components must start with one or more " +
-					"lowercase letters or digits, optionally followed by additional lowercase letters or digits " +
-					"separated by '.', '_', '__', or one or more hyphens.\n" +
-					"Value: " + value);
+				expectAlphanumeric = false;
+				continue;
+			}
+			if (expectAlphanumeric)
+				return false;
+			if (c == '_')
+			{
+				if (i + 1 < end && value.charAt(i + 1) == '_')
+					++i;
+			}
+			else if (c == '-')
+			{
+				while (i + 1 < end && value.charAt(i + 1) == '-')
+					++i;
 			}
+			else if (c != '.' && c != '/')
+				return false;
+			expectAlphanumeric = true;
 		}
+		return !expectAlphanumeric;
 	}
 
-	private void validateTag(String tag)
+	/**
+	 * Validates a tag.
+	 *
+	 * @param value the image reference
+	 * @param name  the name of the parameter being validated
+	 * @param start the index of the first character of the tag. The tag ends at the end of the reference.
+	 * @throws IllegalArgumentException if the tag is invalid
+	 */
+	private static void validateTag(String value, String name, int start)
 	{
-		if (!TAG.matcher(tag).matches())
+		// tag = `\w[\w.-]{0,127}`
+		int end = value.length();
+		boolean valid = start < end && end - start <= MAX_TAG_LENGTH && isWordCharacter(value.charAt(start));
+		for (int i = start + 1; valid && i < end; ++i)
+		{
+			char c = value.charAt(i);
+			valid = c == '.' || c == '-' || isWordCharacter(c);
+		}
+		if (!valid)
 		{
 			throw new IllegalArgumentException(name + "'s tag must start with an alphanumeric character or " +
 				"underscore, followed by up to 127 characters that can be alphanumeric, underscore, dot (.), " +
@@ -164,9 +328,18 @@ private void validateTag(String tag)
 		}
 	}
 
-	private void validateDigest(String digest)
+	/**
+	 * Validates a digest.
+	 *
+	 * @param value the image reference
+	 * @param name  the name of the parameter being validated
+	 * @param start the index of the first character of the digest. The digest ends at the end of the
+	 *              reference.
+	 * @throws IllegalArgumentException if the digest is invalid
+	 */
+	private static void validateDigest(String value, String name, int start)
 	{
-		if (!DIGEST.matcher(digest).matches())
+		if (!isDigest(value, start))
 		{
 			throw new IllegalArgumentException(name + "'s digest must start with a letter and may contain " +
 				"alphanumeric segments separated by '-', '_', '+', or '.'. It must be followed by a colon (:) and " +
@@ -174,4 +347,107 @@ private void validateDigest(String digest)
 				"Value: " + value);
 		}
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Indicates if a range contains a digest.
+	 *
+	 * @param value the image reference
+	 * @param start the index of the first character of the digest. The digest ends at the end of the
+	 *              reference.
+	 * @return {@code true} if the digest is valid
+	 */
+	private static boolean isDigest(String value, int start)
+	{
+		// digest = `[A-Za-z][A-Za-z0-9]*(?:[-_+.][A-Za-z][A-Za-z0-9]*)*:\p{XDigit}{32,}`
+		int end = value.length();
+		boolean expectLetter = true;
+		int i = start;
+		while (true)
+		{
+			if (i == end)
+				return false;
+			char c = value.charAt(i);
+			if (expectLetter)
+			{
+				if (!isLetter(c))
+					return false;
+				expectLetter = false;
+			}
+			else if (c == ':')
+				break;
+			else if (c == '-' || c == '_' || c == '+' || c == '.')
+				expectLetter = true;
+			else if (!isAlphanumeric(c))
+				return false;
+			++i;
+		}
+		// Skip the colon
+		++i;
+		if (end - i < MIN_DIGEST_HEX_LENGTH)
+			return false;
+		for (; i < end; ++i)
+		{
+			if (!isHexDigit(value.charAt(i)))
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * @param c a character
+	 * @return {@code true} if the character is an ASCII digit
+	 */
+	private static boolean isDigit(char c)
+	{
+		return c >= '0' && c <= '9';
+	}
+
+	/**
+	 * @param c a character
+	 * @return {@code true} if the character is an ASCII letter
+	 */
+	private static boolean isLetter(char c)
+	{
+		return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+	}
+
+	/**
+	 * @param c a character
+	 * @return {@code true} if the character is an ASCII letter or digit
+	 */
+	private static boolean isAlphanumeric(char c)
+	{
+		return isLetter(c) || isDigit(c);
+	}
+
+	/**
+	 * @param c a character
+	 * @return {@code true} if the character is a lowercase ASCII letter or a digit
+	 */
+	private static boolean isLowercaseAlphanumeric(char c)
+	{
+		return (c >= 'a' && c <= 'z') || isDigit(c);
+	}
+
+	/**
+	 * @param c a character
+	 * @return {@code true} if the character matches the regular expression {@code \w}
+	 */
+	private static boolean isWordCharacter(char c)
+	{
+		return c == '_' || isAlphanumeric(c);
+	}
+
+	/**
+	 * @param c a character
+	 * @return {@code true} if the character is a hexadecimal digit
+	 */
+	private static boolean isHexDigit(char c)
+	{
+		return isDigit(c) || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+	}
+
+	private ImageReferenceValidator()
+	{
+	}
+}
@@ -3,10 +3,15 @@
 import com.fasterxml.jackson.databind.json.JsonMapper;
 import com.github.cowwoc.anchor4j.core.client.Client;
 import com.github.cowwoc.anchor4j.core.internal.resource.BuildXParser;
+import com.github.cowwoc.anchor4j.core.internal.resource.JsonElementReader;
+import com.github.cowwoc.anchor4j.core.metrics.CommandMetrics;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * The internals shared by all clients.
@@ -25,6 +30,13 @@ public interface InternalClient extends Client
 	 */
 	void validateName(String value, String name);
 
+	/**
+	 * Returns the metrics that commands are reported to.
+	 *
+	 * @return {@link CommandMetrics#DISABLED} if metrics are disabled
+	 */
+	CommandMetrics getCommandMetrics();
+
 	/**
 	 * Validates an image reference.
 	 *
@@ -95,6 +107,52 @@ public interface InternalClient extends Client
 	 */
 	CommandResult run(List<String> arguments, ByteBuffer stdin) throws IOException, InterruptedException;
 
+	/**
+	 * Runs a command, passing its stdout stream to a consumer as it is produced.
+	 * <p>
+	 * If the command fails due to a transient error, it is repeated and the consumer is invoked again with the
+	 * new output. Output that the consumer does not read is discarded.
+	 *
+	 * @param arguments the command-line arguments to pass to the executable
+	 * @param stdout    consumes the command's stdout stream
+	 * @return the output of the command. The stdout stream may be empty.
+	 * @throws IOException          if the executable could not be found, or if {@code stdout} throws an
+	 *                              exception
+	 * @throws InterruptedException if the thread was interrupted before the operation completed
+	 */
+	CommandResult run(List<String> arguments, OutputConsumer stdout) throws IOException, InterruptedException;
+
+	/**
+	 * Runs a command that writes a sequence of JSON objects to its stdout stream, and returns a stream that
+	 * reads them as they are produced.
+	 * <p>
+	 * The returned stream must be closed to release the process. Closing the stream before it is exhausted
+	 * terminates the process. Commands that fail due to transient errors are not retried.
+	 *
+	 * @param <E>       the type of elements
+	 * @param arguments the command-line arguments to pass to the executable
+	 * @param reader    converts each JSON object into an element
+	 * @param validator throws an exception if the command failed. The result's stdout stream is empty.
+	 * @return the elements. Stream operations throw {@code UncheckedIOException} if an I/O error occurs.
+	 * @throws IOException if the executable could not be found
+	 */
+	<E> Stream<E> stream(List<String> arguments, JsonElementReader<E> reader,
+		Consumer<CommandResult> validator) throws IOException;
+
+	/**
+	 * Indicates if an image exists in the local image store, and is referenced by the specified references.
+	 *
+	 * @param id         the ID of the image
+	 * @param references the references that must refer to the image
+	 * @return {@code false} if the image does not exist, if any of the references are missing or refer to a
+	 * 	different image, or if the client cannot access the local image store
+	 * @throws IOException          if an I/O error occurs. These errors are typically transient, and retrying
+	 *                              the request may resolve the issue.
+	 * @throws InterruptedException if the thread is interrupted before the operation completes. This can happen
+	 *                              due to shutdown signals.
+	 */
+	boolean imageExists(String id, Collection<String> references) throws IOException, InterruptedException;
+
 	/**
 	 * @return a {@code BuildXParser}
 	 */
@@ -0,0 +1,207 @@
+package com.github.cowwoc.anchor4j.core.internal.client;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.github.cowwoc.anchor4j.core.internal.resource.JsonElementReader;
+import com.github.cowwoc.anchor4j.core.internal.util.Exceptions;
+import com.github.cowwoc.anchor4j.core.metrics.CommandSample;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.StringJoiner;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+
+/**
+ * Iterates over the JSON objects that a running process writes to its stdout stream.
+ * <p>
+ * Each element is read from the process as it is requested. Once the output is exhausted, the iterator
+ * waits for the process to exit and validates its result. Closing the iterator before the output is
+ * exhausted terminates the process and reports the command as {@link CommandSample#CANCELLED cancelled}.
+ *
+ * @param <E> the type of elements
+ */
+final class JsonLineIterator<E> implements Iterator<E>, AutoCloseable
+{
+	/**
+	 * The maximum amount of time to wait for the stderr reader of a terminated process to exit.
+	 */
+	private static final Duration STDERR_TIMEOUT = Duration.ofSeconds(1);
+	private final List<String> command;
+	private final Path workingDirectory;
+	private final Process process;
+	private final JsonParser json;
+	private final JsonElementReader<E> reader;
+	private final Consumer<CommandResult> validator;
+	private final CommandRecorder recorder;
+	private final StringJoiner stderr = new StringJoiner("\n");
+	private final BlockingQueue<Throwable> exceptions = new LinkedBlockingQueue<>();
+	private final Thread stderrThread;
+	/**
+	 * The next element, or {@code null} if it has not been read yet.
+	 */
+	private E next;
+	private boolean done;
+
+	/**
+	 * Starts a process.
+	 *
+	 * @param processBuilder the process to start
+	 * @param jsonMapper     the JSON configuration
+	 * @param reader         converts each JSON object into an element
+	 * @param validator      throws an exception if the command failed
+	 * @param recorder       measures the command
+	 * @throws IOException if the process could not be started
+	 */
+	JsonLineIterator(ProcessBuilder processBuilder, JsonMapper jsonMapper, JsonElementReader<E> reader,
+		Consumer<CommandResult> validator, CommandRecorder recorder) throws IOException
+	{
+		this.command = List.copyOf(processBuilder.command());
+		this.workingDirectory = Processes.getWorkingDirectory(processBuilder);
+		this.reader = reader;
+		this.validator = validator;
+		this.recorder = recorder;
+		try
+		{
+			this.process = recorder.start(processBuilder);
+		}
+		catch (IOException e)
+		{
+			recorder.failed(e);
+			throw e;
+		}
+		try
+		{
+			process.getOutputStream().close();
+			this.json = jsonMapper.createParser(recorder.track(process.getInputStream()));
+		}
+		catch (IOException e)
+		{
+			process.destroy();
+			recorder.failed(e);
+			throw e;
+		}
+		BufferedReader stderrReader = recorder.trackReader(process.getErrorStream());
+		this.stderrThread = Thread.startVirtualThread(() -> Processes.consume(stderrReader, exceptions,
+			stderr::add));
+	}
+
+	@Override
+	public boolean hasNext()
+	{
+		if (next != null)
+			return true;
+		if (done)
+			return false;
+		try
+		{
+			JsonToken token = json.nextToken();
+			if (token == null)
+			{
+				onExhausted();
+				return false;
+			}
+			if (token != JsonToken.START_OBJECT)
+				throw new JsonParseException(json, "Expected an object. Actual: " + token);
+			next = reader.read(json);
+			return true;
+		}
+		catch (IOException e)
+		{
+			recorder.failed(e);
+			close();
+			throw new UncheckedIOException(e);
+		}
+		catch (RuntimeException e)
+		{
+			recorder.failed(e);
+			close();
+			throw e;
+		}
+	}
+
+	@Override
+	public E next()
+	{
+		if (!hasNext())
+			throw new NoSuchElementException();
+		E result = next;
+		next = null;
+		return result;
+	}
+
+	/**
+	 * Waits for the process to exit and validates its result.
+	 *
+	 * @throws IOException if an I/O error occurs while reading the process output, or the thread is
+	 *                     interrupted while waiting for the process to exit
+	 */
+	private void onExhausted() throws IOException
+	{
+		done = true;
+		try
+		{
+			stderrThread.join();
+			int exitCode = process.waitFor();
+			IOException exception = Exceptions.combineAsIOException(exceptions);
+			if (exception != null)
+				throw exception;
+			recorder.completed(exitCode);
+			validator.accept(new CommandResult(command, workingDirectory, "", stderr.toString(), exitCode));
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			InterruptedIOException exception = new InterruptedIOException("Interrupted while waiting for " +
+				command + " to exit");
+			exception.initCause(e);
+			throw exception;
+		}
+		finally
+		{
+			json.close();
+		}
+	}
+
+	@Override
+	public void close()
+	{
+		boolean cancelled = !done;
+		done = true;
+		next = null;
+		if (process.isAlive())
+			process.destroy();
+		try
+		{
+			json.close();
+		}
+		catch (IOException _)
+		{
+			// The process has been terminated, so there is nothing left to read
+		}
+		if (!cancelled)
+			return;
+		try
+		{
+			// The stderr stream is closed once the process exits. If it is held open by a child process, the
+			// reader is abandoned and exits on its own once the stream closes.
+			stderrThread.join(STDERR_TIMEOUT);
+		}
+		catch (InterruptedException _)
+		{
+			Thread.currentThread().interrupt();
+		}
+		// Has no effect if the command already failed
+		recorder.cancelled();
+	}
+}
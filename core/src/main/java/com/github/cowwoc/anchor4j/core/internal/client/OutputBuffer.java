@@ -0,0 +1,161 @@
+package com.github.cowwoc.anchor4j.core.internal.client;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * A growable byte buffer that captures the output of a process.
+ * <p>
+ * Buffers are recycled across commands to avoid reallocating their backing array. Buffers that grow beyond
+ * {@link #MAXIMUM_RETAINED_CAPACITY} are discarded instead of being recycled.
+ */
+public final class OutputBuffer implements AutoCloseable
+{
+	private static final int INITIAL_CAPACITY = 8 * 1024;
+	/**
+	 * The largest buffer that may be returned to the pool.
+	 */
+	private static final int MAXIMUM_RETAINED_CAPACITY = 4 * 1024 * 1024;
+	private static final int MAXIMUM_IDLE_BUFFERS = 8;
+	private static final Queue<OutputBuffer> IDLE_BUFFERS = new ConcurrentLinkedQueue<>();
+	private static final AtomicInteger NUMBER_OF_IDLE_BUFFERS = new AtomicInteger();
+	private byte[] bytes = new byte[INITIAL_CAPACITY];
+	private int size;
+
+	/**
+	 * Returns an empty buffer.
+	 *
+	 * @return a recycled buffer, or a new buffer if none are available
+	 */
+	public static OutputBuffer acquire()
+	{
+		OutputBuffer buffer = IDLE_BUFFERS.poll();
+		if (buffer == null)
+			return new OutputBuffer();
+		NUMBER_OF_IDLE_BUFFERS.decrementAndGet();
+		return buffer;
+	}
+
+	/**
+	 * Appends the remaining contents of a stream to the buffer. The stream is not closed.
+	 *
+	 * @param in the stream to read from
+	 * @throws IOException if an I/O error occurs
+	 */
+	public void readFrom(InputStream in) throws IOException
+	{
+		while (true)
+		{
+			if (size == bytes.length)
+				bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, INITIAL_CAPACITY));
+			int count = in.read(bytes, size, bytes.length - size);
+			if (count == -1)
+				break;
+			size += count;
+		}
+	}
+
+	/**
+	 * Appends the bytes that a stream returns from a single read to the buffer. The stream is not closed.
+	 *
+	 * @param in the stream to read from
+	 * @return the number of bytes that were appended, or {@code -1} if the end of the stream was reached
+	 * @throws IOException if an I/O error occurs
+	 */
+	public int readOnce(InputStream in) throws IOException
+	{
+		if (size == bytes.length)
+			bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, INITIAL_CAPACITY));
+		int count = in.read(bytes, size, bytes.length - size);
+		if (count > 0)
+			size += count;
+		return count;
+	}
+
+	/**
+	 * Returns a byte in the buffer.
+	 *
+	 * @param index the index of the byte
+	 * @return the byte
+	 * @throws IndexOutOfBoundsException if {@code index} is negative or is not less than {@link #size()}
+	 */
+	public byte get(int index)
+	{
+		Objects.checkIndex(index, size);
+		return bytes[index];
+	}
+
+	/**
+	 * Returns the number of bytes in the buffer.
+	 *
+	 * @return the number of bytes
+	 */
+	public int size()
+	{
+		return size;
+	}
+
+	/**
+	 * Returns a copy of the buffer's contents.
+	 *
+	 * @return an array that is exactly as large as the contents
+	 */
+	public byte[] toByteArray()
+	{
+		return Arrays.copyOf(bytes, size);
+	}
+
+	/**
+	 * Returns a copy of the start of the buffer's contents.
+	 *
+	 * @param length the number of bytes to copy
+	 * @return an array that is exactly {@code length} bytes long
+	 * @throws IndexOutOfBoundsException if {@code length} is negative or greater than {@link #size()}
+	 */
+	public byte[] toByteArray(int length)
+	{
+		Objects.checkFromIndexSize(0, length, size);
+		return Arrays.copyOf(bytes, length);
+	}
+
+	/**
+	 * Decodes the start of the buffer's contents.
+	 *
+	 * @param length the number of bytes to decode
+	 * @return the UTF-8 decoded bytes
+	 * @throws IndexOutOfBoundsException if {@code length} is negative or greater than {@link #size()}
+	 */
+	public String toString(int length)
+	{
+		Objects.checkFromIndexSize(0, length, size);
+		return new String(bytes, 0, length, UTF_8);
+	}
+
+	/**
+	 * Empties the buffer and returns it to the pool. The buffer may not be used afterward.
+	 */
+	@Override
+	public void close()
+	{
+		size = 0;
+		if (bytes.length > MAXIMUM_RETAINED_CAPACITY)
+			return;
+		if (NUMBER_OF_IDLE_BUFFERS.incrementAndGet() > MAXIMUM_IDLE_BUFFERS)
+		{
+			NUMBER_OF_IDLE_BUFFERS.decrementAndGet();
+			return;
+		}
+		IDLE_BUFFERS.offer(this);
+	}
+
+	private OutputBuffer()
+	{
+	}
+}
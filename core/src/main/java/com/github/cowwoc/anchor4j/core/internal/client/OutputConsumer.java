@@ -0,0 +1,19 @@
+package com.github.cowwoc.anchor4j.core.internal.client;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Consumes the output of a command while it runs.
+ */
+@FunctionalInterface
+public interface OutputConsumer
+{
+	/**
+	 * Consumes a stream. The stream is closed by the caller.
+	 *
+	 * @param stream the stream
+	 * @throws IOException if an I/O error occurs
+	 */
+	void accept(InputStream stream) throws IOException;
+}
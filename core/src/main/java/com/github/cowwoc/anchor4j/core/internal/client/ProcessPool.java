@@ -0,0 +1,152 @@
+package com.github.cowwoc.anchor4j.core.internal.client;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.github.cowwoc.requirements11.java.DefaultJavaValidators.that;
+
+/**
+ * A bounded pool of warm {@link ShellSession}s that run short-lived commands.
+ * <p>
+ * Sessions are created on demand, so the number of concurrent commands is not limited. At most
+ * {@code maximumIdleSessions} sessions are retained between commands; the rest are closed.
+ */
+final class ProcessPool implements AutoCloseable
+{
+	private final int maximumIdleSessions;
+	private final Deque<ShellSession> idleSessions = new ConcurrentLinkedDeque<>();
+	private final AtomicInteger numberOfIdleSessions = new AtomicInteger();
+	private volatile boolean closed;
+	private final Logger log = LoggerFactory.getLogger(ProcessPool.class);
+
+	/**
+	 * Creates a new pool and starts warming up its sessions in the background.
+	 *
+	 * @param maximumIdleSessions the maximum number of idle sessions to retain
+	 */
+	ProcessPool(int maximumIdleSessions)
+	{
+		assert that(maximumIdleSessions, "maximumIdleSessions").isPositive().elseThrow();
+		this.maximumIdleSessions = maximumIdleSessions;
+		Thread.startVirtualThread(() ->
+		{
+			try
+			{
+				for (int i = 0; i < maximumIdleSessions; ++i)
+					release(new ShellSession());
+			}
+			catch (IOException e)
+			{
+				log.warn("Failed to start a shell session", e);
+			}
+		});
+	}
+
+	/**
+	 * Runs a command using a warm session.
+	 *
+	 * @param command the command and its arguments
+	 * @return the result of running the command, or {@code null} if the command could not be run by a session
+	 * 	and should be run by a new process instead
+	 * @throws InterruptedException if the thread is interrupted before the operation completes
+	 */
+	public CommandResult run(List<String> command) throws InterruptedException
+	{
+		ShellSession session = acquire();
+		if (session == null)
+			return null;
+		CommandResult result;
+		try
+		{
+			result = session.run(command);
+		}
+		catch (IOException | RuntimeException e)
+		{
+			log.debug("Discarding shell session", e);
+			session.close();
+			return null;
+		}
+		catch (InterruptedException e)
+		{
+			// The state of the session is unknown
+			session.close();
+			throw e;
+		}
+		release(session);
+		return result;
+	}
+
+	/**
+	 * @return an idle session, a new session, or {@code null} if a new session could not be started
+	 */
+	private ShellSession acquire()
+	{
+		while (true)
+		{
+			ShellSession session = idleSessions.pollFirst();
+			if (session == null)
+				break;
+			numberOfIdleSessions.decrementAndGet();
+			if (session.isAlive())
+				return session;
+			session.close();
+		}
+		try
+		{
+			return new ShellSession();
+		}
+		catch (IOException e)
+		{
+			log.debug("Failed to start a shell session", e);
+			return null;
+		}
+	}
+
+	/**
+	 * Returns a session to the pool, or closes it if the pool is full or closed.
+	 *
+	 * @param session the session
+	 */
+	private void release(ShellSession session)
+	{
+		if (!closed && numberOfIdleSessions.incrementAndGet() <= maximumIdleSessions)
+		{
+			idleSessions.offerFirst(session);
+			// Handle a concurrent invocation of close()
+			if (closed)
+				drain();
+			return;
+		}
+		if (!closed)
+			numberOfIdleSessions.decrementAndGet();
+		session.close();
+	}
+
+	/**
+	 * Closes all idle sessions.
+	 */
+	private void drain()
+	{
+		while (true)
+		{
+			ShellSession session = idleSessions.pollFirst();
+			if (session == null)
+				break;
+			numberOfIdleSessions.decrementAndGet();
+			session.close();
+		}
+	}
+
+	@Override
+	public void close()
+	{
+		closed = true;
+		drain();
+	}
+}
@@ -0,0 +1,244 @@
+package com.github.cowwoc.anchor4j.core.internal.client;
+
+import com.github.cowwoc.anchor4j.core.internal.util.Exceptions;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * A long-lived POSIX shell that runs commands on behalf of the client.
+ * <p>
+ * Reusing a warm shell avoids forking the JVM for every command. The shell still executes a new process for
+ * each command, so the executable's own startup cost is not amortized.
+ * <p>
+ * Each command's output is terminated by a marker line that is unique to the session, followed by the
+ * command's exit code. Sessions are not thread-safe; they run one command at a time.
+ */
+final class ShellSession implements AutoCloseable
+{
+	private final Process process;
+	private final OutputStream stdin;
+	private final InputStream stdout;
+	private final InputStream stderr;
+	private final Path workingDirectory;
+	/**
+	 * The line that terminates the output of each command.
+	 */
+	private final String marker = "anchor4j-" + UUID.randomUUID();
+	/**
+	 * The bytes that precede the exit code at the end of the stdout stream.
+	 */
+	private final byte[] stdoutTerminator = ("\n" + marker + " ").getBytes(UTF_8);
+	/**
+	 * The bytes that precede the final newline at the end of the stderr stream.
+	 */
+	private final byte[] stderrTerminator = ("\n" + marker).getBytes(UTF_8);
+
+	/**
+	 * Starts a new shell that inherits the working directory and environment of the JVM.
+	 *
+	 * @throws IOException if the shell cannot be started
+	 */
+	ShellSession() throws IOException
+	{
+		ProcessBuilder processBuilder = new ProcessBuilder("/bin/sh");
+		this.process = processBuilder.start();
+		this.stdin = process.getOutputStream();
+		this.stdout = process.getInputStream();
+		this.stderr = process.getErrorStream();
+		this.workingDirectory = Processes.getWorkingDirectory(processBuilder);
+	}
+
+	/**
+	 * Indicates if the shell can run more commands.
+	 *
+	 * @return {@code false} if the shell has exited
+	 */
+	public boolean isAlive()
+	{
+		return process.isAlive();
+	}
+
+	/**
+	 * Runs a command.
+	 *
+	 * @param command the command and its arguments
+	 * @return the result of running the command
+	 * @throws IOException          if the shell exits unexpectedly. The session may not be reused.
+	 * @throws InterruptedException if the thread is interrupted before the operation completes. The session is
+	 *                              closed, killing the command.
+	 */
+	public CommandResult run(List<String> command) throws IOException, InterruptedException
+	{
+		StringBuilder line = new StringBuilder();
+		for (String argument : command)
+			line.append(quote(argument)).append(' ');
+		// The command must not consume the input that is intended for the shell. Markers are prefixed by a
+		// newline in case the command's output does not end with one.
+		line.append("</dev/null; printf '\\n%s %d\\n' ").append(marker).append(" $?; ").
+			append("printf '\\n%s\\n' ").append(marker).append(" >&2\n");
+		stdin.write(line.toString().getBytes(UTF_8));
+		stdin.flush();
+
+		// The pipes are read by helper threads because blocking reads cannot be interrupted, whereas join() can
+		OutputBuffer stdoutBuffer = OutputBuffer.acquire();
+		OutputBuffer stderrBuffer = OutputBuffer.acquire();
+		AtomicInteger stdoutEnd = new AtomicInteger();
+		AtomicInteger stderrEnd = new AtomicInteger();
+		BlockingQueue<Throwable> exceptions = new LinkedBlockingQueue<>();
+		Thread stdoutThread = Thread.startVirtualThread(() -> readUntilTerminator(stdout, stdoutBuffer,
+			stdoutTerminator, true, stdoutEnd, exceptions));
+		Thread stderrThread = Thread.startVirtualThread(() -> readUntilTerminator(stderr, stderrBuffer,
+			stderrTerminator, false, stderrEnd, exceptions));
+		try
+		{
+			stdoutThread.join();
+			stderrThread.join();
+		}
+		catch (InterruptedException e)
+		{
+			// Unblock the helper threads. The buffers are not recycled because the helper threads might still be
+			// writing into them.
+			close();
+			throw e;
+		}
+		try (stdoutBuffer; stderrBuffer)
+		{
+			IOException exception = Exceptions.combineAsIOException(exceptions);
+			if (exception != null)
+				throw exception;
+			int exitCode = getExitCode(stdoutBuffer, stdoutEnd.get() + stdoutTerminator.length);
+			// Match the line-based decoding of processes that are not pooled
+			String stderrValue = stderrBuffer.toString(stderrEnd.get()).lines().
+				collect(Collectors.joining("\n"));
+			return new CommandResult(command, workingDirectory, stdoutBuffer.toByteArray(stdoutEnd.get()),
+				stderrValue, exitCode);
+		}
+	}
+
+	/**
+	 * Reads a stream until the command's output is terminated.
+	 *
+	 * @param in          the stream to read from
+	 * @param buffer      the buffer to read into
+	 * @param terminator  the bytes that follow the command's output
+	 * @param hasExitCode {@code true} if the terminator is followed by the command's exit code
+	 * @param end         is set to the length of the command's output
+	 * @param exceptions  the queue to add any exceptions to
+	 */
+	private static void readUntilTerminator(InputStream in, OutputBuffer buffer, byte[] terminator,
+		boolean hasExitCode, AtomicInteger end, BlockingQueue<Throwable> exceptions)
+	{
+		try
+		{
+			while (true)
+			{
+				if (buffer.readOnce(in) == -1)
+					throw new EOFException("The shell exited unexpectedly");
+				int index = indexOfTerminator(buffer, terminator, hasExitCode);
+				if (index != -1)
+				{
+					end.set(index);
+					return;
+				}
+			}
+		}
+		catch (IOException | RuntimeException e)
+		{
+			exceptions.add(e);
+		}
+	}
+
+	/**
+	 * Looks for a terminator at the end of a buffer.
+	 *
+	 * @param buffer      the buffer
+	 * @param terminator  the bytes that follow the command's output
+	 * @param hasExitCode {@code true} if the terminator is followed by the command's exit code
+	 * @return the index of the terminator, or {@code -1} if the buffer does not end with a terminator followed
+	 * 	by a newline
+	 */
+	private static int indexOfTerminator(OutputBuffer buffer, byte[] terminator, boolean hasExitCode)
+	{
+		int newline = buffer.size() - 1;
+		if (newline < 0 || buffer.get(newline) != '\n')
+			return -1;
+		int start = newline;
+		if (hasExitCode)
+		{
+			while (start > 0 && isDigit(buffer.get(start - 1)))
+				--start;
+			if (start == newline)
+				return -1;
+		}
+		start -= terminator.length;
+		if (start < 0)
+			return -1;
+		for (int i = 0; i < terminator.length; ++i)
+			if (buffer.get(start + i) != terminator[i])
+				return -1;
+		return start;
+	}
+
+	/**
+	 * @param b a byte
+	 * @return {@code true} if the byte is an ASCII digit
+	 */
+	private static boolean isDigit(byte b)
+	{
+		return b >= '0' && b <= '9';
+	}
+
+	/**
+	 * Returns the exit code that follows the stdout terminator.
+	 *
+	 * @param buffer the stdout buffer
+	 * @param start  the index of the exit code's first digit
+	 * @return the exit code
+	 * @throws IOException if the exit code is out of range
+	 */
+	private static int getExitCode(OutputBuffer buffer, int start) throws IOException
+	{
+		int exitCode = 0;
+		// Skip the trailing newline
+		for (int i = start, end = buffer.size() - 1; i < end; ++i)
+		{
+			exitCode = exitCode * 10 + buffer.get(i) - '0';
+			if (exitCode > 255)
+				throw new IOException("The exit code exceeds 255");
+		}
+		return exitCode;
+	}
+
+	/**
+	 * Quotes a value for use in a POSIX shell command.
+	 *
+	 * @param value the value
+	 * @return the quoted value
+	 */
+	private static String quote(String value)
+	{
+		return "'" + value.replace("'", "'\\''") + "'";
+	}
+
+	/**
+	 * Kills the shell along with any command that it is running.
+	 */
+	@Override
+	public void close()
+	{
+		process.descendants().forEach(ProcessHandle::destroyForcibly);
+		process.destroyForcibly();
+	}
+}
@@ -0,0 +1,24 @@
+package com.github.cowwoc.anchor4j.core.internal.client;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * A JDK Flight Recorder event that describes a command whose streams are returned to the user, such as
+ * {@code container logs} or {@code container start --attach}. The event spans from the time that the process
+ * starts until it exits.
+ * <p>
+ * Streams that close faster than the event's {@code threshold} setting are not recorded. The threshold may
+ * be overridden using {@code jdk.jfr.Recording.enable(String)} or a {@code .jfc} file.
+ * <p>
+ * <b>Thread Safety</b>: This class is not thread-safe.
+ */
+@Name("com.github.cowwoc.anchor4j.Stream")
+@Label("Stream")
+@Description("A docker command whose streams are consumed by the application")
+@Threshold("100 ms")
+final class StreamEvent extends AbstractCommandEvent
+{
+}
@@ -1,8 +1,26 @@
 package com.github.cowwoc.anchor4j.core.internal.resource;
 
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonParser.Feature;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.github.cowwoc.anchor4j.core.internal.client.CommandResult;
 import com.github.cowwoc.anchor4j.core.internal.client.InternalClient;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
@@ -19,14 +37,6 @@
 	 * Splits Strings on a {@code \n}.
 	 */
 	protected static final Pattern SPLIT_LINES = Pattern.compile("\n");
-	/**
-	 * Splits Strings on a {@code :}.
-	 */
-	protected static final Pattern SPLIT_ON_COLON = Pattern.compile(":");
-	/**
-	 * Splits Strings on a {@code @}.
-	 */
-	protected static final Pattern SPLIT_ON_AT_SIGN = Pattern.compile("@");
 	/**
 	 * Splits Strings on a {@code /}.
 	 */
@@ -59,4 +69,196 @@ public boolean getBoolean(JsonNode parent, String name)
 		JsonNode childNode = parent.get(name);
 		return childNode != null && childNode.booleanValue();
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Parses a command's standard output stream as a single JSON value, without decoding it into a
+	 * {@code String}.
+	 *
+	 * @param result the result of executing a command
+	 * @return the JSON value
+	 * @throws JsonProcessingException if the output is not valid JSON
+	 */
+	protected JsonNode readTree(CommandResult result) throws JsonProcessingException
+	{
+		try
+		{
+			return client.getJsonMapper().readTree(result.stdoutAsStream());
+		}
+		catch (JsonProcessingException e)
+		{
+			throw e;
+		}
+		catch (IOException e)
+		{
+			// In-memory streams do not throw I/O errors
+			throw new AssertionError(e);
+		}
+	}
+
+	/**
+	 * Parses the output of a command that inspects multiple resources at once.
+	 * <p>
+	 * The command returns a JSON array that contains the resources that were found, in the order that they
+	 * were requested, and reports each missing resource on a separate line of its standard error stream.
+	 *
+	 * @param <T>      the type of resources
+	 * @param result   the result of executing a command
+	 * @param ids      the IDs that were passed to the command, in order, without duplicates
+	 * @param notFound matches a line of the standard error stream that reports a missing resource. The first
+	 *                 non-null capturing group must contain the ID that was requested.
+	 * @param parser   converts the JSON representation of a resource into a resource
+	 * @param found    is updated with a mapping from each ID to the resource that it refers to
+	 * @param missing  is updated with the IDs that did not match any resource
+	 * @throws AssertionError if the command's output was not in the expected format
+	 */
+	protected <T> void getAll(CommandResult result, List<String> ids, Pattern notFound,
+		Function<JsonNode, T> parser, Map<String, T> found, Set<String> missing)
+	{
+		getAll(result, ids, notFound, UnaryOperator.identity(), parser, found, missing);
+	}
+
+	/**
+	 * Parses the output of a command that inspects multiple resources at once.
+	 * <p>
+	 * The command returns a JSON array that contains the resources that were found, in the order that they
+	 * were requested, and reports each missing resource on a separate line of its standard error stream.
+	 *
+	 * @param <T>        the type of resources
+	 * @param result     the result of executing a command
+	 * @param ids        the IDs that were passed to the command, in order, without duplicates
+	 * @param notFound   matches a line of the standard error stream that reports a missing resource. The
+	 *                   first non-null capturing group must contain the ID that was requested, in any form
+	 *                   that {@code normalizer} maps to the same value.
+	 * @param normalizer converts an ID into a canonical form, for commands that report missing resources
+	 *                   using a different form than the one that was requested
+	 * @param parser     converts the JSON representation of a resource into a resource
+	 * @param found      is updated with a mapping from each ID to the resource that it refers to
+	 * @param missing    is updated with the IDs that did not match any resource
+	 * @throws AssertionError if the command's output was not in the expected format
+	 */
+	protected <T> void getAll(CommandResult result, List<String> ids, Pattern notFound,
+		UnaryOperator<String> normalizer, Function<JsonNode, T> parser, Map<String, T> found,
+		Set<String> missing)
+	{
+		// Different IDs may share the same canonical form, such as "nginx" and "nginx:latest"
+		Map<String, List<String>> normalizedToIds = new HashMap<>();
+		for (String id : ids)
+			normalizedToIds.computeIfAbsent(normalizer.apply(id), _ -> new ArrayList<>()).add(id);
+
+		Set<String> missingInResult = new HashSet<>();
+		for (String line : SPLIT_LINES.split(result.stderr()))
+		{
+			if (line.isEmpty())
+				continue;
+			Matcher matcher = notFound.matcher(line);
+			if (!matcher.matches())
+				throw result.unexpectedResponse();
+			String id = null;
+			for (int i = 1; i <= matcher.groupCount() && id == null; ++i)
+				id = matcher.group(i);
+			if (id == null)
+				throw result.unexpectedResponse();
+			List<String> requestedIds = normalizedToIds.get(normalizer.apply(id));
+			if (requestedIds == null)
+				throw result.unexpectedResponse();
+			missingInResult.addAll(requestedIds);
+		}
+		if (result.exitCode() != 0 && missingInResult.isEmpty())
+			throw result.unexpectedResponse();
+
+		JsonNode json;
+		try
+		{
+			json = readTree(result);
+		}
+		catch (JsonProcessingException e)
+		{
+			throw new AssertionError(e);
+		}
+		// If none of the resources were found, the output may be empty, in which case readTree() returns an
+		// empty MissingNode
+		if (json.size() != ids.size() - missingInResult.size())
+			throw result.unexpectedResponse();
+		int index = 0;
+		for (String id : ids)
+		{
+			if (missingInResult.contains(id))
+				missing.add(id);
+			else
+			{
+				found.put(id, parser.apply(json.get(index)));
+				++index;
+			}
+		}
+	}
+
+	/**
+	 * Parses a sequence of JSON objects, such as the output of {@code --format json}, one element at a time.
+	 * Elements are passed to the consumer as soon as they are read, without buffering the entire stream.
+	 *
+	 * @param <E>      the type of elements
+	 * @param stdout   the stream to read from. The stream is not closed.
+	 * @param reader   converts each JSON object into an element
+	 * @param consumer consumes the elements
+	 * @throws IOException if the stream cannot be read or does not contain a sequence of JSON objects
+	 */
+	protected <E> void readJsonLines(InputStream stdout, JsonElementReader<E> reader,
+		Consumer<? super E> consumer) throws IOException
+	{
+		try (JsonParser json = client.getJsonMapper().createParser(stdout))
+		{
+			json.disable(Feature.AUTO_CLOSE_SOURCE);
+			while (true)
+			{
+				JsonToken token = json.nextToken();
+				if (token == null)
+					break;
+				if (token != JsonToken.START_OBJECT)
+					throw new JsonParseException(json, "Expected an object. Actual: " + token);
+				consumer.accept(reader.read(json));
+			}
+		}
+	}
+
+	/**
+	 * Returns the text of the current field, advancing past its value. Fields whose value is not a scalar are
+	 * skipped.
+	 *
+	 * @param json the parser, positioned at the field name
+	 * @return {@code null} if the value is not a scalar
+	 * @throws IOException if the stream cannot be read
+	 */
+	protected static String nextText(JsonParser json) throws IOException
+	{
+		JsonToken token = json.nextToken();
+		if (token.isScalarValue() && token != JsonToken.VALUE_NULL)
+			return json.getText();
+		json.skipChildren();
+		return null;
+	}
+
+	/**
+	 * Returns the value of the current field as a tree.
+	 *
+	 * @param json the parser, positioned at the field name
+	 * @return the value
+	 * @throws IOException if the stream cannot be read
+	 */
+	protected static JsonNode nextTree(JsonParser json) throws IOException
+	{
+		json.nextToken();
+		return json.readValueAsTree();
+	}
+
+	/**
+	 * Skips the value of the current field.
+	 *
+	 * @param json the parser, positioned at the field name
+	 * @throws IOException if the stream cannot be read
+	 */
+	protected static void skipValue(JsonParser json) throws IOException
+	{
+		json.nextToken();
+		json.skipChildren();
+	}
+}
@@ -1,6 +1,7 @@
 package com.github.cowwoc.anchor4j.core.internal.resource;
 
 import com.github.cowwoc.anchor4j.core.internal.client.InternalClient;
+import com.github.cowwoc.anchor4j.core.resource.BuildScheduler;
 import com.github.cowwoc.anchor4j.core.resource.Builder;
 import com.github.cowwoc.anchor4j.core.resource.Builder.Status;
 import com.github.cowwoc.anchor4j.core.resource.BuilderCreator;
@@ -41,6 +42,14 @@
 	 */
 	ImageBuilder buildImage(InternalClient client);
 
+	/**
+	 * Schedules the builds of multiple images.
+	 *
+	 * @param client the client configuration
+	 * @return a build scheduler
+	 */
+	BuildScheduler scheduleBuilds(InternalClient client);
+
 	/**
 	 * Looks up a value from its String representation.
 	 *
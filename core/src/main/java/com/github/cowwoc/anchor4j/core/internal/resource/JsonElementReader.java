@@ -0,0 +1,24 @@
+package com.github.cowwoc.anchor4j.core.internal.resource;
+
+import com.fasterxml.jackson.core.JsonParser;
+
+import java.io.IOException;
+
+/**
+ * Converts a JSON object into an element, one token at a time.
+ *
+ * @param <E> the type of the element
+ */
+@FunctionalInterface
+public interface JsonElementReader<E>
+{
+	/**
+	 * Reads an element.
+	 *
+	 * @param json the parser, positioned at the object's {@code START_OBJECT} token. When this method returns,
+	 *             the parser must be positioned at the matching {@code END_OBJECT} token.
+	 * @return the element
+	 * @throws IOException if the stream cannot be read or contains unexpected values
+	 */
+	E read(JsonParser json) throws IOException;
+}
@@ -1,6 +1,7 @@
 package com.github.cowwoc.anchor4j.core.internal.resource;
 
 import com.github.cowwoc.anchor4j.core.internal.client.InternalClient;
+import com.github.cowwoc.anchor4j.core.resource.BuildScheduler;
 import com.github.cowwoc.anchor4j.core.resource.Builder;
 import com.github.cowwoc.anchor4j.core.resource.Builder.Status;
 import com.github.cowwoc.anchor4j.core.resource.BuilderCreator;
@@ -120,6 +121,24 @@ public static ImageBuilder buildImage(InternalClient client)
 		return access.buildImage(client);
 	}
 
+	/**
+	 * Creates a build scheduler.
+	 *
+	 * @param client the client configuration
+	 * @return the scheduler
+	 */
+	public static BuildScheduler scheduleBuilds(InternalClient client)
+	{
+		BuildXAccess access = buildXAccess;
+		if (access == null)
+		{
+			initialize();
+			access = buildXAccess;
+			assert access != null;
+		}
+		return access.scheduleBuilds(client);
+	}
+
 	/**
 	 * Initializes a class. If the class is already initialized, this method has no effect.
 	 */
@@ -0,0 +1,120 @@
+package com.github.cowwoc.anchor4j.core.internal.util;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static com.github.cowwoc.requirements11.java.DefaultJavaValidators.that;
+
+/**
+ * A path that is sent to the builder as part of a build context.
+ *
+ * @param relativePath the path relative to the build context, using {@code /} as a separator
+ * @param type         the type of the path
+ * @param target       the target of a symbolic link, or {@code null} if the path is not a symbolic link
+ * @param file         the absolute path of a regular file, or {@code null} if the path is not a regular file
+ */
+public record BuildContextEntry(String relativePath, Type type, String target, Path file)
+{
+	/**
+	 * Returns the paths that are sent to the builder, sorted by their relative path.
+	 *
+	 * @param buildContext the absolute path of the build context
+	 * @param ignore       the paths to exclude
+	 * @return the entries
+	 * @throws IOException if an error occurs while walking the build context
+	 */
+	public static List<BuildContextEntry> list(Path buildContext, DockerIgnore ignore) throws IOException
+	{
+		assert that(buildContext, "buildContext").isNotNull().elseThrow();
+		assert that(ignore, "ignore").isNotNull().elseThrow();
+		List<BuildContextEntry> entries = new ArrayList<>();
+		Files.walkFileTree(buildContext, new SimpleFileVisitor<>()
+		{
+			@Override
+			public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs)
+			{
+				if (dir.equals(buildContext))
+					return FileVisitResult.CONTINUE;
+				String relativePath = toRelativePath(buildContext, dir);
+				if (ignore.isExcluded(relativePath))
+				{
+					// Exceptions may include files whose parent directory is excluded
+					if (ignore.hasExceptions())
+						return FileVisitResult.CONTINUE;
+					return FileVisitResult.SKIP_SUBTREE;
+				}
+				entries.add(new BuildContextEntry(relativePath, Type.DIRECTORY, null, null));
+				return FileVisitResult.CONTINUE;
+			}
+
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException
+			{
+				String relativePath = toRelativePath(buildContext, file);
+				if (ignore.isExcluded(relativePath))
+					return FileVisitResult.CONTINUE;
+				if (attrs.isSymbolicLink())
+				{
+					String target = Files.readSymbolicLink(file).toString();
+					entries.add(new BuildContextEntry(relativePath, Type.SYMBOLIC_LINK, target, null));
+				}
+				else if (attrs.isRegularFile())
+				{
+					Type type;
+					if (Files.isExecutable(file))
+						type = Type.EXECUTABLE;
+					else
+						type = Type.FILE;
+					entries.add(new BuildContextEntry(relativePath, type, null, file));
+				}
+				return FileVisitResult.CONTINUE;
+			}
+		});
+		entries.sort(Comparator.comparing(BuildContextEntry::relativePath));
+		return entries;
+	}
+
+	/**
+	 * @param buildContext the absolute path of the build context
+	 * @param path         a path in the build context
+	 * @return the path relative to the build context, using {@code /} as a separator
+	 */
+	private static String toRelativePath(Path buildContext, Path path)
+	{
+		String relativePath = buildContext.relativize(path).toString();
+		String separator = path.getFileSystem().getSeparator();
+		if (separator.equals("/"))
+			return relativePath;
+		return relativePath.replace(separator, "/");
+	}
+
+	/**
+	 * The type of a path.
+	 */
+	public enum Type
+	{
+		/**
+		 * A directory.
+		 */
+		DIRECTORY,
+		/**
+		 * A regular file that is not executable.
+		 */
+		FILE,
+		/**
+		 * A regular file that is executable.
+		 */
+		EXECUTABLE,
+		/**
+		 * A symbolic link.
+		 */
+		SYMBOLIC_LINK
+	}
+}
@@ -0,0 +1,186 @@
+package com.github.cowwoc.anchor4j.core.internal.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.github.cowwoc.requirements11.java.DefaultJavaValidators.that;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Computes a content hash of a build context.
+ * <p>
+ * The hash covers the relative path, type and executable bit of every file that is sent to the builder, as
+ * well as the contents of regular files and the targets of symbolic links. Paths that are excluded by
+ * {@code .dockerignore} are omitted. Files are hashed in parallel.
+ */
+public final class BuildContextHasher
+{
+	/**
+	 * The size of the buffer used to read each file.
+	 */
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	/**
+	 * Returns the SHA-256 hash of a build context.
+	 *
+	 * @param buildContext the absolute path of the build context
+	 * @param ignore       the paths to exclude
+	 * @return the hash, as a lowercase hexadecimal string
+	 * @throws IOException          if an error occurs while reading the build context
+	 * @throws InterruptedException if the thread is interrupted before the operation completes
+	 */
+	public static String hash(Path buildContext, DockerIgnore ignore) throws IOException, InterruptedException
+	{
+		assert that(buildContext, "buildContext").isNotNull().elseThrow();
+		assert that(ignore, "ignore").isNotNull().elseThrow();
+		List<BuildContextEntry> entries = BuildContextEntry.list(buildContext, ignore);
+		byte[][] contentHashes = hashFiles(entries);
+
+		MessageDigest digest = newSha256();
+		for (int i = 0; i < entries.size(); ++i)
+		{
+			BuildContextEntry entry = entries.get(i);
+			digest.update(toByte(entry.type()));
+			digest.update(entry.relativePath().getBytes(UTF_8));
+			// Separate the path from the value that follows it
+			digest.update((byte) 0);
+			if (entry.target() != null)
+			{
+				digest.update(entry.target().getBytes(UTF_8));
+				digest.update((byte) 0);
+			}
+			if (contentHashes[i] != null)
+				digest.update(contentHashes[i]);
+		}
+		return HexFormat.of().formatHex(digest.digest());
+	}
+
+	/**
+	 * @param type the type of a path
+	 * @return the representation of the type in the hash
+	 */
+	private static byte toByte(BuildContextEntry.Type type)
+	{
+		return switch (type)
+		{
+			case DIRECTORY -> 'd';
+			case FILE -> 'f';
+			case EXECUTABLE -> 'x';
+			case SYMBOLIC_LINK -> 'l';
+		};
+	}
+
+	/**
+	 * Hashes the contents of regular files in parallel.
+	 *
+	 * @param entries the entries of the build context
+	 * @return the hash of each entry's contents, or {@code null} for entries that are not regular files
+	 * @throws IOException          if an error occurs while reading a file
+	 * @throws InterruptedException if the thread is interrupted before the operation completes
+	 */
+	private static byte[][] hashFiles(List<BuildContextEntry> entries) throws IOException, InterruptedException
+	{
+		byte[][] contentHashes = new byte[entries.size()][];
+		// Bound the number of files that are open at any given time
+		int workers = Math.min(entries.size(), Runtime.getRuntime().availableProcessors());
+		AtomicInteger nextIndex = new AtomicInteger();
+		Queue<Throwable> exceptions = new ConcurrentLinkedQueue<>();
+		List<Thread> threads = new ArrayList<>(workers);
+		for (int i = 0; i < workers; ++i)
+		{
+			threads.add(Thread.ofVirtual().name("anchor4j-hash-context").start(() ->
+			{
+				MessageDigest digest = newSha256();
+				ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+				while (exceptions.isEmpty())
+				{
+					int index = nextIndex.getAndIncrement();
+					if (index >= entries.size())
+						break;
+					Path file = entries.get(index).file();
+					if (file == null)
+						continue;
+					try
+					{
+						contentHashes[index] = hashFile(file, digest, buffer);
+					}
+					catch (IOException | RuntimeException e)
+					{
+						exceptions.add(e);
+					}
+				}
+			}));
+		}
+		try
+		{
+			for (Thread thread : threads)
+				thread.join();
+		}
+		catch (InterruptedException e)
+		{
+			for (Thread thread : threads)
+				thread.interrupt();
+			throw e;
+		}
+		IOException exception = Exceptions.combineAsIOException(exceptions);
+		if (exception != null)
+			throw exception;
+		return contentHashes;
+	}
+
+	/**
+	 * Hashes the contents of a file.
+	 *
+	 * @param file   the file
+	 * @param digest the digest to use. Its state is reset before returning.
+	 * @param buffer a buffer to read the file into
+	 * @return the hash
+	 * @throws IOException if an error occurs while reading the file
+	 */
+	private static byte[] hashFile(Path file, MessageDigest digest, ByteBuffer buffer) throws IOException
+	{
+		try (FileChannel channel = FileChannel.open(file, LinkOption.NOFOLLOW_LINKS))
+		{
+			while (true)
+			{
+				buffer.clear();
+				if (channel.read(buffer) == -1)
+					break;
+				buffer.flip();
+				digest.update(buffer);
+			}
+		}
+		return digest.digest();
+	}
+
+	/**
+	 * @return a new SHA-256 digest
+	 */
+	private static MessageDigest newSha256()
+	{
+		try
+		{
+			return MessageDigest.getInstance("SHA-256");
+		}
+		catch (NoSuchAlgorithmException e)
+		{
+			// Every implementation of the Java platform is required to support SHA-256
+			throw new AssertionError(e);
+		}
+	}
+
+	private BuildContextHasher()
+	{
+	}
+}
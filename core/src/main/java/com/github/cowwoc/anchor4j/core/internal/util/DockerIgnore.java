@@ -0,0 +1,252 @@
+package com.github.cowwoc.anchor4j.core.internal.util;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static com.github.cowwoc.requirements11.java.DefaultJavaValidators.that;
+
+/**
+ * The patterns of a {@code .dockerignore} file.
+ * <p>
+ * <b>Thread Safety</b>: This class is immutable and thread-safe.
+ *
+ * @see <a href="https://docs.docker.com/build/concepts/context/#dockerignore-files">.dockerignore files</a>
+ */
+public final class DockerIgnore
+{
+	/**
+	 * An instance that does not exclude any files.
+	 */
+	public static final DockerIgnore EMPTY = new DockerIgnore(List.of());
+	/**
+	 * Characters that have a special meaning in Java regular expressions but not in {@code .dockerignore}
+	 * patterns.
+	 */
+	private static final String REGEX_ONLY_CHARACTERS = ".$+(){}|^";
+	private final List<Rule> rules;
+	private final boolean hasExceptions;
+
+	/**
+	 * Creates a new instance.
+	 *
+	 * @param rules the rules, in the order that they were declared
+	 */
+	private DockerIgnore(List<Rule> rules)
+	{
+		assert that(rules, "rules").isNotNull().elseThrow();
+		this.rules = List.copyOf(rules);
+		boolean hasExceptions = false;
+		for (Rule rule : rules)
+		{
+			if (rule.exception())
+			{
+				hasExceptions = true;
+				break;
+			}
+		}
+		this.hasExceptions = hasExceptions;
+	}
+
+	/**
+	 * Returns the ignore file that applies to a build.
+	 * <p>
+	 * A {@code <Dockerfile>.dockerignore} file next to the Dockerfile takes precedence over a
+	 * {@code .dockerignore} file at the root of the build context.
+	 *
+	 * @param buildContext the build context
+	 * @param dockerfile   the Dockerfile
+	 * @return {@link #EMPTY} if neither file exists
+	 * @throws IOException if an error occurs while reading the file
+	 */
+	public static DockerIgnore of(Path buildContext, Path dockerfile) throws IOException
+	{
+		Path dockerfileIgnore = dockerfile.resolveSibling(dockerfile.getFileName() + ".dockerignore");
+		if (Files.isRegularFile(dockerfileIgnore))
+			return parse(Files.readAllLines(dockerfileIgnore));
+		Path contextIgnore = buildContext.resolve(".dockerignore");
+		if (Files.isRegularFile(contextIgnore))
+			return parse(Files.readAllLines(contextIgnore));
+		return EMPTY;
+	}
+
+	/**
+	 * Parses the contents of a {@code .dockerignore} file.
+	 *
+	 * @param lines the lines of the file
+	 * @return the patterns
+	 */
+	public static DockerIgnore parse(List<String> lines)
+	{
+		// https://github.com/moby/patternmatcher/blob/main/ignorefile/ignorefile.go
+		List<Rule> rules = new ArrayList<>();
+		for (String line : lines)
+		{
+			if (line.startsWith("#"))
+				continue;
+			String pattern = line.strip();
+			if (pattern.isEmpty())
+				continue;
+			boolean exception = pattern.startsWith("!");
+			if (exception)
+			{
+				pattern = pattern.substring(1).strip();
+				if (pattern.isEmpty())
+					continue;
+			}
+			pattern = clean(pattern);
+			if (pattern.isEmpty())
+				continue;
+			rules.add(new Rule(toRegex(pattern), exception));
+		}
+		return new DockerIgnore(rules);
+	}
+
+	/**
+	 * Normalizes a pattern the same way as Go's {@code filepath.Clean()}, relative to the root of the build
+	 * context.
+	 *
+	 * @param pattern a pattern
+	 * @return the normalized pattern, or an empty string if it refers to the root of the build context
+	 */
+	private static String clean(String pattern)
+	{
+		List<String> elements = new ArrayList<>();
+		for (String element : pattern.split("/"))
+		{
+			switch (element)
+			{
+				case "", "." ->
+				{
+					// Skip empty and redundant elements
+				}
+				case ".." ->
+				{
+					// Patterns cannot refer to paths outside the build context
+					if (!elements.isEmpty())
+						elements.removeLast();
+				}
+				default -> elements.add(element);
+			}
+		}
+		return String.join("/", elements);
+	}
+
+	/**
+	 * Converts a pattern to a regular expression.
+	 *
+	 * @param pattern a normalized pattern
+	 * @return the regular expression
+	 */
+	private static Pattern toRegex(String pattern)
+	{
+		// https://github.com/moby/patternmatcher/blob/main/patternmatcher.go
+		StringBuilder regex = new StringBuilder("^");
+		int length = pattern.length();
+		boolean inCharacterClass = false;
+		for (int i = 0; i < length; ++i)
+		{
+			char c = pattern.charAt(i);
+			switch (c)
+			{
+				case '*' ->
+				{
+					if (i + 1 < length && pattern.charAt(i + 1) == '*')
+					{
+						// "**" matches any number of directories, including none
+						++i;
+						if (i + 1 < length && pattern.charAt(i + 1) == '/')
+							++i;
+						if (i + 1 == length)
+							regex.append(".*");
+						else
+							regex.append("(.*/)?");
+					}
+					else
+						regex.append("[^/]*");
+				}
+				case '?' -> regex.append("[^/]");
+				case '\\' ->
+				{
+					if (i + 1 < length)
+					{
+						++i;
+						regex.append(Pattern.quote(String.valueOf(pattern.charAt(i))));
+					}
+				}
+				default ->
+				{
+					// Character classes such as "[^a-z]" use the same syntax in both languages
+					if (c == '[')
+						inCharacterClass = true;
+					else if (c == ']')
+						inCharacterClass = false;
+					else if (!inCharacterClass && REGEX_ONLY_CHARACTERS.indexOf(c) != -1)
+						regex.append('\\');
+					regex.append(c);
+				}
+			}
+		}
+		regex.append('$');
+		return Pattern.compile(regex.toString());
+	}
+
+	/**
+	 * Indicates if any of the patterns are exceptions (patterns that start with {@code !}). If so, the
+	 * contents of excluded directories may still be included.
+	 *
+	 * @return {@code true} if any of the patterns are exceptions
+	 */
+	public boolean hasExceptions()
+	{
+		return hasExceptions;
+	}
+
+	/**
+	 * Indicates if a path is excluded from the build context.
+	 *
+	 * @param path a path relative to the root of the build context, using {@code /} as a separator
+	 * @return {@code true} if the path is excluded
+	 */
+	public boolean isExcluded(String path)
+	{
+		boolean excluded = false;
+		for (Rule rule : rules)
+		{
+			// The last rule that matches the path, or one of its parent directories, wins
+			if (rule.matchesOrParentMatches(path))
+				excluded = !rule.exception();
+		}
+		return excluded;
+	}
+
+	/**
+	 * A single pattern.
+	 *
+	 * @param regex     the regular expression that matches excluded paths
+	 * @param exception {@code true} if matching paths are included rather than excluded
+	 */
+	private record Rule(Pattern regex, boolean exception)
+	{
+		/**
+		 * @param path a path relative to the root of the build context, using {@code /} as a separator
+		 * @return {@code true} if the pattern matches the path or one of its parent directories
+		 */
+		public boolean matchesOrParentMatches(String path)
+		{
+			if (regex.matcher(path).matches())
+				return true;
+			int separator = path.indexOf('/');
+			while (separator != -1)
+			{
+				if (regex.matcher(path.substring(0, separator)).matches())
+					return true;
+				separator = path.indexOf('/', separator + 1);
+			}
+			return false;
+		}
+	}
+}
@@ -0,0 +1,145 @@
+package com.github.cowwoc.anchor4j.core.internal.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.github.cowwoc.requirements11.java.DefaultJavaValidators.that;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * An on-disk mapping from build fingerprints to the IDs of the images that they produced.
+ * <p>
+ * The index is a text file containing one {@code <fingerprint> <imageId>} pair per line, ordered from the
+ * least to the most recently added. Once the index contains {@link #MAXIMUM_ENTRIES} entries, the oldest
+ * entries are dropped. Malformed lines are ignored.
+ * <p>
+ * <b>Thread Safety</b>: This class is thread-safe. Access by multiple processes is serialized using a file
+ * lock.
+ */
+public final class FingerprintIndex
+{
+	/**
+	 * The maximum number of entries to retain.
+	 */
+	public static final int MAXIMUM_ENTRIES = 1024;
+	/**
+	 * File locks are held on behalf of the entire JVM, so threads must be serialized separately.
+	 */
+	private static final ReentrantLock LOCK = new ReentrantLock();
+	private final Path path;
+
+	/**
+	 * Creates a new instance.
+	 *
+	 * @param path the path of the index file. The file is created if it does not exist.
+	 */
+	public FingerprintIndex(Path path)
+	{
+		assert that(path, "path").isNotNull().elseThrow();
+		this.path = path;
+	}
+
+	/**
+	 * Looks up the image that a build produced.
+	 *
+	 * @param fingerprint the build's fingerprint
+	 * @return {@code null} if no match was found
+	 * @throws IOException if an error occurs while reading the index
+	 */
+	public String get(String fingerprint) throws IOException
+	{
+		LOCK.lock();
+		try (FileChannel channel = FileChannel.open(path, CREATE, READ, WRITE);
+		     FileLock _ = channel.lock())
+		{
+			return read(channel).get(fingerprint);
+		}
+		finally
+		{
+			LOCK.unlock();
+		}
+	}
+
+	/**
+	 * Records the image that a build produced.
+	 *
+	 * @param fingerprint the build's fingerprint
+	 * @param imageId     the ID of the image
+	 * @throws IOException if an error occurs while updating the index
+	 */
+	public void put(String fingerprint, String imageId) throws IOException
+	{
+		assert that(fingerprint, "fingerprint").doesNotContainWhitespace().isNotEmpty().elseThrow();
+		assert that(imageId, "imageId").doesNotContainWhitespace().isNotEmpty().elseThrow();
+		LOCK.lock();
+		try (FileChannel channel = FileChannel.open(path, CREATE, READ, WRITE);
+		     FileLock _ = channel.lock())
+		{
+			Map<String, String> fingerprintToImageId = read(channel);
+			// Move the entry to the end of the file
+			fingerprintToImageId.remove(fingerprint);
+			fingerprintToImageId.put(fingerprint, imageId);
+
+			StringBuilder contents = new StringBuilder();
+			int skip = Math.max(0, fingerprintToImageId.size() - MAXIMUM_ENTRIES);
+			for (Map.Entry<String, String> entry : fingerprintToImageId.entrySet())
+			{
+				if (skip > 0)
+				{
+					--skip;
+					continue;
+				}
+				contents.append(entry.getKey()).append(' ').append(entry.getValue()).append('\n');
+			}
+			ByteBuffer bytes = ByteBuffer.wrap(contents.toString().getBytes(UTF_8));
+			channel.truncate(0);
+			long position = 0;
+			while (bytes.hasRemaining())
+				position += channel.write(bytes, position);
+			channel.force(false);
+		}
+		finally
+		{
+			LOCK.unlock();
+		}
+	}
+
+	/**
+	 * Reads the contents of the index.
+	 *
+	 * @param channel the index file
+	 * @return a mapping from each fingerprint to its image ID, from the least to the most recently added
+	 * @throws IOException if an error occurs while reading the index
+	 */
+	private static Map<String, String> read(FileChannel channel) throws IOException
+	{
+		long size = channel.size();
+		if (size > Integer.MAX_VALUE)
+			throw new IOException("The index is too large: " + size + " bytes");
+		ByteBuffer bytes = ByteBuffer.allocate((int) size);
+		while (bytes.hasRemaining())
+		{
+			if (channel.read(bytes, bytes.position()) == -1)
+				break;
+		}
+		Map<String, String> fingerprintToImageId = new LinkedHashMap<>();
+		String contents = new String(bytes.array(), 0, bytes.position(), UTF_8);
+		for (String line : contents.split("\n"))
+		{
+			int separator = line.indexOf(' ');
+			if (separator <= 0 || separator == line.length() - 1)
+				continue;
+			fingerprintToImageId.put(line.substring(0, separator), line.substring(separator + 1));
+		}
+		return fingerprintToImageId;
+	}
+}
@@ -0,0 +1,27 @@
+package com.github.cowwoc.anchor4j.core.metrics;
+
+/**
+ * Receives a sample for every command that a client runs.
+ * <p>
+ * Samples are delivered on the thread that ran the command, after the command completes, so implementations
+ * must be thread-safe and should return quickly.
+ *
+ * @see InMemoryCommandMetrics
+ */
+@FunctionalInterface
+public interface CommandMetrics
+{
+	/**
+	 * Discards all samples.
+	 */
+	CommandMetrics DISABLED = _ ->
+	{
+	};
+
+	/**
+	 * Records the outcome of a command.
+	 *
+	 * @param sample the sample
+	 */
+	void record(CommandSample sample);
+}
@@ -0,0 +1,89 @@
+package com.github.cowwoc.anchor4j.core.metrics;
+
+import java.time.Duration;
+
+import static com.github.cowwoc.requirements11.java.DefaultJavaValidators.requireThat;
+
+/**
+ * The outcome of a single command.
+ *
+ * @param verb            the command that was run, without its arguments (e.g. {@code container inspect} or
+ *                        {@code buildx build})
+ * @param wallTime        the amount of time that elapsed from the time the command was requested until it
+ *                        completed, including any retries
+ * @param spawnTime       the amount of time it took to start the last process. This is {@code Duration.ZERO}
+ *                        if the command was run by a pooled helper process.
+ * @param timeToFirstByte the amount of time that elapsed from the time the last process was started until it
+ *                        wrote its first byte of output, or {@code null} if it did not write any output or the
+ *                        time is unknown
+ * @param outputBytes     the number of bytes that the last process wrote to its stdout and stderr streams
+ * @param exitCode        the exit code of the last process, {@code -1} if the command failed before the
+ *                        process exited, or {@link #CANCELLED} if the caller stopped reading the command's
+ *                        output before the process exited
+ * @param retries         the number of times that the command was retried due to a transient failure
+ * @param error           the type of exception that the command threw, or {@code null} if it completed
+ *                        normally
+ */
+public record CommandSample(String verb, Duration wallTime, Duration spawnTime, Duration timeToFirstByte,
+                            long outputBytes, int exitCode, int retries, Class<? extends Throwable> error)
+{
+	/**
+	 * The exit code of a command whose caller stopped reading its output before the process exited. The
+	 * process is terminated.
+	 */
+	public static final int CANCELLED = -2;
+
+	/**
+	 * Creates a new instance.
+	 *
+	 * @param verb            the command that was run, without its arguments (e.g. {@code container inspect}
+	 *                        or {@code buildx build})
+	 * @param wallTime        the amount of time that elapsed from the time the command was requested until
+	 *                        it completed, including any retries
+	 * @param spawnTime       the amount of time it took to start the last process. This is
+	 *                        {@code Duration.ZERO} if the command was run by a pooled helper process.
+	 * @param timeToFirstByte the amount of time that elapsed from the time the last process was started until
+	 *                        it wrote its first byte of output, or {@code null} if it did not write any output
+	 *                        or the time is unknown
+	 * @param outputBytes     the number of bytes that the last process wrote to its stdout and stderr streams
+	 * @param exitCode        the exit code of the last process, {@code -1} if the command failed before the
+	 *                        process exited, or {@link #CANCELLED} if the caller stopped reading the command's
+	 *                        output before the process exited
+	 * @param retries         the number of times that the command was retried due to a transient failure
+	 * @param error           the type of exception that the command threw, or {@code null} if it completed
+	 *                        normally
+	 * @throws NullPointerException     if {@code verb}, {@code wallTime} or {@code spawnTime} are null
+	 * @throws IllegalArgumentException if {@code verb} is empty, or any of the durations or counts are negative
+	 */
+	public CommandSample
+	{
+		requireThat(verb, "verb").isNotEmpty();
+		requireThat(wallTime, "wallTime").isGreaterThanOrEqualTo(Duration.ZERO);
+		requireThat(spawnTime, "spawnTime").isGreaterThanOrEqualTo(Duration.ZERO);
+		if (timeToFirstByte != null)
+			requireThat(timeToFirstByte, "timeToFirstByte").isGreaterThanOrEqualTo(Duration.ZERO);
+		requireThat(outputBytes, "outputBytes").isNotNegative();
+		requireThat(retries, "retries").isNotNegative();
+	}
+
+	/**
+	 * Indicates if the caller stopped reading the command's output before the process exited.
+	 *
+	 * @return {@code true} if the command was cancelled
+	 */
+	public boolean cancelled()
+	{
+		return exitCode == CANCELLED;
+	}
+
+	/**
+	 * Indicates if the command failed.
+	 *
+	 * @return {@code true} if the command threw an exception or returned a non-zero exit code, other than by
+	 *  being cancelled
+	 */
+	public boolean failed()
+	{
+		return error != null || (exitCode != 0 && exitCode != CANCELLED);
+	}
+}
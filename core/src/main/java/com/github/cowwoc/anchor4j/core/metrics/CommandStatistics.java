@@ -0,0 +1,55 @@
+package com.github.cowwoc.anchor4j.core.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Aggregated samples of a single command verb.
+ * <p>
+ * Latencies are measured in nanoseconds.
+ *
+ * @param verb            the command, without its arguments (e.g. {@code container inspect})
+ * @param count           the number of times that the command was run
+ * @param failures        the number of times that the command threw an exception or returned a non-zero exit
+ *                        code. Cancelled commands are not failures.
+ * @param retries         the total number of retries
+ * @param outputBytes     the total number of bytes that the command wrote to its stdout and stderr streams
+ * @param wallTime        the distribution of wall-clock times
+ * @param spawnTime       the distribution of process spawn times
+ * @param timeToFirstByte the distribution of the time until the first byte of output. Commands that did not
+ *                        write any output are omitted.
+ * @param exitCodes       the number of times that each exit code was returned, sorted by the exit code
+ * @param errors          the number of times that each type of exception was thrown, keyed by the exception's
+ *                        class name
+ */
+public record CommandStatistics(String verb, long count, long failures, long retries, long outputBytes,
+                                HistogramSnapshot wallTime, HistogramSnapshot spawnTime,
+                                HistogramSnapshot timeToFirstByte, Map<Integer, Long> exitCodes,
+                                Map<String, Long> errors)
+{
+	/**
+	 * Creates a new instance.
+	 *
+	 * @param verb            the command, without its arguments (e.g. {@code container inspect})
+	 * @param count           the number of times that the command was run
+	 * @param failures        the number of times that the command threw an exception or returned a non-zero
+	 *                        exit code. Cancelled commands are not failures.
+	 * @param retries         the total number of retries
+	 * @param outputBytes     the total number of bytes that the command wrote to its stdout and stderr streams
+	 * @param wallTime        the distribution of wall-clock times
+	 * @param spawnTime       the distribution of process spawn times
+	 * @param timeToFirstByte the distribution of the time until the first byte of output. Commands that did
+	 *                        not write any output are omitted.
+	 * @param exitCodes       the number of times that each exit code was returned
+	 * @param errors          the number of times that each type of exception was thrown, keyed by the
+	 *                        exception's class name
+	 * @throws NullPointerException if {@code exitCodes} or {@code errors} are null
+	 */
+	public CommandStatistics
+	{
+		// Sort the keys to produce a stable export
+		exitCodes = Collections.unmodifiableMap(new TreeMap<>(exitCodes));
+		errors = Collections.unmodifiableMap(new TreeMap<>(errors));
+	}
+}
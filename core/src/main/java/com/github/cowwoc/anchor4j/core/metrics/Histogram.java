@@ -0,0 +1,115 @@
+package com.github.cowwoc.anchor4j.core.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.github.cowwoc.requirements11.java.DefaultJavaValidators.requireThat;
+
+/**
+ * A histogram of non-negative {@code long} values, such as latencies in nanoseconds.
+ * <p>
+ * Like <a href="https://hdrhistogram.github.io/HdrHistogram/">HdrHistogram</a>, values are counted in
+ * buckets whose width grows with the magnitude of the value. Values below {@code 128} are recorded exactly.
+ * Larger values are recorded with a relative error of less than {@code 1/64} (about 1.6%). The histogram
+ * covers the entire range of {@code long} using a fixed amount of memory (about 30 KiB).
+ * <p>
+ * <b>Thread Safety</b>: This class is thread-safe. Recording a value does not block.
+ */
+public final class Histogram
+{
+	/**
+	 * The number of bits used to distinguish values within a power of two.
+	 */
+	private static final int SUB_BUCKET_BITS = 6;
+	private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+	/**
+	 * Values below this threshold are recorded exactly.
+	 */
+	private static final int EXACT_LIMIT = SUB_BUCKET_COUNT * 2;
+	/**
+	 * The number of buckets needed to cover {@code Long.MAX_VALUE}.
+	 */
+	static final int BUCKET_COUNT = getIndex(Long.MAX_VALUE) + 1;
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+	private final LongAdder sum = new LongAdder();
+	private final AtomicLong minimum = new AtomicLong(Long.MAX_VALUE);
+	private final AtomicLong maximum = new AtomicLong(Long.MIN_VALUE);
+
+	/**
+	 * Creates an empty histogram.
+	 */
+	public Histogram()
+	{
+	}
+
+	/**
+	 * Records a value.
+	 *
+	 * @param value the value
+	 * @throws IllegalArgumentException if {@code value} is negative
+	 */
+	public void record(long value)
+	{
+		requireThat(value, "value").isNotNegative();
+		counts.incrementAndGet(getIndex(value));
+		sum.add(value);
+		minimum.accumulateAndGet(value, Math::min);
+		maximum.accumulateAndGet(value, Math::max);
+	}
+
+	/**
+	 * Returns a copy of the histogram's current state. Values that are recorded concurrently with this method
+	 * may be partially reflected in the snapshot.
+	 *
+	 * @return the snapshot
+	 */
+	public HistogramSnapshot snapshot()
+	{
+		long[] copy = new long[BUCKET_COUNT];
+		for (int i = 0; i < BUCKET_COUNT; ++i)
+			copy[i] = counts.get(i);
+		return new HistogramSnapshot(copy, sum.sum(), minimum.get(), maximum.get());
+	}
+
+	/**
+	 * Removes all values from the histogram.
+	 */
+	public void reset()
+	{
+		for (int i = 0; i < BUCKET_COUNT; ++i)
+			counts.set(i, 0);
+		sum.reset();
+		minimum.set(Long.MAX_VALUE);
+		maximum.set(Long.MIN_VALUE);
+	}
+
+	/**
+	 * @param value a non-negative value
+	 * @return the index of the bucket that contains the value
+	 */
+	static int getIndex(long value)
+	{
+		if (value < EXACT_LIMIT)
+			return (int) value;
+		// Keep the SUB_BUCKET_BITS + 1 most significant bits of the value
+		int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+		int mantissa = (int) (value >>> shift);
+		return (shift + 1) * SUB_BUCKET_COUNT + mantissa - SUB_BUCKET_COUNT;
+	}
+
+	/**
+	 * @param index the index of a bucket
+	 * @return the largest value that is recorded in the bucket
+	 */
+	static long getHighestValue(int index)
+	{
+		if (index < EXACT_LIMIT)
+			return index;
+		int shift = index / SUB_BUCKET_COUNT - 1;
+		long mantissa = index % SUB_BUCKET_COUNT + SUB_BUCKET_COUNT;
+		long lowest = mantissa << shift;
+		// Avoid overflowing the last bucket
+		return lowest + ((1L << shift) - 1);
+	}
+}
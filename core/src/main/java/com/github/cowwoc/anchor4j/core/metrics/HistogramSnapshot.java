@@ -0,0 +1,127 @@
+package com.github.cowwoc.anchor4j.core.metrics;
+
+import com.github.cowwoc.anchor4j.core.internal.util.ToStringBuilder;
+
+import static com.github.cowwoc.requirements11.java.DefaultJavaValidators.requireThat;
+import static com.github.cowwoc.requirements11.java.DefaultJavaValidators.that;
+
+/**
+ * The state of a {@link Histogram} at a point in time.
+ * <p>
+ * <b>Thread Safety</b>: This class is immutable and thread-safe.
+ */
+public final class HistogramSnapshot
+{
+	private final long[] counts;
+	private final long count;
+	private final long sum;
+	private final long minimum;
+	private final long maximum;
+
+	/**
+	 * Creates a new instance.
+	 *
+	 * @param counts  the number of values in each bucket. The array is not copied.
+	 * @param sum     the sum of all values
+	 * @param minimum the smallest value, or {@code Long.MAX_VALUE} if the histogram is empty
+	 * @param maximum the largest value, or {@code Long.MIN_VALUE} if the histogram is empty
+	 */
+	HistogramSnapshot(long[] counts, long sum, long minimum, long maximum)
+	{
+		assert that(counts.length, "counts.length").isEqualTo(Histogram.BUCKET_COUNT).elseThrow();
+		this.counts = counts;
+		long count = 0;
+		for (long bucket : counts)
+			count += bucket;
+		this.count = count;
+		this.sum = sum;
+		this.minimum = minimum;
+		this.maximum = maximum;
+	}
+
+	/**
+	 * Returns the number of values that were recorded.
+	 *
+	 * @return the number of values
+	 */
+	public long getCount()
+	{
+		return count;
+	}
+
+	/**
+	 * Returns the smallest value that was recorded.
+	 *
+	 * @return {@code 0} if no values were recorded
+	 */
+	public long getMinimum()
+	{
+		if (count == 0)
+			return 0;
+		return minimum;
+	}
+
+	/**
+	 * Returns the largest value that was recorded.
+	 *
+	 * @return {@code 0} if no values were recorded
+	 */
+	public long getMaximum()
+	{
+		if (count == 0)
+			return 0;
+		return maximum;
+	}
+
+	/**
+	 * Returns the arithmetic mean of the values that were recorded.
+	 *
+	 * @return {@code 0} if no values were recorded
+	 */
+	public double getMean()
+	{
+		if (count == 0)
+			return 0;
+		return (double) sum / count;
+	}
+
+	/**
+	 * Returns the value that the specified percentage of recorded values are less than or equal to. The
+	 * result is accurate to within the precision of the histogram's buckets, and never exceeds
+	 * {@link #getMaximum()}.
+	 *
+	 * @param percentile the percentile, between {@code 0} and {@code 100} (e.g. {@code 99.9})
+	 * @return {@code 0} if no values were recorded
+	 * @throws IllegalArgumentException if {@code percentile} is out of range
+	 */
+	public long getValueAtPercentile(double percentile)
+	{
+		requireThat(percentile, "percentile").isBetween(0.0, true, 100.0, true);
+		if (count == 0)
+			return 0;
+		// The rank of the value, rounded up so that the 100th percentile returns the maximum
+		long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+		long seen = 0;
+		for (int i = 0; i < counts.length; ++i)
+		{
+			seen += counts[i];
+			if (seen >= rank)
+				return Math.min(Histogram.getHighestValue(i), maximum);
+		}
+		return maximum;
+	}
+
+	@Override
+	public String toString()
+	{
+		return new ToStringBuilder(HistogramSnapshot.class).
+			add("count", count).
+			add("minimum", getMinimum()).
+			add("mean", getMean()).
+			add("p50", getValueAtPercentile(50)).
+			add("p90", getValueAtPercentile(90)).
+			add("p99", getValueAtPercentile(99)).
+			add("maximum", getMaximum()).
+			toString();
+	}
+}
@@ -0,0 +1,130 @@
+package com.github.cowwoc.anchor4j.core.metrics;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.github.cowwoc.requirements11.java.DefaultJavaValidators.requireThat;
+
+/**
+ * Aggregates command samples in memory, grouped by their verb.
+ * <p>
+ * Memory usage is proportional to the number of distinct verbs, not the number of samples. Use
+ * {@link #snapshot()} to export the statistics to a monitoring system.
+ * <p>
+ * <b>Thread Safety</b>: This class is thread-safe.
+ */
+public final class InMemoryCommandMetrics implements CommandMetrics
+{
+	private final ConcurrentMap<String, VerbMetrics> verbToMetrics = new ConcurrentHashMap<>();
+
+	/**
+	 * Creates a new instance.
+	 */
+	public InMemoryCommandMetrics()
+	{
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @throws NullPointerException if {@code sample} is null
+	 */
+	@Override
+	public void record(CommandSample sample)
+	{
+		requireThat(sample, "sample").isNotNull();
+		verbToMetrics.computeIfAbsent(sample.verb(), _ -> new VerbMetrics()).record(sample);
+	}
+
+	/**
+	 * Returns the statistics that were collected so far.
+	 *
+	 * @return a mapping from each verb to its statistics, sorted by the verb
+	 */
+	public Map<String, CommandStatistics> snapshot()
+	{
+		Map<String, CommandStatistics> verbToStatistics = new TreeMap<>();
+		for (Map.Entry<String, VerbMetrics> entry : verbToMetrics.entrySet())
+			verbToStatistics.put(entry.getKey(), entry.getValue().snapshot(entry.getKey()));
+		return verbToStatistics;
+	}
+
+	/**
+	 * Discards the statistics that were collected so far.
+	 */
+	public void reset()
+	{
+		verbToMetrics.clear();
+	}
+
+	@Override
+	public String toString()
+	{
+		StringBuilder result = new StringBuilder();
+		for (CommandStatistics statistics : snapshot().values())
+		{
+			if (!result.isEmpty())
+				result.append('\n');
+			result.append(statistics);
+		}
+		return result.toString();
+	}
+
+	/**
+	 * The metrics of a single verb.
+	 */
+	private static final class VerbMetrics
+	{
+		private final LongAdder count = new LongAdder();
+		private final LongAdder failures = new LongAdder();
+		private final LongAdder retries = new LongAdder();
+		private final LongAdder outputBytes = new LongAdder();
+		private final Histogram wallTime = new Histogram();
+		private final Histogram spawnTime = new Histogram();
+		private final Histogram timeToFirstByte = new Histogram();
+		private final ConcurrentMap<Integer, LongAdder> exitCodes = new ConcurrentHashMap<>();
+		private final ConcurrentMap<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+		/**
+		 * Records a sample.
+		 *
+		 * @param sample the sample
+		 */
+		public void record(CommandSample sample)
+		{
+			count.increment();
+			if (sample.failed())
+				failures.increment();
+			retries.add(sample.retries());
+			outputBytes.add(sample.outputBytes());
+			wallTime.record(sample.wallTime().toNanos());
+			spawnTime.record(sample.spawnTime().toNanos());
+			if (sample.timeToFirstByte() != null)
+				timeToFirstByte.record(sample.timeToFirstByte().toNanos());
+			exitCodes.computeIfAbsent(sample.exitCode(), _ -> new LongAdder()).increment();
+			if (sample.error() != null)
+				errors.computeIfAbsent(sample.error().getName(), _ -> new LongAdder()).increment();
+		}
+
+		/**
+		 * @param verb the verb
+		 * @return the statistics collected so far
+		 */
+		public CommandStatistics snapshot(String verb)
+		{
+			Map<Integer, Long> exitCodeToCount = new HashMap<>();
+			for (Map.Entry<Integer, LongAdder> entry : exitCodes.entrySet())
+				exitCodeToCount.put(entry.getKey(), entry.getValue().sum());
+			Map<String, Long> errorToCount = new HashMap<>();
+			for (Map.Entry<String, LongAdder> entry : errors.entrySet())
+				errorToCount.put(entry.getKey(), entry.getValue().sum());
+			return new CommandStatistics(verb, count.sum(), failures.sum(), retries.sum(), outputBytes.sum(),
+				wallTime.snapshot(), spawnTime.snapshot(), timeToFirstByte.snapshot(), exitCodeToCount,
+				errorToCount);
+		}
+	}
+}
@@ -1,5 +1,7 @@
 package com.github.cowwoc.anchor4j.core.resource;
 
+import com.github.cowwoc.anchor4j.core.resource.ImageBuilder.ProgressType;
+
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.nio.file.Path;
@@ -10,6 +12,16 @@
  */
 public interface BuildListener
 {
+	/**
+	 * Returns the format that the build should use to report its progress.
+	 *
+	 * @return {@link ProgressType#PLAIN} by default
+	 */
+	default ProgressType getProgressType()
+	{
+		return ProgressType.PLAIN;
+	}
+
 	/**
 	 * Invoked after the build starts.
 	 *
@@ -0,0 +1,103 @@
+package com.github.cowwoc.anchor4j.core.resource;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static com.github.cowwoc.requirements11.java.DefaultJavaValidators.requireThat;
+
+/**
+ * A summary of the steps that a build executed.
+ *
+ * @param steps            the steps, in the order that the builder first reported them. This includes
+ *                         internal steps such as loading the build context and resolving image metadata.
+ * @param bytesTransferred the number of bytes that the builder reported transferring, such as the build
+ *                         context and the image layers that it pulled
+ */
+public record BuildReport(List<Step> steps, long bytesTransferred)
+{
+	/**
+	 * Creates a new instance.
+	 *
+	 * @param steps            the steps, in the order that the builder first reported them. This includes
+	 *                         internal steps such as loading the build context and resolving image metadata.
+	 * @param bytesTransferred the number of bytes that the builder reported transferring, such as the build
+	 *                         context and the image layers that it pulled
+	 * @throws NullPointerException     if {@code steps} is null
+	 * @throws IllegalArgumentException if {@code bytesTransferred} is negative
+	 */
+	public BuildReport
+	{
+		requireThat(steps, "steps").isNotNull();
+		requireThat(bytesTransferred, "bytesTransferred").isNotNegative();
+		steps = List.copyOf(steps);
+	}
+
+	/**
+	 * Returns the number of steps whose result was loaded from the build cache.
+	 *
+	 * @return the number of cached steps
+	 */
+	public int getCachedStepCount()
+	{
+		int count = 0;
+		for (Step step : steps)
+			if (step.cached())
+				++count;
+		return count;
+	}
+
+	/**
+	 * Returns the number of steps whose result was not loaded from the build cache.
+	 *
+	 * @return the number of uncached steps
+	 */
+	public int getUncachedStepCount()
+	{
+		return steps.size() - getCachedStepCount();
+	}
+
+	/**
+	 * A single step of the build, such as a Dockerfile instruction.
+	 *
+	 * @param digest    the builder's identifier for the step
+	 * @param name      a description of the step (e.g. {@code [2/3] RUN make})
+	 * @param started   the time that the step started, or {@code null} if it did not start
+	 * @param completed the time that the step completed, or {@code null} if it did not complete
+	 * @param cached    {@code true} if the step's result was loaded from the build cache
+	 * @param error     the reason that the step failed, or an empty string if it did not fail
+	 */
+	public record Step(String digest, String name, Instant started, Instant completed, boolean cached,
+	                   String error)
+	{
+		/**
+		 * Creates a new instance.
+		 *
+		 * @param digest    the builder's identifier for the step
+		 * @param name      a description of the step (e.g. {@code [2/3] RUN make})
+		 * @param started   the time that the step started, or {@code null} if it did not start
+		 * @param completed the time that the step completed, or {@code null} if it did not complete
+		 * @param cached    {@code true} if the step's result was loaded from the build cache
+		 * @param error     the reason that the step failed, or an empty string if it did not fail
+		 * @throws NullPointerException if {@code digest}, {@code name} or {@code error} are null
+		 */
+		public Step
+		{
+			requireThat(digest, "digest").isNotNull();
+			requireThat(name, "name").isNotNull();
+			requireThat(error, "error").isNotNull();
+		}
+
+		/**
+		 * Returns the amount of time that the step took to run.
+		 *
+		 * @return {@code Duration.ZERO} if the step did not start or complete
+		 */
+		public Duration getDuration()
+		{
+			if (started == null || completed == null)
+				return Duration.ZERO;
+			return Duration.between(started, completed);
+		}
+	}
+}
@@ -0,0 +1,495 @@
+package com.github.cowwoc.anchor4j.core.resource;
+
+import com.github.cowwoc.anchor4j.core.internal.client.InternalClient;
+import com.github.cowwoc.anchor4j.core.internal.util.ToStringBuilder;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.github.cowwoc.requirements11.java.DefaultJavaValidators.requireThat;
+import static com.github.cowwoc.requirements11.java.DefaultJavaValidators.that;
+
+/**
+ * Builds multiple images concurrently, respecting the dependencies between them.
+ * <p>
+ * Each job is an {@link ImageBuilder} that runs once all of its dependencies have been built. Jobs that do not
+ * depend on each other run concurrently, spread across the builders registered using
+ * {@link #builder(String, int)}. Each job reports its progress to the {@link BuildListener} of its own
+ * {@code ImageBuilder}.
+ * <p>
+ * Dependencies only control the order in which jobs run. A job that uses another job's image as its base
+ * image must be able to resolve it, for example by referring to a tag that the dependency exported to the
+ * image store or pushed to a registry that the builder can access.
+ */
+public final class BuildScheduler
+{
+	/**
+	 * The maximum number of jobs that may run concurrently if no builders were registered.
+	 */
+	private static final int DEFAULT_MAXIMUM_CONCURRENCY = 4;
+	private final InternalClient client;
+	/**
+	 * A mapping from each builder's name to the maximum number of jobs that it may run concurrently.
+	 */
+	private final Map<String, Integer> builderToMaximumConcurrency = new LinkedHashMap<>();
+	private final Map<String, Job> nameToJob = new LinkedHashMap<>();
+
+	/**
+	 * Creates a build scheduler.
+	 *
+	 * @param client the client configuration
+	 */
+	BuildScheduler(InternalClient client)
+	{
+		assert that(client, "client").isNotNull().elseThrow();
+		this.client = client;
+	}
+
+	/**
+	 * Adds a builder that jobs may run on. If no builders are added, each job runs on the builder that its
+	 * {@code ImageBuilder} specifies, and at most {@value DEFAULT_MAXIMUM_CONCURRENCY} jobs run concurrently.
+	 * <p>
+	 * Jobs are assigned to the builder with the most unused capacity, overriding any builder that their
+	 * {@code ImageBuilder} specifies.
+	 *
+	 * @param name               the name of the builder
+	 * @param maximumConcurrency the maximum number of jobs that the builder may run concurrently
+	 * @return this
+	 * @throws NullPointerException     if {@code name} is null
+	 * @throws IllegalArgumentException if:
+	 *                                  <ul>
+	 *                                    <li>{@code name}'s format is invalid.</li>
+	 *                                    <li>{@code maximumConcurrency} is not positive.</li>
+	 *                                  </ul>
+	 * @see BuilderCreator
+	 */
+	public BuildScheduler builder(String name, int maximumConcurrency)
+	{
+		client.validateName(name, "name");
+		requireThat(maximumConcurrency, "maximumConcurrency").isPositive();
+		builderToMaximumConcurrency.put(name, maximumConcurrency);
+		return this;
+	}
+
+	/**
+	 * Adds a job.
+	 * <p>
+	 * The scheduler takes ownership of {@code imageBuilder}, which must not be modified or used to build
+	 * images until {@link #run()} returns.
+	 *
+	 * @param name         the name of the job
+	 * @param imageBuilder the image to build
+	 * @param buildContext the build context, the directory relative to which paths in the Dockerfile are
+	 *                     evaluated
+	 * @param dependencies the jobs that must complete successfully before this job runs
+	 * @return the job
+	 * @throws NullPointerException     if any of the arguments are null
+	 * @throws IllegalArgumentException if:
+	 *                                  <ul>
+	 *                                    <li>{@code name} contains whitespace, or is empty.</li>
+	 *                                    <li>another job has the same name.</li>
+	 *                                    <li>{@code dependencies} contains a job that was not added to this
+	 *                                    scheduler.</li>
+	 *                                  </ul>
+	 */
+	public Job add(String name, ImageBuilder imageBuilder, Path buildContext, Job... dependencies)
+	{
+		requireThat(name, "name").doesNotContainWhitespace().isNotEmpty();
+		requireThat(imageBuilder, "imageBuilder").isNotNull();
+		requireThat(buildContext, "buildContext").isNotNull();
+		requireThat(dependencies, "dependencies").isNotNull();
+		if (nameToJob.containsKey(name))
+			throw new IllegalArgumentException("A job with the same name already exists: " + name);
+		for (Job dependency : dependencies)
+		{
+			requireThat(dependency, "dependency").isNotNull();
+			// Dependencies must be added first, so the jobs cannot contain a cycle
+			if (nameToJob.get(dependency.name) != dependency)
+			{
+				throw new IllegalArgumentException("Dependencies must be added to this scheduler before the jobs " +
+					"that depend on them.\n" +
+					"Dependency: " + dependency.name);
+			}
+		}
+		Job job = new Job(name, imageBuilder, buildContext, List.of(dependencies));
+		nameToJob.put(name, job);
+		return job;
+	}
+
+	/**
+	 * Runs all jobs, blocking until they complete.
+	 * <p>
+	 * If a job fails, the jobs that depend on it are skipped. Jobs that do not depend on it continue to run.
+	 *
+	 * @return a mapping from the name of each job to the ID of the image that it built, or {@code null} if the
+	 *  job's exporters do not output an image
+	 * @throws IOException          if any of the jobs failed. The exception's cause is the first failure,
+	 *                              and any other failures are suppressed.
+	 * @throws InterruptedException if the thread is interrupted before the operation completes. This can happen
+	 *                              due to shutdown signals. Running jobs are interrupted.
+	 */
+	public Map<String, String> run() throws IOException, InterruptedException
+	{
+		return new Run().run();
+	}
+
+	@Override
+	public String toString()
+	{
+		return new ToStringBuilder(BuildScheduler.class).
+			add("builders", builderToMaximumConcurrency).
+			add("jobs", nameToJob.keySet()).
+			toString();
+	}
+
+	/**
+	 * A single image build.
+	 * <p>
+	 * <b>Thread Safety</b>: This class is immutable and thread-safe.
+	 */
+	public static final class Job
+	{
+		private final String name;
+		private final ImageBuilder imageBuilder;
+		private final Path buildContext;
+		private final List<Job> dependencies;
+
+		/**
+		 * Creates a new job.
+		 *
+		 * @param name         the name of the job
+		 * @param imageBuilder the image to build
+		 * @param buildContext the build context
+		 * @param dependencies the jobs that must complete successfully before this job runs
+		 */
+		private Job(String name, ImageBuilder imageBuilder, Path buildContext, List<Job> dependencies)
+		{
+			assert that(name, "name").isNotNull().elseThrow();
+			assert that(imageBuilder, "imageBuilder").isNotNull().elseThrow();
+			assert that(buildContext, "buildContext").isNotNull().elseThrow();
+			assert that(dependencies, "dependencies").isNotNull().elseThrow();
+			this.name = name;
+			this.imageBuilder = imageBuilder;
+			this.buildContext = buildContext;
+			this.dependencies = dependencies;
+		}
+
+		/**
+		 * Returns the name of the job.
+		 *
+		 * @return the name
+		 */
+		public String getName()
+		{
+			return name;
+		}
+
+		/**
+		 * Returns the jobs that must complete successfully before this job runs.
+		 *
+		 * @return the dependencies
+		 */
+		public List<Job> getDependencies()
+		{
+			return dependencies;
+		}
+
+		@Override
+		public String toString()
+		{
+			List<String> dependencyNames = new ArrayList<>(dependencies.size());
+			for (Job dependency : dependencies)
+				dependencyNames.add(dependency.name);
+			return new ToStringBuilder(Job.class).
+				add("name", name).
+				add("dependencies", dependencyNames).
+				toString();
+		}
+	}
+
+	/**
+	 * The state of a job.
+	 */
+	private enum State
+	{
+		/**
+		 * The job is waiting for its dependencies or for a builder.
+		 */
+		PENDING,
+		/**
+		 * The job is running.
+		 */
+		RUNNING,
+		/**
+		 * The job built its image.
+		 */
+		SUCCEEDED,
+		/**
+		 * The job failed.
+		 */
+		FAILED,
+		/**
+		 * The job was not run because one of its dependencies did not succeed.
+		 */
+		SKIPPED
+	}
+
+	/**
+	 * A single invocation of {@link #run()}.
+	 */
+	private final class Run
+	{
+		private final ReentrantLock lock = new ReentrantLock();
+		/**
+		 * Signaled when a job completes.
+		 */
+		private final Condition jobCompleted = lock.newCondition();
+		/**
+		 * Guarded by {@code lock}.
+		 */
+		private final Map<Job, State> jobToState = new LinkedHashMap<>();
+		/**
+		 * The number of jobs that each builder is running. Guarded by {@code lock}.
+		 */
+		private final Map<String, Integer> builderToRunning = new LinkedHashMap<>();
+		/**
+		 * Guarded by {@code lock}.
+		 */
+		private final Map<String, String> nameToImageId = new LinkedHashMap<>();
+		/**
+		 * Guarded by {@code lock}.
+		 */
+		private final Map<Job, Throwable> jobToFailure = new LinkedHashMap<>();
+		/**
+		 * Guarded by {@code lock}.
+		 */
+		private final List<Thread> threads = new ArrayList<>();
+		/**
+		 * The number of jobs that are running. Guarded by {@code lock}.
+		 */
+		private int running;
+
+		/**
+		 * Creates a new run.
+		 */
+		Run()
+		{
+			for (Job job : nameToJob.values())
+				jobToState.put(job, State.PENDING);
+			for (String builder : builderToMaximumConcurrency.keySet())
+				builderToRunning.put(builder, 0);
+		}
+
+		/**
+		 * Runs all jobs, blocking until they complete.
+		 *
+		 * @return a mapping from the name of each job to the ID of the image that it built
+		 * @throws IOException          if any of the jobs failed
+		 * @throws InterruptedException if the thread is interrupted before the operation completes
+		 */
+		public Map<String, String> run() throws IOException, InterruptedException
+		{
+			lock.lock();
+			try
+			{
+				while (true)
+				{
+					boolean pending = startJobs();
+					if (!pending && running == 0)
+						break;
+					jobCompleted.await();
+				}
+			}
+			catch (InterruptedException e)
+			{
+				for (Thread thread : threads)
+					thread.interrupt();
+				throw e;
+			}
+			finally
+			{
+				lock.unlock();
+			}
+			if (!jobToFailure.isEmpty())
+				throw getFailure();
+			return Collections.unmodifiableMap(nameToImageId);
+		}
+
+		/**
+		 * Starts all jobs whose dependencies succeeded, as long as builders have unused capacity. The caller
+		 * must hold {@code lock}.
+		 *
+		 * @return {@code true} if any jobs are still pending
+		 */
+		private boolean startJobs()
+		{
+			boolean pending = false;
+			for (Map.Entry<Job, State> entry : jobToState.entrySet())
+			{
+				if (entry.getValue() != State.PENDING)
+					continue;
+				Job job = entry.getKey();
+				State dependencyState = getDependencyState(job);
+				if (dependencyState == State.SKIPPED)
+				{
+					entry.setValue(State.SKIPPED);
+					continue;
+				}
+				if (dependencyState == State.SUCCEEDED)
+				{
+					String builder = reserveBuilder();
+					if (builder != null)
+					{
+						entry.setValue(State.RUNNING);
+						++running;
+						threads.add(Thread.ofVirtual().name("anchor4j-build-" + job.name).
+							start(() -> runJob(job, builder)));
+						continue;
+					}
+				}
+				pending = true;
+			}
+			return pending;
+		}
+
+		/**
+		 * Returns the combined state of a job's dependencies. The caller must hold {@code lock}.
+		 *
+		 * @param job a job
+		 * @return {@code SUCCEEDED} if all dependencies succeeded, {@code SKIPPED} if any dependency failed or
+		 *  was skipped, or {@code PENDING} otherwise
+		 */
+		private State getDependencyState(Job job)
+		{
+			State result = State.SUCCEEDED;
+			for (Job dependency : job.dependencies)
+			{
+				switch (jobToState.get(dependency))
+				{
+					case FAILED, SKIPPED ->
+					{
+						return State.SKIPPED;
+					}
+					case PENDING, RUNNING -> result = State.PENDING;
+					case SUCCEEDED ->
+					{
+					}
+				}
+			}
+			return result;
+		}
+
+		/**
+		 * Reserves capacity on the builder with the most unused capacity. The caller must hold {@code lock}.
+		 *
+		 * @return the name of the builder, an empty string to use the job's own builder, or {@code null} if all
+		 *  builders are at capacity
+		 */
+		private String reserveBuilder()
+		{
+			if (builderToMaximumConcurrency.isEmpty())
+			{
+				if (running >= DEFAULT_MAXIMUM_CONCURRENCY)
+					return null;
+				return "";
+			}
+			String bestBuilder = null;
+			int bestUnused = 0;
+			for (Map.Entry<String, Integer> entry : builderToMaximumConcurrency.entrySet())
+			{
+				int unused = entry.getValue() - builderToRunning.get(entry.getKey());
+				if (unused > bestUnused)
+				{
+					bestBuilder = entry.getKey();
+					bestUnused = unused;
+				}
+			}
+			if (bestBuilder != null)
+				builderToRunning.merge(bestBuilder, 1, Integer::sum);
+			return bestBuilder;
+		}
+
+		/**
+		 * Runs a job on the current thread.
+		 *
+		 * @param job     the job
+		 * @param builder the name of the builder to use, or an empty string to use the job's own builder
+		 */
+		private void runJob(Job job, String builder)
+		{
+			String imageId = null;
+			Throwable failure = null;
+			try
+			{
+				ImageBuilder imageBuilder = job.imageBuilder;
+				if (!builder.isEmpty())
+					imageBuilder.builder(builder);
+				imageId = imageBuilder.build(job.buildContext);
+			}
+			catch (IOException | InterruptedException | RuntimeException | Error e)
+			{
+				failure = e;
+			}
+			lock.lock();
+			try
+			{
+				if (failure == null)
+				{
+					jobToState.put(job, State.SUCCEEDED);
+					nameToImageId.put(job.name, imageId);
+				}
+				else
+				{
+					jobToState.put(job, State.FAILED);
+					jobToFailure.put(job, failure);
+				}
+				if (!builder.isEmpty())
+					builderToRunning.merge(builder, -1, Integer::sum);
+				--running;
+				jobCompleted.signalAll();
+			}
+			finally
+			{
+				lock.unlock();
+			}
+		}
+
+		/**
+		 * Returns an exception that describes the jobs that failed or were skipped.
+		 *
+		 * @return the exception
+		 */
+		private IOException getFailure()
+		{
+			StringJoiner failed = new StringJoiner(", ");
+			for (Job job : jobToFailure.keySet())
+				failed.add(job.name);
+			StringJoiner skipped = new StringJoiner(", ");
+			for (Map.Entry<Job, State> entry : jobToState.entrySet())
+			{
+				if (entry.getValue() == State.SKIPPED)
+					skipped.add(entry.getKey().name);
+			}
+			IOException exception = null;
+			for (Throwable failure : jobToFailure.values())
+			{
+				if (exception == null)
+				{
+					exception = new IOException("Jobs failed: " + failed + "\n" +
+						"Skipped    : " + skipped, failure);
+				}
+				else
+					exception.addSuppressed(failure);
+			}
+			return exception;
+		}
+	}
+}
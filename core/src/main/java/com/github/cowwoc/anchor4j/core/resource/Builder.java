@@ -41,6 +41,12 @@ public ImageBuilder buildImage(InternalClient client)
 				return new ImageBuilder(client);
 			}
 
+			@Override
+			public BuildScheduler scheduleBuilds(InternalClient client)
+			{
+				return new BuildScheduler(client);
+			}
+
 			@Override
 			public Status getStatusFromString(String value)
 			{
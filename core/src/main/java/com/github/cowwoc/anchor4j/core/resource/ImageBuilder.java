@@ -2,44 +2,65 @@
 
 import com.github.cowwoc.anchor4j.core.exception.ContextNotFoundException;
 import com.github.cowwoc.anchor4j.core.exception.UnsupportedExporterException;
+import com.github.cowwoc.anchor4j.core.internal.client.CommandRecorder;
 import com.github.cowwoc.anchor4j.core.internal.client.CommandResult;
 import com.github.cowwoc.anchor4j.core.internal.client.InternalClient;
 import com.github.cowwoc.anchor4j.core.internal.client.Processes;
+import com.github.cowwoc.anchor4j.core.internal.util.BuildContextHasher;
+import com.github.cowwoc.anchor4j.core.internal.util.DockerIgnore;
+import com.github.cowwoc.anchor4j.core.internal.util.FingerprintIndex;
 import com.github.cowwoc.anchor4j.core.internal.util.ToStringBuilder;
 import com.github.cowwoc.anchor4j.core.resource.BuildListener.Output;
 import com.github.cowwoc.requirements11.annotation.CheckReturnValue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.BufferedOutputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.HexFormat;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Queue;
 import java.util.Set;
 import java.util.StringJoiner;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.zip.GZIPOutputStream;
 
 import static com.github.cowwoc.requirements11.java.DefaultJavaValidators.requireThat;
 import static com.github.cowwoc.requirements11.java.DefaultJavaValidators.that;
+import static java.nio.charset.StandardCharsets.UTF_8;
 
 /**
  * Represents an operation that builds an image.
  */
 public final class ImageBuilder
 {
+	/**
+	 * The size of the buffer used to stream build contexts to the builder.
+	 */
+	private static final int ARCHIVE_BUFFER_SIZE = 64 * 1024;
 	private final InternalClient client;
 	private Path dockerfile;
 	private final Set<String> platforms = new HashSet<>();
 	private final Set<String> tags = new HashSet<>();
 	private final Set<String> cacheFrom = new HashSet<>();
+	private final Set<CacheBackend> cacheTo = new LinkedHashSet<>();
 	private final Set<Exporter> exporters = new LinkedHashSet<>();
 	private String builder = "";
 	private BuildListener listener = new DefaultBuildListener();
+	private Path fingerprintIndex;
+	private CompressionType contextCompression = CompressionType.UNCOMPRESSED;
 	private final Logger log = LoggerFactory.getLogger(ImageBuilder.class);
 
 	/**
@@ -119,6 +140,47 @@ public ImageBuilder cacheFrom(String source)
 		return this;
 	}
 
+	/**
+	 * Adds an external cache source to use. By default, no external cache sources are used.
+	 *
+	 * @param source the external cache source
+	 * @return this
+	 * @throws NullPointerException     if {@code source} is null
+	 * @throws IllegalArgumentException if {@code source} cannot be imported. Inline caches are imported using
+	 *                                  {@link CacheBackend#registry(String)}.
+	 */
+	public ImageBuilder cacheFrom(CacheBackend source)
+	{
+		requireThat(source, "source").isNotNull();
+		if (!source.supportsImport())
+		{
+			throw new IllegalArgumentException("Caches of type \"" + source.getType() + "\" cannot be " +
+				"imported. Use CacheBackend.registry() to import the cache from the image instead.");
+		}
+		this.cacheFrom.add(source.toCacheFromCommandLine());
+		return this;
+	}
+
+	/**
+	 * Adds a destination to export the build cache to. By default, the build cache is only retained by the
+	 * builder.
+	 * <p>
+	 * Exporting the cache allows other builders, such as ephemeral CI runners, to reuse layers from this build
+	 * by passing the same backend to {@link #cacheFrom(CacheBackend)}. The {@code docker} driver only supports
+	 * the {@link CacheBackend#inline() inline} backend unless the containerd image store is enabled.
+	 *
+	 * @param destination the cache destination
+	 * @return this
+	 * @throws NullPointerException if {@code destination} is null
+	 * @see <a href="https://docs.docker.com/build/cache/backends/">Cache storage backends</a>
+	 */
+	public ImageBuilder cacheTo(CacheBackend destination)
+	{
+		requireThat(destination, "destination").isNotNull();
+		this.cacheTo.add(destination);
+		return this;
+	}
+
 	/**
 	 * Adds an output format and location for the image. By default, a build has no exporters, meaning the
 	 * resulting image is discarded after the build completes. However, multiple exporters can be configured to
@@ -166,6 +228,61 @@ public ImageBuilder listener(BuildListener listener)
 		return this;
 	}
 
+	/**
+	 * Skips the build if its inputs did not change since a previous build that produced an image. By default,
+	 * every invocation of {@link #build(Path)} runs the build.
+	 * <p>
+	 * The inputs consist of the contents of the build context (excluding any files matched by
+	 * {@code .dockerignore}), the Dockerfile, the platforms, the references, the external cache sources, the
+	 * exporters and the builder. Their fingerprint is mapped to the resulting image ID in {@code index}. If a
+	 * subsequent build has the same fingerprint, the image still exists in the local image store and all of the
+	 * build's references still refer to it, the build returns the existing image ID without running
+	 * {@code docker buildx build}.
+	 * <p>
+	 * This only applies to builds that have at least one exporter that
+	 * {@link Exporter#outputsImage() outputs an image}. Builds that push to a registry always run, so pushes
+	 * are never skipped. When a build is skipped, the files written by its other exporters are not rewritten.
+	 * Changes to base images or to remote resources that the Dockerfile refers to are not detected.
+	 *
+	 * @param index the file that maps fingerprints to image IDs. The file is created if it does not exist, and
+	 *              may be shared by multiple builds and processes.
+	 * @return this
+	 * @throws NullPointerException if {@code index} is null
+	 */
+	public ImageBuilder skipIfUnchanged(Path index)
+	{
+		requireThat(index, "index").isNotNull();
+		this.fingerprintIndex = index;
+		return this;
+	}
+
+	/**
+	 * Sets the compression applied to build contexts that are {@link #build(TarSource) streamed} to the
+	 * builder. By default, the context is not compressed.
+	 * <p>
+	 * Compression reduces the amount of data sent to remote builders at the cost of CPU time on the client.
+	 *
+	 * @param type {@link CompressionType#UNCOMPRESSED} or {@link CompressionType#GZIP}
+	 * @return this
+	 * @throws NullPointerException     if {@code type} is null
+	 * @throws IllegalArgumentException if the builder cannot decompress contexts of this type
+	 */
+	public ImageBuilder contextCompression(CompressionType type)
+	{
+		requireThat(type, "type").isNotNull();
+		switch (type)
+		{
+			case UNCOMPRESSED, GZIP ->
+			{
+			}
+			// https://github.com/docker/buildx/blob/master/build/utils.go: isArchive()
+			case ESTARGZ, ZSTD -> throw new IllegalArgumentException("Build contexts may not be compressed " +
+				"using " + type + ". Only UNCOMPRESSED and GZIP are supported.");
+		}
+		this.contextCompression = type;
+		return this;
+	}
+
 	/**
 	 * Builds the image.
 	 * <p>
@@ -212,31 +329,91 @@ public String build(Path buildContext) throws IOException, InterruptedException
 	{
 		// Path.relativize() requires both Paths to be relative or absolute
 		Path absoluteBuildContext = buildContext.toAbsolutePath().normalize();
+		return build(absoluteBuildContext, null);
+	}
 
+	/**
+	 * Builds the image, streaming the build context to the builder as a TAR archive.
+	 * <p>
+	 * Unlike {@link #build(Path)}, the builder does not synchronize a directory with the client. Instead, the
+	 * archive is generated on the fly and piped to the builder, which allows contexts to be generated in
+	 * memory.
+	 * <p>
+	 * The {@code Dockerfile} is read from the archive. If {@link #dockerfile(Path)} was invoked, its path is
+	 * resolved against the root of the archive; otherwise, {@code Dockerfile} at the root of the archive is
+	 * used. {@link #skipIfUnchanged(Path)} does not apply to these builds.
+	 * <p>
+	 * <strong>Warning:</strong> This method does <em>not</em> export the built image by default.
+	 * To specify and trigger export behavior, you must explicitly call {@link #export(Exporter)}.
+	 *
+	 * @param buildContext generates the build context
+	 * @return the ID of the new image, or null if none of the {@link #export(Exporter) exports} output an image
+	 * @throws NullPointerException         if {@code buildContext} is null
+	 * @throws IllegalArgumentException     if the path of the {@code Dockerfile} is absolute
+	 * @throws UnsupportedExporterException if the builder does not support one of the requested exporters
+	 * @throws ContextNotFoundException     if the Docker context cannot be found or resolved
+	 * @throws IOException                  if an I/O error occurs. These errors are typically transient, and
+	 *                                      retrying the request may resolve the issue.
+	 * @throws InterruptedException         if the thread is interrupted before the operation completes. This
+	 *                                      can happen due to shutdown signals.
+	 */
+	public String build(TarSource buildContext) throws IOException, InterruptedException
+	{
+		requireThat(buildContext, "buildContext").isNotNull();
+		if (dockerfile != null && dockerfile.isAbsolute())
+		{
+			throw new IllegalArgumentException("dockerfile must be relative to the root of the build context.\n" +
+				"Actual: " + dockerfile);
+		}
+		return build(null, buildContext);
+	}
+
+	/**
+	 * Builds the image.
+	 *
+	 * @param absoluteBuildContext the absolute path of the build context, or {@code null} if the build context
+	 *                             is streamed
+	 * @param archive              generates the build context, or {@code null} if it is a directory
+	 * @return the ID of the new image, or null if none of the exports output an image
+	 * @throws IOException          if an I/O error occurs. These errors are typically transient, and retrying
+	 *                              the request may resolve the issue.
+	 * @throws InterruptedException if the thread is interrupted before the operation completes. This can
+	 *                              happen due to shutdown signals.
+	 */
+	private String build(Path absoluteBuildContext, TarSource archive) throws IOException, InterruptedException
+	{
 		// https://docs.docker.com/reference/cli/docker/buildx/build/
-		List<String> arguments = new ArrayList<>(2 + cacheFrom.size() + 3 + exporters.size() * 2 + 1 +
-			tags.size() * 2 + 2 + 1);
+		List<String> arguments = new ArrayList<>(3 + cacheFrom.size() + cacheTo.size() + 3 +
+			exporters.size() * 2 + 1 + tags.size() * 2 + 2 + 1);
 		arguments.add("buildx");
 		arguments.add("build");
+		arguments.add("--progress=" + listener.getProgressType().toCommandLine());
 		if (!cacheFrom.isEmpty())
 		{
 			for (String source : cacheFrom)
 				arguments.add("--cache-from=" + source);
 		}
+		for (CacheBackend destination : cacheTo)
+			arguments.add("--cache-to=" + destination.toCacheToCommandLine());
 		if (dockerfile != null)
 		{
 			arguments.add("--file");
-			arguments.add(dockerfile.toAbsolutePath().toString());
+			if (archive == null)
+				arguments.add(dockerfile.toAbsolutePath().toString());
+			else
+				arguments.add(dockerfile.toString().replace(dockerfile.getFileSystem().getSeparator(), "/"));
 		}
 		if (!platforms.isEmpty())
 			arguments.add("--platform=" + String.join(",", platforms));
 
 		boolean outputsImage = false;
+		boolean pushesImage = false;
 		for (Exporter exporter : exporters)
 		{
 			arguments.add("--output");
 			arguments.add(exporter.toCommandLine());
-			outputsImage = exporter.outputsImage();
+			outputsImage |= exporter.outputsImage();
+			pushesImage |= exporter.getType().equals("registry");
 		}
 		for (String tag : tags)
 		{
@@ -251,14 +428,33 @@ public String build(Path buildContext) throws IOException, InterruptedException
 
 		if (outputsImage)
 		{
+			FingerprintIndex index = null;
+			String fingerprint = null;
+			// The local image store cannot reveal whether a previous build's push succeeded
+			if (fingerprintIndex != null && archive == null && !pushesImage)
+			{
+				index = new FingerprintIndex(fingerprintIndex);
+				fingerprint = getFingerprint(absoluteBuildContext);
+				String imageId = index.get(fingerprint);
+				// The references might have been moved to a different image since the previous build
+				if (imageId != null && client.imageExists(imageId, tags))
+				{
+					log.debug("Skipping build because its inputs did not change. Image: {}", imageId);
+					return imageId;
+				}
+			}
+
 			// Write the imageId to a file and return it to the user
 			Path imageIdFile = Files.createTempFile(null, null);
 			try
 			{
 				arguments.add("--iidfile");
 				arguments.add(imageIdFile.toString());
-				build2(arguments, absoluteBuildContext);
-				return Files.readString(imageIdFile);
+				build2(arguments, absoluteBuildContext, archive);
+				String imageId = Files.readString(imageIdFile);
+				if (index != null)
+					index.put(fingerprint, imageId);
+				return imageId;
 			}
 			finally
 			{
@@ -267,15 +463,62 @@ public String build(Path buildContext) throws IOException, InterruptedException
 				Files.deleteIfExists(imageIdFile);
 			}
 		}
-		build2(arguments, absoluteBuildContext);
+		build2(arguments, absoluteBuildContext, archive);
 		return null;
 	}
 
+	/**
+	 * Returns the fingerprint of the build's inputs.
+	 *
+	 * @param absoluteBuildContext the absolute path of the build context
+	 * @return the SHA-256 hash of the inputs, as a lowercase hexadecimal string
+	 * @throws IOException          if an error occurs while reading the build context or the Dockerfile
+	 * @throws InterruptedException if the thread is interrupted before the operation completes
+	 */
+	private String getFingerprint(Path absoluteBuildContext) throws IOException, InterruptedException
+	{
+		Path absoluteDockerfile;
+		if (dockerfile == null)
+			absoluteDockerfile = absoluteBuildContext.resolve("Dockerfile");
+		else
+			absoluteDockerfile = dockerfile.toAbsolutePath().normalize();
+		DockerIgnore ignore = DockerIgnore.of(absoluteBuildContext, absoluteDockerfile);
+
+		// Sort unordered inputs so that the fingerprint does not depend on the order of method invocations
+		StringJoiner inputs = new StringJoiner("\n");
+		inputs.add("context=" + BuildContextHasher.hash(absoluteBuildContext, ignore));
+		inputs.add("platforms=" + new TreeSet<>(platforms));
+		inputs.add("tags=" + new TreeSet<>(tags));
+		inputs.add("cacheFrom=" + new TreeSet<>(cacheFrom));
+		for (CacheBackend destination : cacheTo)
+			inputs.add("cacheTo=" + destination.toCacheToCommandLine());
+		for (Exporter exporter : exporters)
+			inputs.add("exporter=" + exporter.toCommandLine());
+		inputs.add("builder=" + builder);
+
+		MessageDigest digest;
+		try
+		{
+			digest = MessageDigest.getInstance("SHA-256");
+		}
+		catch (NoSuchAlgorithmException e)
+		{
+			// Every implementation of the Java platform is required to support SHA-256
+			throw new AssertionError(e);
+		}
+		digest.update(inputs.toString().getBytes(UTF_8));
+		digest.update((byte) 0);
+		digest.update(Files.readAllBytes(absoluteDockerfile));
+		return HexFormat.of().formatHex(digest.digest());
+	}
+
 	/**
 	 * Common code at the end of the build step.
 	 *
 	 * @param arguments            the command-line arguments
-	 * @param absoluteBuildContext the absolute path of the build context
+	 * @param absoluteBuildContext the absolute path of the build context, or {@code null} if the build context
+	 *                             is streamed
+	 * @param archive              generates the build context, or {@code null} if it is a directory
 	 * @throws IOException              if an I/O error occurs. These errors are typically transient, and
 	 *                                  retrying the request may resolve the issue.
 	 * @throws InterruptedException     if the thread is interrupted before the operation completes. This can
@@ -283,34 +526,64 @@ public String build(Path buildContext) throws IOException, InterruptedException
 	 * @throws ContextNotFoundException if the Docker context cannot be found or resolved
 	 */
 	@SuppressWarnings("BusyWait")
-	private void build2(List<String> arguments, Path absoluteBuildContext)
+	private void build2(List<String> arguments, Path absoluteBuildContext, TarSource archive)
 		throws IOException, InterruptedException
 	{
-		arguments.add(absoluteBuildContext.toString());
+		if (archive == null)
+			arguments.add(absoluteBuildContext.toString());
+		else
+		{
+			// Read the build context from stdin
+			arguments.add("-");
+		}
+		CommandRecorder recorder = new CommandRecorder(client.getCommandMetrics(), arguments);
 		Instant deadline = Instant.now().plusSeconds(10);
 		try
 		{
+			IOException buildContextFailure = null;
 			while (true)
 			{
 				ProcessBuilder processBuilder = client.getProcessBuilder(arguments);
 				log.debug("Running: {}", processBuilder.command());
-				Process process = processBuilder.start();
+				Process process = recorder.start(processBuilder);
+				Queue<Throwable> exceptions = new ConcurrentLinkedQueue<>();
+				Thread archiveWriter = null;
+				if (archive != null)
+					archiveWriter = writeArchive(process, archive, exceptions);
 				try
 				{
-					listener.buildStarted(process.inputReader(), process.errorReader(), process::waitFor);
+					listener.buildStarted(recorder.trackReader(process.getInputStream()),
+						recorder.trackReader(process.getErrorStream()), process::waitFor);
 					Output output = listener.waitUntilBuildCompletes();
+					if (archiveWriter != null)
+						archiveWriter.join();
 
 					int exitCode = output.exitCode();
-					if (exitCode == 0)
+					Throwable archiveFailure = exceptions.poll();
+					if (exitCode == 0 && archiveFailure == null)
+					{
+						recorder.completed(exitCode);
 						listener.buildPassed();
+					}
 					else
 					{
 						List<String> command = List.copyOf(processBuilder.command());
 						Path workingDirectory = Processes.getWorkingDirectory(processBuilder);
 						listener.buildFailed(command, workingDirectory, exitCode);
+						if (exitCode == 0)
+						{
+							// Failures to generate the build context are deterministic, so they are thrown outside the
+							// retry loop
+							buildContextFailure = new IOException("Failed to write the build context", archiveFailure);
+							break;
+						}
 						CommandResult result = new CommandResult(command, workingDirectory, output.stdout(),
 							output.stderr(), exitCode);
-						throw result.unexpectedResponse();
+						AssertionError error = result.unexpectedResponse();
+						if (archiveFailure != null)
+							error.addSuppressed(archiveFailure);
+						recorder.completed(exitCode);
+						throw error;
 					}
 					break;
 				}
@@ -320,9 +593,26 @@ private void build2(List<String> arguments, Path absoluteBuildContext)
 					Instant now = Instant.now();
 					if (now.isAfter(deadline))
 						throw e;
+					recorder.retrying();
 					Thread.sleep(100);
 				}
+				finally
+				{
+					if (archiveWriter != null && archiveWriter.isAlive())
+					{
+						// The build was interrupted before the archive was written
+						process.destroyForcibly();
+						archiveWriter.interrupt();
+					}
+				}
 			}
+			if (buildContextFailure != null)
+				throw buildContextFailure;
+		}
+		catch (IOException | InterruptedException | RuntimeException e)
+		{
+			recorder.failed(e);
+			throw e;
 		}
 		finally
 		{
@@ -330,6 +620,37 @@ private void build2(List<String> arguments, Path absoluteBuildContext)
 		}
 	}
 
+	/**
+	 * Writes a build context to the stdin of a build process.
+	 *
+	 * @param process    the build process
+	 * @param archive    generates the build context
+	 * @param exceptions the queue to add any failures to
+	 * @return the thread that writes the build context
+	 */
+	private Thread writeArchive(Process process, TarSource archive, Queue<Throwable> exceptions)
+	{
+		return Thread.ofVirtual().name("anchor4j-build-context").start(() ->
+		{
+			OutputStream out = new BufferedOutputStream(process.getOutputStream(), ARCHIVE_BUFFER_SIZE);
+			try
+			{
+				if (contextCompression == CompressionType.GZIP)
+					out = new GZIPOutputStream(out, ARCHIVE_BUFFER_SIZE);
+				TarWriter writer = new TarWriter(out);
+				archive.writeTo(writer);
+				writer.finish();
+				out.close();
+			}
+			catch (IOException | RuntimeException e)
+			{
+				exceptions.add(e);
+				// Closing stdin before the end-of-archive marker is written causes the build to fail
+				process.destroy();
+			}
+		});
+	}
+
 	@Override
 	public String toString()
 	{
@@ -368,7 +689,8 @@ public String toString()
 		 */
 		public String toCommandLine()
 		{
-			return name().toLowerCase(Locale.ROOT);
+			// RAW_JSON is spelled "rawjson" on the command-line
+			return name().replace("_", "").toLowerCase(Locale.ROOT);
 		}
 	}
 
@@ -986,4 +1308,558 @@ public String toCommandLine()
 			}
 		}
 	}
+
+	/**
+	 * A location that the build cache is imported from or exported to.
+	 *
+	 * @see <a href="https://docs.docker.com/build/cache/backends/">Cache storage backends</a>
+	 */
+	public sealed interface CacheBackend
+	{
+		/**
+		 * Stores the cache in a local directory.
+		 *
+		 * @param path the directory
+		 * @return the cache backend
+		 * @throws NullPointerException     if {@code path} is null
+		 * @throws IllegalArgumentException if {@code path} contains whitespace or is empty
+		 */
+		@CheckReturnValue
+		static LocalCacheBuilder local(String path)
+		{
+			return new LocalCacheBuilder(path);
+		}
+
+		/**
+		 * Embeds the cache in the resulting image. The cache is imported by passing the image's reference to
+		 * {@link #registry(String)}.
+		 * <p>
+		 * Only {@link CacheMode#MIN min} cache mode is supported.
+		 *
+		 * @return the cache backend
+		 */
+		@CheckReturnValue
+		static CacheBackend inline()
+		{
+			return InlineCache.INSTANCE;
+		}
+
+		/**
+		 * Stores the cache in a registry, separately from the resulting image.
+		 *
+		 * @param reference the image reference of the cache, such as {@code docker.io/user/app:cache}
+		 * @return the cache backend
+		 * @throws NullPointerException     if {@code reference} is null
+		 * @throws IllegalArgumentException if {@code reference} contains whitespace or is empty
+		 */
+		@CheckReturnValue
+		static RegistryCacheBuilder registry(String reference)
+		{
+			return new RegistryCacheBuilder(reference);
+		}
+
+		/**
+		 * Stores the cache in the GitHub Actions cache service. The builder reads the service's URL and token
+		 * from the {@code ACTIONS_CACHE_URL} and {@code ACTIONS_RUNTIME_TOKEN} environment variables.
+		 *
+		 * @return the cache backend
+		 */
+		@CheckReturnValue
+		static GhaCacheBuilder gha()
+		{
+			return new GhaCacheBuilder();
+		}
+
+		/**
+		 * Returns the type of the cache backend.
+		 *
+		 * @return the type
+		 */
+		String getType();
+
+		/**
+		 * Indicates if the cache can be imported using {@code --cache-from}.
+		 *
+		 * @return {@code true} if the cache can be imported
+		 */
+		boolean supportsImport();
+
+		/**
+		 * Returns the command-line representation of this option when importing the cache.
+		 *
+		 * @return the command-line value
+		 * @throws UnsupportedOperationException if the cache cannot be imported
+		 */
+		String toCacheFromCommandLine();
+
+		/**
+		 * Returns the command-line representation of this option when exporting the cache.
+		 *
+		 * @return the command-line value
+		 */
+		String toCacheToCommandLine();
+	}
+
+	/**
+	 * Determines which layers are exported to the cache.
+	 */
+	public enum CacheMode
+	{
+		/**
+		 * Only export the layers of the resulting image.
+		 */
+		MIN,
+		/**
+		 * Export the layers of all intermediate steps, including those of multi-stage builds. This produces a
+		 * larger cache with a higher hit rate.
+		 */
+		MAX;
+
+		/**
+		 * Returns the command-line representation of this option.
+		 *
+		 * @return the command-line value
+		 */
+		public String toCommandLine()
+		{
+			return name().toLowerCase(Locale.ROOT);
+		}
+	}
+
+	/**
+	 * The cache backend that embeds the cache in the resulting image.
+	 */
+	private static final class InlineCache implements CacheBackend
+	{
+		private static final InlineCache INSTANCE = new InlineCache();
+
+		@Override
+		public String getType()
+		{
+			return "inline";
+		}
+
+		@Override
+		public boolean supportsImport()
+		{
+			return false;
+		}
+
+		@Override
+		public String toCacheFromCommandLine()
+		{
+			throw new UnsupportedOperationException("Inline caches are imported using CacheBackend.registry()");
+		}
+
+		@Override
+		public String toCacheToCommandLine()
+		{
+			return "type=inline";
+		}
+	}
+
+	/**
+	 * Builds a cache backend.
+	 */
+	public static abstract class CacheBackendBuilder
+	{
+		/**
+		 * The layers to export.
+		 */
+		protected CacheMode mode = CacheMode.MIN;
+		/**
+		 * {@code true} if the build should succeed even if the cache cannot be exported.
+		 */
+		protected boolean ignoreError;
+
+		/**
+		 * Sets the layers to export. By default, {@link CacheMode#MIN} is used.
+		 *
+		 * @param mode the cache mode
+		 * @return this
+		 * @throws NullPointerException if {@code mode} is null
+		 */
+		public CacheBackendBuilder mode(CacheMode mode)
+		{
+			requireThat(mode, "mode").isNotNull();
+			this.mode = mode;
+			return this;
+		}
+
+		/**
+		 * Indicates that the build should succeed even if the cache cannot be exported. By default, a failure to
+		 * export the cache fails the build.
+		 *
+		 * @return this
+		 */
+		public CacheBackendBuilder ignoreError()
+		{
+			this.ignoreError = true;
+			return this;
+		}
+
+		/**
+		 * Adds the options that are shared by all cache exports.
+		 *
+		 * @param joiner the command-line value being built
+		 */
+		protected void addCacheToOptions(StringJoiner joiner)
+		{
+			if (mode != CacheMode.MIN)
+				joiner.add("mode=" + mode.toCommandLine());
+			if (ignoreError)
+				joiner.add("ignore-error=true");
+		}
+	}
+
+	/**
+	 * Builds a cache backend that stores compressed cache layers.
+	 */
+	public static abstract class CompressedCacheBackendBuilder extends CacheBackendBuilder
+	{
+		/**
+		 * The type of compression to use.
+		 */
+		protected CompressionType compressionType = CompressionType.GZIP;
+		/**
+		 * The compression level to use.
+		 */
+		protected int compressionLevel = -1;
+
+		@Override
+		public CompressedCacheBackendBuilder mode(CacheMode mode)
+		{
+			super.mode(mode);
+			return this;
+		}
+
+		@Override
+		public CompressedCacheBackendBuilder ignoreError()
+		{
+			super.ignoreError();
+			return this;
+		}
+
+		/**
+		 * Sets the compression type of the cache layers. By default, {@link CompressionType#GZIP} is used.
+		 *
+		 * @param type the type
+		 * @return this
+		 * @throws NullPointerException if {@code type} is null
+		 */
+		public CompressedCacheBackendBuilder compressionType(CompressionType type)
+		{
+			requireThat(type, "type").isNotNull();
+			this.compressionType = type;
+			return this;
+		}
+
+		/**
+		 * Sets the compression level of the cache layers.
+		 * <p>
+		 * Valid compression level ranges depend on the selected {@code compressionType}:
+		 * <ul>
+		 *   <li>{@code gzip} and {@code estargz}: level must be between {@code 0} and {@code 9}.</li>
+		 *   <li>{@code zstd}: level must be between {@code 0} and {@code 22}.</li>
+		 * </ul>
+		 * If {@code compressionType} is {@code uncompressed} then {@code compressionLevel} has no effect.
+		 *
+		 * @param compressionLevel the compression level, increasing the compression effort as the level
+		 *                         increases
+		 * @return this
+		 * @throws IllegalArgumentException if {@code compressionLevel} is out of range
+		 */
+		public CompressedCacheBackendBuilder compressionLevel(int compressionLevel)
+		{
+			switch (compressionType)
+			{
+				case UNCOMPRESSED ->
+				{
+				}
+				case GZIP, ESTARGZ -> requireThat(compressionLevel, "compressionLevel").isBetween(0, 9);
+				case ZSTD -> requireThat(compressionLevel, "compressionLevel").isBetween(0, 22);
+			}
+			this.compressionLevel = compressionLevel;
+			return this;
+		}
+
+		@Override
+		protected void addCacheToOptions(StringJoiner joiner)
+		{
+			super.addCacheToOptions(joiner);
+			if (compressionType != CompressionType.GZIP)
+				joiner.add("compression=" + compressionType.toCommandLine());
+			if (compressionLevel != -1)
+				joiner.add("compression-level=" + compressionLevel);
+		}
+	}
+
+	/**
+	 * Builds a cache backend that stores the cache in a local directory.
+	 */
+	public static final class LocalCacheBuilder extends CompressedCacheBackendBuilder
+	{
+		private final String path;
+
+		/**
+		 * Creates a new instance.
+		 *
+		 * @param path the directory
+		 * @throws NullPointerException     if {@code path} is null
+		 * @throws IllegalArgumentException if {@code path} contains whitespace or is empty
+		 */
+		private LocalCacheBuilder(String path)
+		{
+			requireThat(path, "path").doesNotContainWhitespace().isNotEmpty();
+			this.path = path;
+		}
+
+		@Override
+		public LocalCacheBuilder mode(CacheMode mode)
+		{
+			super.mode(mode);
+			return this;
+		}
+
+		@Override
+		public LocalCacheBuilder ignoreError()
+		{
+			super.ignoreError();
+			return this;
+		}
+
+		@Override
+		public LocalCacheBuilder compressionType(CompressionType type)
+		{
+			super.compressionType(type);
+			return this;
+		}
+
+		@Override
+		public LocalCacheBuilder compressionLevel(int compressionLevel)
+		{
+			super.compressionLevel(compressionLevel);
+			return this;
+		}
+
+		/**
+		 * Builds the cache backend.
+		 *
+		 * @return the cache backend
+		 */
+		public CacheBackend build()
+		{
+			return new CacheBackendAdapter();
+		}
+
+		private final class CacheBackendAdapter implements CacheBackend
+		{
+			@Override
+			public String getType()
+			{
+				return "local";
+			}
+
+			@Override
+			public boolean supportsImport()
+			{
+				return true;
+			}
+
+			@Override
+			public String toCacheFromCommandLine()
+			{
+				return "type=local,src=" + path;
+			}
+
+			@Override
+			public String toCacheToCommandLine()
+			{
+				StringJoiner joiner = new StringJoiner(",");
+				joiner.add("type=local");
+				joiner.add("dest=" + path);
+				addCacheToOptions(joiner);
+				return joiner.toString();
+			}
+		}
+	}
+
+	/**
+	 * Builds a cache backend that stores the cache in a registry.
+	 */
+	public static final class RegistryCacheBuilder extends CompressedCacheBackendBuilder
+	{
+		private final String reference;
+
+		/**
+		 * Creates a new instance.
+		 *
+		 * @param reference the image reference of the cache
+		 * @throws NullPointerException     if {@code reference} is null
+		 * @throws IllegalArgumentException if {@code reference} contains whitespace or is empty
+		 */
+		private RegistryCacheBuilder(String reference)
+		{
+			requireThat(reference, "reference").doesNotContainWhitespace().isNotEmpty();
+			this.reference = reference;
+		}
+
+		@Override
+		public RegistryCacheBuilder mode(CacheMode mode)
+		{
+			super.mode(mode);
+			return this;
+		}
+
+		@Override
+		public RegistryCacheBuilder ignoreError()
+		{
+			super.ignoreError();
+			return this;
+		}
+
+		@Override
+		public RegistryCacheBuilder compressionType(CompressionType type)
+		{
+			super.compressionType(type);
+			return this;
+		}
+
+		@Override
+		public RegistryCacheBuilder compressionLevel(int compressionLevel)
+		{
+			super.compressionLevel(compressionLevel);
+			return this;
+		}
+
+		/**
+		 * Builds the cache backend.
+		 *
+		 * @return the cache backend
+		 */
+		public CacheBackend build()
+		{
+			return new CacheBackendAdapter();
+		}
+
+		private final class CacheBackendAdapter implements CacheBackend
+		{
+			@Override
+			public String getType()
+			{
+				return "registry";
+			}
+
+			@Override
+			public boolean supportsImport()
+			{
+				return true;
+			}
+
+			@Override
+			public String toCacheFromCommandLine()
+			{
+				return "type=registry,ref=" + reference;
+			}
+
+			@Override
+			public String toCacheToCommandLine()
+			{
+				StringJoiner joiner = new StringJoiner(",");
+				joiner.add("type=registry");
+				joiner.add("ref=" + reference);
+				addCacheToOptions(joiner);
+				return joiner.toString();
+			}
+		}
+	}
+
+	/**
+	 * Builds a cache backend that stores the cache in the GitHub Actions cache service.
+	 */
+	public static final class GhaCacheBuilder extends CacheBackendBuilder
+	{
+		private String scope = "";
+
+		/**
+		 * Creates a new instance.
+		 */
+		private GhaCacheBuilder()
+		{
+		}
+
+		@Override
+		public GhaCacheBuilder mode(CacheMode mode)
+		{
+			super.mode(mode);
+			return this;
+		}
+
+		@Override
+		public GhaCacheBuilder ignoreError()
+		{
+			super.ignoreError();
+			return this;
+		}
+
+		/**
+		 * Sets the scope that the cache belongs to. Builds of different images should use different scopes to
+		 * avoid overwriting each other's cache. By default, the {@code buildkit} scope is used.
+		 *
+		 * @param scope the scope
+		 * @return this
+		 * @throws NullPointerException     if {@code scope} is null
+		 * @throws IllegalArgumentException if {@code scope} contains whitespace, a comma or is empty
+		 */
+		public GhaCacheBuilder scope(String scope)
+		{
+			requireThat(scope, "scope").doesNotContainWhitespace().doesNotContain(",").isNotEmpty();
+			this.scope = scope;
+			return this;
+		}
+
+		/**
+		 * Builds the cache backend.
+		 *
+		 * @return the cache backend
+		 */
+		public CacheBackend build()
+		{
+			return new CacheBackendAdapter();
+		}
+
+		private final class CacheBackendAdapter implements CacheBackend
+		{
+			@Override
+			public String getType()
+			{
+				return "gha";
+			}
+
+			@Override
+			public boolean supportsImport()
+			{
+				return true;
+			}
+
+			@Override
+			public String toCacheFromCommandLine()
+			{
+				if (scope.isEmpty())
+					return "type=gha";
+				return "type=gha,scope=" + scope;
+			}
+
+			@Override
+			public String toCacheToCommandLine()
+			{
+				StringJoiner joiner = new StringJoiner(",");
+				joiner.add("type=gha");
+				if (!scope.isEmpty())
+					joiner.add("scope=" + scope);
+				addCacheToOptions(joiner);
+				return joiner.toString();
+			}
+		}
+	}
 }
\ No newline at end of file
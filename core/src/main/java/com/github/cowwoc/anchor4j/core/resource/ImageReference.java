@@ -0,0 +1,229 @@
+package com.github.cowwoc.anchor4j.core.resource;
+
+import com.github.cowwoc.anchor4j.core.internal.client.ImageReferenceValidator;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static com.github.cowwoc.requirements11.java.DefaultJavaValidators.requireThat;
+
+/**
+ * A parsed image reference, having the format {@code [HOST[:PORT]/][NAMESPACE/]REPOSITORY[:TAG|@DIGEST]}.
+ * <p>
+ * The reference is stored as a single String along with the bounds of its components. The components are
+ * only extracted when they are requested.
+ * <p>
+ * References are interned: parsing a String that is equal to a reference that is still in use returns the
+ * existing instance, without parsing it again. Images that share a reference therefore share its memory.
+ * The name of a tagged or digested reference is interned as well, so references that differ only by their
+ * tag or digest share the String returned by {@link #getName()}. Instances that are no longer in use are
+ * garbage-collected.
+ * <p>
+ * <b>Thread Safety</b>: This class is immutable and thread-safe.
+ */
+public final class ImageReference
+{
+	/**
+	 * A mapping from the String representation of each reference to the reference.
+	 */
+	private static final ConcurrentMap<String, InternedReference> VALUE_TO_REFERENCE =
+		new ConcurrentHashMap<>();
+	/**
+	 * The interned references that were garbage-collected.
+	 */
+	private static final ReferenceQueue<ImageReference> UNUSED_REFERENCES = new ReferenceQueue<>();
+	private final String value;
+	/**
+	 * The index of the first character of the path.
+	 */
+	private final int pathStart;
+	/**
+	 * The index after the last character of the path.
+	 */
+	private final int pathEnd;
+	/**
+	 * The interned reference to the image's name, or {@code null} if this reference does not have a tag or
+	 * digest. Holding onto it keeps the name interned for as long as this reference is in use.
+	 */
+	private final ImageReference name;
+
+	/**
+	 * Creates a new instance.
+	 *
+	 * @param value     the String representation of the reference
+	 * @param pathStart the index of the first character of the path
+	 * @param pathEnd   the index after the last character of the path
+	 * @param name      the interned reference to the image's name, or {@code null} if the reference does not
+	 *                  have a tag or digest
+	 */
+	private ImageReference(String value, int pathStart, int pathEnd, ImageReference name)
+	{
+		this.value = value;
+		this.pathStart = pathStart;
+		this.pathEnd = pathEnd;
+		this.name = name;
+	}
+
+	/**
+	 * Parses an image reference.
+	 *
+	 * @param value the String representation of the reference
+	 * @return the parsed reference
+	 * @throws NullPointerException     if {@code value} is null
+	 * @throws IllegalArgumentException if {@code value}'s format is invalid
+	 */
+	public static ImageReference parse(String value)
+	{
+		requireThat(value, "value").isNotNull();
+		removeUnusedReferences();
+		InternedReference existing = VALUE_TO_REFERENCE.get(value);
+		if (existing != null)
+		{
+			ImageReference reference = existing.get();
+			if (reference != null)
+				return reference;
+		}
+
+		long bounds = ImageReferenceValidator.parse(value, "value");
+		int pathEnd = (int) bounds;
+		ImageReference name;
+		if (pathEnd == value.length())
+			name = null;
+		else
+			name = parse(value.substring(0, pathEnd));
+		ImageReference reference = new ImageReference(value, (int) (bounds >>> 32), pathEnd, name);
+		InternedReference interned = new InternedReference(reference);
+		while (true)
+		{
+			// Another thread might have interned the same value while we were parsing it
+			existing = VALUE_TO_REFERENCE.putIfAbsent(value, interned);
+			if (existing == null)
+				return reference;
+			ImageReference existingReference = existing.get();
+			if (existingReference != null)
+				return existingReference;
+			if (VALUE_TO_REFERENCE.replace(value, existing, interned))
+				return reference;
+		}
+	}
+
+	/**
+	 * Removes the entries of references that were garbage-collected.
+	 */
+	private static void removeUnusedReferences()
+	{
+		while (true)
+		{
+			InternedReference unused = (InternedReference) UNUSED_REFERENCES.poll();
+			if (unused == null)
+				break;
+			VALUE_TO_REFERENCE.remove(unused.value, unused);
+		}
+	}
+
+	/**
+	 * Returns the domain of the registry that hosts the image.
+	 * <p>
+	 * Like the {@code docker} command, the first component of the reference is only treated as a domain if
+	 * it contains a dot, a colon or an uppercase letter, or is equal to {@code localhost}. For example,
+	 * {@code nasa/rocket-ship} does not have a domain while {@code docker.io/nasa/rocket-ship} does.
+	 *
+	 * @return {@code HOST[:PORT]}, or {@code null} if the reference does not specify a domain
+	 */
+	public String getDomain()
+	{
+		if (pathStart == 0)
+			return null;
+		// Exclude the slash that separates the domain from the path
+		return value.substring(0, pathStart - 1);
+	}
+
+	/**
+	 * Returns the name of the image within its registry.
+	 *
+	 * @return {@code [NAMESPACE/]REPOSITORY}
+	 */
+	public String getPath()
+	{
+		return value.substring(pathStart, pathEnd);
+	}
+
+	/**
+	 * Returns the image's name, without its tag or digest.
+	 *
+	 * @return {@code [HOST[:PORT]/][NAMESPACE/]REPOSITORY}
+	 */
+	public String getName()
+	{
+		if (name == null)
+			return value;
+		return name.value;
+	}
+
+	/**
+	 * Returns the image's tag.
+	 *
+	 * @return {@code null} if the reference does not specify a tag
+	 */
+	public String getTag()
+	{
+		if (pathEnd == value.length() || value.charAt(pathEnd) != ':')
+			return null;
+		return value.substring(pathEnd + 1);
+	}
+
+	/**
+	 * Returns the image's digest.
+	 *
+	 * @return {@code null} if the reference does not specify a digest
+	 */
+	public String getDigest()
+	{
+		if (pathEnd == value.length() || value.charAt(pathEnd) != '@')
+			return null;
+		return value.substring(pathEnd + 1);
+	}
+
+	@Override
+	public int hashCode()
+	{
+		return value.hashCode();
+	}
+
+	@Override
+	public boolean equals(Object o)
+	{
+		return o instanceof ImageReference other && other.value.equals(value);
+	}
+
+	@Override
+	public String toString()
+	{
+		return value;
+	}
+
+	/**
+	 * A weak reference to an interned image reference.
+	 */
+	private static final class InternedReference extends WeakReference<ImageReference>
+	{
+		/**
+		 * The String representation of the image reference, used to remove the entry once the image reference
+		 * is garbage-collected.
+		 */
+		private final String value;
+
+		/**
+		 * Creates a new instance.
+		 *
+		 * @param reference the image reference
+		 */
+		InternedReference(ImageReference reference)
+		{
+			super(reference, UNUSED_REFERENCES);
+			this.value = reference.value;
+		}
+	}
+}
@@ -0,0 +1,217 @@
+package com.github.cowwoc.anchor4j.core.resource;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.github.cowwoc.anchor4j.core.resource.BuildReport.Step;
+import com.github.cowwoc.anchor4j.core.resource.ImageBuilder.ProgressType;
+
+import java.io.BufferedReader;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * A {@code BuildListener} that requests {@link ProgressType#RAW_JSON rawjson} progress output and summarizes
+ * it as a {@link BuildReport}.
+ * <p>
+ * Progress updates are parsed as they arrive, so the report only retains a single entry per build step
+ * regardless of how much output the build generates. Lines that are not progress updates, such as error
+ * messages, are handled the same as {@link DefaultBuildListener}. {@link #getReport()} may be invoked by any
+ * thread while the build is running.
+ */
+public class RawJsonBuildListener extends DefaultBuildListener
+{
+	private static final JsonMapper JSON_MAPPER = JsonMapper.builder().build();
+	private final ReentrantLock lock = new ReentrantLock();
+	/**
+	 * A mapping from each step's digest to its state. Guarded by {@code lock}.
+	 */
+	private final Map<String, StepState> digestToStep = new LinkedHashMap<>();
+	/**
+	 * A mapping from each transfer to the number of bytes that it transferred. Guarded by {@code lock}.
+	 */
+	private final Map<String, Long> transferToBytes = new HashMap<>();
+
+	/**
+	 * Creates a new instance.
+	 */
+	public RawJsonBuildListener()
+	{
+	}
+
+	@Override
+	public ProgressType getProgressType()
+	{
+		return ProgressType.RAW_JSON;
+	}
+
+	@Override
+	public void buildStarted(BufferedReader stdoutReader, BufferedReader stderrReader, WaitFor waitFor)
+	{
+		lock.lock();
+		try
+		{
+			digestToStep.clear();
+			transferToBytes.clear();
+		}
+		finally
+		{
+			lock.unlock();
+		}
+		super.buildStarted(stdoutReader, stderrReader, waitFor);
+	}
+
+	@Override
+	public void onStderrLine(String line)
+	{
+		if (!line.startsWith("{"))
+		{
+			super.onStderrLine(line);
+			return;
+		}
+		JsonNode status;
+		try
+		{
+			status = JSON_MAPPER.readTree(line);
+		}
+		catch (JsonProcessingException _)
+		{
+			super.onStderrLine(line);
+			return;
+		}
+		// https://github.com/moby/buildkit/blob/master/client/graph.go
+		lock.lock();
+		try
+		{
+			for (JsonNode vertex : status.path("vertexes"))
+				onVertex(vertex);
+			for (JsonNode vertexStatus : status.path("statuses"))
+				onStatus(vertexStatus);
+		}
+		finally
+		{
+			lock.unlock();
+		}
+		for (JsonNode log : status.path("logs"))
+		{
+			String data = new String(Base64.getDecoder().decode(log.path("data").asText()), UTF_8);
+			stderrLog.info(data.stripTrailing());
+		}
+	}
+
+	/**
+	 * Updates the state of a step. The caller must hold {@code lock}.
+	 *
+	 * @param vertex the JSON representation of the step
+	 */
+	private void onVertex(JsonNode vertex)
+	{
+		String digest = vertex.path("digest").asText();
+		StepState step = digestToStep.computeIfAbsent(digest, StepState::new);
+		// Each update contains the step's full state
+		step.name = vertex.path("name").asText(step.name);
+		step.started = parseTime(vertex.path("started"), step.started);
+		Instant completed = parseTime(vertex.path("completed"), null);
+		step.cached = vertex.path("cached").asBoolean(step.cached);
+		step.error = vertex.path("error").asText(step.error);
+		if (completed != null && step.completed == null)
+		{
+			if (step.cached)
+				stderrLog.info("{}: CACHED", step.name);
+			else if (!step.error.isEmpty())
+				stderrLog.info("{}: {}", step.name, step.error);
+			else
+				stderrLog.info("{}: DONE", step.name);
+		}
+		step.completed = completed;
+	}
+
+	/**
+	 * Updates the number of bytes that were transferred. The caller must hold {@code lock}.
+	 *
+	 * @param status the JSON representation of a step's progress
+	 */
+	private void onStatus(JsonNode status)
+	{
+		String id = status.path("id").asText();
+		long total = status.path("total").asLong();
+		// Only count statuses that measure bytes, such as image layer downloads or the transfer of the build
+		// context. Other statuses (e.g. layer extraction) count items or have no progress at all.
+		if (total <= 0 && !id.startsWith("transferring"))
+			return;
+		long current = status.path("current").asLong();
+		String key = status.path("vertex").asText() + "/" + id;
+		transferToBytes.merge(key, current, Math::max);
+	}
+
+	/**
+	 * @param node         a JSON node containing an RFC 3339 timestamp
+	 * @param defaultValue the value to return if the node is missing or null
+	 * @return the time
+	 */
+	private static Instant parseTime(JsonNode node, Instant defaultValue)
+	{
+		if (node.isMissingNode() || node.isNull())
+			return defaultValue;
+		return Instant.parse(node.asText());
+	}
+
+	/**
+	 * Returns a summary of the build's progress. If the build is running, the report contains the progress so
+	 * far.
+	 *
+	 * @return the report
+	 */
+	public BuildReport getReport()
+	{
+		lock.lock();
+		try
+		{
+			List<Step> steps = new ArrayList<>(digestToStep.size());
+			for (StepState step : digestToStep.values())
+			{
+				steps.add(new Step(step.digest, step.name, step.started, step.completed, step.cached,
+					step.error));
+			}
+			long bytesTransferred = 0;
+			for (long bytes : transferToBytes.values())
+				bytesTransferred += bytes;
+			return new BuildReport(steps, bytesTransferred);
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * The mutable state of a step.
+	 */
+	private static final class StepState
+	{
+		private final String digest;
+		private String name = "";
+		private Instant started;
+		private Instant completed;
+		private boolean cached;
+		private String error = "";
+
+		/**
+		 * Creates a new instance.
+		 *
+		 * @param digest the builder's identifier for the step
+		 */
+		StepState(String digest)
+		{
+			this.digest = digest;
+		}
+	}
+}
@@ -0,0 +1,70 @@
+package com.github.cowwoc.anchor4j.core.resource;
+
+import com.github.cowwoc.anchor4j.core.internal.util.BuildContextEntry;
+import com.github.cowwoc.anchor4j.core.internal.util.BuildContextEntry.Type;
+import com.github.cowwoc.anchor4j.core.internal.util.DockerIgnore;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+
+import static com.github.cowwoc.requirements11.java.DefaultJavaValidators.requireThat;
+
+/**
+ * Generates the contents of a build context that is streamed to the builder as a TAR archive.
+ * <p>
+ * Implementations may generate the context in memory, without writing it to disk. A source may be asked to
+ * write the context more than once if the build is retried, so each invocation must produce the same
+ * entries.
+ */
+@FunctionalInterface
+public interface TarSource
+{
+	/**
+	 * Returns a source that contains the contents of a directory.
+	 * <p>
+	 * Paths that are excluded by {@code .dockerignore} are omitted, except for the {@code Dockerfile} at the
+	 * root of the directory which is always included. Entries are written in the order of their relative path
+	 * so the resulting archive only depends on the contents of the directory.
+	 *
+	 * @param buildContext the directory
+	 * @return the source
+	 * @throws NullPointerException if {@code buildContext} is null
+	 */
+	static TarSource directory(Path buildContext)
+	{
+		requireThat(buildContext, "buildContext").isNotNull();
+		Path absoluteBuildContext = buildContext.toAbsolutePath().normalize();
+		return writer ->
+		{
+			Path dockerfile = absoluteBuildContext.resolve("Dockerfile");
+			DockerIgnore ignore = DockerIgnore.of(absoluteBuildContext, dockerfile);
+			List<BuildContextEntry> entries = BuildContextEntry.list(absoluteBuildContext, ignore);
+			if (ignore.isExcluded("Dockerfile") && Files.isRegularFile(dockerfile))
+			{
+				// The builder reads the Dockerfile from the build context
+				entries.add(new BuildContextEntry("Dockerfile", Type.FILE, null, dockerfile));
+				entries.sort(Comparator.comparing(BuildContextEntry::relativePath));
+			}
+			for (BuildContextEntry entry : entries)
+			{
+				switch (entry.type())
+				{
+					case DIRECTORY -> writer.addDirectory(entry.relativePath());
+					case FILE, EXECUTABLE -> writer.addFile(entry.relativePath(), entry.file());
+					case SYMBOLIC_LINK -> writer.addSymbolicLink(entry.relativePath(), entry.target());
+				}
+			}
+		};
+	}
+
+	/**
+	 * Writes the build context.
+	 *
+	 * @param writer the archive to write the build context to
+	 * @throws IOException if an error occurs while generating or writing the build context
+	 */
+	void writeTo(TarWriter writer) throws IOException;
+}
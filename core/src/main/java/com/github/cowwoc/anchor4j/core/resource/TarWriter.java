@@ -0,0 +1,363 @@
+package com.github.cowwoc.anchor4j.core.resource;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static com.github.cowwoc.requirements11.java.DefaultJavaValidators.requireThat;
+import static com.github.cowwoc.requirements11.java.DefaultJavaValidators.that;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Writes the entries of a build context to a TAR archive.
+ * <p>
+ * The archive is deterministic: every entry has a modification time of zero, is owned by {@code root} and has
+ * one of three permissions ({@code 0755} for directories and executable files, {@code 0644} for other files
+ * and {@code 0777} for symbolic links). Names that do not fit in a USTAR header are written using PAX
+ * extended headers.
+ * <p>
+ * <b>Thread Safety</b>: This class is not thread-safe.
+ *
+ * @see <a href="https://pubs.opengroup.org/onlinepubs/9699919799/utilities/pax.html">pax file format</a>
+ */
+public final class TarWriter
+{
+	private static final int BLOCK_SIZE = 512;
+	private static final int NAME_LENGTH = 100;
+	/**
+	 * The largest size that fits in the 11 octal digits of a USTAR header.
+	 */
+	private static final long MAXIMUM_USTAR_SIZE = 077777777777L;
+	private static final byte TYPE_FILE = '0';
+	private static final byte TYPE_SYMBOLIC_LINK = '2';
+	private static final byte TYPE_DIRECTORY = '5';
+	private static final byte TYPE_PAX_HEADER = 'x';
+	private final OutputStream out;
+	private final byte[] buffer = new byte[64 * 1024];
+	private boolean finished;
+
+	/**
+	 * Creates a new instance.
+	 *
+	 * @param out the stream to write the archive to
+	 */
+	TarWriter(OutputStream out)
+	{
+		assert that(out, "out").isNotNull().elseThrow();
+		this.out = out;
+	}
+
+	/**
+	 * Adds a directory to the archive. Parent directories are not added automatically.
+	 *
+	 * @param path the path of the directory relative to the root of the archive, using {@code /} as a
+	 *             separator
+	 * @throws NullPointerException     if {@code path} is null
+	 * @throws IllegalArgumentException if {@code path} is empty, absolute or contains {@code ..}
+	 * @throws IllegalStateException    if the archive is complete
+	 * @throws IOException              if an error occurs while writing to the archive
+	 */
+	public void addDirectory(String path) throws IOException
+	{
+		checkPath(path);
+		if (!path.endsWith("/"))
+			path += "/";
+		writeHeader(path, TYPE_DIRECTORY, 0755, 0, "");
+	}
+
+	/**
+	 * Adds a regular file to the archive.
+	 *
+	 * @param path       the path of the file relative to the root of the archive, using {@code /} as a
+	 *                   separator
+	 * @param contents   the contents of the file
+	 * @param executable {@code true} if the file is executable
+	 * @throws NullPointerException     if any of the arguments are null
+	 * @throws IllegalArgumentException if {@code path} is empty, absolute or contains {@code ..}
+	 * @throws IllegalStateException    if the archive is complete
+	 * @throws IOException              if an error occurs while writing to the archive
+	 */
+	public void addFile(String path, byte[] contents, boolean executable) throws IOException
+	{
+		checkPath(path);
+		requireThat(contents, "contents").isNotNull();
+		writeHeader(path, TYPE_FILE, getFileMode(executable), contents.length, "");
+		out.write(contents);
+		pad(contents.length);
+	}
+
+	/**
+	 * Adds a regular file to the archive.
+	 *
+	 * @param path       the path of the file relative to the root of the archive, using {@code /} as a
+	 *                   separator
+	 * @param size       the number of bytes in the file
+	 * @param executable {@code true} if the file is executable
+	 * @param contents   the contents of the file. Exactly {@code size} bytes are read from the stream. The
+	 *                   stream is not closed.
+	 * @throws NullPointerException     if any of the arguments are null
+	 * @throws IllegalArgumentException if:
+	 *                                  <ul>
+	 *                                    <li>{@code path} is empty, absolute or contains {@code ..}</li>
+	 *                                    <li>{@code size} is negative</li>
+	 *                                  </ul>
+	 * @throws IllegalStateException    if the archive is complete
+	 * @throws EOFException             if {@code contents} contains less than {@code size} bytes
+	 * @throws IOException              if an error occurs while reading {@code contents} or writing to the
+	 *                                  archive
+	 */
+	public void addFile(String path, long size, boolean executable, InputStream contents) throws IOException
+	{
+		checkPath(path);
+		requireThat(size, "size").isNotNegative();
+		requireThat(contents, "contents").isNotNull();
+		writeHeader(path, TYPE_FILE, getFileMode(executable), size, "");
+		long remaining = size;
+		while (remaining > 0)
+		{
+			int count = contents.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+			if (count == -1)
+			{
+				throw new EOFException("\"" + path + "\" contained " + (size - remaining) + " bytes instead of " +
+					size);
+			}
+			out.write(buffer, 0, count);
+			remaining -= count;
+		}
+		pad(size);
+	}
+
+	/**
+	 * Adds a regular file from the filesystem to the archive.
+	 *
+	 * @param path the path of the file relative to the root of the archive, using {@code /} as a separator
+	 * @param file the file to copy
+	 * @throws NullPointerException     if any of the arguments are null
+	 * @throws IllegalArgumentException if {@code path} is empty, absolute or contains {@code ..}
+	 * @throws IllegalStateException    if the archive is complete
+	 * @throws IOException              if an error occurs while reading {@code file} or writing to the
+	 *                                  archive
+	 */
+	public void addFile(String path, Path file) throws IOException
+	{
+		requireThat(file, "file").isNotNull();
+		long size = Files.size(file);
+		boolean executable = Files.isExecutable(file);
+		try (InputStream in = Files.newInputStream(file, LinkOption.NOFOLLOW_LINKS))
+		{
+			addFile(path, size, executable, in);
+		}
+	}
+
+	/**
+	 * Adds a symbolic link to the archive.
+	 *
+	 * @param path   the path of the link relative to the root of the archive, using {@code /} as a separator
+	 * @param target the path that the link refers to
+	 * @throws NullPointerException     if any of the arguments are null
+	 * @throws IllegalArgumentException if:
+	 *                                  <ul>
+	 *                                    <li>{@code path} is empty, absolute or contains {@code ..}</li>
+	 *                                    <li>{@code target} is empty</li>
+	 *                                  </ul>
+	 * @throws IllegalStateException    if the archive is complete
+	 * @throws IOException              if an error occurs while writing to the archive
+	 */
+	public void addSymbolicLink(String path, String target) throws IOException
+	{
+		checkPath(path);
+		requireThat(target, "target").isNotEmpty();
+		writeHeader(path, TYPE_SYMBOLIC_LINK, 0777, 0, target);
+	}
+
+	/**
+	 * Writes the end-of-archive marker. No entries may be added afterward.
+	 *
+	 * @throws IOException if an error occurs while writing to the archive
+	 */
+	void finish() throws IOException
+	{
+		if (finished)
+			return;
+		finished = true;
+		// The archive ends with two empty blocks
+		out.write(new byte[BLOCK_SIZE * 2]);
+		out.flush();
+	}
+
+	/**
+	 * @param executable {@code true} if the file is executable
+	 * @return the permissions of the file
+	 */
+	private static int getFileMode(boolean executable)
+	{
+		if (executable)
+			return 0755;
+		return 0644;
+	}
+
+	/**
+	 * Validates the path of an entry.
+	 *
+	 * @param path the path of the entry relative to the root of the archive
+	 * @throws NullPointerException     if {@code path} is null
+	 * @throws IllegalArgumentException if {@code path} is empty, absolute or contains {@code ..}
+	 * @throws IllegalStateException    if the archive is complete
+	 */
+	private void checkPath(String path)
+	{
+		requireThat(path, "path").isNotEmpty();
+		if (path.startsWith("/"))
+			throw new IllegalArgumentException("path must be relative.\n" +
+				"Actual: " + path);
+		for (String element : path.split("/"))
+		{
+			if (element.equals(".."))
+			{
+				throw new IllegalArgumentException("path may not refer to its parent directory.\n" +
+					"Actual: " + path);
+			}
+		}
+		if (finished)
+			throw new IllegalStateException("The archive is complete");
+	}
+
+	/**
+	 * Writes the header of an entry, preceded by a PAX extended header if the entry does not fit in a USTAR
+	 * header.
+	 *
+	 * @param path       the path of the entry
+	 * @param type       the type of the entry
+	 * @param mode       the permissions of the entry
+	 * @param size       the number of bytes that follow the header
+	 * @param linkTarget the target of a symbolic link, or an empty string if the entry is not a link
+	 * @throws IOException if an error occurs while writing to the archive
+	 */
+	private void writeHeader(String path, byte type, int mode, long size, String linkTarget) throws IOException
+	{
+		byte[] name = path.getBytes(UTF_8);
+		byte[] link = linkTarget.getBytes(UTF_8);
+		StringBuilder records = new StringBuilder();
+		if (name.length > NAME_LENGTH)
+		{
+			addPaxRecord(records, "path", path);
+			name = Arrays.copyOf(name, NAME_LENGTH);
+		}
+		if (link.length > NAME_LENGTH)
+		{
+			addPaxRecord(records, "linkpath", linkTarget);
+			link = Arrays.copyOf(link, NAME_LENGTH);
+		}
+		long ustarSize = size;
+		if (size > MAXIMUM_USTAR_SIZE)
+		{
+			addPaxRecord(records, "size", String.valueOf(size));
+			ustarSize = 0;
+		}
+		if (!records.isEmpty())
+		{
+			byte[] extendedHeader = records.toString().getBytes(UTF_8);
+			out.write(newHeader("././@PaxHeader".getBytes(UTF_8), TYPE_PAX_HEADER, 0644,
+				extendedHeader.length, new byte[0]));
+			out.write(extendedHeader);
+			pad(extendedHeader.length);
+		}
+		out.write(newHeader(name, type, mode, ustarSize, link));
+	}
+
+	/**
+	 * Appends a record to a PAX extended header.
+	 *
+	 * @param records the records of the header
+	 * @param key     the name of the record
+	 * @param value   the value of the record
+	 */
+	private static void addPaxRecord(StringBuilder records, String key, String value)
+	{
+		// Each record has the format "<length> <key>=<value>\n", where the length includes its own digits
+		int suffixLength = (" " + key + "=" + value + "\n").getBytes(UTF_8).length;
+		int length = suffixLength;
+		while (String.valueOf(length).length() + suffixLength != length)
+			length = String.valueOf(length).length() + suffixLength;
+		records.append(length).append(' ').append(key).append('=').append(value).append('\n');
+	}
+
+	/**
+	 * Returns a USTAR header.
+	 *
+	 * @param name the path of the entry, at most 100 bytes long
+	 * @param type the type of the entry
+	 * @param mode the permissions of the entry
+	 * @param size the number of bytes that follow the header
+	 * @param link the target of a symbolic link, at most 100 bytes long
+	 * @return the header
+	 */
+	private static byte[] newHeader(byte[] name, byte type, int mode, long size, byte[] link)
+	{
+		byte[] header = new byte[BLOCK_SIZE];
+		System.arraycopy(name, 0, header, 0, name.length);
+		writeOctal(header, 100, 8, mode);
+		// uid, gid and mtime are zero
+		writeOctal(header, 108, 8, 0);
+		writeOctal(header, 116, 8, 0);
+		writeOctal(header, 124, 12, size);
+		writeOctal(header, 136, 12, 0);
+		header[156] = type;
+		System.arraycopy(link, 0, header, 157, link.length);
+		byte[] magic = "ustar\u000000".getBytes(UTF_8);
+		System.arraycopy(magic, 0, header, 257, magic.length);
+		byte[] owner = "root".getBytes(UTF_8);
+		System.arraycopy(owner, 0, header, 265, owner.length);
+		System.arraycopy(owner, 0, header, 297, owner.length);
+
+		// The checksum is computed while the checksum field contains spaces
+		Arrays.fill(header, 148, 156, (byte) ' ');
+		long checksum = 0;
+		for (byte b : header)
+			checksum += b & 0xFF;
+		writeOctal(header, 148, 7, checksum);
+		return header;
+	}
+
+	/**
+	 * Writes a zero-padded, NUL-terminated octal number to a header.
+	 *
+	 * @param header the header
+	 * @param offset the offset of the field
+	 * @param length the length of the field, including the NUL terminator
+	 * @param value  the value to write
+	 */
+	private static void writeOctal(byte[] header, int offset, int length, long value)
+	{
+		String octal = Long.toOctalString(value);
+		int digits = length - 1;
+		assert that(octal.length(), "octal.length()").isLessThanOrEqualTo(digits).elseThrow();
+		for (int i = 0; i < digits; ++i)
+		{
+			int index = i - (digits - octal.length());
+			if (index < 0)
+				header[offset + i] = '0';
+			else
+				header[offset + i] = (byte) octal.charAt(index);
+		}
+		header[offset + digits] = 0;
+	}
+
+	/**
+	 * Pads the contents of an entry to a multiple of the block size.
+	 *
+	 * @param size the number of bytes in the entry
+	 * @throws IOException if an error occurs while writing to the archive
+	 */
+	private void pad(long size) throws IOException
+	{
+		int remainder = (int) (size % BLOCK_SIZE);
+		if (remainder != 0)
+			out.write(new byte[BLOCK_SIZE - remainder]);
+	}
+}
@@ -7,10 +7,12 @@
 	requires com.github.cowwoc.requirements11.java;
 	requires com.fasterxml.jackson.databind;
 	requires com.github.cowwoc.pouch.core;
+	requires jdk.jfr;
 
 	exports com.github.cowwoc.anchor4j.core.client;
 	exports com.github.cowwoc.anchor4j.core.resource;
 	exports com.github.cowwoc.anchor4j.core.exception;
+	exports com.github.cowwoc.anchor4j.core.metrics;
 
 	exports com.github.cowwoc.anchor4j.core.internal.client to
 		com.github.cowwoc.anchor4j.buildx, com.github.cowwoc.anchor4j.docker,
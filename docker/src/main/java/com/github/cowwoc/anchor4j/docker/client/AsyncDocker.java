@@ -0,0 +1,281 @@
+package com.github.cowwoc.anchor4j.docker.client;
+
+import com.github.cowwoc.anchor4j.core.client.AsyncClient;
+import com.github.cowwoc.anchor4j.docker.resource.Config;
+import com.github.cowwoc.anchor4j.docker.resource.ConfigElement;
+import com.github.cowwoc.anchor4j.docker.resource.ConfigFilter;
+import com.github.cowwoc.anchor4j.docker.resource.Container;
+import com.github.cowwoc.anchor4j.docker.resource.ContainerElement;
+import com.github.cowwoc.anchor4j.docker.resource.ContainerFilter;
+import com.github.cowwoc.anchor4j.docker.resource.Image;
+import com.github.cowwoc.anchor4j.docker.resource.ImageElement;
+import com.github.cowwoc.anchor4j.docker.resource.ImageFilter;
+import com.github.cowwoc.anchor4j.docker.resource.InspectResult;
+import com.github.cowwoc.anchor4j.docker.resource.Network;
+import com.github.cowwoc.anchor4j.docker.resource.Node;
+import com.github.cowwoc.anchor4j.docker.resource.NodeElement;
+import com.github.cowwoc.anchor4j.docker.resource.NodeFilter;
+import com.github.cowwoc.anchor4j.docker.resource.Task;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * An asynchronous view of a {@link Docker} client.
+ * <p>
+ * Operations that are not exposed by this interface, such as those that are configured using a builder, can
+ * be run using {@link #submit(Operation)}. For example:
+ * {@code async.submit(() -> docker.startContainer(id).start())}.
+ * <p>
+ * <b>Thread Safety</b>: This class is thread-safe.
+ */
+public interface AsyncDocker extends AsyncClient
+{
+	@Override
+	AsyncDocker setMaximumConcurrency(int maximumConcurrency);
+
+	@Override
+	AsyncDocker setMaximumPending(int maximumPending);
+
+	/**
+	 * Looks up a config.
+	 *
+	 * @param id the config's ID or name
+	 * @return a future that completes with the config, or {@code null} if no match is found
+	 * @throws RejectedExecutionException if too many operations are waiting to run
+	 * @see Docker#getConfig(String)
+	 */
+	CompletableFuture<Config> getConfig(String id);
+
+	/**
+	 * Looks up multiple configs.
+	 *
+	 * @param ids the IDs or names of the configs
+	 * @return a future that completes with the configs that were found and the IDs that were missing
+	 * @throws RejectedExecutionException if too many operations are waiting to run
+	 * @see Docker#getConfigs(Collection)
+	 */
+	CompletableFuture<InspectResult<Config>> getConfigs(Collection<String> ids);
+
+	/**
+	 * Lists all the configs.
+	 *
+	 * @return a future that completes with the elements
+	 * @throws RejectedExecutionException if too many operations are waiting to run
+	 * @see Docker#listConfigs()
+	 */
+	CompletableFuture<List<ConfigElement>> listConfigs();
+
+	/**
+	 * Lists the configs that match a filter.
+	 *
+	 * @param filter the filter to apply
+	 * @return a future that completes with the matching elements
+	 * @throws RejectedExecutionException if too many operations are waiting to run
+	 * @see Docker#listConfigs(ConfigFilter)
+	 */
+	CompletableFuture<List<ConfigElement>> listConfigs(ConfigFilter filter);
+
+	/**
+	 * Lists all the containers.
+	 *
+	 * @return a future that completes with the elements
+	 * @throws RejectedExecutionException if too many operations are waiting to run
+	 * @see Docker#listContainers()
+	 */
+	CompletableFuture<List<ContainerElement>> listContainers();
+
+	/**
+	 * Lists the containers that match a filter.
+	 *
+	 * @param filter the filter to apply
+	 * @return a future that completes with the matching elements
+	 * @throws RejectedExecutionException if too many operations are waiting to run
+	 * @see Docker#listContainers(ContainerFilter)
+	 */
+	CompletableFuture<List<ContainerElement>> listContainers(ContainerFilter filter);
+
+	/**
+	 * Looks up a container.
+	 *
+	 * @param id the container's ID or name
+	 * @return a future that completes with the container, or {@code null} if no match is found
+	 * @throws RejectedExecutionException if too many operations are waiting to run
+	 * @see Docker#getContainer(String)
+	 */
+	CompletableFuture<Container> getContainer(String id);
+
+	/**
+	 * Looks up multiple containers.
+	 *
+	 * @param ids the IDs or names of the containers
+	 * @return a future that completes with the containers that were found and the IDs that were missing
+	 * @throws RejectedExecutionException if too many operations are waiting to run
+	 * @see Docker#getContainers(Collection)
+	 */
+	CompletableFuture<InspectResult<Container>> getContainers(Collection<String> ids);
+
+	/**
+	 * Waits until a container stops.
+	 *
+	 * @param id the container's ID or name
+	 * @return a future that completes with the exit code returned by the container
+	 * @throws RejectedExecutionException if too many operations are waiting to run
+	 * @see Docker#waitUntilContainerStops(String)
+	 */
+	CompletableFuture<Integer> waitUntilContainerStops(String id);
+
+	/**
+	 * Waits until a container reaches the desired status.
+	 *
+	 * @param id       the container's ID or name
+	 * @param status   the desired status
+	 * @param deadline the time that the operation must complete by
+	 * @return a future that completes with the container, in its desired status
+	 * @throws RejectedExecutionException if too many operations are waiting to run
+	 * @see Docker#waitUntilContainerStatus(String, Container.Status, Instant)
+	 */
+	CompletableFuture<Container> waitUntilContainerStatus(String id, Container.Status status,
+		Instant deadline);
+
+	/**
+	 * Lists all the images.
+	 *
+	 * @return a future that completes with the elements
+	 * @throws RejectedExecutionException if too many operations are waiting to run
+	 * @see Docker#listImages()
+	 */
+	CompletableFuture<List<ImageElement>> listImages();
+
+	/**
+	 * Lists the images that match a filter.
+	 *
+	 * @param filter the filter to apply
+	 * @return a future that completes with the matching elements
+	 * @throws RejectedExecutionException if too many operations are waiting to run
+	 * @see Docker#listImages(ImageFilter)
+	 */
+	CompletableFuture<List<ImageElement>> listImages(ImageFilter filter);
+
+	/**
+	 * Looks up an image.
+	 *
+	 * @param id the image's ID or reference
+	 * @return a future that completes with the image, or {@code null} if no match is found
+	 * @throws RejectedExecutionException if too many operations are waiting to run
+	 * @see Docker#getImage(String)
+	 */
+	CompletableFuture<Image> getImage(String id);
+
+	/**
+	 * Looks up multiple images.
+	 *
+	 * @param ids the IDs or references of the images
+	 * @return a future that completes with the images that were found and the IDs that were missing
+	 * @throws RejectedExecutionException if too many operations are waiting to run
+	 * @see Docker#getImages(Collection)
+	 */
+	CompletableFuture<InspectResult<Image>> getImages(Collection<String> ids);
+
+	/**
+	 * Looks up a network.
+	 *
+	 * @param id the network's ID or name
+	 * @return a future that completes with the network, or {@code null} if no match is found
+	 * @throws RejectedExecutionException if too many operations are waiting to run
+	 * @see Docker#getNetwork(String)
+	 */
+	CompletableFuture<Network> getNetwork(String id);
+
+	/**
+	 * Lists all the nodes.
+	 *
+	 * @return a future that completes with the elements
+	 * @throws RejectedExecutionException if too many operations are waiting to run
+	 * @see Docker#listNodes()
+	 */
+	CompletableFuture<List<NodeElement>> listNodes();
+
+	/**
+	 * Lists the nodes that match a filter.
+	 *
+	 * @param filter the filter to apply
+	 * @return a future that completes with the matching elements
+	 * @throws RejectedExecutionException if too many operations are waiting to run
+	 * @see Docker#listNodes(NodeFilter)
+	 */
+	CompletableFuture<List<NodeElement>> listNodes(NodeFilter filter);
+
+	/**
+	 * Looks up the current node.
+	 *
+	 * @return a future that completes with the node
+	 * @throws RejectedExecutionException if too many operations are waiting to run
+	 * @see Docker#getNode()
+	 */
+	CompletableFuture<Node> getNode();
+
+	/**
+	 * Looks up a node.
+	 *
+	 * @param id the node's ID or hostname
+	 * @return a future that completes with the node, or {@code null} if no match is found
+	 * @throws RejectedExecutionException if too many operations are waiting to run
+	 * @see Docker#getNode(String)
+	 */
+	CompletableFuture<Node> getNode(String id);
+
+	/**
+	 * Looks up multiple nodes.
+	 *
+	 * @param ids the IDs or hostnames of the nodes
+	 * @return a future that completes with the nodes that were found and the IDs that were missing
+	 * @throws RejectedExecutionException if too many operations are waiting to run
+	 * @see Docker#getNodes(Collection)
+	 */
+	CompletableFuture<InspectResult<Node>> getNodes(Collection<String> ids);
+
+	/**
+	 * Waits until a node is ready.
+	 *
+	 * @param id       the node's ID or hostname
+	 * @param deadline the time that the operation must complete by
+	 * @return a future that completes with the node
+	 * @throws RejectedExecutionException if too many operations are waiting to run
+	 * @see Docker#waitUntilNodeIsReady(String, Instant)
+	 */
+	CompletableFuture<Node> waitUntilNodeIsReady(String id, Instant deadline);
+
+	/**
+	 * Lists the tasks that are assigned to the current node.
+	 *
+	 * @return a future that completes with the tasks
+	 * @throws RejectedExecutionException if too many operations are waiting to run
+	 * @see Docker#listTasksByNode()
+	 */
+	CompletableFuture<List<Task>> listTasksByNode();
+
+	/**
+	 * Lists a service's tasks.
+	 *
+	 * @param id the service's ID or name
+	 * @return a future that completes with the tasks
+	 * @throws RejectedExecutionException if too many operations are waiting to run
+	 * @see Docker#listTasksByService(String)
+	 */
+	CompletableFuture<List<Task>> listTasksByService(String id);
+
+	/**
+	 * Waits until all the tasks of a service are running.
+	 *
+	 * @param id       the service's ID or name
+	 * @param deadline the time that the operation must complete by
+	 * @return a future that completes with the service's running tasks
+	 * @throws RejectedExecutionException if too many operations are waiting to run
+	 * @see Docker#waitUntilServiceConverges(String, Instant)
+	 */
+	CompletableFuture<List<Task>> waitUntilServiceConverges(String id, Instant deadline);
+}
@@ -0,0 +1,14 @@
+package com.github.cowwoc.anchor4j.docker.client;
+
+/**
+ * A snapshot of the counters of a client's inspect cache.
+ *
+ * @param hits          the number of lookups that were served from the cache
+ * @param misses        the number of lookups that required a request to the Docker Engine
+ * @param evictions     the number of entries that were removed because the cache was full or the entry
+ *                      expired
+ * @param invalidations the number of entries that were removed because the resource changed
+ */
+public record CacheStatistics(long hits, long misses, long evictions, long invalidations)
+{
+}
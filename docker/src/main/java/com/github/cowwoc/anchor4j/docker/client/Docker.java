@@ -1,6 +1,7 @@
 package com.github.cowwoc.anchor4j.docker.client;
 
 import com.github.cowwoc.anchor4j.core.client.Client;
+import com.github.cowwoc.anchor4j.core.metrics.CommandMetrics;
 import com.github.cowwoc.anchor4j.docker.exception.LastManagerException;
 import com.github.cowwoc.anchor4j.docker.exception.NotSwarmManagerException;
 import com.github.cowwoc.anchor4j.docker.exception.NotSwarmMemberException;
@@ -10,9 +11,11 @@
 import com.github.cowwoc.anchor4j.docker.resource.Config;
 import com.github.cowwoc.anchor4j.docker.resource.ConfigCreator;
 import com.github.cowwoc.anchor4j.docker.resource.ConfigElement;
+import com.github.cowwoc.anchor4j.docker.resource.ConfigFilter;
 import com.github.cowwoc.anchor4j.docker.resource.Container;
 import com.github.cowwoc.anchor4j.docker.resource.ContainerCreator;
 import com.github.cowwoc.anchor4j.docker.resource.ContainerElement;
+import com.github.cowwoc.anchor4j.docker.resource.ContainerFilter;
 import com.github.cowwoc.anchor4j.docker.resource.ContainerLogGetter;
 import com.github.cowwoc.anchor4j.docker.resource.ContainerRemover;
 import com.github.cowwoc.anchor4j.docker.resource.ContainerStarter;
@@ -22,22 +25,29 @@
 import com.github.cowwoc.anchor4j.docker.resource.ContextElement;
 import com.github.cowwoc.anchor4j.docker.resource.ContextEndpoint;
 import com.github.cowwoc.anchor4j.docker.resource.ContextRemover;
+import com.github.cowwoc.anchor4j.docker.resource.Event;
+import com.github.cowwoc.anchor4j.docker.resource.EventSubscription;
 import com.github.cowwoc.anchor4j.docker.resource.Image;
 import com.github.cowwoc.anchor4j.docker.resource.ImageElement;
+import com.github.cowwoc.anchor4j.docker.resource.ImageFilter;
 import com.github.cowwoc.anchor4j.docker.resource.ImagePuller;
 import com.github.cowwoc.anchor4j.docker.resource.ImagePusher;
 import com.github.cowwoc.anchor4j.docker.resource.ImageRemover;
+import com.github.cowwoc.anchor4j.docker.resource.InspectResult;
 import com.github.cowwoc.anchor4j.docker.resource.JoinToken;
+import com.github.cowwoc.anchor4j.docker.resource.MergedLogGetter;
 import com.github.cowwoc.anchor4j.docker.resource.Network;
 import com.github.cowwoc.anchor4j.docker.resource.Node;
 import com.github.cowwoc.anchor4j.docker.resource.Node.Type;
 import com.github.cowwoc.anchor4j.docker.resource.NodeElement;
+import com.github.cowwoc.anchor4j.docker.resource.NodeFilter;
 import com.github.cowwoc.anchor4j.docker.resource.NodeRemover;
 import com.github.cowwoc.anchor4j.docker.resource.ServiceCreator;
 import com.github.cowwoc.anchor4j.docker.resource.SwarmCreator;
 import com.github.cowwoc.anchor4j.docker.resource.SwarmJoiner;
 import com.github.cowwoc.anchor4j.docker.resource.SwarmLeaver;
 import com.github.cowwoc.anchor4j.docker.resource.Task;
+import com.github.cowwoc.anchor4j.docker.resource.TaskFilter;
 import com.github.cowwoc.requirements11.annotation.CheckReturnValue;
 
 import java.io.FileNotFoundException;
@@ -45,7 +55,13 @@
 import java.net.ConnectException;
 import java.net.URI;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * A Docker client.
@@ -79,6 +95,79 @@ static Docker connect(Path executable) throws IOException
 		return new DefaultDocker(executable);
 	}
 
+	/**
+	 * Creates a client that sends requests directly to a Docker Engine's API instead of forking the
+	 * {@code docker} executable for each request. Operations that the API does not cover yet are delegated to
+	 * the {@code docker} executable located in the {@code PATH} environment variable, targeting the same
+	 * endpoint.
+	 * <p>
+	 * The client must be {@link #close() closed} to release its connections.
+	 *
+	 * @param endpoint the endpoint of the Docker Engine (e.g. {@code unix:///var/run/docker.sock} or
+	 *                 {@code tcp://myserver:2376}). If the endpoint specifies TLS parameters, connections are
+	 *                 authenticated using its certificates.
+	 * @return a client
+	 * @throws NullPointerException     if {@code endpoint} is null
+	 * @throws IllegalArgumentException if the endpoint's URI scheme is not supported
+	 * @throws IOException              if an I/O error occurs while reading file attributes, certificates or
+	 *                                  private keys
+	 */
+	static Docker connect(ContextEndpoint endpoint) throws IOException
+	{
+		return new DefaultDocker(endpoint);
+	}
+
+	@Override
+	Docker setProcessPoolSize(int size);
+
+	@Override
+	Docker setCommandMetrics(CommandMetrics metrics);
+
+	@Override
+	AsyncDocker async();
+
+	/**
+	 * Sets the maximum number of {@code docker container logs} processes that
+	 * {@link ContainerLogGetter#publish()} may run concurrently. Subscriptions that exceed this limit wait until
+	 * another subscription ends. Subscriptions that are already running are not affected.
+	 *
+	 * @param maximumLogProcesses the maximum number of concurrent processes
+	 * @return this
+	 * @throws IllegalArgumentException if {@code maximumLogProcesses} is not positive
+	 */
+	Docker setMaximumLogProcesses(int maximumLogProcesses);
+
+	/**
+	 * Configures the cache that {@link #getContainer(String)}, {@link #getImage(String)},
+	 * {@link #getNetwork(String)} and {@link #getNode(String)} consult before inspecting a resource.
+	 * <p>
+	 * The cache is disabled by default. Cached entries are invalidated when they expire, when the Docker Engine
+	 * reports an event for the resource, or when this client runs a command that may modify any resource.
+	 * Concurrent lookups of the same resource are coalesced into a single request. Missing resources are not
+	 * cached.
+	 * <p>
+	 * Replacing the cache discards its entries and resets its statistics.
+	 *
+	 * @param timeToLive  the amount of time that an entry remains valid after it is loaded
+	 * @param maximumSize the maximum number of entries to retain. The oldest entries are evicted first. A
+	 *                    value of {@code 0} disables the cache.
+	 * @return this
+	 * @throws NullPointerException     if {@code timeToLive} is null
+	 * @throws IllegalArgumentException if {@code timeToLive} is not positive, or if {@code maximumSize} is
+	 *                                  negative
+	 * @throws IllegalStateException    if the client is closed
+	 * @throws IOException              if the {@code docker events} process cannot be started
+	 */
+	Docker setInspectCache(Duration timeToLive, int maximumSize) throws IOException;
+
+	/**
+	 * Returns the statistics of the inspect cache.
+	 *
+	 * @return the statistics, or zero for all counters if the cache is disabled
+	 * @see #setInspectCache(Duration, int)
+	 */
+	CacheStatistics getInspectCacheStatistics();
+
 	/**
 	 * Authenticates with the Docker Hub registry.
 	 *
@@ -132,6 +221,20 @@ Docker login(String username, String password, String serverAddress)
 	 */
 	List<ConfigElement> listConfigs() throws IOException, InterruptedException;
 
+	/**
+	 * Lists the configs that match a filter.
+	 *
+	 * @param filter the conditions that configs must match
+	 * @return an empty list if no match is found
+	 * @throws NullPointerException     if {@code filter} is null
+	 * @throws NotSwarmManagerException if the current node is not a swarm manager
+	 * @throws IOException              if an I/O error occurs. These errors are typically transient, and
+	 *                                  retrying the request may resolve the issue.
+	 * @throws InterruptedException     if the thread is interrupted before the operation completes. This can
+	 *                                  happen due to shutdown signals.
+	 */
+	List<ConfigElement> listConfigs(ConfigFilter filter) throws IOException, InterruptedException;
+
 	/**
 	 * Looks up a config by its ID or name.
 	 *
@@ -147,6 +250,21 @@ Docker login(String username, String password, String serverAddress)
 	 */
 	Config getConfig(String id) throws IOException, InterruptedException;
 
+	/**
+	 * Looks up multiple configs by their IDs or names, using as few commands as possible.
+	 *
+	 * @param ids the IDs or names
+	 * @return the configs that were found, and the IDs or names that did not match any config
+	 * @throws NullPointerException     if {@code ids} or any of its elements are null
+	 * @throws IllegalArgumentException if any of the IDs contain whitespace, or are empty
+	 * @throws NotSwarmManagerException if the current node is not a swarm manager
+	 * @throws IOException              if an I/O error occurs. These errors are typically transient, and
+	 *                                  retrying the request may resolve the issue.
+	 * @throws InterruptedException     if the thread is interrupted before the operation completes. This can
+	 *                                  happen due to shutdown signals.
+	 */
+	InspectResult<Config> getConfigs(Collection<String> ids) throws IOException, InterruptedException;
+
 	/**
 	 * Creates a config.
 	 *
@@ -166,6 +284,44 @@ Docker login(String username, String password, String serverAddress)
 	 */
 	List<ContainerElement> listContainers() throws IOException, InterruptedException;
 
+	/**
+	 * Lists the containers that match a filter. The filter is evaluated by the server, so only matching
+	 * containers are transferred to the client.
+	 *
+	 * @param filter the conditions that containers must match
+	 * @return an empty list if no match is found
+	 * @throws NullPointerException if {@code filter} is null
+	 * @throws IOException          if an I/O error occurs. These errors are typically transient, and retrying
+	 *                              the request may resolve the issue.
+	 * @throws InterruptedException if the thread is interrupted before the operation completes. This can happen
+	 *                              due to shutdown signals.
+	 */
+	List<ContainerElement> listContainers(ContainerFilter filter) throws IOException, InterruptedException;
+
+	/**
+	 * Lists all the containers, reading them lazily.
+	 * <p>
+	 * Elements are read from the {@code docker} executable as they are consumed. The returned stream must be
+	 * closed to release the underlying process; closing it before it is exhausted terminates the process.
+	 *
+	 * @return the containers. Stream operations throw {@code UncheckedIOException} if an I/O error occurs.
+	 * @throws IOException if an I/O error occurs. These errors are typically transient, and retrying the
+	 *                     request may resolve the issue.
+	 */
+	Stream<ContainerElement> streamContainers() throws IOException;
+
+	/**
+	 * Lists the containers that match a filter, reading them lazily.
+	 *
+	 * @param filter the conditions that containers must match
+	 * @return the containers. Stream operations throw {@code UncheckedIOException} if an I/O error occurs.
+	 * @throws NullPointerException if {@code filter} is null
+	 * @throws IOException          if an I/O error occurs. These errors are typically transient, and retrying
+	 *                              the request may resolve the issue.
+	 * @see #streamContainers()
+	 */
+	Stream<ContainerElement> streamContainers(ContainerFilter filter) throws IOException;
+
 	/**
 	 * Looks up a container by its ID or name.
 	 *
@@ -180,6 +336,20 @@ Docker login(String username, String password, String serverAddress)
 	 */
 	Container getContainer(String id) throws IOException, InterruptedException;
 
+	/**
+	 * Looks up multiple containers by their IDs or names, using as few commands as possible.
+	 *
+	 * @param ids the IDs or names
+	 * @return the containers that were found, and the IDs or names that did not match any container
+	 * @throws NullPointerException     if {@code ids} or any of its elements are null
+	 * @throws IllegalArgumentException if any of the IDs contain whitespace, or are empty
+	 * @throws IOException              if an I/O error occurs. These errors are typically transient, and
+	 *                                  retrying the request may resolve the issue.
+	 * @throws InterruptedException     if the thread is interrupted before the operation completes. This can
+	 *                                  happen due to shutdown signals.
+	 */
+	InspectResult<Container> getContainers(Collection<String> ids) throws IOException, InterruptedException;
+
 	/**
 	 * Creates a container.
 	 *
@@ -268,6 +438,43 @@ Docker renameContainer(String oldName, String newName)
 	 */
 	int waitUntilContainerStops(String id) throws IOException, InterruptedException;
 
+	/**
+	 * Waits until a container reaches a status.
+	 * <p>
+	 * Instead of polling, this method re-checks the container's status whenever the Docker Engine reports an
+	 * event for it.
+	 *
+	 * @param id       the container's ID or name
+	 * @param status   the desired status
+	 * @param deadline the time that the operation must complete by
+	 * @return the container
+	 * @throws NullPointerException      if any of the arguments are null
+	 * @throws IllegalArgumentException  if {@code id} contains whitespace or is empty
+	 * @throws ResourceNotFoundException if the container does not exist
+	 * @throws IOException               if an I/O error occurs. These errors are typically transient, and
+	 *                                   retrying the request may resolve the issue.
+	 * @throws InterruptedException      if the thread is interrupted before the operation completes. This can
+	 *                                   happen due to shutdown signals.
+	 * @throws TimeoutException          if the container does not reach the status before the deadline
+	 */
+	Container waitUntilContainerStatus(String id, Container.Status status, Instant deadline)
+		throws IOException, InterruptedException, TimeoutException;
+
+	/**
+	 * Subscribes to the events that are reported by the Docker Engine.
+	 * <p>
+	 * All subscribers of a client share a single {@code docker events} process. The listener is invoked on a
+	 * background thread, and must return quickly to avoid delaying the delivery of subsequent events.
+	 *
+	 * @param listener the listener to notify when events occur
+	 * @return the subscription. Closing it stops the delivery of events.
+	 * @throws NullPointerException  if {@code listener} is null
+	 * @throws IllegalStateException if the client is closed
+	 * @throws IOException           if an I/O error occurs. These errors are typically transient, and retrying
+	 *                               the request may resolve the issue.
+	 */
+	EventSubscription subscribeToEvents(Consumer<Event> listener) throws IOException;
+
 	/**
 	 * Retrieves a container's logs.
 	 *
@@ -278,6 +485,17 @@ Docker renameContainer(String oldName, String newName)
 	 */
 	ContainerLogGetter getContainerLogs(String id);
 
+	/**
+	 * Retrieves the logs of multiple containers, merged in timestamp order.
+	 *
+	 * @param ids the IDs or names of the containers
+	 * @return logs
+	 * @throws NullPointerException     if {@code ids} or any of its elements are null
+	 * @throws IllegalArgumentException if {@code ids} is empty, or if any of its elements contain whitespace or
+	 *                                  are empty
+	 */
+	MergedLogGetter getContainerLogs(Collection<String> ids);
+
 	/**
 	 * Lists all the contexts.
 	 *
@@ -346,6 +564,8 @@ Docker renameContainer(String oldName, String newName)
 	 * @return this
 	 * @throws NullPointerException     if {@code name} is null
 	 * @throws IllegalArgumentException if {@code name}'s format is invalid
+	 * @throws IllegalStateException    if the client was {@link #connect(ContextEndpoint) connected to an
+	 *                                  endpoint}
 	 */
 	Docker setClientContext(String name);
 
@@ -392,6 +612,44 @@ Docker renameContainer(String oldName, String newName)
 	 */
 	List<ImageElement> listImages() throws IOException, InterruptedException;
 
+	/**
+	 * Lists the images that match a filter. The filter is evaluated by the server, so only matching images
+	 * are transferred to the client.
+	 *
+	 * @param filter the conditions that images must match
+	 * @return the images
+	 * @throws NullPointerException if {@code filter} is null
+	 * @throws IOException          if an I/O error occurs. These errors are typically transient, and retrying
+	 *                              the request may resolve the issue.
+	 * @throws InterruptedException if the thread is interrupted before the operation completes. This can happen
+	 *                              due to shutdown signals.
+	 */
+	List<ImageElement> listImages(ImageFilter filter) throws IOException, InterruptedException;
+
+	/**
+	 * Lists all the images, reading them lazily.
+	 * <p>
+	 * Elements are read from the {@code docker} executable as they are consumed. The returned stream must be
+	 * closed to release the underlying process; closing it before it is exhausted terminates the process.
+	 *
+	 * @return the images. Stream operations throw {@code UncheckedIOException} if an I/O error occurs.
+	 * @throws IOException if an I/O error occurs. These errors are typically transient, and retrying the
+	 *                     request may resolve the issue.
+	 */
+	Stream<ImageElement> streamImages() throws IOException;
+
+	/**
+	 * Lists the images that match a filter, reading them lazily.
+	 *
+	 * @param filter the conditions that images must match
+	 * @return the images. Stream operations throw {@code UncheckedIOException} if an I/O error occurs.
+	 * @throws NullPointerException if {@code filter} is null
+	 * @throws IOException          if an I/O error occurs. These errors are typically transient, and retrying
+	 *                              the request may resolve the issue.
+	 * @see #streamImages()
+	 */
+	Stream<ImageElement> streamImages(ImageFilter filter) throws IOException;
+
 	/**
 	 * Looks up an image by its ID or reference.
 	 *
@@ -410,6 +668,20 @@ Docker renameContainer(String oldName, String newName)
 	 */
 	Image getImage(String id) throws IOException, InterruptedException;
 
+	/**
+	 * Looks up multiple images by their IDs or references, using as few commands as possible.
+	 *
+	 * @param ids the IDs or {@link Image references}
+	 * @return the images that were found, and the IDs or references that did not match any image
+	 * @throws NullPointerException     if {@code ids} or any of its elements are null
+	 * @throws IllegalArgumentException if the format of any of the IDs is invalid
+	 * @throws IOException              if an I/O error occurs. These errors are typically transient, and
+	 *                                  retrying the request may resolve the issue.
+	 * @throws InterruptedException     if the thread is interrupted before the operation completes. This can
+	 *                                  happen due to shutdown signals.
+	 */
+	InspectResult<Image> getImages(Collection<String> ids) throws IOException, InterruptedException;
+
 	/**
 	 * Creates a new reference to an image.
 	 * <p>
@@ -499,6 +771,46 @@ void tagImage(String source, String target)
 	 */
 	List<NodeElement> listNodes() throws IOException, InterruptedException;
 
+	/**
+	 * Lists the nodes that match a filter.
+	 *
+	 * @param filter the conditions that nodes must match
+	 * @return the nodes
+	 * @throws NullPointerException     if {@code filter} is null
+	 * @throws NotSwarmManagerException if the current node is not a swarm manager
+	 * @throws IOException              if an I/O error occurs. These errors are typically transient, and
+	 *                                  retrying the request may resolve the issue.
+	 * @throws InterruptedException     if the thread is interrupted before the operation completes. This can
+	 *                                  happen due to shutdown signals.
+	 */
+	List<NodeElement> listNodes(NodeFilter filter) throws IOException, InterruptedException;
+
+	/**
+	 * Lists all the nodes, reading them lazily.
+	 * <p>
+	 * Elements are read from the {@code docker} executable as they are consumed. The returned stream must be
+	 * closed to release the underlying process; closing it before it is exhausted terminates the process.
+	 *
+	 * @return the nodes. Stream operations throw {@code UncheckedIOException} if an I/O error occurs, or
+	 * 	{@code NotSwarmManagerException} if the current node is not a swarm manager.
+	 * @throws IOException if an I/O error occurs. These errors are typically transient, and retrying the
+	 *                     request may resolve the issue.
+	 */
+	Stream<NodeElement> streamNodes() throws IOException;
+
+	/**
+	 * Lists the nodes that match a filter, reading them lazily.
+	 *
+	 * @param filter the conditions that nodes must match
+	 * @return the nodes. Stream operations throw {@code UncheckedIOException} if an I/O error occurs, or
+	 * 	{@code NotSwarmManagerException} if the current node is not a swarm manager.
+	 * @throws NullPointerException if {@code filter} is null
+	 * @throws IOException          if an I/O error occurs. These errors are typically transient, and retrying
+	 *                              the request may resolve the issue.
+	 * @see #streamNodes()
+	 */
+	Stream<NodeElement> streamNodes(NodeFilter filter) throws IOException;
+
 	/**
 	 * Lists the manager nodes in the swarm.
 	 *
@@ -564,6 +876,43 @@ void tagImage(String source, String target)
 	 */
 	Node getNode(String id) throws IOException, InterruptedException;
 
+	/**
+	 * Waits until a node has a {@link Node.Status#READY READY} status.
+	 * <p>
+	 * Instead of polling, this method re-checks the node's status whenever the Docker Engine reports an event
+	 * for it.
+	 *
+	 * @param id       the node's ID or hostname
+	 * @param deadline the time that the operation must complete by
+	 * @return the node
+	 * @throws NullPointerException     if any of the arguments are null
+	 * @throws IllegalArgumentException if {@code id} contains whitespace or is empty
+	 * @throws NotSwarmManagerException if the current node is not a swarm manager
+	 * @throws IOException              if an I/O error occurs. These errors are typically transient, and
+	 *                                  retrying the request may resolve the issue.
+	 * @throws InterruptedException     if the thread is interrupted before the operation completes. This can
+	 *                                  happen due to shutdown signals.
+	 * @throws TimeoutException         if the node is not ready before the deadline
+	 */
+	Node waitUntilNodeIsReady(String id, Instant deadline)
+		throws IOException, InterruptedException, TimeoutException;
+
+	/**
+	 * Looks up multiple nodes by their IDs or hostnames, using as few commands as possible.
+	 *
+	 * @param ids the IDs or hostnames
+	 * @return the nodes that were found, and the IDs or hostnames that did not match any node
+	 * @throws NullPointerException     if {@code ids} or any of its elements are null
+	 * @throws IllegalArgumentException if any of the IDs contain whitespace, or are empty
+	 * @throws NotSwarmManagerException if the current node is not a swarm manager
+	 * @throws FileNotFoundException    if the node's unix socket endpoint does not exist
+	 * @throws IOException              if an I/O error occurs. These errors are typically transient, and
+	 *                                  retrying the request may resolve the issue.
+	 * @throws InterruptedException     if the thread is interrupted before the operation completes. This can
+	 *                                  happen due to shutdown signals.
+	 */
+	InspectResult<Node> getNodes(Collection<String> ids) throws IOException, InterruptedException;
+
 	/**
 	 * Lists the tasks that are currently assigned to the current node.
 	 * <p>
@@ -588,6 +937,48 @@ void tagImage(String source, String target)
 	 */
 	List<Task> listTasksByNode() throws IOException, InterruptedException;
 
+	/**
+	 * Lists the tasks that are currently assigned to the current node and match a filter.
+	 *
+	 * @param filter the conditions that tasks must match
+	 * @return the tasks
+	 * @throws NullPointerException     if {@code filter} is null
+	 * @throws NotSwarmManagerException if the current node is not a swarm manager
+	 * @throws IOException              if an I/O error occurs. These errors are typically transient, and
+	 *                                  retrying the request may resolve the issue.
+	 * @throws InterruptedException     if the thread is interrupted before the operation completes. This can
+	 *                                  happen due to shutdown signals.
+	 * @see #listTasksByNode()
+	 */
+	List<Task> listTasksByNode(TaskFilter filter) throws IOException, InterruptedException;
+
+	/**
+	 * Lists the tasks that are assigned to the current node, reading them lazily.
+	 * <p>
+	 * Elements are read from the {@code docker} executable as they are consumed. The returned stream must be
+	 * closed to release the underlying process; closing it before it is exhausted terminates the process.
+	 *
+	 * @return the tasks. Stream operations throw {@code UncheckedIOException} if an I/O error occurs, or
+	 * 	{@code NotSwarmManagerException} if the current node is not a swarm manager.
+	 * @throws IOException if an I/O error occurs. These errors are typically transient, and retrying the
+	 *                     request may resolve the issue.
+	 * @see #listTasksByNode()
+	 */
+	Stream<Task> streamTasksByNode() throws IOException;
+
+	/**
+	 * Lists the tasks that are assigned to the current node and match a filter, reading them lazily.
+	 *
+	 * @param filter the conditions that tasks must match
+	 * @return the tasks. Stream operations throw {@code UncheckedIOException} if an I/O error occurs, or
+	 * 	{@code NotSwarmManagerException} if the current node is not a swarm manager.
+	 * @throws NullPointerException if {@code filter} is null
+	 * @throws IOException          if an I/O error occurs. These errors are typically transient, and retrying
+	 *                              the request may resolve the issue.
+	 * @see #listTasksByNode()
+	 */
+	Stream<Task> streamTasksByNode(TaskFilter filter) throws IOException;
+
 	/**
 	 * Lists the tasks that are currently assigned to a node.
 	 * <p>
@@ -621,6 +1012,27 @@ void tagImage(String source, String target)
 	 */
 	List<Task> listTasksByService(String id) throws IOException, InterruptedException;
 
+	/**
+	 * Waits until all the tasks of a service that are meant to be running are running.
+	 * <p>
+	 * Instead of polling, this method re-checks the service's tasks whenever the Docker Engine reports an
+	 * event for the service or one of its containers.
+	 *
+	 * @param id       the service's ID or name
+	 * @param deadline the time that the operation must complete by
+	 * @return the running tasks
+	 * @throws NullPointerException     if any of the arguments are null
+	 * @throws IllegalArgumentException if {@code id} contains whitespace or is empty
+	 * @throws NotSwarmManagerException if the current node is not a swarm manager
+	 * @throws IOException              if an I/O error occurs. These errors are typically transient, and
+	 *                                  retrying the request may resolve the issue.
+	 * @throws InterruptedException     if the thread is interrupted before the operation completes. This can
+	 *                                  happen due to shutdown signals.
+	 * @throws TimeoutException         if the service does not converge before the deadline
+	 */
+	List<Task> waitUntilServiceConverges(String id, Instant deadline)
+		throws IOException, InterruptedException, TimeoutException;
+
 	/**
 	 * Creates a service.
 	 *
@@ -0,0 +1,167 @@
+package com.github.cowwoc.anchor4j.docker.internal.client;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedByInterruptException;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.github.cowwoc.requirements11.java.DefaultJavaValidators.requireThat;
+
+/**
+ * Common implementation shared by all {@code EngineTransport}s.
+ * <p>
+ * Connections are kept alive between requests and returned to a bounded pool of idle connections.
+ */
+public abstract class AbstractEngineTransport implements EngineTransport
+{
+	private final int maximumIdleConnections;
+	private final Deque<HttpConnection> idleConnections = new ConcurrentLinkedDeque<>();
+	private final AtomicInteger numberOfIdleConnections = new AtomicInteger();
+	private final Logger log = LoggerFactory.getLogger(AbstractEngineTransport.class);
+
+	/**
+	 * Creates a new instance.
+	 *
+	 * @param maximumIdleConnections the maximum number of idle connections to keep open
+	 * @throws IllegalArgumentException if {@code maximumIdleConnections} is negative
+	 */
+	protected AbstractEngineTransport(int maximumIdleConnections)
+	{
+		requireThat(maximumIdleConnections, "maximumIdleConnections").isNotNegative();
+		this.maximumIdleConnections = maximumIdleConnections;
+	}
+
+	/**
+	 * Opens a new connection to the server.
+	 *
+	 * @return the connection
+	 * @throws IOException if an I/O error occurs
+	 */
+	protected abstract HttpConnection connect() throws IOException;
+
+	@Override
+	public EngineResponse send(String method, String path, ByteBuffer body)
+		throws IOException, InterruptedException
+	{
+		requireThat(method, "method").doesNotContainWhitespace().isNotEmpty();
+		requireThat(path, "path").doesNotContainWhitespace().startsWith("/");
+		requireThat(body, "body").isNotNull();
+
+		HttpConnection connection = pollIdleConnection();
+		boolean reused = connection != null;
+		if (connection == null)
+			connection = openConnection();
+		EngineResponse response;
+		try
+		{
+			response = connection.send(method, path, body);
+		}
+		catch (ClosedByInterruptException e)
+		{
+			InterruptedException interrupted = new InterruptedException();
+			interrupted.initCause(e);
+			throw interrupted;
+		}
+		catch (IOException e)
+		{
+			close(connection);
+			// The server may close idle connections at any time. Retry requests that are safe to repeat.
+			if (!reused || !(method.equals("GET") || method.equals("HEAD")))
+				throw e;
+			log.debug("Idle connection was closed by the server. Retrying with a new connection.", e);
+			connection = openConnection();
+			try
+			{
+				response = connection.send(method, path, body);
+			}
+			catch (IOException e2)
+			{
+				close(connection);
+				throw e2;
+			}
+		}
+		release(connection);
+		return response;
+	}
+
+	/**
+	 * @return a new connection
+	 * @throws IOException          if an I/O error occurs
+	 * @throws InterruptedException if the thread is interrupted while connecting
+	 */
+	private HttpConnection openConnection() throws IOException, InterruptedException
+	{
+		try
+		{
+			return connect();
+		}
+		catch (ClosedByInterruptException e)
+		{
+			InterruptedException interrupted = new InterruptedException();
+			interrupted.initCause(e);
+			throw interrupted;
+		}
+	}
+
+	/**
+	 * @return an idle connection, or {@code null} if none are available
+	 */
+	private HttpConnection pollIdleConnection()
+	{
+		HttpConnection connection = idleConnections.pollFirst();
+		if (connection != null)
+			numberOfIdleConnections.decrementAndGet();
+		return connection;
+	}
+
+	/**
+	 * Returns a connection to the pool of idle connections, or closes it if it cannot be reused.
+	 *
+	 * @param connection the connection
+	 */
+	private void release(HttpConnection connection)
+	{
+		if (connection.isReusable() && numberOfIdleConnections.incrementAndGet() <= maximumIdleConnections)
+		{
+			idleConnections.offerFirst(connection);
+			return;
+		}
+		if (connection.isReusable())
+			numberOfIdleConnections.decrementAndGet();
+		close(connection);
+	}
+
+	/**
+	 * Closes a connection, logging any errors that occur.
+	 *
+	 * @param connection the connection
+	 */
+	private void close(HttpConnection connection)
+	{
+		try
+		{
+			connection.close();
+		}
+		catch (IOException e)
+		{
+			log.debug("Failed to close connection", e);
+		}
+	}
+
+	@Override
+	public void close()
+	{
+		while (true)
+		{
+			HttpConnection connection = pollIdleConnection();
+			if (connection == null)
+				break;
+			close(connection);
+		}
+	}
+}
@@ -0,0 +1,206 @@
+package com.github.cowwoc.anchor4j.docker.internal.client;
+
+import com.github.cowwoc.anchor4j.core.internal.client.DefaultAsyncClient;
+import com.github.cowwoc.anchor4j.docker.client.AsyncDocker;
+import com.github.cowwoc.anchor4j.docker.client.Docker;
+import com.github.cowwoc.anchor4j.docker.resource.Config;
+import com.github.cowwoc.anchor4j.docker.resource.ConfigElement;
+import com.github.cowwoc.anchor4j.docker.resource.ConfigFilter;
+import com.github.cowwoc.anchor4j.docker.resource.Container;
+import com.github.cowwoc.anchor4j.docker.resource.ContainerElement;
+import com.github.cowwoc.anchor4j.docker.resource.ContainerFilter;
+import com.github.cowwoc.anchor4j.docker.resource.Image;
+import com.github.cowwoc.anchor4j.docker.resource.ImageElement;
+import com.github.cowwoc.anchor4j.docker.resource.ImageFilter;
+import com.github.cowwoc.anchor4j.docker.resource.InspectResult;
+import com.github.cowwoc.anchor4j.docker.resource.Network;
+import com.github.cowwoc.anchor4j.docker.resource.Node;
+import com.github.cowwoc.anchor4j.docker.resource.NodeElement;
+import com.github.cowwoc.anchor4j.docker.resource.NodeFilter;
+import com.github.cowwoc.anchor4j.docker.resource.Task;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The default implementation of {@code AsyncDocker}.
+ * <p>
+ * <b>Thread Safety</b>: This class is thread-safe.
+ */
+public final class DefaultAsyncDocker extends DefaultAsyncClient
+	implements AsyncDocker
+{
+	private final Docker client;
+
+	/**
+	 * Creates a new instance.
+	 *
+	 * @param client the client that runs the operations
+	 */
+	public DefaultAsyncDocker(Docker client)
+	{
+		super(client);
+		this.client = client;
+	}
+
+	@Override
+	public AsyncDocker setMaximumConcurrency(int maximumConcurrency)
+	{
+		super.setMaximumConcurrency(maximumConcurrency);
+		return this;
+	}
+
+	@Override
+	public AsyncDocker setMaximumPending(int maximumPending)
+	{
+		super.setMaximumPending(maximumPending);
+		return this;
+	}
+
+	@Override
+	public CompletableFuture<Config> getConfig(String id)
+	{
+		return submit(() -> client.getConfig(id));
+	}
+
+	@Override
+	public CompletableFuture<InspectResult<Config>> getConfigs(Collection<String> ids)
+	{
+		return submit(() -> client.getConfigs(ids));
+	}
+
+	@Override
+	public CompletableFuture<List<ConfigElement>> listConfigs()
+	{
+		return submit(client::listConfigs);
+	}
+
+	@Override
+	public CompletableFuture<List<ConfigElement>> listConfigs(ConfigFilter filter)
+	{
+		return submit(() -> client.listConfigs(filter));
+	}
+
+	@Override
+	public CompletableFuture<List<ContainerElement>> listContainers()
+	{
+		return submit(client::listContainers);
+	}
+
+	@Override
+	public CompletableFuture<List<ContainerElement>> listContainers(ContainerFilter filter)
+	{
+		return submit(() -> client.listContainers(filter));
+	}
+
+	@Override
+	public CompletableFuture<Container> getContainer(String id)
+	{
+		return submit(() -> client.getContainer(id));
+	}
+
+	@Override
+	public CompletableFuture<InspectResult<Container>> getContainers(Collection<String> ids)
+	{
+		return submit(() -> client.getContainers(ids));
+	}
+
+	@Override
+	public CompletableFuture<Integer> waitUntilContainerStops(String id)
+	{
+		return submit(() -> client.waitUntilContainerStops(id));
+	}
+
+	@Override
+	public CompletableFuture<Container> waitUntilContainerStatus(String id, Container.Status status,
+		Instant deadline)
+	{
+		return submit(() -> client.waitUntilContainerStatus(id, status, deadline));
+	}
+
+	@Override
+	public CompletableFuture<List<ImageElement>> listImages()
+	{
+		return submit(client::listImages);
+	}
+
+	@Override
+	public CompletableFuture<List<ImageElement>> listImages(ImageFilter filter)
+	{
+		return submit(() -> client.listImages(filter));
+	}
+
+	@Override
+	public CompletableFuture<Image> getImage(String id)
+	{
+		return submit(() -> client.getImage(id));
+	}
+
+	@Override
+	public CompletableFuture<InspectResult<Image>> getImages(Collection<String> ids)
+	{
+		return submit(() -> client.getImages(ids));
+	}
+
+	@Override
+	public CompletableFuture<Network> getNetwork(String id)
+	{
+		return submit(() -> client.getNetwork(id));
+	}
+
+	@Override
+	public CompletableFuture<List<NodeElement>> listNodes()
+	{
+		return submit(client::listNodes);
+	}
+
+	@Override
+	public CompletableFuture<List<NodeElement>> listNodes(NodeFilter filter)
+	{
+		return submit(() -> client.listNodes(filter));
+	}
+
+	@Override
+	public CompletableFuture<Node> getNode()
+	{
+		return submit(client::getNode);
+	}
+
+	@Override
+	public CompletableFuture<Node> getNode(String id)
+	{
+		return submit(() -> client.getNode(id));
+	}
+
+	@Override
+	public CompletableFuture<InspectResult<Node>> getNodes(Collection<String> ids)
+	{
+		return submit(() -> client.getNodes(ids));
+	}
+
+	@Override
+	public CompletableFuture<Node> waitUntilNodeIsReady(String id, Instant deadline)
+	{
+		return submit(() -> client.waitUntilNodeIsReady(id, deadline));
+	}
+
+	@Override
+	public CompletableFuture<List<Task>> listTasksByNode()
+	{
+		return submit(client::listTasksByNode);
+	}
+
+	@Override
+	public CompletableFuture<List<Task>> listTasksByService(String id)
+	{
+		return submit(() -> client.listTasksByService(id));
+	}
+
+	@Override
+	public CompletableFuture<List<Task>> waitUntilServiceConverges(String id, Instant deadline)
+	{
+		return submit(() -> client.waitUntilServiceConverges(id, deadline));
+	}
+}
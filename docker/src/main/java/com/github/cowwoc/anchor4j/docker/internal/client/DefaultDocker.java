@@ -2,13 +2,18 @@
 
 import com.github.cowwoc.anchor4j.core.internal.client.AbstractInternalClient;
 import com.github.cowwoc.anchor4j.core.internal.client.CommandResult;
+import com.github.cowwoc.anchor4j.core.internal.client.OutputConsumer;
 import com.github.cowwoc.anchor4j.core.internal.util.Paths;
+import com.github.cowwoc.anchor4j.core.metrics.CommandMetrics;
 import com.github.cowwoc.anchor4j.core.resource.ImageBuilder;
+import com.github.cowwoc.anchor4j.docker.client.AsyncDocker;
+import com.github.cowwoc.anchor4j.docker.client.CacheStatistics;
 import com.github.cowwoc.anchor4j.docker.client.Docker;
-import com.github.cowwoc.anchor4j.docker.exception.NotSwarmManagerException;
+import com.github.cowwoc.anchor4j.docker.exception.ResourceNotFoundException;
 import com.github.cowwoc.anchor4j.docker.internal.resource.ConfigParser;
 import com.github.cowwoc.anchor4j.docker.internal.resource.ContainerParser;
 import com.github.cowwoc.anchor4j.docker.internal.resource.ContextParser;
+import com.github.cowwoc.anchor4j.docker.internal.resource.EventParser;
 import com.github.cowwoc.anchor4j.docker.internal.resource.ImageParser;
 import com.github.cowwoc.anchor4j.docker.internal.resource.NetworkParser;
 import com.github.cowwoc.anchor4j.docker.internal.resource.NodeParser;
@@ -18,9 +23,11 @@
 import com.github.cowwoc.anchor4j.docker.resource.Config;
 import com.github.cowwoc.anchor4j.docker.resource.ConfigCreator;
 import com.github.cowwoc.anchor4j.docker.resource.ConfigElement;
+import com.github.cowwoc.anchor4j.docker.resource.ConfigFilter;
 import com.github.cowwoc.anchor4j.docker.resource.Container;
 import com.github.cowwoc.anchor4j.docker.resource.ContainerCreator;
 import com.github.cowwoc.anchor4j.docker.resource.ContainerElement;
+import com.github.cowwoc.anchor4j.docker.resource.ContainerFilter;
 import com.github.cowwoc.anchor4j.docker.resource.ContainerLogGetter;
 import com.github.cowwoc.anchor4j.docker.resource.ContainerRemover;
 import com.github.cowwoc.anchor4j.docker.resource.ContainerStarter;
@@ -30,33 +37,56 @@
 import com.github.cowwoc.anchor4j.docker.resource.ContextElement;
 import com.github.cowwoc.anchor4j.docker.resource.ContextEndpoint;
 import com.github.cowwoc.anchor4j.docker.resource.ContextRemover;
+import com.github.cowwoc.anchor4j.docker.resource.Event;
+import com.github.cowwoc.anchor4j.docker.resource.EventSubscription;
 import com.github.cowwoc.anchor4j.docker.resource.Image;
 import com.github.cowwoc.anchor4j.docker.resource.ImageElement;
+import com.github.cowwoc.anchor4j.docker.resource.ImageFilter;
 import com.github.cowwoc.anchor4j.docker.resource.ImagePuller;
 import com.github.cowwoc.anchor4j.docker.resource.ImagePusher;
 import com.github.cowwoc.anchor4j.docker.resource.ImageRemover;
+import com.github.cowwoc.anchor4j.docker.resource.InspectResult;
 import com.github.cowwoc.anchor4j.docker.resource.JoinToken;
+import com.github.cowwoc.anchor4j.docker.resource.ListFilter;
+import com.github.cowwoc.anchor4j.docker.resource.MergedLogGetter;
 import com.github.cowwoc.anchor4j.docker.resource.Network;
 import com.github.cowwoc.anchor4j.docker.resource.Node;
 import com.github.cowwoc.anchor4j.docker.resource.Node.Type;
 import com.github.cowwoc.anchor4j.docker.resource.NodeElement;
+import com.github.cowwoc.anchor4j.docker.resource.NodeFilter;
 import com.github.cowwoc.anchor4j.docker.resource.NodeRemover;
 import com.github.cowwoc.anchor4j.docker.resource.ServiceCreator;
 import com.github.cowwoc.anchor4j.docker.resource.SwarmCreator;
 import com.github.cowwoc.anchor4j.docker.resource.SwarmJoiner;
 import com.github.cowwoc.anchor4j.docker.resource.SwarmLeaver;
 import com.github.cowwoc.anchor4j.docker.resource.Task;
+import com.github.cowwoc.anchor4j.docker.resource.Task.State;
+import com.github.cowwoc.anchor4j.docker.resource.TaskFilter;
 import com.github.cowwoc.pouch.core.ConcurrentLazyReference;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.UncheckedIOException;
 import java.nio.ByteBuffer;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 import static com.github.cowwoc.requirements11.java.DefaultJavaValidators.requireThat;
-import static com.github.cowwoc.requirements11.java.DefaultJavaValidators.that;
 import static java.nio.charset.StandardCharsets.UTF_8;
 
 /**
@@ -89,7 +119,42 @@ private static Path getExecutableFromPath() throws IOException
 		}
 	}
 
+	/**
+	 * The maximum number of characters to pass to a single command when looking up multiple resources.
+	 * <p>
+	 * Windows limits the length of a command line to 32,767 characters. The limit on other platforms is
+	 * higher, but passing more IDs per command yields diminishing returns.
+	 */
+	private static final int MAXIMUM_ARGUMENTS_LENGTH = 30_000;
+	/**
+	 * The initial amount of time to wait for an event before looking up a resource again.
+	 */
+	private static final Duration MINIMUM_RECHECK_INTERVAL = Duration.ofSeconds(1);
+	/**
+	 * The maximum amount of time to wait for an event before looking up a resource again.
+	 */
+	private static final Duration MAXIMUM_RECHECK_INTERVAL = Duration.ofSeconds(30);
+	/**
+	 * The verbs of commands that cannot modify any resources.
+	 */
+	private static final Set<String> READ_ONLY_VERBS = Set.of("inspect", "ls", "ps", "logs", "show", "events",
+		"info", "version", "wait", "history", "top", "port", "diff");
+	/**
+	 * The default maximum number of concurrent {@code docker container logs} processes.
+	 */
+	private static final int DEFAULT_MAXIMUM_LOG_PROCESSES = 32;
+	private static final ByteBuffer EMPTY_BODY = ByteBuffer.allocate(0);
+	private static final String HEX_DIGITS = "0123456789ABCDEF";
 	private String clientContext = "";
+	/**
+	 * The endpoint that the client is bound to, or {@code null} to use the client's context.
+	 */
+	private final ContextEndpoint endpoint;
+	/**
+	 * The transport used to send requests to the Docker Engine API, or {@code null} to fork the executable for
+	 * all requests.
+	 */
+	private final EngineTransport transport;
 	@SuppressWarnings("this-escape")
 	private final ConfigParser configParser = new ConfigParser(this);
 	@SuppressWarnings("this-escape")
@@ -99,6 +164,8 @@ private static Path getExecutableFromPath() throws IOException
 	@SuppressWarnings("this-escape")
 	private final ContextParser contextParser = new ContextParser(this);
 	@SuppressWarnings("this-escape")
+	private final EventParser eventParser = new EventParser(this);
+	@SuppressWarnings("this-escape")
 	private final NetworkParser networkParser = new NetworkParser(this);
 	@SuppressWarnings("this-escape")
 	private final ServiceParser serviceParser = new ServiceParser(this);
@@ -106,6 +173,23 @@ private static Path getExecutableFromPath() throws IOException
 	private final NodeParser nodeParser = new NodeParser(this);
 	@SuppressWarnings("this-escape")
 	private final SwarmParser swarmParser = new SwarmParser(this);
+	@SuppressWarnings("this-escape")
+	private final EventMonitor eventMonitor = new EventMonitor(this);
+	@SuppressWarnings("this-escape")
+	private final AsyncDocker async = new DefaultAsyncDocker(this);
+	private final Object inspectCacheLock = new Object();
+	/**
+	 * The cache of inspected resources, or {@code null} if caching is disabled.
+	 */
+	private volatile InspectCache inspectCache;
+	/**
+	 * The maximum number of concurrent {@code docker container logs} processes.
+	 */
+	private volatile int maximumLogProcesses = DEFAULT_MAXIMUM_LOG_PROCESSES;
+	/**
+	 * Limits the number of concurrent {@code docker container logs} processes.
+	 */
+	private volatile Semaphore logProcessLimiter = new Semaphore(DEFAULT_MAXIMUM_LOG_PROCESSES, true);
 
 	/**
 	 * Creates a client that uses the {@code docker} executable located in the {@code PATH} environment
@@ -130,14 +214,68 @@ public DefaultDocker() throws IOException
 	public DefaultDocker(Path executable) throws IOException
 	{
 		super(executable);
+		this.endpoint = null;
+		this.transport = null;
+	}
+
+	/**
+	 * Creates a client that sends requests to the Docker Engine API of an endpoint, and uses the {@code docker}
+	 * executable located in the {@code PATH} environment variable for all other requests.
+	 *
+	 * @param endpoint the endpoint of the Docker Engine
+	 * @throws NullPointerException     if {@code endpoint} is null
+	 * @throws IllegalArgumentException if the endpoint's URI scheme is not supported
+	 * @throws IOException              if an I/O error occurs while reading file attributes
+	 */
+	public DefaultDocker(ContextEndpoint endpoint) throws IOException
+	{
+		this(getExecutableFromPath(), endpoint, EngineTransport.connect(endpoint));
+	}
+
+	/**
+	 * Creates a client that sends requests to the Docker Engine API of an endpoint, and uses an executable for
+	 * all other requests.
+	 *
+	 * @param executable the path of the Docker client
+	 * @param endpoint   the endpoint of the Docker Engine
+	 * @param transport  the transport used to send requests to the Docker Engine API
+	 * @throws NullPointerException     if any of the arguments are null
+	 * @throws IllegalArgumentException if the path referenced by {@code executable} does not exist or is not a
+	 *                                  file
+	 * @throws IOException              if an I/O error occurs while reading {@code executable}'s attributes
+	 */
+	public DefaultDocker(Path executable, ContextEndpoint endpoint, EngineTransport transport)
+		throws IOException
+	{
+		super(executable);
+		requireThat(endpoint, "endpoint").isNotNull();
+		requireThat(transport, "transport").isNotNull();
+		this.endpoint = endpoint;
+		this.transport = transport;
 	}
 
 	@Override
 	public ProcessBuilder getProcessBuilder(List<String> arguments)
 	{
-		List<String> command = new ArrayList<>(arguments.size() + 3);
+		List<String> command = new ArrayList<>(arguments.size() + 10);
 		command.add(executable.toString());
-		if (!clientContext.isEmpty())
+		if (endpoint != null)
+		{
+			// https://docs.docker.com/reference/cli/docker/#options
+			command.add("--host");
+			command.add(endpoint.uri().toString());
+			if (endpoint.caPublicKey() != null)
+			{
+				command.add("--tlsverify");
+				command.add("--tlscacert");
+				command.add(endpoint.caPublicKey().toString());
+				command.add("--tlscert");
+				command.add(endpoint.clientCertificate().toString());
+				command.add("--tlskey");
+				command.add(endpoint.clientPrivateKey().toString());
+			}
+		}
+		else if (!clientContext.isEmpty())
 		{
 			command.add("--context");
 			command.add(clientContext);
@@ -146,6 +284,382 @@ public ProcessBuilder getProcessBuilder(List<String> arguments)
 		return new ProcessBuilder(command);
 	}
 
+	/**
+	 * Waits until a resource reaches a desired state.
+	 * <p>
+	 * The resource is looked up once up-front, and again whenever a relevant event is reported. In case events
+	 * are lost (e.g. while the {@code docker events} process restarts), the resource is also looked up at an
+	 * exponentially increasing interval.
+	 *
+	 * @param <T>            the type of the resource
+	 * @param isRelevant     returns {@code true} if an event may have changed the state of the resource
+	 * @param lookup         looks up the current state of the resource
+	 * @param isDone         returns {@code true} if the resource is in the desired state
+	 * @param deadline       the time that the operation must complete by
+	 * @param timeoutMessage returns the message of the {@code TimeoutException} given the last known state
+	 * @return the resource, in its desired state
+	 * @throws IOException          if an I/O error occurs. These errors are typically transient, and retrying
+	 *                              the request may resolve the issue.
+	 * @throws InterruptedException if the thread is interrupted before the operation completes. This can happen
+	 *                              due to shutdown signals.
+	 * @throws TimeoutException     if the resource does not reach the desired state before the deadline
+	 */
+	private <T> T waitForEvents(Predicate<Event> isRelevant, ResourceLookup<T> lookup, Predicate<T> isDone,
+		Instant deadline, Function<T, String> timeoutMessage)
+		throws IOException, InterruptedException, TimeoutException
+	{
+		Semaphore changed = new Semaphore(0);
+		// Subscribe before the first lookup to avoid missing events that occur in between
+		try (EventSubscription _ = subscribeToEvents(event ->
+		{
+			if (isRelevant.test(event))
+				changed.release();
+		}))
+		{
+			Duration recheckInterval = MINIMUM_RECHECK_INTERVAL;
+			while (true)
+			{
+				T resource = lookup.get();
+				if (isDone.test(resource))
+					return resource;
+				long remaining = Duration.between(Instant.now(), deadline).toMillis();
+				if (remaining <= 0)
+					throw new TimeoutException(timeoutMessage.apply(resource));
+				if (changed.tryAcquire(Math.min(remaining, recheckInterval.toMillis()), TimeUnit.MILLISECONDS))
+				{
+					// Coalesce events that arrived together into a single lookup
+					changed.drainPermits();
+					recheckInterval = MINIMUM_RECHECK_INTERVAL;
+				}
+				else
+				{
+					recheckInterval = recheckInterval.multipliedBy(2);
+					if (recheckInterval.compareTo(MAXIMUM_RECHECK_INTERVAL) > 0)
+						recheckInterval = MAXIMUM_RECHECK_INTERVAL;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Removes duplicate IDs.
+	 *
+	 * @param ids a collection of IDs
+	 * @return the IDs in their original order, without duplicates
+	 * @throws NullPointerException if {@code ids} or any of its elements are null
+	 */
+	private static List<String> toUniqueIds(Collection<String> ids)
+	{
+		requireThat(ids, "ids").isNotNull();
+		Set<String> uniqueIds = new LinkedHashSet<>(ids);
+		for (String id : uniqueIds)
+			requireThat(id, "id").isNotNull();
+		return new ArrayList<>(uniqueIds);
+	}
+
+	/**
+	 * Looks up multiple resources, passing as many IDs to each command as the operating system permits.
+	 *
+	 * @param <T>       the type of resources
+	 * @param arguments the command's arguments, excluding the IDs
+	 * @param ids       the IDs of the resources, without duplicates
+	 * @param parser    parses the output of each command
+	 * @return the resources
+	 * @throws IOException          if an I/O error occurs. These errors are typically transient, and retrying
+	 *                              the request may resolve the issue.
+	 * @throws InterruptedException if the thread is interrupted before the operation completes. This can happen
+	 *                              due to shutdown signals.
+	 */
+	private <T> InspectResult<T> inspectAll(List<String> arguments, List<String> ids, BatchParser<T> parser)
+		throws IOException, InterruptedException
+	{
+		Map<String, T> found = new LinkedHashMap<>();
+		Set<String> missing = new LinkedHashSet<>();
+		int prefixLength = 0;
+		for (String argument : arguments)
+			prefixLength += argument.length() + 1;
+		int start = 0;
+		while (start < ids.size())
+		{
+			// Always include at least one ID, even if it exceeds the limit on its own
+			int end = start + 1;
+			int length = prefixLength + ids.get(start).length() + 1;
+			while (end < ids.size())
+			{
+				length += ids.get(end).length() + 1;
+				if (length > MAXIMUM_ARGUMENTS_LENGTH)
+					break;
+				++end;
+			}
+			List<String> chunk = ids.subList(start, end);
+			List<String> command = new ArrayList<>(arguments.size() + chunk.size());
+			command.addAll(arguments);
+			command.addAll(chunk);
+			CommandResult result = run(command);
+			parser.parse(result, chunk, found, missing);
+			start = end;
+		}
+		return new InspectResult<>(found, missing);
+	}
+
+	/**
+	 * Appends a filter to a command.
+	 *
+	 * @param arguments the command's arguments
+	 * @param filter    the filter
+	 * @return the combined arguments
+	 * @throws NullPointerException if any of the arguments are null
+	 */
+	private static List<String> withFilter(List<String> arguments, ListFilter filter)
+	{
+		requireThat(filter, "filter").isNotNull();
+		List<String> filterArguments = filter.toCommandLine();
+		if (filterArguments.isEmpty())
+			return arguments;
+		List<String> result = new ArrayList<>(arguments.size() + filterArguments.size());
+		result.addAll(arguments);
+		result.addAll(filterArguments);
+		return result;
+	}
+
+	/**
+	 * Runs a command that lists resources, parsing its output as it is produced.
+	 *
+	 * @param <E>       the type of elements
+	 * @param arguments the command-line arguments to pass to the executable
+	 * @param parser    parses the command's output
+	 * @param validator throws an exception if the command failed
+	 * @return the elements
+	 * @throws IOException          if an I/O error occurs. These errors are typically transient, and retrying
+	 *                              the request may resolve the issue.
+	 * @throws InterruptedException if the thread is interrupted before the operation completes. This can happen
+	 *                              due to shutdown signals.
+	 */
+	private <E> List<E> runList(List<String> arguments, ElementParser<E> parser,
+		Consumer<CommandResult> validator) throws IOException, InterruptedException
+	{
+		List<E> elements = new ArrayList<>();
+		CommandResult result = run(arguments, stdout ->
+		{
+			// Discard any elements that were read before the command was retried
+			elements.clear();
+			parser.parse(stdout, elements::add);
+		});
+		validator.accept(result);
+		return elements;
+	}
+
+	/**
+	 * Inspects a resource, preferring the Docker Engine API over the {@code docker} executable.
+	 *
+	 * @param arguments the command-line arguments that inspect the resource
+	 * @param path      the path of the equivalent Docker Engine API resource
+	 * @return the result of inspecting the resource, in the format returned by the {@code docker} executable
+	 * @throws IOException          if an I/O error occurs. These errors are typically transient, and retrying
+	 *                              the request may resolve the issue.
+	 * @throws InterruptedException if the thread is interrupted before the operation completes. This can happen
+	 *                              due to shutdown signals.
+	 */
+	private CommandResult inspect(List<String> arguments, String path) throws IOException, InterruptedException
+	{
+		if (transport == null)
+			return run(arguments);
+		EngineResponse response = transport.send("GET", path, EMPTY_BODY);
+		return response.toInspectResult(List.of("GET", path), getJsonMapper());
+	}
+
+	/**
+	 * Percent-encodes a value for use in the path of a Docker Engine API request.
+	 *
+	 * @param value the value
+	 * @return the encoded value
+	 */
+	private static String encodePath(String value)
+	{
+		StringBuilder result = new StringBuilder(value.length());
+		for (byte b : value.getBytes(UTF_8))
+		{
+			char ch = (char) (b & 0xFF);
+			if ((ch >= 'a' && ch <= 'z') || (ch >= 'A' && ch <= 'Z') || (ch >= '0' && ch <= '9') ||
+				"-._~:@/".indexOf(ch) != -1)
+			{
+				result.append(ch);
+			}
+			else
+				result.append('%').append(HEX_DIGITS.charAt(ch >> 4)).append(HEX_DIGITS.charAt(ch & 0xF));
+		}
+		return result.toString();
+	}
+
+	@Override
+	public Docker setProcessPoolSize(int size)
+	{
+		super.setProcessPoolSize(size);
+		return this;
+	}
+
+	@Override
+	public Docker setCommandMetrics(CommandMetrics metrics)
+	{
+		super.setCommandMetrics(metrics);
+		return this;
+	}
+
+	@Override
+	public AsyncDocker async()
+	{
+		return async;
+	}
+
+	@Override
+	public Docker setMaximumLogProcesses(int maximumLogProcesses)
+	{
+		requireThat(maximumLogProcesses, "maximumLogProcesses").isPositive();
+		// Processes that hold a permit release it to the semaphore that they acquired it from
+		this.logProcessLimiter = new Semaphore(maximumLogProcesses, true);
+		this.maximumLogProcesses = maximumLogProcesses;
+		return this;
+	}
+
+	@Override
+	public int getMaximumLogProcesses()
+	{
+		return maximumLogProcesses;
+	}
+
+	@Override
+	public Semaphore getLogProcessLimiter()
+	{
+		return logProcessLimiter;
+	}
+
+	@Override
+	public Docker setInspectCache(Duration timeToLive, int maximumSize) throws IOException
+	{
+		requireThat(timeToLive, "timeToLive").isGreaterThan(Duration.ZERO);
+		requireThat(maximumSize, "maximumSize").isNotNegative();
+		synchronized (inspectCacheLock)
+		{
+			InspectCache newCache;
+			if (maximumSize == 0)
+				newCache = null;
+			else
+				newCache = new InspectCache(eventMonitor, timeToLive, maximumSize);
+			InspectCache oldCache = inspectCache;
+			inspectCache = newCache;
+			if (oldCache != null)
+				oldCache.close();
+		}
+		return this;
+	}
+
+	@Override
+	public CacheStatistics getInspectCacheStatistics()
+	{
+		InspectCache cache = inspectCache;
+		if (cache == null)
+			return new CacheStatistics(0, 0, 0, 0);
+		return cache.getStatistics();
+	}
+
+	/**
+	 * Looks up a resource, using the inspect cache if it is enabled.
+	 *
+	 * @param <T>    the type of the resource
+	 * @param type   the type of the resource
+	 * @param id     the ID or name of the resource
+	 * @param getId  returns the resource's ID
+	 * @param lookup looks up the resource
+	 * @return {@code null} if the resource does not exist
+	 * @throws IOException          if an I/O error occurs. These errors are typically transient, and retrying
+	 *                              the request may resolve the issue.
+	 * @throws InterruptedException if the thread is interrupted before the operation completes. This can happen
+	 *                              due to shutdown signals.
+	 */
+	private <T> T getCached(Event.Type type, String id, Function<T, String> getId, ResourceLookup<T> lookup)
+		throws IOException, InterruptedException
+	{
+		InspectCache cache = inspectCache;
+		if (cache == null)
+			return lookup.get();
+		return cache.get(type, id, getId, lookup);
+	}
+
+	@Override
+	public CommandResult run(List<String> arguments, ByteBuffer stdin) throws IOException, InterruptedException
+	{
+		try
+		{
+			return super.run(arguments, stdin);
+		}
+		finally
+		{
+			onCommandCompleted(arguments);
+		}
+	}
+
+	@Override
+	public CommandResult run(List<String> arguments, OutputConsumer stdout)
+		throws IOException, InterruptedException
+	{
+		try
+		{
+			return super.run(arguments, stdout);
+		}
+		finally
+		{
+			onCommandCompleted(arguments);
+		}
+	}
+
+	/**
+	 * Invoked after a command completes, whether it succeeded or not.
+	 * <p>
+	 * Events are delivered asynchronously, so the inspect cache is cleared after any command that may have
+	 * modified a resource. This guarantees that callers observe their own changes.
+	 *
+	 * @param arguments the command-line arguments that were passed to the executable
+	 */
+	private void onCommandCompleted(List<String> arguments)
+	{
+		InspectCache cache = inspectCache;
+		if (cache == null || isReadOnly(arguments))
+			return;
+		cache.clear();
+	}
+
+	/**
+	 * @param arguments the command-line arguments that are passed to the executable
+	 * @return {@code true} if the command cannot modify any resources
+	 */
+	private static boolean isReadOnly(List<String> arguments)
+	{
+		// Commands take the form "docker <verb>" or "docker <type> <verb>"
+		for (int i = 0; i < Math.min(2, arguments.size()); ++i)
+		{
+			if (READ_ONLY_VERBS.contains(arguments.get(i)))
+				return true;
+		}
+		return false;
+	}
+
+	@Override
+	public void close()
+	{
+		synchronized (inspectCacheLock)
+		{
+			if (inspectCache != null)
+			{
+				inspectCache.close();
+				inspectCache = null;
+			}
+		}
+		eventMonitor.close();
+		if (transport != null)
+			transport.close();
+		super.close();
+	}
+
 	@Override
 	public ImageBuilder buildImage()
 	{
@@ -176,6 +690,12 @@ public ContextParser getContextParser()
 		return contextParser;
 	}
 
+	@Override
+	public EventParser getEventParser()
+	{
+		return eventParser;
+	}
+
 	@Override
 	public NetworkParser getNetworkParser()
 	{
@@ -226,11 +746,17 @@ public Docker login(String username, String password, String serverAddress)
 
 	@Override
 	public List<ConfigElement> listConfigs() throws IOException, InterruptedException
+	{
+		return listConfigs(new ConfigFilter());
+	}
+
+	@Override
+	public List<ConfigElement> listConfigs(ConfigFilter filter) throws IOException, InterruptedException
 	{
 		// https://docs.docker.com/reference/cli/docker/config/ls/
-		List<String> arguments = List.of("config", "ls", "--format", "json");
-		CommandResult result = run(arguments);
-		return getConfigParser().list(result);
+		List<String> arguments = withFilter(List.of("config", "ls", "--format", "json"), filter);
+		ConfigParser parser = getConfigParser();
+		return runList(arguments, parser::list, parser::checkList);
 	}
 
 	@Override
@@ -238,10 +764,22 @@ public Config getConfig(String id) throws IOException, InterruptedException
 	{
 		// https://docs.docker.com/reference/cli/docker/config/inspect/
 		List<String> arguments = List.of("config", "inspect", id);
-		CommandResult result = run(arguments);
+		// https://docs.docker.com/reference/api/engine/version/v1.49/#tag/Config/operation/ConfigInspect
+		CommandResult result = inspect(arguments, "/configs/" + encodePath(id));
 		return getConfigParser().get(result);
 	}
 
+	@Override
+	public InspectResult<Config> getConfigs(Collection<String> ids) throws IOException, InterruptedException
+	{
+		List<String> uniqueIds = toUniqueIds(ids);
+		for (String id : uniqueIds)
+			requireThat(id, "id").doesNotContainWhitespace().isNotEmpty();
+
+		// https://docs.docker.com/reference/cli/docker/config/inspect/
+		return inspectAll(List.of("config", "inspect"), uniqueIds, getConfigParser()::getAll);
+	}
+
 	@Override
 	public ConfigCreator createConfig()
 	{
@@ -250,11 +788,35 @@ public ConfigCreator createConfig()
 
 	@Override
 	public List<ContainerElement> listContainers() throws IOException, InterruptedException
+	{
+		return listContainers(new ContainerFilter());
+	}
+
+	@Override
+	public List<ContainerElement> listContainers(ContainerFilter filter)
+		throws IOException, InterruptedException
 	{
 		// https://docs.docker.com/reference/cli/docker/container/ls/
-		List<String> arguments = List.of("container", "ls", "--format", "json", "--all", "--no-trunc");
-		CommandResult result = run(arguments);
-		return getContainerParser().list(result);
+		List<String> arguments = withFilter(List.of("container", "ls", "--format", "json", "--all",
+			"--no-trunc"), filter);
+		ContainerParser parser = getContainerParser();
+		return runList(arguments, parser::list, parser::checkList);
+	}
+
+	@Override
+	public Stream<ContainerElement> streamContainers() throws IOException
+	{
+		return streamContainers(new ContainerFilter());
+	}
+
+	@Override
+	public Stream<ContainerElement> streamContainers(ContainerFilter filter) throws IOException
+	{
+		// https://docs.docker.com/reference/cli/docker/container/ls/
+		List<String> arguments = withFilter(List.of("container", "ls", "--format", "json", "--all",
+			"--no-trunc"), filter);
+		ContainerParser parser = getContainerParser();
+		return stream(arguments, parser::readElement, parser::checkList);
 	}
 
 	@Override
@@ -262,10 +824,26 @@ public Container getContainer(String id) throws IOException, InterruptedExceptio
 	{
 		requireThat(id, "id").doesNotContainWhitespace().isNotEmpty();
 
+		return getCached(Event.Type.CONTAINER, id, Container::getId, () ->
+		{
+			// https://docs.docker.com/reference/cli/docker/container/inspect/
+			List<String> arguments = List.of("container", "inspect", id);
+			// https://docs.docker.com/reference/api/engine/version/v1.49/#tag/Container/operation/ContainerInspect
+			CommandResult result = inspect(arguments, "/containers/" + encodePath(id) + "/json");
+			return getContainerParser().get(result);
+		});
+	}
+
+	@Override
+	public InspectResult<Container> getContainers(Collection<String> ids)
+		throws IOException, InterruptedException
+	{
+		List<String> uniqueIds = toUniqueIds(ids);
+		for (String id : uniqueIds)
+			requireThat(id, "id").doesNotContainWhitespace().isNotEmpty();
+
 		// https://docs.docker.com/reference/cli/docker/container/inspect/
-		List<String> arguments = List.of("container", "inspect", id);
-		CommandResult result = run(arguments);
-		return getContainerParser().get(result);
+		return inspectAll(List.of("container", "inspect"), uniqueIds, getContainerParser()::getAll);
 	}
 
 	@Override
@@ -317,19 +895,54 @@ public int waitUntilContainerStops(String id) throws IOException, InterruptedExc
 		return getContainerParser().waitUntilStopped(result);
 	}
 
+	@Override
+	public Container waitUntilContainerStatus(String id, Container.Status status, Instant deadline)
+		throws IOException, InterruptedException, TimeoutException
+	{
+		requireThat(id, "id").doesNotContainWhitespace().isNotEmpty();
+		requireThat(status, "status").isNotNull();
+		requireThat(deadline, "deadline").isNotNull();
+
+		return waitForEvents(event -> event.refersTo(Event.Type.CONTAINER, id), () ->
+		{
+			Container container = getContainer(id);
+			if (container == null)
+				throw new ResourceNotFoundException("Container not found: " + id);
+			return container;
+		}, container -> container.getStatus() == status, deadline, container ->
+			"Container " + id + " has a status of " + container.getStatus());
+	}
+
+	@Override
+	public EventSubscription subscribeToEvents(Consumer<Event> listener) throws IOException
+	{
+		requireThat(listener, "listener").isNotNull();
+		return eventMonitor.subscribe(listener);
+	}
+
 	@Override
 	public ContainerLogGetter getContainerLogs(String id)
 	{
 		return SharedSecrets.getContainerLogs(this, id);
 	}
 
+	@Override
+	public MergedLogGetter getContainerLogs(Collection<String> ids)
+	{
+		List<String> uniqueIds = toUniqueIds(ids);
+		requireThat(uniqueIds, "ids").isNotEmpty();
+		for (String id : uniqueIds)
+			requireThat(id, "id").doesNotContainWhitespace().isNotEmpty();
+		return SharedSecrets.getMergedContainerLogs(this, uniqueIds);
+	}
+
 	@Override
 	public List<ContextElement> listContexts() throws IOException, InterruptedException
 	{
 		// https://docs.docker.com/reference/cli/docker/context/ls/
 		List<String> arguments = List.of("context", "ls", "--format", "json");
-		CommandResult result = run(arguments);
-		return getContextParser().list(result);
+		ContextParser parser = getContextParser();
+		return runList(arguments, parser::list, parser::checkList);
 	}
 
 	@Override
@@ -365,7 +978,17 @@ public String getClientContext()
 	public Docker setClientContext(String name)
 	{
 		requireThat(name, "name").doesNotContainWhitespace();
+		if (endpoint != null)
+		{
+			throw new IllegalStateException("Clients that are connected to an endpoint cannot change contexts.\n" +
+				"Endpoint: " + endpoint.uri());
+		}
 		this.clientContext = name;
+		drainProcessPool();
+		eventMonitor.reconnect();
+		InspectCache cache = inspectCache;
+		if (cache != null)
+			cache.clear();
 		return this;
 	}
 
@@ -392,11 +1015,34 @@ public Docker setUserContext(String name) throws IOException, InterruptedExcepti
 
 	@Override
 	public List<ImageElement> listImages() throws IOException, InterruptedException
+	{
+		return listImages(new ImageFilter());
+	}
+
+	@Override
+	public List<ImageElement> listImages(ImageFilter filter) throws IOException, InterruptedException
 	{
 		// https://docs.docker.com/reference/cli/docker/image/ls/
-		List<String> arguments = List.of("image", "ls", "--format", "json", "--all", "--digests", "--no-trunc");
-		CommandResult result = run(arguments);
-		return getImageParser().list(result);
+		List<String> arguments = withFilter(List.of("image", "ls", "--format", "json", "--all", "--digests",
+			"--no-trunc"), filter);
+		ImageParser parser = getImageParser();
+		return runList(arguments, parser::list, parser::checkList);
+	}
+
+	@Override
+	public Stream<ImageElement> streamImages() throws IOException
+	{
+		return streamImages(new ImageFilter());
+	}
+
+	@Override
+	public Stream<ImageElement> streamImages(ImageFilter filter) throws IOException
+	{
+		// https://docs.docker.com/reference/cli/docker/image/ls/
+		List<String> arguments = withFilter(List.of("image", "ls", "--format", "json", "--all", "--digests",
+			"--no-trunc"), filter);
+		ImageParser parser = getImageParser();
+		return parser.groupById(stream(arguments, parser::readImageLine, parser::checkList));
 	}
 
 	@Override
@@ -404,10 +1050,26 @@ public Image getImage(String id) throws IOException, InterruptedException
 	{
 		validateImageReference(id, "id");
 
+		return getCached(Event.Type.IMAGE, id, Image::getId, () ->
+		{
+			// https://docs.docker.com/reference/cli/docker/image/inspect/
+			List<String> arguments = List.of("image", "inspect", "--format", "json", id);
+			// https://docs.docker.com/reference/api/engine/version/v1.49/#tag/Image/operation/ImageInspect
+			CommandResult result = inspect(arguments, "/images/" + encodePath(id) + "/json");
+			return getImageParser().get(result);
+		});
+	}
+
+	@Override
+	public InspectResult<Image> getImages(Collection<String> ids) throws IOException, InterruptedException
+	{
+		List<String> uniqueIds = toUniqueIds(ids);
+		for (String id : uniqueIds)
+			validateImageReference(id, "id");
+
 		// https://docs.docker.com/reference/cli/docker/image/inspect/
-		List<String> arguments = List.of("image", "inspect", "--format", "json", id);
-		CommandResult result = run(arguments);
-		return getImageParser().get(result);
+		return inspectAll(List.of("image", "inspect", "--format", "json"), uniqueIds,
+			getImageParser()::getAll);
 	}
 
 	@Override
@@ -445,59 +1107,56 @@ public Network getNetwork(String id) throws IOException, InterruptedException
 	{
 		requireThat(id, "id").doesNotContainWhitespace().isNotEmpty();
 
-		// https://docs.docker.com/reference/cli/docker/network/inspect/
-		List<String> arguments = List.of("network", "inspect", id);
-		CommandResult result = run(arguments);
-		return getNetworkParser().get(result);
+		return getCached(Event.Type.NETWORK, id, Network::getId, () ->
+		{
+			// https://docs.docker.com/reference/cli/docker/network/inspect/
+			List<String> arguments = List.of("network", "inspect", id);
+			// https://docs.docker.com/reference/api/engine/version/v1.49/#tag/Network/operation/NetworkInspect
+			CommandResult result = inspect(arguments, "/networks/" + encodePath(id));
+			return getNetworkParser().get(result);
+		});
 	}
 
 	@Override
 	public List<NodeElement> listNodes() throws IOException, InterruptedException
 	{
-		return listNodes(List.of());
+		return listNodes(new NodeFilter());
 	}
 
-	/**
-	 * Returns nodes that match the specified filters.
-	 *
-	 * @param filters the filters to apply to the list
-	 * @return the matching nodes
-	 * @throws NullPointerException     if {@code filters} is null
-	 * @throws NotSwarmManagerException if the current node is not a swarm manager
-	 * @throws IOException              if an I/O error occurs. These errors are typically transient, and
-	 *                                  retrying the request may resolve the issue.
-	 * @throws InterruptedException     if the thread is interrupted before the operation completes. This can
-	 *                                  happen due to shutdown signals.
-	 */
-	private List<NodeElement> listNodes(List<String> filters) throws IOException, InterruptedException
+	@Override
+	public Stream<NodeElement> streamNodes() throws IOException
 	{
-		assert that(filters, "filters").isNotNull().elseThrow();
+		return streamNodes(new NodeFilter());
+	}
 
+	@Override
+	public Stream<NodeElement> streamNodes(NodeFilter filter) throws IOException
+	{
 		// https://docs.docker.com/reference/cli/docker/node/ls/
-		List<String> arguments = new ArrayList<>(4 + filters.size() * 2);
-		arguments.add("node");
-		arguments.add("ls");
-		arguments.add("--format");
-		arguments.add("json");
-		for (String filter : filters)
-		{
-			arguments.add("--filter");
-			arguments.add(filter);
-		}
-		CommandResult result = run(arguments);
-		return getNodeParser().listNodes(result);
+		List<String> arguments = withFilter(List.of("node", "ls", "--format", "json"), filter);
+		NodeParser parser = getNodeParser();
+		return stream(arguments, parser::readNodeElement, parser::checkListNodes);
+	}
+
+	@Override
+	public List<NodeElement> listNodes(NodeFilter filter) throws IOException, InterruptedException
+	{
+		// https://docs.docker.com/reference/cli/docker/node/ls/
+		List<String> arguments = withFilter(List.of("node", "ls", "--format", "json"), filter);
+		NodeParser parser = getNodeParser();
+		return runList(arguments, parser::listNodes, parser::checkListNodes);
 	}
 
 	@Override
 	public List<NodeElement> listManagerNodes() throws IOException, InterruptedException
 	{
-		return listNodes(List.of("role=manager"));
+		return listNodes(new NodeFilter().role(Type.MANAGER));
 	}
 
 	@Override
 	public List<NodeElement> listWorkerNodes() throws IOException, InterruptedException
 	{
-		return listNodes(List.of("role=worker"));
+		return listNodes(new NodeFilter().role(Type.WORKER));
 	}
 
 	@Override
@@ -526,8 +1185,39 @@ public Node getNode(String id) throws IOException, InterruptedException
 
 		// https://docs.docker.com/reference/cli/docker/node/inspect/
 		List<String> arguments = List.of("node", "inspect", id);
-		CommandResult result = run(arguments);
-		return getNodeParser().get(result);
+		// The Docker Engine API does not resolve "self" to the current node's ID. The result is not cached
+		// because the current node changes when the client joins or leaves a swarm.
+		if (id.equals("self"))
+			return getNodeParser().get(run(arguments));
+		return getCached(Event.Type.NODE, id, Node::getId, () ->
+		{
+			// https://docs.docker.com/reference/api/engine/version/v1.49/#tag/Node/operation/NodeInspect
+			CommandResult result = inspect(arguments, "/nodes/" + encodePath(id));
+			return getNodeParser().get(result);
+		});
+	}
+
+	@Override
+	public Node waitUntilNodeIsReady(String id, Instant deadline)
+		throws IOException, InterruptedException, TimeoutException
+	{
+		requireThat(id, "id").doesNotContainWhitespace().isNotEmpty();
+		requireThat(deadline, "deadline").isNotNull();
+
+		return waitForEvents(event -> event.refersTo(Event.Type.NODE, id), () -> getNode(id),
+			node -> node.getStatus() == Node.Status.READY, deadline, node ->
+				"Node " + id + " has a status of " + node.getStatus());
+	}
+
+	@Override
+	public InspectResult<Node> getNodes(Collection<String> ids) throws IOException, InterruptedException
+	{
+		List<String> uniqueIds = toUniqueIds(ids);
+		for (String id : uniqueIds)
+			requireThat(id, "id").doesNotContainWhitespace().isNotEmpty();
+
+		// https://docs.docker.com/reference/cli/docker/node/inspect/
+		return inspectAll(List.of("node", "inspect"), uniqueIds, getNodeParser()::getAll);
 	}
 
 	@Override
@@ -538,16 +1228,32 @@ public ServiceCreator createService(String imageId)
 
 	@Override
 	public List<Task> listTasksByNode() throws IOException, InterruptedException
+	{
+		return listTasksByNode(new TaskFilter());
+	}
+
+	@Override
+	public List<Task> listTasksByNode(TaskFilter filter) throws IOException, InterruptedException
 	{
 		// https://docs.docker.com/reference/cli/docker/node/ps/
-		List<String> arguments = new ArrayList<>(5);
-		arguments.add("node");
-		arguments.add("ps");
-		arguments.add("--format");
-		arguments.add("json");
-		arguments.add("--no-trunc");
-		CommandResult result = run(arguments);
-		return getNodeParser().listTasksByNode(result);
+		List<String> arguments = withFilter(List.of("node", "ps", "--format", "json", "--no-trunc"), filter);
+		NodeParser parser = getNodeParser();
+		return runList(arguments, parser::listTasks, parser::checkListTasksByNode);
+	}
+
+	@Override
+	public Stream<Task> streamTasksByNode() throws IOException
+	{
+		return streamTasksByNode(new TaskFilter());
+	}
+
+	@Override
+	public Stream<Task> streamTasksByNode(TaskFilter filter) throws IOException
+	{
+		// https://docs.docker.com/reference/cli/docker/node/ps/
+		List<String> arguments = withFilter(List.of("node", "ps", "--format", "json", "--no-trunc"), filter);
+		NodeParser parser = getNodeParser();
+		return stream(arguments, parser::readTask, parser::checkListTasksByNode);
 	}
 
 	@Override
@@ -563,8 +1269,8 @@ public List<Task> listTasksByNode(String id) throws IOException, InterruptedExce
 		arguments.add("json");
 		arguments.add("--no-trunc");
 		arguments.add(id);
-		CommandResult result = run(arguments);
-		return getNodeParser().listTasksByNode(result);
+		NodeParser parser = getNodeParser();
+		return runList(arguments, parser::listTasks, parser::checkListTasksByNode);
 	}
 
 	@Override
@@ -579,8 +1285,36 @@ public List<Task> listTasksByService(String id) throws IOException, InterruptedE
 		arguments.add("--format");
 		arguments.add("json");
 		arguments.add(id);
-		CommandResult result = run(arguments);
-		return getNodeParser().listTasksByService(result);
+		NodeParser parser = getNodeParser();
+		return runList(arguments, parser::listTasks, parser::checkListTasksByService);
+	}
+
+	@Override
+	public List<Task> waitUntilServiceConverges(String id, Instant deadline)
+		throws IOException, InterruptedException, TimeoutException
+	{
+		requireThat(id, "id").doesNotContainWhitespace().isNotEmpty();
+		requireThat(deadline, "deadline").isNotNull();
+
+		// https://docs.docker.com/reference/cli/docker/service/ps/
+		List<String> arguments = List.of("service", "ps", "--format", "json", "--filter",
+			"desired-state=running", id);
+		NodeParser parser = getNodeParser();
+		Predicate<Event> isRelevant = event ->
+		{
+			if (event.refersTo(Event.Type.SERVICE, id))
+				return true;
+			if (event.type() != Event.Type.CONTAINER)
+				return false;
+			// Containers that belong to a service are labeled with the service's ID and name
+			Map<String, String> attributes = event.attributes();
+			return id.equals(attributes.get("com.docker.swarm.service.id")) ||
+				id.equals(attributes.get("com.docker.swarm.service.name"));
+		};
+		return waitForEvents(isRelevant,
+			() -> runList(arguments, parser::listTasks, parser::checkListTasksByService),
+			tasks -> !tasks.isEmpty() && tasks.stream().allMatch(task -> task.getState() == State.RUNNING),
+			deadline, tasks -> "Service " + id + " has tasks: " + tasks);
 	}
 
 	@Override
@@ -646,4 +1380,44 @@ public JoinToken getWorkerJoinToken() throws IOException, InterruptedException
 		CommandResult result = run(arguments);
 		return getSwarmParser().getJoinToken(result, Type.WORKER);
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Parses the output of a command that lists resources.
+	 *
+	 * @param <E> the type of elements
+	 */
+	@FunctionalInterface
+	private interface ElementParser<E>
+	{
+		/**
+		 * Parses the output of a command.
+		 *
+		 * @param stdout   the command's stdout stream
+		 * @param consumer consumes the elements as they are read
+		 * @throws IOException if the stream cannot be read or contains unexpected values
+		 */
+		void parse(InputStream stdout, Consumer<E> consumer) throws IOException;
+	}
+
+	/**
+	 * Parses the output of a command that looks up multiple resources.
+	 *
+	 * @param <T> the type of resources
+	 */
+	@FunctionalInterface
+	private interface BatchParser<T>
+	{
+		/**
+		 * Parses the output of a command.
+		 *
+		 * @param result  the result of executing the command
+		 * @param ids     the IDs that were passed to the command, in order, without duplicates
+		 * @param found   is updated with a mapping from each ID to the resource that it refers to
+		 * @param missing is updated with the IDs that did not match any resource
+		 * @throws IOException if the command's output indicates an I/O error
+		 */
+		void parse(CommandResult result, List<String> ids, Map<String, T> found, Set<String> missing)
+			throws IOException;
+	}
+
+}
@@ -0,0 +1,61 @@
+package com.github.cowwoc.anchor4j.docker.internal.client;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.github.cowwoc.anchor4j.core.internal.client.CommandResult;
+
+import java.util.List;
+
+import static com.github.cowwoc.requirements11.java.DefaultJavaValidators.that;
+
+/**
+ * A response returned by the Docker Engine API.
+ *
+ * @param statusCode the HTTP status code
+ * @param body       the response body
+ */
+public record EngineResponse(int statusCode, String body)
+{
+	/**
+	 * @param statusCode the HTTP status code
+	 * @param body       the response body
+	 */
+	public EngineResponse
+	{
+		assert that(body, "body").isNotNull().elseThrow();
+	}
+
+	/**
+	 * Converts the response of an inspect request into the output that the equivalent {@code docker inspect}
+	 * command would have returned.
+	 * <p>
+	 * The command-line client wraps inspected objects in a JSON array and reports errors by prefixing the
+	 * server's message with {@code "Error response from daemon: "}. Emulating this format allows the existing
+	 * parsers to consume responses from both transports.
+	 *
+	 * @param command    the request that was sent
+	 * @param jsonMapper the JSON configuration
+	 * @return the equivalent command result
+	 */
+	public CommandResult toInspectResult(List<String> command, JsonMapper jsonMapper)
+	{
+		if (statusCode >= 200 && statusCode < 300)
+			return new CommandResult(command, null, "[" + body + "]", "", 0);
+		String message;
+		try
+		{
+			JsonNode json = jsonMapper.readTree(body);
+			JsonNode messageNode = json.get("message");
+			if (messageNode == null)
+				message = body;
+			else
+				message = messageNode.textValue();
+		}
+		catch (JsonProcessingException _)
+		{
+			message = body;
+		}
+		return new CommandResult(command, null, "", "Error response from daemon: " + message, 1);
+	}
+}
@@ -0,0 +1,72 @@
+package com.github.cowwoc.anchor4j.docker.internal.client;
+
+import com.github.cowwoc.anchor4j.docker.resource.ContextEndpoint;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Locale;
+
+import static com.github.cowwoc.requirements11.java.DefaultJavaValidators.requireThat;
+
+/**
+ * Sends requests to the Docker Engine API without forking the {@code docker} executable.
+ */
+public interface EngineTransport extends AutoCloseable
+{
+	/**
+	 * The maximum number of idle connections that transports keep open by default.
+	 */
+	int DEFAULT_MAXIMUM_IDLE_CONNECTIONS = 4;
+
+	/**
+	 * Returns a transport that connects to an endpoint.
+	 *
+	 * @param endpoint the endpoint
+	 * @return the transport
+	 * @throws NullPointerException     if {@code endpoint} is null
+	 * @throws IllegalArgumentException if the endpoint's URI scheme is not supported
+	 * @throws IOException              if the endpoint's certificates or private key cannot be read
+	 */
+	static EngineTransport connect(ContextEndpoint endpoint) throws IOException
+	{
+		requireThat(endpoint, "endpoint").isNotNull();
+		URI uri = endpoint.uri();
+		String scheme = uri.getScheme();
+		if (scheme == null)
+			scheme = "";
+		return switch (scheme.toLowerCase(Locale.ROOT))
+		{
+			case "unix" -> new UnixSocketTransport(Path.of(uri.getPath()), DEFAULT_MAXIMUM_IDLE_CONNECTIONS);
+			case "tcp" ->
+			{
+				if (endpoint.caPublicKey() == null)
+					yield new TcpTransport(uri.getHost(), uri.getPort(), DEFAULT_MAXIMUM_IDLE_CONNECTIONS);
+				yield new TcpTransport(uri.getHost(), uri.getPort(), endpoint.caPublicKey(),
+					endpoint.clientCertificate(), endpoint.clientPrivateKey(), DEFAULT_MAXIMUM_IDLE_CONNECTIONS);
+			}
+			default -> throw new IllegalArgumentException("Unsupported URI scheme: " + uri);
+		};
+	}
+
+	/**
+	 * Sends a request.
+	 *
+	 * @param method the HTTP method (e.g. {@code GET})
+	 * @param path   the path of the resource, including any query parameters
+	 * @param body   the request body
+	 * @return the server response
+	 * @throws IOException          if an I/O error occurs. These errors are typically transient, and retrying
+	 *                              the request may resolve the issue.
+	 * @throws InterruptedException if the thread is interrupted before the operation completes. This can happen
+	 *                              due to shutdown signals.
+	 */
+	EngineResponse send(String method, String path, ByteBuffer body) throws IOException, InterruptedException;
+
+	/**
+	 * Closes idle connections. Subsequent requests open new connections as needed.
+	 */
+	@Override
+	void close();
+}
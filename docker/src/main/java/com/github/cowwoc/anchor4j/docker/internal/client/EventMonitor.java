@@ -0,0 +1,332 @@
+package com.github.cowwoc.anchor4j.docker.internal.client;
+
+import com.github.cowwoc.anchor4j.core.internal.client.Processes;
+import com.github.cowwoc.anchor4j.docker.resource.Event;
+import com.github.cowwoc.anchor4j.docker.resource.EventSubscription;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import static com.github.cowwoc.requirements11.java.DefaultJavaValidators.that;
+
+/**
+ * Shares a single {@code docker events} process among all the subscribers of a client.
+ * <p>
+ * The process is started when the first subscriber registers and is terminated when the last subscriber
+ * unregisters. If the process exits unexpectedly, it is restarted from the time of the last event that it
+ * delivered, so that subscribers do not miss any events. {@code --since} includes events that took place at
+ * that exact time, so the events that were already delivered at that time are skipped.
+ * <p>
+ * <b>Thread Safety</b>: This class is thread-safe.
+ */
+final class EventMonitor implements AutoCloseable
+{
+	/**
+	 * The amount of time to wait before restarting a process that exited unexpectedly.
+	 */
+	private static final Duration RESTART_DELAY = Duration.ofSeconds(1);
+	private final InternalDocker client;
+	private final List<Consumer<Event>> listeners = new CopyOnWriteArrayList<>();
+	private final ReentrantLock lock = new ReentrantLock();
+	/**
+	 * The {@code docker events} process, or {@code null} if it is not running. Guarded by {@code lock}.
+	 */
+	private Process process;
+	/**
+	 * The time to resume from if the process must be restarted. Guarded by {@code lock}.
+	 */
+	private Instant resumeFrom;
+	/**
+	 * The events that took place at {@code resumeFrom} and were already delivered. Guarded by {@code lock}.
+	 */
+	private final Set<Event> deliveredAtResumeTime = new HashSet<>();
+	/**
+	 * Guarded by {@code lock}.
+	 */
+	private boolean closed;
+	private final Logger log = LoggerFactory.getLogger(EventMonitor.class);
+
+	/**
+	 * Creates a new monitor.
+	 *
+	 * @param client the client configuration
+	 */
+	EventMonitor(InternalDocker client)
+	{
+		assert that(client, "client").isNotNull().elseThrow();
+		this.client = client;
+	}
+
+	/**
+	 * Registers a listener.
+	 *
+	 * @param listener the listener to notify when events occur
+	 * @return the subscription
+	 * @throws IllegalStateException if the client is closed
+	 * @throws IOException           if the {@code docker events} process cannot be started
+	 */
+	public EventSubscription subscribe(Consumer<Event> listener) throws IOException
+	{
+		assert that(listener, "listener").isNotNull().elseThrow();
+		// Wrap the listener so that the same instance may be registered multiple times
+		Consumer<Event> registration = listener::accept;
+		lock.lock();
+		try
+		{
+			if (closed)
+				throw new IllegalStateException("The client is closed");
+			listeners.add(registration);
+			if (process == null)
+			{
+				try
+				{
+					start(Instant.now());
+				}
+				catch (IOException e)
+				{
+					listeners.remove(registration);
+					throw e;
+				}
+			}
+		}
+		finally
+		{
+			lock.unlock();
+		}
+		return () -> unsubscribe(registration);
+	}
+
+	/**
+	 * Unregisters a listener. If the listener is not registered, this method has no effect.
+	 *
+	 * @param registration the listener
+	 */
+	private void unsubscribe(Consumer<Event> registration)
+	{
+		lock.lock();
+		try
+		{
+			listeners.remove(registration);
+			if (listeners.isEmpty())
+				stop();
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Restarts the process, if it is running, so that it reflects the client's current context. If the
+	 * process cannot be restarted, it is retried in the background.
+	 */
+	public void reconnect()
+	{
+		lock.lock();
+		try
+		{
+			if (process == null)
+				return;
+			stop();
+			Instant now = Instant.now();
+			try
+			{
+				start(now);
+			}
+			catch (IOException e)
+			{
+				log.warn("Failed to restart docker events", e);
+				setResumeFrom(now);
+				Thread.startVirtualThread(this::restart);
+			}
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Starts the {@code docker events} process. The caller must hold {@code lock}.
+	 *
+	 * @param since the time of the earliest event to deliver
+	 * @throws IOException if the process cannot be started
+	 */
+	private void start(Instant since) throws IOException
+	{
+		assert that(lock.isHeldByCurrentThread(), "lock.isHeldByCurrentThread()").isTrue().elseThrow();
+		setResumeFrom(since);
+		// https://docs.docker.com/reference/cli/docker/system/events/
+		List<String> arguments = List.of("events", "--format", "json", "--since",
+			since.getEpochSecond() + "." + String.format("%09d", since.getNano()));
+		Process newProcess = client.getProcessBuilder(arguments).start();
+		newProcess.getOutputStream().close();
+		this.process = newProcess;
+		Thread.ofVirtual().name("docker-events").start(() -> read(newProcess));
+	}
+
+	/**
+	 * Sets the time to resume from if the process must be restarted. The caller must hold {@code lock}.
+	 *
+	 * @param time the time of the earliest event to deliver
+	 */
+	private void setResumeFrom(Instant time)
+	{
+		assert that(lock.isHeldByCurrentThread(), "lock.isHeldByCurrentThread()").isTrue().elseThrow();
+		if (time.equals(resumeFrom))
+			return;
+		resumeFrom = time;
+		deliveredAtResumeTime.clear();
+	}
+
+	/**
+	 * Terminates the {@code docker events} process, if it is running. The caller must hold {@code lock}.
+	 */
+	private void stop()
+	{
+		assert that(lock.isHeldByCurrentThread(), "lock.isHeldByCurrentThread()").isTrue().elseThrow();
+		if (process == null)
+			return;
+		process.destroy();
+		process = null;
+	}
+
+	/**
+	 * Delivers the events of a process to the listeners until the process exits.
+	 *
+	 * @param source the process
+	 */
+	private void read(Process source)
+	{
+		Queue<Throwable> exceptions = new ConcurrentLinkedQueue<>();
+		BufferedReader stderrReader = source.errorReader();
+		Thread.startVirtualThread(() -> Processes.consume(stderrReader, exceptions,
+			line -> log.warn("docker events: {}", line)));
+		try
+		{
+			client.getEventParser().listen(source.getInputStream(), this::dispatch);
+		}
+		catch (IOException | RuntimeException e)
+		{
+			exceptions.add(e);
+		}
+
+		lock.lock();
+		try
+		{
+			if (process != source)
+			{
+				// The process was stopped intentionally
+				return;
+			}
+			process.destroy();
+			process = null;
+			if (closed || listeners.isEmpty())
+				return;
+			for (Throwable exception : exceptions)
+				log.warn("docker events failed", exception);
+			log.warn("docker events exited unexpectedly. Restarting in {}.", RESTART_DELAY);
+		}
+		finally
+		{
+			lock.unlock();
+		}
+		restart();
+	}
+
+	/**
+	 * Restarts the process after it exits unexpectedly.
+	 */
+	private void restart()
+	{
+		while (true)
+		{
+			try
+			{
+				Thread.sleep(RESTART_DELAY);
+			}
+			catch (InterruptedException _)
+			{
+				return;
+			}
+			lock.lock();
+			try
+			{
+				if (closed || process != null || listeners.isEmpty())
+					return;
+				start(resumeFrom);
+				return;
+			}
+			catch (IOException e)
+			{
+				log.warn("Failed to restart docker events", e);
+			}
+			finally
+			{
+				lock.unlock();
+			}
+		}
+	}
+
+	/**
+	 * Delivers an event to all listeners.
+	 *
+	 * @param event the event
+	 */
+	private void dispatch(Event event)
+	{
+		lock.lock();
+		try
+		{
+			setResumeFrom(event.time());
+			if (!deliveredAtResumeTime.add(event))
+			{
+				// The event was redelivered by a process that was restarted from the event's time
+				return;
+			}
+		}
+		finally
+		{
+			lock.unlock();
+		}
+		for (Consumer<Event> listener : listeners)
+		{
+			try
+			{
+				listener.accept(event);
+			}
+			catch (RuntimeException e)
+			{
+				log.warn("An event listener threw an exception", e);
+			}
+		}
+	}
+
+	@Override
+	public void close()
+	{
+		lock.lock();
+		try
+		{
+			closed = true;
+			listeners.clear();
+			stop();
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+}
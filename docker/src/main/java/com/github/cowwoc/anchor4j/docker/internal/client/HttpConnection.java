@@ -0,0 +1,272 @@
+package com.github.cowwoc.anchor4j.docker.internal.client;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ProtocolException;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import static com.github.cowwoc.requirements11.java.DefaultJavaValidators.that;
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * A persistent HTTP/1.1 connection to the Docker Engine API.
+ * <p>
+ * Requests are sent one at a time. The connection may be reused for subsequent requests so long as
+ * {@link #isReusable()} returns {@code true}.
+ */
+public final class HttpConnection implements Closeable
+{
+	private final Closeable resource;
+	private final InputStream in;
+	private final OutputStream out;
+	private final String host;
+	private boolean reusable = true;
+
+	/**
+	 * Creates a new connection.
+	 *
+	 * @param resource the resource to release when the connection is closed
+	 * @param in       the stream to read responses from
+	 * @param out      the stream to write requests into
+	 * @param host     the value of the {@code Host} header
+	 */
+	public HttpConnection(Closeable resource, InputStream in, OutputStream out, String host)
+	{
+		assert that(resource, "resource").isNotNull().elseThrow();
+		assert that(in, "in").isNotNull().elseThrow();
+		assert that(out, "out").isNotNull().elseThrow();
+		assert that(host, "host").isNotNull().elseThrow();
+		this.resource = resource;
+		this.in = new BufferedInputStream(in);
+		this.out = new BufferedOutputStream(out);
+		this.host = host;
+	}
+
+	/**
+	 * Sends a request and reads the server's response.
+	 *
+	 * @param method the HTTP method
+	 * @param path   the path of the resource, including any query parameters
+	 * @param body   the request body
+	 * @return the server response
+	 * @throws IOException if an I/O error occurs
+	 */
+	public EngineResponse send(String method, String path, ByteBuffer body) throws IOException
+	{
+		// Mark the connection as unusable until the response is fully consumed
+		reusable = false;
+		StringBuilder request = new StringBuilder(128).
+			append(method).append(' ').append(path).append(" HTTP/1.1\r\n").
+			append("Host: ").append(host).append("\r\n").
+			append("User-Agent: anchor4j\r\n");
+		int contentLength = body.remaining();
+		if (contentLength > 0)
+			request.append("Content-Type: application/json\r\n");
+		if (contentLength > 0 || method.equals("POST") || method.equals("PUT"))
+			request.append("Content-Length: ").append(contentLength).append("\r\n");
+		request.append("\r\n");
+		out.write(request.toString().getBytes(ISO_8859_1));
+		if (contentLength > 0)
+		{
+			ByteBuffer duplicate = body.duplicate();
+			byte[] bytes = new byte[duplicate.remaining()];
+			duplicate.get(bytes);
+			out.write(bytes);
+		}
+		out.flush();
+		return readResponse(method);
+	}
+
+	/**
+	 * Reads a response.
+	 *
+	 * @param method the HTTP method of the request
+	 * @return the server response
+	 * @throws IOException if an I/O error occurs
+	 */
+	private EngineResponse readResponse(String method) throws IOException
+	{
+		String statusLine = readLine();
+		int statusCode = getStatusCode(statusLine);
+		Map<String, String> headers = readHeaders();
+		// Skip interim responses, such as "100 Continue"
+		while (statusCode >= 100 && statusCode < 200)
+		{
+			statusLine = readLine();
+			statusCode = getStatusCode(statusLine);
+			headers = readHeaders();
+		}
+
+		boolean keepAlive = !"close".equalsIgnoreCase(headers.get("connection")) &&
+			!statusLine.startsWith("HTTP/1.0");
+		byte[] body;
+		if (method.equals("HEAD") || statusCode == 204 || statusCode == 304)
+			body = new byte[0];
+		else if ("chunked".equalsIgnoreCase(headers.get("transfer-encoding")))
+			body = readChunkedBody();
+		else
+		{
+			String contentLength = headers.get("content-length");
+			if (contentLength != null)
+				body = readFully(Integer.parseInt(contentLength.strip()));
+			else
+			{
+				// The body ends when the server closes the connection
+				body = in.readAllBytes();
+				keepAlive = false;
+			}
+		}
+		reusable = keepAlive;
+		return new EngineResponse(statusCode, new String(body, UTF_8));
+	}
+
+	/**
+	 * @param statusLine the first line of a response (e.g. {@code HTTP/1.1 200 OK})
+	 * @return the HTTP status code
+	 * @throws ProtocolException if the status line is malformed
+	 */
+	private static int getStatusCode(String statusLine) throws ProtocolException
+	{
+		int firstSpace = statusLine.indexOf(' ');
+		if (!statusLine.startsWith("HTTP/") || firstSpace == -1)
+			throw new ProtocolException("Malformed status line: " + statusLine);
+		int secondSpace = statusLine.indexOf(' ', firstSpace + 1);
+		if (secondSpace == -1)
+			secondSpace = statusLine.length();
+		try
+		{
+			return Integer.parseInt(statusLine.substring(firstSpace + 1, secondSpace));
+		}
+		catch (NumberFormatException e)
+		{
+			throw new ProtocolException("Malformed status line: " + statusLine);
+		}
+	}
+
+	/**
+	 * Reads the headers of a response.
+	 *
+	 * @return a map from lowercase header names to their values
+	 * @throws IOException if an I/O error occurs
+	 */
+	private Map<String, String> readHeaders() throws IOException
+	{
+		Map<String, String> headers = new HashMap<>();
+		while (true)
+		{
+			String line = readLine();
+			if (line.isEmpty())
+				return headers;
+			int colon = line.indexOf(':');
+			if (colon == -1)
+				throw new ProtocolException("Malformed header: " + line);
+			headers.put(line.substring(0, colon).strip().toLowerCase(Locale.ROOT),
+				line.substring(colon + 1).strip());
+		}
+	}
+
+	/**
+	 * Reads a body that uses {@code Transfer-Encoding: chunked}.
+	 *
+	 * @return the decoded body
+	 * @throws IOException if an I/O error occurs
+	 */
+	private byte[] readChunkedBody() throws IOException
+	{
+		ByteArrayOutputStream body = new ByteArrayOutputStream();
+		while (true)
+		{
+			String sizeLine = readLine();
+			// Ignore chunk extensions
+			int semicolon = sizeLine.indexOf(';');
+			if (semicolon != -1)
+				sizeLine = sizeLine.substring(0, semicolon);
+			int size;
+			try
+			{
+				size = Integer.parseInt(sizeLine.strip(), 16);
+			}
+			catch (NumberFormatException e)
+			{
+				throw new ProtocolException("Malformed chunk size: " + sizeLine);
+			}
+			if (size == 0)
+				break;
+			body.write(readFully(size));
+			if (!readLine().isEmpty())
+				throw new ProtocolException("Chunk is not terminated by CRLF");
+		}
+		// Skip trailers
+		readHeaders();
+		return body.toByteArray();
+	}
+
+	/**
+	 * @param length the number of bytes to read
+	 * @return the bytes that were read
+	 * @throws EOFException if the stream ends before {@code length} bytes are read
+	 * @throws IOException  if an I/O error occurs
+	 */
+	private byte[] readFully(int length) throws IOException
+	{
+		byte[] result = in.readNBytes(length);
+		if (result.length != length)
+			throw new EOFException("Expected " + length + " bytes but got " + result.length);
+		return result;
+	}
+
+	/**
+	 * Reads a line that is terminated by {@code CRLF} or {@code LF}.
+	 *
+	 * @return the line, excluding the line terminator
+	 * @throws EOFException if the stream ends before the line is terminated
+	 * @throws IOException  if an I/O error occurs
+	 */
+	private String readLine() throws IOException
+	{
+		StringBuilder line = new StringBuilder(64);
+		while (true)
+		{
+			int ch = in.read();
+			switch (ch)
+			{
+				case -1 -> throw new EOFException("Connection closed by server");
+				case '\n' ->
+				{
+					int length = line.length();
+					if (length > 0 && line.charAt(length - 1) == '\r')
+						line.setLength(length - 1);
+					return line.toString();
+				}
+				default -> line.append((char) ch);
+			}
+		}
+	}
+
+	/**
+	 * Indicates if the connection may be used to send another request.
+	 *
+	 * @return {@code false} if the server closed the connection or the last response was not fully consumed
+	 */
+	public boolean isReusable()
+	{
+		return reusable;
+	}
+
+	@Override
+	public void close() throws IOException
+	{
+		reusable = false;
+		resource.close();
+	}
+}
@@ -0,0 +1,279 @@
+package com.github.cowwoc.anchor4j.docker.internal.client;
+
+import com.github.cowwoc.anchor4j.docker.client.CacheStatistics;
+import com.github.cowwoc.anchor4j.docker.resource.Event;
+import com.github.cowwoc.anchor4j.docker.resource.EventSubscription;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import static com.github.cowwoc.requirements11.java.DefaultJavaValidators.that;
+
+/**
+ * Caches the results of inspecting resources.
+ * <p>
+ * Entries are removed when they expire, when the cache exceeds its maximum size (oldest entries first), when
+ * the Docker Engine reports an event for the resource, or when the client modifies any resource. Concurrent
+ * lookups of the same resource share a single request. Missing resources and failed lookups are not cached.
+ * <p>
+ * <b>Thread Safety</b>: This class is thread-safe.
+ */
+final class InspectCache implements AutoCloseable
+{
+	private final long timeToLive;
+	private final int maximumSize;
+	private final ConcurrentMap<Key, Entry> entries = new ConcurrentHashMap<>();
+	/**
+	 * The entries in the order that they were added. Entries that are no longer cached are discarded when they
+	 * reach the head of the queue.
+	 */
+	private final Queue<Entry> insertionOrder = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger insertionOrderSize = new AtomicInteger();
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+	private final LongAdder invalidations = new LongAdder();
+	private final EventSubscription subscription;
+
+	/**
+	 * Creates a new cache.
+	 *
+	 * @param eventMonitor the source of the events that invalidate entries
+	 * @param timeToLive   the amount of time that entries remain valid after they are loaded
+	 * @param maximumSize  the maximum number of entries to retain
+	 * @throws IOException if the {@code docker events} process cannot be started
+	 */
+	InspectCache(EventMonitor eventMonitor, Duration timeToLive, int maximumSize) throws IOException
+	{
+		assert that(eventMonitor, "eventMonitor").isNotNull().elseThrow();
+		assert that(timeToLive, "timeToLive").isGreaterThan(Duration.ZERO).elseThrow();
+		assert that(maximumSize, "maximumSize").isPositive().elseThrow();
+		this.timeToLive = timeToLive.toNanos();
+		this.maximumSize = maximumSize;
+		this.subscription = eventMonitor.subscribe(this::invalidate);
+	}
+
+	/**
+	 * Returns a resource, looking it up if it is not cached.
+	 *
+	 * @param <T>    the type of the resource
+	 * @param type   the type of the resource
+	 * @param id     the ID or name that was used to look up the resource
+	 * @param getId  returns the resource's ID
+	 * @param lookup looks up the resource
+	 * @return {@code null} if the resource does not exist
+	 * @throws IOException          if an I/O error occurs. These errors are typically transient, and retrying
+	 *                              the request may resolve the issue.
+	 * @throws InterruptedException if the thread is interrupted before the operation completes. This can happen
+	 *                              due to shutdown signals.
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T get(Event.Type type, String id, Function<T, String> getId, ResourceLookup<T> lookup)
+		throws IOException, InterruptedException
+	{
+		Key key = new Key(type, id);
+		while (true)
+		{
+			Entry entry = entries.get(key);
+			if (entry != null && entry.isExpired(System.nanoTime(), timeToLive))
+			{
+				if (entries.remove(key, entry))
+					evictions.increment();
+				entry = null;
+			}
+			boolean isLoader = false;
+			if (entry == null)
+			{
+				Entry newEntry = new Entry(key, () ->
+				{
+					T resource = lookup.get();
+					String resourceId;
+					if (resource == null)
+						resourceId = null;
+					else
+						resourceId = getId.apply(resource);
+					return new Loaded(resource, resourceId, System.nanoTime());
+				});
+				entry = entries.putIfAbsent(key, newEntry);
+				if (entry == null)
+				{
+					entry = newEntry;
+					isLoader = true;
+					misses.increment();
+					addToInsertionOrder(newEntry);
+					newEntry.task.run();
+				}
+			}
+			if (!isLoader)
+				hits.increment();
+
+			Loaded loaded;
+			try
+			{
+				loaded = entry.task.get();
+			}
+			catch (ExecutionException e)
+			{
+				entries.remove(key, entry);
+				Throwable cause = e.getCause();
+				if (cause instanceof InterruptedException && !isLoader)
+				{
+					// The thread that was loading the resource was interrupted, but this thread was not
+					continue;
+				}
+				switch (cause)
+				{
+					case IOException ioe -> throw ioe;
+					case InterruptedException ie -> throw ie;
+					case RuntimeException re -> throw re;
+					case Error error -> throw error;
+					default -> throw new AssertionError(cause);
+				}
+			}
+			if (loaded.resource() == null)
+				entries.remove(key, entry);
+			return (T) loaded.resource();
+		}
+	}
+
+	/**
+	 * Records the insertion of an entry, evicting the oldest entries if the cache is full.
+	 *
+	 * @param entry the entry
+	 */
+	private void addToInsertionOrder(Entry entry)
+	{
+		insertionOrder.add(entry);
+		int size = insertionOrderSize.incrementAndGet();
+		while (size > maximumSize)
+		{
+			Entry oldest = insertionOrder.poll();
+			if (oldest == null)
+				break;
+			size = insertionOrderSize.decrementAndGet();
+			if (entries.remove(oldest.key, oldest))
+				evictions.increment();
+		}
+	}
+
+	/**
+	 * Removes the entries that an event refers to.
+	 *
+	 * @param event the event
+	 */
+	private void invalidate(Event event)
+	{
+		for (Entry entry : entries.values())
+		{
+			if (entry.refersTo(event) && entries.remove(entry.key, entry))
+				invalidations.increment();
+		}
+	}
+
+	/**
+	 * Removes all entries.
+	 */
+	public void clear()
+	{
+		for (Entry entry : entries.values())
+		{
+			if (entries.remove(entry.key, entry))
+				invalidations.increment();
+		}
+	}
+
+	/**
+	 * Returns the cache's statistics.
+	 *
+	 * @return the statistics
+	 */
+	public CacheStatistics getStatistics()
+	{
+		return new CacheStatistics(hits.sum(), misses.sum(), evictions.sum(), invalidations.sum());
+	}
+
+	@Override
+	public void close()
+	{
+		subscription.close();
+		entries.clear();
+	}
+
+	/**
+	 * Identifies a cached resource.
+	 *
+	 * @param type the type of the resource
+	 * @param id   the ID or name that was used to look up the resource
+	 */
+	private record Key(Event.Type type, String id)
+	{
+	}
+
+	/**
+	 * The outcome of looking up a resource.
+	 *
+	 * @param resource the resource, or {@code null} if it does not exist
+	 * @param id       the resource's ID, or {@code null} if it does not exist
+	 * @param loadedAt the value of {@link System#nanoTime()} when the resource was loaded
+	 */
+	private record Loaded(Object resource, String id, long loadedAt)
+	{
+	}
+
+	/**
+	 * A cached resource.
+	 */
+	private static final class Entry
+	{
+		private final Key key;
+		private final FutureTask<Loaded> task;
+
+		/**
+		 * Creates a new entry.
+		 *
+		 * @param key    identifies the resource
+		 * @param loader looks up the resource
+		 */
+		Entry(Key key, ResourceLookup<Loaded> loader)
+		{
+			this.key = key;
+			this.task = new FutureTask<>(loader::get);
+		}
+
+		/**
+		 * @param now        the current value of {@link System#nanoTime()}
+		 * @param timeToLive the number of nanoseconds that entries remain valid after they are loaded
+		 * @return {@code true} if the entry is loaded and has expired
+		 */
+		public boolean isExpired(long now, long timeToLive)
+		{
+			if (task.state() != Future.State.SUCCESS)
+				return false;
+			return now - task.resultNow().loadedAt() > timeToLive;
+		}
+
+		/**
+		 * @param event an event
+		 * @return {@code true} if the event refers to this entry's resource
+		 */
+		public boolean refersTo(Event event)
+		{
+			if (event.refersTo(key.type(), key.id()))
+				return true;
+			if (task.state() != Future.State.SUCCESS)
+				return false;
+			String id = task.resultNow().id();
+			return id != null && event.refersTo(key.type(), id);
+		}
+	}
+}
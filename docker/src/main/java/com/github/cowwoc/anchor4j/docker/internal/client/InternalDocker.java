@@ -5,11 +5,14 @@
 import com.github.cowwoc.anchor4j.docker.internal.resource.ConfigParser;
 import com.github.cowwoc.anchor4j.docker.internal.resource.ContainerParser;
 import com.github.cowwoc.anchor4j.docker.internal.resource.ContextParser;
+import com.github.cowwoc.anchor4j.docker.internal.resource.EventParser;
 import com.github.cowwoc.anchor4j.docker.internal.resource.ImageParser;
 import com.github.cowwoc.anchor4j.docker.internal.resource.NetworkParser;
 import com.github.cowwoc.anchor4j.docker.internal.resource.NodeParser;
 import com.github.cowwoc.anchor4j.docker.internal.resource.ServiceParser;
 import com.github.cowwoc.anchor4j.docker.internal.resource.SwarmParser;
+import java.util.concurrent.Semaphore;
+import com.github.cowwoc.anchor4j.docker.resource.ContainerLogGetter;
 
 /**
  * The internals of a {@code Docker}.
@@ -36,6 +39,27 @@ public interface InternalDocker extends InternalClient, Docker
 	 */
 	ContextParser getContextParser();
 
+	/**
+	 * @return an {@code EventParser}
+	 */
+	EventParser getEventParser();
+
+	/**
+	 * Returns the semaphore that limits the number of concurrent {@code docker container logs} processes that
+	 * are started by {@link ContainerLogGetter#publish()}. Each process must hold a permit while it runs, and
+	 * must release the permit to the same semaphore instance.
+	 *
+	 * @return the semaphore
+	 */
+	Semaphore getLogProcessLimiter();
+
+	/**
+	 * Returns the maximum number of concurrent {@code docker container logs} processes.
+	 *
+	 * @return the number of permits that {@link #getLogProcessLimiter()} was created with
+	 */
+	int getMaximumLogProcesses();
+
 	/**
 	 * @return a {@code NetworkParser}
 	 */
@@ -0,0 +1,454 @@
+package com.github.cowwoc.anchor4j.docker.internal.client;
+
+import com.github.cowwoc.anchor4j.core.internal.client.CommandResult;
+import com.github.cowwoc.anchor4j.core.internal.client.Processes;
+import com.github.cowwoc.anchor4j.docker.resource.LogRecord;
+import com.github.cowwoc.anchor4j.docker.resource.LogRecord.Source;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.github.cowwoc.requirements11.java.DefaultJavaValidators.requireThat;
+import static com.github.cowwoc.requirements11.java.DefaultJavaValidators.that;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+/**
+ * Publishes a container's logs.
+ * <p>
+ * Each subscription runs its own {@code docker container logs} process, which is started when the subscriber
+ * first requests records. Records are only read from the process when the subscriber has outstanding demand;
+ * otherwise, the process blocks once its output pipes fill up. The number of concurrent processes is limited
+ * per client by {@link InternalDocker#getLogProcessLimiter()}. Subscriptions that exceed the limit wait for
+ * another subscription to end.
+ * <p>
+ * <b>Thread Safety</b>: This class is thread-safe.
+ */
+public final class LogPublisher implements Flow.Publisher<LogRecord>
+{
+	private static final byte[] EMPTY_BYTES = new byte[0];
+	private final InternalDocker client;
+	private final String containerId;
+	private final List<String> arguments;
+	/**
+	 * The semaphore that limits the number of concurrent processes, or {@code null} to use the client's.
+	 */
+	private final Semaphore limiter;
+	private final Logger log = LoggerFactory.getLogger(LogPublisher.class);
+
+	/**
+	 * Creates a new publisher.
+	 *
+	 * @param client      the client configuration
+	 * @param containerId the ID or name of the container
+	 * @param arguments   the arguments of a {@code docker container logs} command that includes
+	 *                    {@code --timestamps}
+	 */
+	public LogPublisher(InternalDocker client, String containerId, List<String> arguments)
+	{
+		this(client, containerId, arguments, null);
+	}
+
+	/**
+	 * Creates a new publisher.
+	 *
+	 * @param client      the client configuration
+	 * @param containerId the ID or name of the container
+	 * @param arguments   the arguments of a {@code docker container logs} command that includes
+	 *                    {@code --timestamps}
+	 * @param limiter     the semaphore that limits the number of concurrent processes, or {@code null} to use
+	 *                    {@link InternalDocker#getLogProcessLimiter()}
+	 */
+	private LogPublisher(InternalDocker client, String containerId, List<String> arguments, Semaphore limiter)
+	{
+		assert that(client, "client").isNotNull().elseThrow();
+		assert that(containerId, "containerId").isNotNull().elseThrow();
+		assert that(arguments, "arguments").contains("--timestamps").elseThrow();
+		this.client = client;
+		this.containerId = containerId;
+		this.arguments = List.copyOf(arguments);
+		this.limiter = limiter;
+	}
+
+	/**
+	 * Returns a publisher whose processes acquire their permits from a different semaphore.
+	 *
+	 * @param limiter the semaphore that limits the number of concurrent processes
+	 * @return the new publisher
+	 */
+	public LogPublisher withLimiter(Semaphore limiter)
+	{
+		assert that(limiter, "limiter").isNotNull().elseThrow();
+		return new LogPublisher(client, containerId, arguments, limiter);
+	}
+
+	@Override
+	public void subscribe(Flow.Subscriber<? super LogRecord> subscriber)
+	{
+		requireThat(subscriber, "subscriber").isNotNull();
+		subscriber.onSubscribe(new LogSubscription(subscriber));
+	}
+
+	/**
+	 * A subscription to a container's logs.
+	 */
+	private final class LogSubscription implements Flow.Subscription
+	{
+		private final Flow.Subscriber<? super LogRecord> subscriber;
+		private final ReentrantLock lock = new ReentrantLock();
+		/**
+		 * Signaled when demand increases or the subscription ends.
+		 */
+		private final Condition stateChanged = lock.newCondition();
+		/**
+		 * The number of records that the subscriber requested but has not received. Guarded by {@code lock}.
+		 */
+		private long demand;
+		/**
+		 * Guarded by {@code lock}.
+		 */
+		private Thread worker;
+		/**
+		 * The {@code docker container logs} process, or {@code null} if it was not started. Guarded by
+		 * {@code lock}.
+		 */
+		private Process process;
+		/**
+		 * {@code true} if the subscription was cancelled or a terminal signal was sent. Guarded by
+		 * {@code lock}.
+		 */
+		private boolean done;
+
+		/**
+		 * Creates a new subscription.
+		 *
+		 * @param subscriber the subscriber
+		 */
+		LogSubscription(Flow.Subscriber<? super LogRecord> subscriber)
+		{
+			this.subscriber = subscriber;
+		}
+
+		@Override
+		public void request(long n)
+		{
+			if (n <= 0)
+			{
+				// https://github.com/reactive-streams/reactive-streams-jvm#3.9
+				fail(new IllegalArgumentException("n must be positive.\n" +
+					"Actual: " + n));
+				return;
+			}
+			lock.lock();
+			try
+			{
+				if (done)
+					return;
+				demand += n;
+				if (demand < 0)
+				{
+					// Overflow indicates an unbounded demand
+					demand = Long.MAX_VALUE;
+				}
+				stateChanged.signalAll();
+				if (worker == null)
+					worker = Thread.ofVirtual().name("docker-logs-" + containerId).start(this::run);
+			}
+			finally
+			{
+				lock.unlock();
+			}
+		}
+
+		@Override
+		public void cancel()
+		{
+			lock.lock();
+			try
+			{
+				end();
+			}
+			finally
+			{
+				lock.unlock();
+			}
+		}
+
+		/**
+		 * Ends the subscription. The caller must hold {@code lock}.
+		 *
+		 * @return {@code false} if the subscription had already ended
+		 */
+		private boolean end()
+		{
+			assert that(lock.isHeldByCurrentThread(), "lock.isHeldByCurrentThread()").isTrue().elseThrow();
+			if (done)
+				return false;
+			done = true;
+			stateChanged.signalAll();
+			if (process != null)
+				process.destroy();
+			if (worker != null && worker != Thread.currentThread())
+				worker.interrupt();
+			return true;
+		}
+
+		/**
+		 * Runs the {@code docker container logs} process and delivers its output to the subscriber.
+		 */
+		private void run()
+		{
+			Semaphore limiter = LogPublisher.this.limiter;
+			if (limiter == null)
+				limiter = client.getLogProcessLimiter();
+			try
+			{
+				limiter.acquire();
+			}
+			catch (InterruptedException _)
+			{
+				// The subscription was cancelled
+				return;
+			}
+			try
+			{
+				ProcessBuilder processBuilder = client.getProcessBuilder(arguments);
+				Process newProcess;
+				lock.lock();
+				try
+				{
+					if (done)
+						return;
+					log.debug("Running: {}", processBuilder.command());
+					newProcess = processBuilder.start();
+					process = newProcess;
+				}
+				finally
+				{
+					lock.unlock();
+				}
+				newProcess.getOutputStream().close();
+
+				Queue<Throwable> exceptions = new ConcurrentLinkedQueue<>();
+				StringJoiner diagnostics = new StringJoiner("\n");
+				Thread stderrThread = Thread.ofVirtual().start(() ->
+				{
+					try
+					{
+						read(newProcess.getErrorStream(), Source.STDERR, diagnostics);
+					}
+					catch (IOException | InterruptedException | RuntimeException e)
+					{
+						exceptions.add(e);
+						newProcess.destroy();
+					}
+				});
+				read(newProcess.getInputStream(), Source.STDOUT, diagnostics);
+				stderrThread.join();
+				int exitCode = newProcess.waitFor();
+				Throwable exception = exceptions.poll();
+				if (exception instanceof InterruptedException)
+					return;
+				if (exception != null)
+					throw exception;
+
+				CommandResult result = new CommandResult(processBuilder.command(),
+					Processes.getWorkingDirectory(processBuilder), EMPTY_BYTES, diagnostics.toString(), exitCode);
+				client.getContainerParser().checkLogs(result);
+				complete();
+			}
+			catch (InterruptedException _)
+			{
+				// The subscription was cancelled
+			}
+			catch (Throwable t)
+			{
+				fail(t);
+			}
+			finally
+			{
+				lock.lock();
+				try
+				{
+					if (process != null)
+						process.destroy();
+				}
+				finally
+				{
+					lock.unlock();
+				}
+				limiter.release();
+			}
+		}
+
+		/**
+		 * Delivers the lines of a stream to the subscriber.
+		 *
+		 * @param in          the stream
+		 * @param source      the stream's type
+		 * @param diagnostics is updated with any lines that were written by the {@code docker} executable itself
+		 * @throws IOException          if the stream cannot be read or contains unexpected values
+		 * @throws InterruptedException if the subscription was cancelled
+		 */
+		private void read(InputStream in, Source source, StringJoiner diagnostics)
+			throws IOException, InterruptedException
+		{
+			byte[] buffer = new byte[8192];
+			ByteArrayOutputStream line = new ByteArrayOutputStream();
+			while (true)
+			{
+				int count = in.read(buffer);
+				if (count == -1)
+					break;
+				int start = 0;
+				for (int i = 0; i < count; ++i)
+				{
+					if (buffer[i] != '\n')
+						continue;
+					line.write(buffer, start, i - start);
+					if (!onLine(line.toByteArray(), source, diagnostics))
+						return;
+					line.reset();
+					start = i + 1;
+				}
+				line.write(buffer, start, count - start);
+			}
+			if (line.size() > 0)
+				onLine(line.toByteArray(), source, diagnostics);
+		}
+
+		/**
+		 * Handles a single line of output.
+		 *
+		 * @param line        the line, excluding its terminator
+		 * @param source      the stream that the line was read from
+		 * @param diagnostics is updated with any lines that were written by the {@code docker} executable itself
+		 * @return {@code false} if the subscription has ended
+		 * @throws IOException          if the line does not begin with a timestamp
+		 * @throws InterruptedException if the subscription was cancelled
+		 */
+		private boolean onLine(byte[] line, Source source, StringJoiner diagnostics)
+			throws IOException, InterruptedException
+		{
+			// Each line is prefixed by an RFC 3339 timestamp, followed by a space
+			Instant timestamp = null;
+			int space = indexOf(line, (byte) ' ');
+			if (space != -1)
+			{
+				try
+				{
+					timestamp = Instant.parse(new String(line, 0, space, US_ASCII));
+				}
+				catch (DateTimeParseException _)
+				{
+					// The line does not begin with a timestamp
+				}
+			}
+			if (timestamp == null)
+			{
+				// Lines without a timestamp are written by the docker executable, not the container
+				if (source == Source.STDOUT)
+					throw new IOException("Expected a timestamp.\n" + "Actual: " + new String(line, US_ASCII));
+				synchronized (diagnostics)
+				{
+					diagnostics.add(new String(line, US_ASCII));
+				}
+				return true;
+			}
+			byte[] bytes = Arrays.copyOfRange(line, space + 1, line.length);
+			return emit(new LogRecord(containerId, source, timestamp, bytes));
+		}
+
+		/**
+		 * Delivers a record to the subscriber once it has outstanding demand.
+		 *
+		 * @param logRecord the record
+		 * @return {@code false} if the subscription has ended
+		 * @throws InterruptedException if the subscription was cancelled
+		 */
+		private boolean emit(LogRecord logRecord) throws InterruptedException
+		{
+			lock.lock();
+			try
+			{
+				while (demand == 0 && !done)
+					stateChanged.await();
+				if (done)
+					return false;
+				if (demand != Long.MAX_VALUE)
+					--demand;
+				// Holding the lock serializes the delivery of records from stdout and stderr
+				subscriber.onNext(logRecord);
+				return true;
+			}
+			finally
+			{
+				lock.unlock();
+			}
+		}
+
+		/**
+		 * Notifies the subscriber that all records were delivered.
+		 */
+		private void complete()
+		{
+			lock.lock();
+			try
+			{
+				if (!end())
+					return;
+			}
+			finally
+			{
+				lock.unlock();
+			}
+			subscriber.onComplete();
+		}
+
+		/**
+		 * Notifies the subscriber that the subscription failed.
+		 *
+		 * @param throwable the cause of the failure
+		 */
+		private void fail(Throwable throwable)
+		{
+			lock.lock();
+			try
+			{
+				if (!end())
+					return;
+			}
+			finally
+			{
+				lock.unlock();
+			}
+			subscriber.onError(throwable);
+		}
+
+		/**
+		 * @param array an array
+		 * @param value the value to search for
+		 * @return the index of the first occurrence of {@code value}, or {@code -1} if it is not found
+		 */
+		private static int indexOf(byte[] array, byte value)
+		{
+			for (int i = 0; i < array.length; ++i)
+				if (array[i] == value)
+					return i;
+			return -1;
+		}
+	}
+}
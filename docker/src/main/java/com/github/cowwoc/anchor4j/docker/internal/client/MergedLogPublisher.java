@@ -0,0 +1,532 @@
+package com.github.cowwoc.anchor4j.docker.internal.client;
+
+import com.github.cowwoc.anchor4j.docker.resource.LogRecord;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.github.cowwoc.requirements11.java.DefaultJavaValidators.requireThat;
+import static com.github.cowwoc.requirements11.java.DefaultJavaValidators.that;
+
+/**
+ * Merges the logs of multiple containers in timestamp order.
+ * <p>
+ * Records are merged using a k-way merge: the earliest buffered record is delivered once every source that
+ * has not completed has at least one buffered record. Sources that are idle (e.g. a container that is not
+ * writing while its logs are being followed) would otherwise stall the merge, so a record is also delivered
+ * once it has been buffered for longer than the reorder window. Records that arrive later than the window
+ * with an earlier timestamp are delivered out of order.
+ * <p>
+ * Each source buffers a bounded number of records. Once a source's buffer is full, no further records are
+ * requested from it until its buffered records are delivered, so memory usage does not depend on the length
+ * of the logs.
+ * <p>
+ * When following the logs, every process runs until the subscription ends. The processes are limited per
+ * client by {@link InternalDocker#getLogProcessLimiter()}, so each subscription reserves all of its processes
+ * at once, before any of them start. Otherwise, concurrent subscriptions that each acquired some of the
+ * processes would wait for each other forever. Subscribers are notified with a {@link TimeoutException} if
+ * the processes cannot be reserved in time.
+ * <p>
+ * <b>Thread Safety</b>: This class is thread-safe.
+ */
+public final class MergedLogPublisher implements Flow.Publisher<LogRecord>
+{
+	/**
+	 * Orders records by timestamp, breaking ties by the order in which they arrived.
+	 */
+	private static final Comparator<Buffered> ORDER = Comparator.
+		comparing((Buffered buffered) -> buffered.logRecord().timestamp()).
+		thenComparingLong(Buffered::sequence);
+	private final InternalDocker client;
+	private final List<LogPublisher> sources;
+	/**
+	 * The maximum amount of time to wait for the processes of all sources, or {@code null} if each source
+	 * acquires its own process.
+	 */
+	private final Duration processTimeout;
+	private final long reorderWindow;
+	private final int bufferSize;
+
+	/**
+	 * Creates a new publisher.
+	 *
+	 * @param client         the client configuration
+	 * @param sources        the publishers of each container's logs
+	 * @param processTimeout the maximum amount of time to wait for the processes of all sources, or
+	 *                       {@code null} if each source acquires its own process
+	 * @param reorderWindow  the maximum amount of time to buffer a record while waiting for records with an
+	 *                       earlier timestamp
+	 * @param bufferSize     the maximum number of records to buffer per source
+	 */
+	public MergedLogPublisher(InternalDocker client, List<LogPublisher> sources, Duration processTimeout,
+		Duration reorderWindow, int bufferSize)
+	{
+		assert that(client, "client").isNotNull().elseThrow();
+		assert that(sources, "sources").isNotNull().elseThrow();
+		if (processTimeout != null)
+			assert that(processTimeout, "processTimeout").isGreaterThanOrEqualTo(Duration.ZERO).elseThrow();
+		assert that(reorderWindow, "reorderWindow").isGreaterThanOrEqualTo(Duration.ZERO).elseThrow();
+		assert that(bufferSize, "bufferSize").isPositive().elseThrow();
+		this.client = client;
+		this.sources = List.copyOf(sources);
+		this.processTimeout = processTimeout;
+		this.reorderWindow = reorderWindow.toNanos();
+		this.bufferSize = bufferSize;
+	}
+
+	@Override
+	public void subscribe(Flow.Subscriber<? super LogRecord> subscriber)
+	{
+		requireThat(subscriber, "subscriber").isNotNull();
+		MergeSubscription subscription = new MergeSubscription(subscriber);
+		subscriber.onSubscribe(subscription);
+		subscription.start();
+	}
+
+	/**
+	 * A record that is waiting to be delivered.
+	 *
+	 * @param logRecord the record
+	 * @param source    the index of the source that published the record
+	 * @param arrival   the value of {@link System#nanoTime()} when the record arrived
+	 * @param sequence  the order in which the record arrived, relative to other records
+	 */
+	private record Buffered(LogRecord logRecord, int source, long arrival, long sequence)
+	{
+	}
+
+	/**
+	 * A subscription to the merged logs.
+	 */
+	private final class MergeSubscription implements Flow.Subscription
+	{
+		private final Flow.Subscriber<? super LogRecord> subscriber;
+		private final ReentrantLock lock = new ReentrantLock();
+		/**
+		 * Signaled when a record arrives, a source completes, demand increases or the subscription ends.
+		 */
+		private final Condition stateChanged = lock.newCondition();
+		/**
+		 * Guarded by {@code lock}.
+		 */
+		private final PriorityQueue<Buffered> buffer = new PriorityQueue<>(ORDER);
+		/**
+		 * The subscription of each source, or {@code null} if the source has not subscribed yet. Guarded by
+		 * {@code lock}.
+		 */
+		private final Flow.Subscription[] upstream = new Flow.Subscription[sources.size()];
+		/**
+		 * The number of records that are buffered for each source. Guarded by {@code lock}.
+		 */
+		private final int[] bufferedBySource = new int[sources.size()];
+		/**
+		 * Indicates if each source completed. Guarded by {@code lock}.
+		 */
+		private final boolean[] completed = new boolean[sources.size()];
+		/**
+		 * The number of sources that have not completed. Guarded by {@code lock}.
+		 */
+		private int remainingSources = sources.size();
+		/**
+		 * The number of records that the subscriber requested but has not received. Guarded by {@code lock}.
+		 */
+		private long demand;
+		/**
+		 * Guarded by {@code lock}.
+		 */
+		private long nextSequence;
+		/**
+		 * The failure to deliver to the subscriber, or {@code null} if no source failed. Guarded by {@code lock}.
+		 */
+		private Throwable failure;
+		/**
+		 * {@code true} if the subscription was cancelled. Guarded by {@code lock}.
+		 */
+		private boolean cancelled;
+		/**
+		 * The thread that is waiting to reserve the sources' processes, or {@code null} if it is not waiting.
+		 * Guarded by {@code lock}.
+		 */
+		private Thread reservingThread;
+
+		/**
+		 * Creates a new subscription.
+		 *
+		 * @param subscriber the subscriber
+		 */
+		MergeSubscription(Flow.Subscriber<? super LogRecord> subscriber)
+		{
+			this.subscriber = subscriber;
+		}
+
+		/**
+		 * Subscribes to the sources and starts delivering records.
+		 */
+		public void start()
+		{
+			Thread.ofVirtual().name("docker-logs-merge").start(() ->
+			{
+				Semaphore limiter = client.getLogProcessLimiter();
+				List<LogPublisher> reservedSources = reserveProcesses(limiter);
+				if (reservedSources == null)
+					return;
+				try
+				{
+					for (int i = 0; i < reservedSources.size(); ++i)
+						reservedSources.get(i).subscribe(new SourceSubscriber(i));
+					deliver();
+				}
+				finally
+				{
+					if (processTimeout != null)
+						limiter.release(sources.size());
+				}
+			});
+		}
+
+		/**
+		 * Reserves a process for each source, if the sources do not acquire their own.
+		 *
+		 * @param limiter the semaphore that limits the number of concurrent processes
+		 * @return the sources to subscribe to, or {@code null} if the subscription ended
+		 */
+		private List<LogPublisher> reserveProcesses(Semaphore limiter)
+		{
+			if (processTimeout == null)
+				return sources;
+			lock.lock();
+			try
+			{
+				if (cancelled)
+					return null;
+				reservingThread = Thread.currentThread();
+			}
+			finally
+			{
+				lock.unlock();
+			}
+			boolean reserved;
+			boolean interrupted = false;
+			try
+			{
+				reserved = limiter.tryAcquire(sources.size(), processTimeout.toNanos(), TimeUnit.NANOSECONDS);
+			}
+			catch (InterruptedException _)
+			{
+				reserved = false;
+				interrupted = true;
+			}
+			boolean isCancelled;
+			lock.lock();
+			try
+			{
+				reservingThread = null;
+				if (interrupted)
+					cancelled = true;
+				isCancelled = cancelled;
+			}
+			finally
+			{
+				lock.unlock();
+			}
+			if (isCancelled)
+			{
+				// Clear any interrupt that cancel() sent after the processes were reserved
+				Thread.interrupted();
+				if (reserved)
+					limiter.release(sources.size());
+				return null;
+			}
+			if (!reserved)
+			{
+				subscriber.onError(new TimeoutException("Timed out after " + processTimeout + " while waiting " +
+					"for " + sources.size() + " log processes. Other subscriptions are using the processes " +
+					"permitted by Docker.setMaximumLogProcesses()."));
+				return null;
+			}
+			// The sources run within the reserved processes, without competing for the client's processes
+			Semaphore reservedProcesses = new Semaphore(sources.size());
+			List<LogPublisher> reservedSources = new ArrayList<>(sources.size());
+			for (LogPublisher source : sources)
+				reservedSources.add(source.withLimiter(reservedProcesses));
+			return reservedSources;
+		}
+
+		@Override
+		public void request(long n)
+		{
+			lock.lock();
+			try
+			{
+				if (n <= 0)
+				{
+					// https://github.com/reactive-streams/reactive-streams-jvm#3.9
+					if (failure == null)
+						failure = new IllegalArgumentException("n must be positive.\n" + "Actual: " + n);
+				}
+				else
+				{
+					demand += n;
+					if (demand < 0)
+					{
+						// Overflow indicates an unbounded demand
+						demand = Long.MAX_VALUE;
+					}
+				}
+				stateChanged.signalAll();
+			}
+			finally
+			{
+				lock.unlock();
+			}
+		}
+
+		@Override
+		public void cancel()
+		{
+			lock.lock();
+			try
+			{
+				cancelled = true;
+				stateChanged.signalAll();
+				if (reservingThread != null)
+					reservingThread.interrupt();
+			}
+			finally
+			{
+				lock.unlock();
+			}
+		}
+
+		/**
+		 * Delivers records to the subscriber until all sources complete, a source fails or the subscription is
+		 * cancelled. Only this thread invokes the subscriber, so its notifications are serialized.
+		 */
+		private void deliver()
+		{
+			try
+			{
+				while (true)
+				{
+					Buffered next;
+					Flow.Subscription source;
+					lock.lock();
+					try
+					{
+						next = null;
+						while (!cancelled && failure == null)
+						{
+							if (buffer.isEmpty() && remainingSources == 0)
+								break;
+							long waitNanos = Long.MAX_VALUE;
+							if (demand > 0 && !buffer.isEmpty())
+							{
+								Buffered head = buffer.peek();
+								long bufferedFor = System.nanoTime() - head.arrival();
+								if (allSourcesBuffered() || bufferedFor >= reorderWindow)
+								{
+									next = buffer.poll();
+									break;
+								}
+								waitNanos = reorderWindow - bufferedFor;
+							}
+							if (waitNanos == Long.MAX_VALUE)
+								stateChanged.await();
+							else
+								stateChanged.await(waitNanos, TimeUnit.NANOSECONDS);
+						}
+						if (next == null)
+							break;
+						if (demand != Long.MAX_VALUE)
+							--demand;
+						--bufferedBySource[next.source()];
+						source = upstream[next.source()];
+					}
+					finally
+					{
+						lock.unlock();
+					}
+					// Replace the record that was consumed
+					source.request(1);
+					subscriber.onNext(next.logRecord());
+				}
+			}
+			catch (InterruptedException _)
+			{
+				lock.lock();
+				try
+				{
+					cancelled = true;
+				}
+				finally
+				{
+					lock.unlock();
+				}
+			}
+			catch (RuntimeException e)
+			{
+				// https://github.com/reactive-streams/reactive-streams-jvm#2.13
+				cancel();
+				cancelUpstream();
+				throw e;
+			}
+
+			Throwable terminalFailure;
+			boolean isCancelled;
+			lock.lock();
+			try
+			{
+				terminalFailure = failure;
+				isCancelled = cancelled;
+			}
+			finally
+			{
+				lock.unlock();
+			}
+			if (isCancelled || terminalFailure != null)
+				cancelUpstream();
+			if (isCancelled)
+				return;
+			if (terminalFailure != null)
+				subscriber.onError(terminalFailure);
+			else
+				subscriber.onComplete();
+		}
+
+		/**
+		 * The caller must hold {@code lock}.
+		 *
+		 * @return {@code true} if every source that has not completed has at least one buffered record
+		 */
+		private boolean allSourcesBuffered()
+		{
+			for (int i = 0; i < bufferedBySource.length; ++i)
+			{
+				if (!completed[i] && bufferedBySource[i] == 0)
+					return false;
+			}
+			return true;
+		}
+
+		/**
+		 * Cancels the subscriptions to all sources.
+		 */
+		private void cancelUpstream()
+		{
+			List<Flow.Subscription> subscriptions = new ArrayList<>(upstream.length);
+			lock.lock();
+			try
+			{
+				for (Flow.Subscription subscription : upstream)
+				{
+					if (subscription != null)
+						subscriptions.add(subscription);
+				}
+			}
+			finally
+			{
+				lock.unlock();
+			}
+			for (Flow.Subscription subscription : subscriptions)
+				subscription.cancel();
+		}
+
+		/**
+		 * Receives the records of a single source.
+		 */
+		private final class SourceSubscriber implements Flow.Subscriber<LogRecord>
+		{
+			private final int index;
+
+			/**
+			 * Creates a new subscriber.
+			 *
+			 * @param index the index of the source
+			 */
+			SourceSubscriber(int index)
+			{
+				this.index = index;
+			}
+
+			@Override
+			public void onSubscribe(Flow.Subscription subscription)
+			{
+				boolean isCancelled;
+				lock.lock();
+				try
+				{
+					upstream[index] = subscription;
+					isCancelled = cancelled || failure != null;
+				}
+				finally
+				{
+					lock.unlock();
+				}
+				if (isCancelled)
+					subscription.cancel();
+				else
+					subscription.request(bufferSize);
+			}
+
+			@Override
+			public void onNext(LogRecord item)
+			{
+				lock.lock();
+				try
+				{
+					buffer.add(new Buffered(item, index, System.nanoTime(), nextSequence++));
+					++bufferedBySource[index];
+					stateChanged.signalAll();
+				}
+				finally
+				{
+					lock.unlock();
+				}
+			}
+
+			@Override
+			public void onError(Throwable throwable)
+			{
+				lock.lock();
+				try
+				{
+					if (failure == null)
+						failure = throwable;
+					stateChanged.signalAll();
+				}
+				finally
+				{
+					lock.unlock();
+				}
+			}
+
+			@Override
+			public void onComplete()
+			{
+				lock.lock();
+				try
+				{
+					if (!completed[index])
+					{
+						completed[index] = true;
+						--remainingSources;
+					}
+					stateChanged.signalAll();
+				}
+				finally
+				{
+					lock.unlock();
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,23 @@
+package com.github.cowwoc.anchor4j.docker.internal.client;
+
+import java.io.IOException;
+
+/**
+ * Looks up the current state of a resource.
+ *
+ * @param <T> the type of the resource
+ */
+@FunctionalInterface
+interface ResourceLookup<T>
+{
+	/**
+	 * Looks up the resource.
+	 *
+	 * @return the resource, or {@code null} if it does not exist
+	 * @throws IOException          if an I/O error occurs. These errors are typically transient, and retrying
+	 *                              the request may resolve the issue.
+	 * @throws InterruptedException if the thread is interrupted before the operation completes. This can happen
+	 *                              due to shutdown signals.
+	 */
+	T get() throws IOException, InterruptedException;
+}
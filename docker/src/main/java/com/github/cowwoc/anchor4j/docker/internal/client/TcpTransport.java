@@ -0,0 +1,193 @@
+package com.github.cowwoc.anchor4j.docker.internal.client;
+
+import com.github.cowwoc.anchor4j.core.internal.util.ToStringBuilder;
+import com.github.cowwoc.anchor4j.docker.internal.util.Pem;
+
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLSessionContext;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.SSLSocketFactory;
+import javax.net.ssl.TrustManagerFactory;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.security.PrivateKey;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.util.List;
+
+import static com.github.cowwoc.requirements11.java.DefaultJavaValidators.requireThat;
+
+/**
+ * Sends requests to the Docker Engine API over TCP, optionally secured by mutual TLS.
+ * <p>
+ * All connections share a single {@code SSLContext} whose client-side session cache is bounded by the
+ * maximum number of idle connections. New connections resume a cached session instead of performing a full
+ * handshake.
+ */
+public final class TcpTransport extends AbstractEngineTransport
+{
+	/**
+	 * The port that the Docker Engine listens on when TLS is enabled.
+	 */
+	private static final int DEFAULT_TLS_PORT = 2376;
+	/**
+	 * The port that the Docker Engine listens on when TLS is disabled.
+	 */
+	private static final int DEFAULT_PORT = 2375;
+	private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(10);
+	private static final Duration SESSION_TIMEOUT = Duration.ofHours(1);
+	private final String host;
+	private final int port;
+	/**
+	 * The factory used to secure connections, or {@code null} if TLS is disabled.
+	 */
+	private final SSLSocketFactory sslSocketFactory;
+
+	/**
+	 * Creates a transport that does not use TLS.
+	 *
+	 * @param host                   the hostname or IP address of the server
+	 * @param port                   the port of the server, or {@code -1} to use the default port
+	 * @param maximumIdleConnections the maximum number of idle connections to keep open
+	 * @throws NullPointerException     if {@code host} is null
+	 * @throws IllegalArgumentException if {@code host} contains whitespace or is empty, or if
+	 *                                  {@code maximumIdleConnections} is negative
+	 */
+	public TcpTransport(String host, int port, int maximumIdleConnections)
+	{
+		super(maximumIdleConnections);
+		requireThat(host, "host").doesNotContainWhitespace().isNotEmpty();
+		this.host = host;
+		if (port == -1)
+			port = DEFAULT_PORT;
+		this.port = port;
+		this.sslSocketFactory = null;
+	}
+
+	/**
+	 * Creates a transport that uses mutual TLS.
+	 *
+	 * @param host                   the hostname or IP address of the server
+	 * @param port                   the port of the server, or {@code -1} to use the default port
+	 * @param caPublicKey            the path to the Certificate Authority (CA) certificate used to verify the
+	 *                               server's certificate
+	 * @param clientCertificate      the path to the client's X.509 certificate
+	 * @param clientPrivateKey       the path to the client's private key
+	 * @param maximumIdleConnections the maximum number of idle connections to keep open
+	 * @throws NullPointerException     if any of the arguments are null
+	 * @throws IllegalArgumentException if {@code host} contains whitespace or is empty, or if
+	 *                                  {@code maximumIdleConnections} is negative
+	 * @throws IOException              if the certificates or private key cannot be read
+	 */
+	public TcpTransport(String host, int port, Path caPublicKey, Path clientCertificate,
+		Path clientPrivateKey, int maximumIdleConnections) throws IOException
+	{
+		super(maximumIdleConnections);
+		requireThat(host, "host").doesNotContainWhitespace().isNotEmpty();
+		requireThat(caPublicKey, "caPublicKey").isNotNull();
+		requireThat(clientCertificate, "clientCertificate").isNotNull();
+		requireThat(clientPrivateKey, "clientPrivateKey").isNotNull();
+		this.host = host;
+		if (port == -1)
+			port = DEFAULT_TLS_PORT;
+		this.port = port;
+
+		SSLContext sslContext = createSslContext(caPublicKey, clientCertificate, clientPrivateKey);
+		SSLSessionContext sessionContext = sslContext.getClientSessionContext();
+		sessionContext.setSessionCacheSize(Math.max(1, maximumIdleConnections));
+		sessionContext.setSessionTimeout((int) SESSION_TIMEOUT.toSeconds());
+		this.sslSocketFactory = sslContext.getSocketFactory();
+	}
+
+	/**
+	 * Creates an {@code SSLContext} that authenticates the client and verifies the server using PEM files.
+	 *
+	 * @param caPublicKey       the path to the CA certificate
+	 * @param clientCertificate the path to the client's certificate
+	 * @param clientPrivateKey  the path to the client's private key
+	 * @return the {@code SSLContext}
+	 * @throws IOException if the certificates or private key cannot be read
+	 */
+	private static SSLContext createSslContext(Path caPublicKey, Path clientCertificate,
+		Path clientPrivateKey) throws IOException
+	{
+		List<X509Certificate> authorities = Pem.readCertificates(caPublicKey);
+		List<X509Certificate> chain = Pem.readCertificates(clientCertificate);
+		PrivateKey privateKey = Pem.readPrivateKey(clientPrivateKey);
+		try
+		{
+			KeyStore trustStore = KeyStore.getInstance("PKCS12");
+			trustStore.load(null, null);
+			for (int i = 0; i < authorities.size(); ++i)
+				trustStore.setCertificateEntry("ca-" + i, authorities.get(i));
+			TrustManagerFactory trustManagerFactory = TrustManagerFactory.getInstance(
+				TrustManagerFactory.getDefaultAlgorithm());
+			trustManagerFactory.init(trustStore);
+
+			// The password only protects the in-memory key store
+			char[] password = new char[0];
+			KeyStore keyStore = KeyStore.getInstance("PKCS12");
+			keyStore.load(null, null);
+			keyStore.setKeyEntry("client", privateKey, password, chain.toArray(new X509Certificate[0]));
+			KeyManagerFactory keyManagerFactory = KeyManagerFactory.getInstance(
+				KeyManagerFactory.getDefaultAlgorithm());
+			keyManagerFactory.init(keyStore, password);
+
+			SSLContext sslContext = SSLContext.getInstance("TLS");
+			sslContext.init(keyManagerFactory.getKeyManagers(), trustManagerFactory.getTrustManagers(), null);
+			return sslContext;
+		}
+		catch (GeneralSecurityException e)
+		{
+			throw new IOException("Failed to initialize TLS using:\n" +
+				"caPublicKey      : " + caPublicKey + "\n" +
+				"clientCertificate: " + clientCertificate + "\n" +
+				"clientPrivateKey : " + clientPrivateKey, e);
+		}
+	}
+
+	@Override
+	protected HttpConnection connect() throws IOException
+	{
+		Socket socket = new Socket();
+		try
+		{
+			socket.setTcpNoDelay(true);
+			socket.setKeepAlive(true);
+			socket.connect(new InetSocketAddress(host, port), (int) CONNECT_TIMEOUT.toMillis());
+			if (sslSocketFactory != null)
+			{
+				// Sessions are cached by host and port, allowing subsequent connections to resume them
+				SSLSocket sslSocket = (SSLSocket) sslSocketFactory.createSocket(socket, host, port, true);
+				SSLParameters parameters = sslSocket.getSSLParameters();
+				parameters.setEndpointIdentificationAlgorithm("HTTPS");
+				sslSocket.setSSLParameters(parameters);
+				sslSocket.startHandshake();
+				socket = sslSocket;
+			}
+			return new HttpConnection(socket, socket.getInputStream(), socket.getOutputStream(),
+				host + ":" + port);
+		}
+		catch (IOException e)
+		{
+			socket.close();
+			throw e;
+		}
+	}
+
+	@Override
+	public String toString()
+	{
+		return new ToStringBuilder(TcpTransport.class).
+			add("host", host).
+			add("port", port).
+			add("tls", sslSocketFactory != null).
+			toString();
+	}
+}
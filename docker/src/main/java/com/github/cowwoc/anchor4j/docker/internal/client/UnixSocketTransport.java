@@ -0,0 +1,61 @@
+package com.github.cowwoc.anchor4j.docker.internal.client;
+
+import com.github.cowwoc.anchor4j.core.internal.util.ToStringBuilder;
+
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+
+import static com.github.cowwoc.requirements11.java.DefaultJavaValidators.requireThat;
+
+/**
+ * Sends requests to the Docker Engine API over a Unix domain socket, such as {@code /var/run/docker.sock}.
+ */
+public final class UnixSocketTransport extends AbstractEngineTransport
+{
+	private final UnixDomainSocketAddress address;
+
+	/**
+	 * Creates a new transport.
+	 *
+	 * @param socket                 the path of the socket
+	 * @param maximumIdleConnections the maximum number of idle connections to keep open
+	 * @throws NullPointerException     if {@code socket} is null
+	 * @throws IllegalArgumentException if {@code maximumIdleConnections} is negative
+	 */
+	public UnixSocketTransport(Path socket, int maximumIdleConnections)
+	{
+		super(maximumIdleConnections);
+		requireThat(socket, "socket").isNotNull();
+		this.address = UnixDomainSocketAddress.of(socket);
+	}
+
+	@Override
+	protected HttpConnection connect() throws IOException
+	{
+		SocketChannel channel = SocketChannel.open(StandardProtocolFamily.UNIX);
+		try
+		{
+			channel.connect(address);
+		}
+		catch (IOException e)
+		{
+			channel.close();
+			throw e;
+		}
+		// The Host header is mandatory in HTTP/1.1 but its value is ignored by the server
+		return new HttpConnection(channel, Channels.newInputStream(channel), Channels.newOutputStream(channel),
+			"localhost");
+	}
+
+	@Override
+	public String toString()
+	{
+		return new ToStringBuilder(UnixSocketTransport.class).
+			add("address", address).
+			toString();
+	}
+}
@@ -1,8 +1,9 @@
 package com.github.cowwoc.anchor4j.docker.internal.resource;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.json.JsonMapper;
 import com.github.cowwoc.anchor4j.core.internal.client.CommandResult;
 import com.github.cowwoc.anchor4j.core.internal.resource.AbstractParser;
 import com.github.cowwoc.anchor4j.docker.exception.NotSwarmManagerException;
@@ -11,10 +12,14 @@
 import com.github.cowwoc.anchor4j.docker.resource.Config;
 import com.github.cowwoc.anchor4j.docker.resource.ConfigElement;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.nio.ByteBuffer;
-import java.util.ArrayList;
 import java.util.Base64;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -27,6 +32,8 @@ public final class ConfigParser extends AbstractParser
 {
 	private static final Pattern NOT_FOUND = Pattern.compile(
 		"Error response from daemon: config [^ ]+ not found");
+	private static final Pattern BATCH_NOT_FOUND = Pattern.compile(
+		"^Error(?: response from daemon)?: (?:config ([^ ]+) not found|[Nn]o such config: ([^ ]+))$");
 	private static final Pattern NAME_IN_USE = Pattern.compile(
 		"Error response from daemon: rpc error: code = AlreadyExists desc = config ([^ ]+) already exists");
 
@@ -48,11 +55,45 @@ private InternalDocker getClient()
 	/**
 	 * Lists all the configs.
 	 *
+	 * @param stdout   the output of {@code config ls --format json}. The stream is not closed.
+	 * @param consumer consumes the configs as they are read
+	 * @throws IOException if the stream cannot be read or contains unexpected values
+	 */
+	public void list(InputStream stdout, Consumer<ConfigElement> consumer) throws IOException
+	{
+		readJsonLines(stdout, this::readElement, consumer);
+	}
+
+	/**
+	 * Reads a single element of the output of {@code config ls --format json}.
+	 *
+	 * @param json the parser, positioned at the start of the element
+	 * @return the config
+	 * @throws IOException if the stream cannot be read or contains unexpected values
+	 */
+	public ConfigElement readElement(JsonParser json) throws IOException
+	{
+		String id = null;
+		String name = null;
+		while (json.nextToken() == JsonToken.FIELD_NAME)
+		{
+			switch (json.currentName())
+			{
+				case "ID" -> id = nextText(json);
+				case "Name" -> name = nextText(json);
+				default -> skipValue(json);
+			}
+		}
+		return new ConfigElement(id, name);
+	}
+
+	/**
+	 * Validates the result of listing configs.
+	 *
 	 * @param result the result of executing a command
-	 * @return an empty list if no match is found
 	 * @throws NotSwarmManagerException if the current node is not a swarm manager
 	 */
-	public List<ConfigElement> list(CommandResult result)
+	public void checkList(CommandResult result)
 	{
 		if (result.exitCode() != 0)
 		{
@@ -60,26 +101,6 @@ public List<ConfigElement> list(CommandResult result)
 				throw new NotSwarmManagerException();
 			throw result.unexpectedResponse();
 		}
-		JsonMapper jm = client.getJsonMapper();
-		try
-		{
-			String[] lines = SPLIT_LINES.split(result.stdout());
-			List<ConfigElement> elements = new ArrayList<>(lines.length);
-			for (String line : lines)
-			{
-				if (line.isBlank())
-					continue;
-				JsonNode json = jm.readTree(line);
-				String id = json.get("ID").textValue();
-				String name = json.get("Name").textValue();
-				elements.add(new ConfigElement(id, name));
-			}
-			return elements;
-		}
-		catch (JsonProcessingException e)
-		{
-			throw new AssertionError(e);
-		}
 	}
 
 	/**
@@ -100,19 +121,11 @@ public Config get(CommandResult result)
 				return null;
 			throw result.unexpectedResponse();
 		}
-		JsonMapper jm = client.getJsonMapper();
 		try
 		{
-			JsonNode json = jm.readTree(result.stdout());
+			JsonNode json = readTree(result);
 			assert json.size() == 1 : json;
-
-			JsonNode config = json.get(0);
-			String actualId = config.get("ID").textValue();
-			JsonNode spec = config.get("Spec");
-			String name = spec.get("Name").textValue();
-			String data = spec.get("Data").textValue();
-			ByteBuffer decodedData = ByteBuffer.wrap(Base64.getUrlDecoder().decode(data));
-			return SharedSecrets.getConfig(getClient(), actualId, name, decodedData);
+			return getByJson(json.get(0));
 		}
 		catch (JsonProcessingException e)
 		{
@@ -120,6 +133,36 @@ public Config get(CommandResult result)
 		}
 	}
 
+	/**
+	 * Looks up multiple configs by their IDs or names.
+	 *
+	 * @param result  the result of executing a command
+	 * @param ids     the IDs or names that were passed to the command, in order, without duplicates
+	 * @param found   is updated with a mapping from each ID or name to the config that it refers to
+	 * @param missing is updated with the IDs or names that did not match any config
+	 * @throws NotSwarmManagerException if the current node is not a swarm manager
+	 */
+	public void getAll(CommandResult result, List<String> ids, Map<String, Config> found, Set<String> missing)
+	{
+		if (result.stderr().startsWith(NOT_SWARM_MANAGER))
+			throw new NotSwarmManagerException();
+		getAll(result, ids, BATCH_NOT_FOUND, this::getByJson, found, missing);
+	}
+
+	/**
+	 * @param config the JSON representation of the config
+	 * @return the config
+	 */
+	private Config getByJson(JsonNode config)
+	{
+		String actualId = config.get("ID").textValue();
+		JsonNode spec = config.get("Spec");
+		String name = spec.get("Name").textValue();
+		String data = spec.get("Data").textValue();
+		ByteBuffer decodedData = ByteBuffer.wrap(Base64.getUrlDecoder().decode(data));
+		return SharedSecrets.getConfig(getClient(), actualId, name, decodedData);
+	}
+
 	/**
 	 * Creates a config.
 	 *
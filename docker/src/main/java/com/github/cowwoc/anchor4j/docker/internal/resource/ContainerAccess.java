@@ -12,6 +12,9 @@
 import com.github.cowwoc.anchor4j.docker.resource.ContainerStarter;
 import com.github.cowwoc.anchor4j.docker.resource.ContainerStopper;
 import com.github.cowwoc.anchor4j.docker.resource.Image;
+import com.github.cowwoc.anchor4j.docker.resource.MergedLogGetter;
+
+import java.util.List;
 
 /**
  * Methods that expose non-public behavior or data of containers.
@@ -49,6 +52,15 @@ Container get(InternalDocker client, String id, String name, HostConfiguration h
 	 */
 	ContainerLogGetter getLogs(InternalDocker client, String id);
 
+	/**
+	 * Returns a reference to the merged logs of multiple containers.
+	 *
+	 * @param client the client configuration
+	 * @param ids    the IDs or names of the containers
+	 * @return the {@code MergedLogGetter}
+	 */
+	MergedLogGetter getMergedLogs(InternalDocker client, List<String> ids);
+
 	/**
 	 * Returns a container creator.
 	 *
@@ -1,8 +1,9 @@
 package com.github.cowwoc.anchor4j.docker.internal.resource;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.json.JsonMapper;
 import com.github.cowwoc.anchor4j.core.internal.client.CommandResult;
 import com.github.cowwoc.anchor4j.core.internal.resource.AbstractParser;
 import com.github.cowwoc.anchor4j.docker.exception.ResourceInUseException;
@@ -17,13 +18,17 @@
 import com.github.cowwoc.anchor4j.docker.resource.ContainerRemover;
 import com.github.cowwoc.anchor4j.docker.resource.Protocol;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -37,6 +42,8 @@ public final class ContainerParser extends AbstractParser
 {
 	private static final Pattern CONTAINER_NOT_FOUND = Pattern.compile(
 		"^Error response from daemon: No such container: ([^ ]+).*", DOTALL);
+	private static final Pattern BATCH_CONTAINER_NOT_FOUND = Pattern.compile(
+		"^Error(?: response from daemon)?: No such container: ([^ ]+)$");
 	private static final Pattern IMAGE_NOT_FOUND = Pattern.compile("^Unable to find image '([^']+)' locally.*",
 		DOTALL);
 	private static final Pattern CONTAINER_IN_USE = Pattern.compile("""
@@ -62,37 +69,50 @@ private InternalDocker getClient()
 	}
 
 	/**
-	 * Lists all the configs.
+	 * Lists all the containers.
 	 *
-	 * @param result the result of executing a command
-	 * @return an empty list if no match is found
+	 * @param stdout   the output of {@code container ls --format json}. The stream is not closed.
+	 * @param consumer consumes the containers as they are read
+	 * @throws IOException if the stream cannot be read or contains unexpected values
 	 */
-	public List<ContainerElement> list(CommandResult result)
+	public void list(InputStream stdout, Consumer<ContainerElement> consumer) throws IOException
 	{
-		if (result.exitCode() != 0)
-			throw result.unexpectedResponse();
-		JsonMapper jm = client.getJsonMapper();
-		try
+		readJsonLines(stdout, this::readElement, consumer);
+	}
+
+	/**
+	 * Reads a single element of the output of {@code container ls --format json}.
+	 *
+	 * @param json the parser, positioned at the start of the element
+	 * @return the container
+	 * @throws IOException if the stream cannot be read or contains unexpected values
+	 */
+	public ContainerElement readElement(JsonParser json) throws IOException
+	{
+		String id = null;
+		String name = null;
+		while (json.nextToken() == JsonToken.FIELD_NAME)
 		{
-			String[] lines = SPLIT_LINES.split(result.stdout());
-			List<ContainerElement> elements = new ArrayList<>(lines.length);
-			for (String line : lines)
+			switch (json.currentName())
 			{
-				if (line.isBlank())
-					continue;
-				JsonNode json = jm.readTree(line);
-				String id = json.get("ID").textValue();
-				String name = json.get("Names").textValue();
-				assert that(name, "name").doesNotContain(",").
-					elseThrow();
-				elements.add(new ContainerElement(id, name));
+				case "ID" -> id = nextText(json);
+				case "Names" -> name = nextText(json);
+				default -> skipValue(json);
 			}
-			return elements;
-		}
-		catch (JsonProcessingException e)
-		{
-			throw new AssertionError(e);
 		}
+		assert that(name, "name").doesNotContain(",").elseThrow();
+		return new ContainerElement(id, name);
+	}
+
+	/**
+	 * Validates the result of listing containers.
+	 *
+	 * @param result the result of executing a command
+	 */
+	public void checkList(CommandResult result)
+	{
+		if (result.exitCode() != 0)
+			throw result.unexpectedResponse();
 	}
 
 	/**
@@ -111,22 +131,9 @@ public Container get(CommandResult result)
 		}
 		try
 		{
-			JsonNode json = client.getJsonMapper().readTree(result.stdout());
+			JsonNode json = readTree(result);
 			assert json.size() == 1 : json;
-			JsonNode container = json.get(0);
-
-			String actualId = container.get("Id").textValue();
-			String name = container.get("Name").textValue();
-			// Internal representation of container names start with a slash for historical reasons. Strip them away.
-			assert that(name, "name").startsWith("/").elseThrow();
-			name = name.substring(1);
-
-			HostConfiguration hostConfiguration = getHostConfiguration(container.get("HostConfig"));
-			NetworkConfiguration networkConfiguration = getNetworkConfiguration(container.get("NetworkSettings"));
-			JsonNode stateNode = container.get("State");
-			Status status = SharedSecrets.getContainerStatus(stateNode.get("Status"));
-			return SharedSecrets.getContainer(getClient(), actualId, name, hostConfiguration, networkConfiguration,
-				status);
+			return getByJson(json.get(0));
 		}
 		catch (JsonProcessingException e)
 		{
@@ -134,6 +141,40 @@ public Container get(CommandResult result)
 		}
 	}
 
+	/**
+	 * Looks up multiple containers by their IDs or names.
+	 *
+	 * @param result  the result of executing a command
+	 * @param ids     the IDs or names that were passed to the command, in order, without duplicates
+	 * @param found   is updated with a mapping from each ID or name to the container that it refers to
+	 * @param missing is updated with the IDs or names that did not match any container
+	 */
+	public void getAll(CommandResult result, List<String> ids, Map<String, Container> found,
+		Set<String> missing)
+	{
+		getAll(result, ids, BATCH_CONTAINER_NOT_FOUND, this::getByJson, found, missing);
+	}
+
+	/**
+	 * @param container the JSON representation of the container
+	 * @return the container
+	 */
+	private Container getByJson(JsonNode container)
+	{
+		String actualId = container.get("Id").textValue();
+		String name = container.get("Name").textValue();
+		// Internal representation of container names start with a slash for historical reasons. Strip them away.
+		assert that(name, "name").startsWith("/").elseThrow();
+		name = name.substring(1);
+
+		HostConfiguration hostConfiguration = getHostConfiguration(container.get("HostConfig"));
+		NetworkConfiguration networkConfiguration = getNetworkConfiguration(container.get("NetworkSettings"));
+		JsonNode stateNode = container.get("State");
+		Status status = SharedSecrets.getContainerStatus(stateNode.get("Status"));
+		return SharedSecrets.getContainer(getClient(), actualId, name, hostConfiguration, networkConfiguration,
+			status);
+	}
+
 	private static HostConfiguration getHostConfiguration(JsonNode hostConfig)
 	{
 		JsonNode portBindingsNode = hostConfig.get("PortBindings");
@@ -301,6 +342,25 @@ public int waitUntilStopped(CommandResult result) throws ResourceNotFoundExcepti
 		}
 	}
 
+	/**
+	 * Checks the outcome of retrieving a container's logs.
+	 *
+	 * @param result the result of executing a command. Its {@code stderr} contains the diagnostic messages of
+	 *               the command, excluding the container's own output.
+	 * @throws ResourceNotFoundException if the container does not exist
+	 */
+	public void checkLogs(CommandResult result) throws ResourceNotFoundException
+	{
+		if (result.exitCode() != 0)
+		{
+			String stderr = result.stderr();
+			Matcher matcher = CONTAINER_NOT_FOUND.matcher(stderr);
+			if (matcher.matches())
+				throw new ResourceNotFoundException("Container not found: " + matcher.group(1));
+			throw result.unexpectedResponse();
+		}
+	}
+
 	/**
 	 * Removes the container. If the container does not exist, this method has no effect.
 	 *
@@ -1,8 +1,9 @@
 package com.github.cowwoc.anchor4j.docker.internal.resource;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.json.JsonMapper;
 import com.github.cowwoc.anchor4j.core.internal.client.CommandResult;
 import com.github.cowwoc.anchor4j.core.internal.resource.AbstractParser;
 import com.github.cowwoc.anchor4j.docker.exception.ResourceInUseException;
@@ -13,8 +14,8 @@
 import com.github.cowwoc.anchor4j.docker.resource.ContextEndpoint;
 
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
+import java.io.InputStream;
+import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -55,36 +56,57 @@ private InternalDocker getClient()
 	/**
 	 * Lists all the contexts.
 	 *
-	 * @param result the result of executing a command
-	 * @return the contexts
+	 * @param stdout   the output of {@code context ls --format json}. The stream is not closed.
+	 * @param consumer consumes the contexts as they are read
+	 * @throws IOException if the stream cannot be read or contains unexpected values
 	 */
-	public List<ContextElement> list(CommandResult result)
+	public void list(InputStream stdout, Consumer<ContextElement> consumer) throws IOException
 	{
-		if (result.exitCode() != 0)
-			throw result.unexpectedResponse();
-		JsonMapper jm = client.getJsonMapper();
-		try
+		readJsonLines(stdout, this::readElement, consumer);
+	}
+
+	/**
+	 * Reads a single element of the output of {@code context ls --format json}.
+	 *
+	 * @param json the parser, positioned at the start of the element
+	 * @return the context
+	 * @throws IOException if the stream cannot be read or contains unexpected values
+	 */
+	public ContextElement readElement(JsonParser json) throws IOException
+	{
+		boolean current = false;
+		String description = null;
+		String endpoint = null;
+		String error = null;
+		String name = null;
+		while (json.nextToken() == JsonToken.FIELD_NAME)
 		{
-			String[] lines = SPLIT_LINES.split(result.stdout());
-			List<ContextElement> elements = new ArrayList<>(lines.length);
-			for (String line : lines)
+			switch (json.currentName())
 			{
-				if (line.isBlank())
-					continue;
-				JsonNode json = jm.readTree(line);
-				boolean current = json.get("Current").booleanValue();
-				String description = json.get("Description").textValue();
-				String endpoint = json.get("DockerEndpoint").textValue();
-				String error = json.get("Error").textValue();
-				String name = json.get("Name").textValue();
-				elements.add(new ContextElement(name, current, description, endpoint, error));
+				case "Current" ->
+				{
+					current = json.nextToken() == JsonToken.VALUE_TRUE;
+					json.skipChildren();
+				}
+				case "Description" -> description = nextText(json);
+				case "DockerEndpoint" -> endpoint = nextText(json);
+				case "Error" -> error = nextText(json);
+				case "Name" -> name = nextText(json);
+				default -> skipValue(json);
 			}
-			return elements;
-		}
-		catch (JsonProcessingException e)
-		{
-			throw new AssertionError(e);
 		}
+		return new ContextElement(name, current, description, endpoint, error);
+	}
+
+	/**
+	 * Validates the result of listing contexts.
+	 *
+	 * @param result the result of executing a command
+	 */
+	public void checkList(CommandResult result)
+	{
+		if (result.exitCode() != 0)
+			throw result.unexpectedResponse();
 	}
 
 	/**
@@ -97,10 +119,9 @@ public Context getByName(CommandResult result)
 	{
 		if (result.exitCode() != 0)
 			throw result.unexpectedResponse();
-		JsonMapper jm = client.getJsonMapper();
 		try
 		{
-			JsonNode json = jm.readTree(result.stdout());
+			JsonNode json = readTree(result);
 			assert json.size() == 1 : json;
 			JsonNode context = json.get(0);
 
@@ -0,0 +1,130 @@
+package com.github.cowwoc.anchor4j.docker.internal.resource;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.github.cowwoc.anchor4j.core.internal.resource.AbstractParser;
+import com.github.cowwoc.anchor4j.docker.internal.client.InternalDocker;
+import com.github.cowwoc.anchor4j.docker.resource.Event;
+import com.github.cowwoc.anchor4j.docker.resource.Event.Type;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Parses server responses to {@code docker events}.
+ */
+public final class EventParser extends AbstractParser
+{
+	/**
+	 * Creates a parser.
+	 *
+	 * @param client the client configuration
+	 */
+	public EventParser(InternalDocker client)
+	{
+		super(client);
+	}
+
+	/**
+	 * Reads events until the end of the stream.
+	 *
+	 * @param stdout   the stdout stream of {@code docker events --format json}. The stream is not closed.
+	 * @param consumer consumes the events as they are read. Events of an unknown type are skipped.
+	 * @throws IOException if the stream cannot be read or contains unexpected values
+	 */
+	public void listen(InputStream stdout, Consumer<Event> consumer) throws IOException
+	{
+		readJsonLines(stdout, this::readEvent, event ->
+		{
+			if (event != null)
+				consumer.accept(event);
+		});
+	}
+
+	/**
+	 * Reads a single event.
+	 *
+	 * @param json the parser, positioned at the start of the event object
+	 * @return {@code null} if the event's type is unknown
+	 * @throws IOException if the stream cannot be read
+	 */
+	public Event readEvent(JsonParser json) throws IOException
+	{
+		String type = null;
+		String action = null;
+		String actorId = null;
+		Map<String, String> attributes = Map.of();
+		long timeNano = 0;
+		while (json.nextToken() == JsonToken.FIELD_NAME)
+		{
+			switch (json.currentName())
+			{
+				case "Type" -> type = nextText(json);
+				case "Action" -> action = nextText(json);
+				case "timeNano" ->
+				{
+					json.nextToken();
+					timeNano = json.getLongValue();
+				}
+				case "Actor" ->
+				{
+					json.nextToken();
+					while (json.nextToken() == JsonToken.FIELD_NAME)
+					{
+						switch (json.currentName())
+						{
+							case "ID" -> actorId = nextText(json);
+							case "Attributes" -> attributes = readAttributes(json);
+							default -> skipValue(json);
+						}
+					}
+				}
+				default -> skipValue(json);
+			}
+		}
+		if (type == null || action == null || actorId == null)
+			throw new IOException("Incomplete event. Type: " + type + ", Action: " + action + ", Actor.ID: " +
+				actorId);
+		Type typeValue;
+		try
+		{
+			typeValue = Type.valueOf(type.toUpperCase(Locale.ROOT));
+		}
+		catch (IllegalArgumentException _)
+		{
+			return null;
+		}
+		Instant time = Instant.ofEpochSecond(0, timeNano);
+		return new Event(typeValue, action, actorId, attributes, time);
+	}
+
+	/**
+	 * Reads an event's attributes.
+	 *
+	 * @param json the parser, positioned at the field name
+	 * @return the attributes
+	 * @throws IOException if the stream cannot be read
+	 */
+	private static Map<String, String> readAttributes(JsonParser json) throws IOException
+	{
+		if (json.nextToken() != JsonToken.START_OBJECT)
+		{
+			json.skipChildren();
+			return Map.of();
+		}
+		Map<String, String> attributes = new HashMap<>();
+		while (json.nextToken() == JsonToken.FIELD_NAME)
+		{
+			String name = json.currentName();
+			String value = nextText(json);
+			if (value != null)
+				attributes.put(name, value);
+		}
+		return attributes;
+	}
+}
@@ -1,13 +1,13 @@
 package com.github.cowwoc.anchor4j.docker.internal.resource;
 
+import com.github.cowwoc.anchor4j.core.resource.ImageReference;
 import com.github.cowwoc.anchor4j.docker.internal.client.InternalDocker;
 import com.github.cowwoc.anchor4j.docker.resource.Image;
 import com.github.cowwoc.anchor4j.docker.resource.ImagePuller;
 import com.github.cowwoc.anchor4j.docker.resource.ImagePusher;
 import com.github.cowwoc.anchor4j.docker.resource.ImageRemover;
 
-import java.util.Map;
-import java.util.Set;
+import java.util.List;
 
 /**
  * Methods that expose non-public behavior or data of images.
@@ -17,21 +17,14 @@
 	/**
 	 * Returns a reference to an image.
 	 *
-	 * @param client            the client configuration
-	 * @param id                the image's ID
-	 * @param referenceToTags   a mapping from the image's name to its tags
-	 * @param referenceToDigest a mapping from the image's name to its digest
+	 * @param client     the client configuration
+	 * @param id         the image's ID
+	 * @param references the image's references. Each reference contains a tag or a digest.
 	 * @return an image
 	 * @throws NullPointerException     if any of the arguments are null
-	 * @throws IllegalArgumentException if:
-	 *                                  <ul>
-	 *                                    <li>any of the arguments, including map keys and values, contain
-	 *                                    whitespace.</li>
-	 *                                    <li>{@code id} or any of the map keys and values are empty.</li>
-	 *                                  </ul>
+	 * @throws IllegalArgumentException if {@code id} contains whitespace or is empty
 	 */
-	Image get(InternalDocker client, String id, Map<String, Set<String>> referenceToTags,
-		Map<String, String> referenceToDigest);
+	Image get(InternalDocker client, String id, List<ImageReference> references);
 
 	/**
 	 * Pulls an image from a registry.
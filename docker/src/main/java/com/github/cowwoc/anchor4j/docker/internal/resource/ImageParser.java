@@ -1,10 +1,12 @@
 package com.github.cowwoc.anchor4j.docker.internal.resource;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.json.JsonMapper;
 import com.github.cowwoc.anchor4j.core.internal.client.CommandResult;
 import com.github.cowwoc.anchor4j.core.internal.resource.AbstractParser;
+import com.github.cowwoc.anchor4j.core.resource.ImageReference;
 import com.github.cowwoc.anchor4j.docker.client.Docker;
 import com.github.cowwoc.anchor4j.docker.exception.ResourceInUseException;
 import com.github.cowwoc.anchor4j.docker.exception.ResourceNotFoundException;
@@ -13,17 +15,22 @@
 import com.github.cowwoc.anchor4j.docker.resource.ImageElement;
 import com.github.cowwoc.anchor4j.docker.resource.ImageRemover;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedHashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-
-import static com.github.cowwoc.requirements11.java.DefaultJavaValidators.that;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Parses server responses to {@code Image} commands.
@@ -32,6 +39,8 @@ public final class ImageParser extends AbstractParser
 {
 	private static final Pattern NOT_FOUND = Pattern.compile(
 		"Error response from daemon: No such image: ([^ ]+)");
+	private static final Pattern BATCH_NOT_FOUND = Pattern.compile(
+		"^Error(?: response from daemon)?: No such image: ([^ ]+)$");
 	private static final Pattern PULL_REPOSITORY_NOT_FOUND = Pattern.compile("""
 		Error response from daemon: pull access denied for [^,]+, repository does not exist or may require \
 		'docker login'""");
@@ -64,57 +73,174 @@ private InternalDocker getClient()
 
 	/**
 	 * Lists all the images.
+	 * <p>
+	 * The output contains one line per image reference. Consecutive lines that share the same image ID are
+	 * combined, so each image is passed to the consumer as soon as its last line is read, in the order that
+	 * the images are listed.
 	 *
-	 * @param result the result of executing a command
-	 * @return an empty list if no match is found
+	 * @param stdout   the output of {@code image ls --format json}. The stream is not closed.
+	 * @param consumer consumes the images as they are read
+	 * @throws IOException if the stream cannot be read or contains unexpected values
 	 */
-	public List<ImageElement> list(CommandResult result)
+	public void list(InputStream stdout, Consumer<ImageElement> consumer) throws IOException
 	{
-		if (result.exitCode() != 0)
-			throw result.unexpectedResponse();
-		Map<String, Map<String, Set<String>>> idToRepositoryToTags = new HashMap<>();
-		Map<String, Map<String, String>> idToRepositoryToDigest = new HashMap<>();
-		JsonMapper jm = client.getJsonMapper();
-		try
-		{
-			for (String line : SPLIT_LINES.split(result.stdout()))
-			{
-				if (line.isBlank())
-					continue;
-				JsonNode json = jm.readTree(line);
-				String id = json.get("ID").textValue();
-				Map<String, String> repositoryToDigest = idToRepositoryToDigest.computeIfAbsent(id,
-					_ -> new HashMap<>());
-				Map<String, Set<String>> referenceToTags = idToRepositoryToTags.computeIfAbsent(id,
-					_ -> new HashMap<>());
+		ImageGrouper grouper = new ImageGrouper(consumer);
+		readJsonLines(stdout, this::readImageLine, grouper);
+		grouper.flush();
+	}
 
-				String reference = json.get("Repository").textValue();
-				if (reference.equals("<none>"))
-					continue;
+	/**
+	 * Combines consecutive lines of {@code image ls --format json} that share the same image ID. Used by both
+	 * {@link #list(InputStream, Consumer)} and {@link #groupById(Stream)}.
+	 */
+	private static final class ImageGrouper implements Consumer<ImageLine>
+	{
+		private final Consumer<ImageElement> consumer;
+		/**
+		 * The ID of the current image, or {@code null} if no lines have been read.
+		 */
+		private String id;
+		/**
+		 * The references of the current image. A digest is listed once per tag, so duplicates are removed.
+		 */
+		private Set<ImageReference> references;
 
-				String digest = json.get("Digest").textValue();
-				if (!digest.equals("<none>"))
-					repositoryToDigest.put(reference, digest);
+		/**
+		 * @param consumer consumes the images
+		 */
+		ImageGrouper(Consumer<ImageElement> consumer)
+		{
+			this.consumer = consumer;
+		}
 
-				String tag = json.get("Tag").textValue();
-				if (!tag.equals("<none>"))
-					referenceToTags.computeIfAbsent(reference, _ -> new HashSet<>()).add(tag);
-			}
-			List<ImageElement> elements = new ArrayList<>(idToRepositoryToTags.size());
-			for (String id : idToRepositoryToTags.keySet())
+		@Override
+		public void accept(ImageLine line)
+		{
+			if (!line.id().equals(id))
 			{
-				Map<String, Set<String>> repositoryToTags = idToRepositoryToTags.get(id);
-				Map<String, String> repositoryToDigest = idToRepositoryToDigest.get(id);
-				elements.add(new ImageElement(id, repositoryToTags, repositoryToDigest));
+				flush();
+				id = line.id();
+				references = new HashSet<>();
 			}
-			return elements;
+			addReference(line, references);
 		}
-		catch (JsonProcessingException e)
+
+		/**
+		 * Passes the current image, if any, to the consumer.
+		 */
+		public void flush()
 		{
-			throw new AssertionError(e);
+			if (id == null)
+				return;
+			consumer.accept(new ImageElement(id, List.copyOf(references)));
+			id = null;
 		}
 	}
 
+	/**
+	 * Reads a single line of the output of {@code image ls --format json}.
+	 *
+	 * @param json the parser, positioned at the start of the line
+	 * @return the line
+	 * @throws IOException if the stream cannot be read or contains unexpected values
+	 */
+	public ImageLine readImageLine(JsonParser json) throws IOException
+	{
+		String id = null;
+		String repository = null;
+		String digest = null;
+		String tag = null;
+		while (json.nextToken() == JsonToken.FIELD_NAME)
+		{
+			switch (json.currentName())
+			{
+				case "ID" -> id = nextText(json);
+				case "Repository" -> repository = nextText(json);
+				case "Digest" -> digest = nextText(json);
+				case "Tag" -> tag = nextText(json);
+				default -> skipValue(json);
+			}
+		}
+		return new ImageLine(id, repository, digest, tag);
+	}
+
+	/**
+	 * Combines the lines of {@code image ls --format json} into images.
+	 * <p>
+	 * The {@code docker} executable lists all the references of an image before moving on to the next image,
+	 * so consecutive lines that share the same ID are combined without buffering the rest of the output.
+	 *
+	 * @param lines the lines
+	 * @return the images. Closing the stream closes {@code lines}.
+	 */
+	public Stream<ImageElement> groupById(Stream<ImageLine> lines)
+	{
+		Iterator<ImageLine> iterator = lines.iterator();
+		Iterator<ImageElement> elements = new Iterator<>()
+		{
+			/**
+			 * The next image, or {@code null} if it has not been read yet.
+			 */
+			private ImageElement next;
+			private final ImageGrouper grouper = new ImageGrouper(image -> next = image);
+
+			@Override
+			public boolean hasNext()
+			{
+				while (next == null && iterator.hasNext())
+					grouper.accept(iterator.next());
+				if (next == null)
+					grouper.flush();
+				return next != null;
+			}
+
+			@Override
+			public ImageElement next()
+			{
+				if (!hasNext())
+					throw new NoSuchElementException();
+				ImageElement image = next;
+				next = null;
+				return image;
+			}
+		};
+		Spliterator<ImageElement> spliterator = Spliterators.spliteratorUnknownSize(elements,
+			Spliterator.ORDERED | Spliterator.NONNULL);
+		return StreamSupport.stream(spliterator, false).onClose(lines::close);
+	}
+
+	/**
+	 * Adds the tagged and digested references of a line to the image's references.
+	 *
+	 * @param line       a line of the output of {@code image ls --format json}
+	 * @param references the image's references
+	 */
+	private static void addReference(ImageLine line, Set<ImageReference> references)
+	{
+		String repository = line.repository();
+		if (repository.equals("<none>"))
+			return;
+
+		String digest = line.digest();
+		if (!digest.equals("<none>"))
+			references.add(ImageReference.parse(repository + "@" + digest));
+
+		String tag = line.tag();
+		if (!tag.equals("<none>"))
+			references.add(ImageReference.parse(repository + ":" + tag));
+	}
+
+	/**
+	 * Validates the result of listing images.
+	 *
+	 * @param result the result of executing a command
+	 */
+	public void checkList(CommandResult result)
+	{
+		if (result.exitCode() != 0)
+			throw result.unexpectedResponse();
+	}
+
 	/**
 	 * Looks up an image by its ID or name.
 	 *
@@ -129,10 +255,9 @@ public Image get(CommandResult result)
 				return null;
 			throw result.unexpectedResponse();
 		}
-		JsonMapper jm = client.getJsonMapper();
 		try
 		{
-			JsonNode json = jm.readTree(result.stdout());
+			JsonNode json = readTree(result);
 			assert json.size() == 1 : json;
 			return getByJson(getClient(), json.get(0));
 		}
@@ -142,6 +267,56 @@ public Image get(CommandResult result)
 		}
 	}
 
+	/**
+	 * Looks up multiple images by their IDs or references.
+	 *
+	 * @param result  the result of executing a command
+	 * @param ids     the IDs or references that were passed to the command, in order, without duplicates
+	 * @param found   is updated with a mapping from each ID or reference to the image that it refers to
+	 * @param missing is updated with the IDs or references that did not match any image
+	 */
+	public void getAll(CommandResult result, List<String> ids, Map<String, Image> found, Set<String> missing)
+	{
+		InternalDocker client = getClient();
+		getAll(result, ids, BATCH_NOT_FOUND, ImageParser::normalizeReference, json -> getByJson(client, json),
+			found, missing);
+	}
+
+	/**
+	 * Converts an image reference to the fully-qualified form that the daemon uses to look it up. For example,
+	 * the daemon reports a missing {@code nginx} as {@code nginx:latest}.
+	 *
+	 * @param value an image ID or reference
+	 * @return {@code value} with an explicit domain, namespace and tag, or {@code value} if it is not a valid
+	 * 	reference
+	 */
+	private static String normalizeReference(String value)
+	{
+		ImageReference reference;
+		try
+		{
+			reference = ImageReference.parse(value);
+		}
+		catch (IllegalArgumentException _)
+		{
+			return value;
+		}
+		String domain = reference.getDomain();
+		String path = reference.getPath();
+		if (domain == null || domain.equals("index.docker.io"))
+			domain = "docker.io";
+		if (domain.equals("docker.io") && path.indexOf('/') == -1)
+			path = "library/" + path;
+		String suffix;
+		if (reference.getDigest() != null)
+			suffix = "@" + reference.getDigest();
+		else if (reference.getTag() != null)
+			suffix = ":" + reference.getTag();
+		else
+			suffix = ":latest";
+		return domain + "/" + path + suffix;
+	}
+
 	/**
 	 * @param client the client configuration
 	 * @param json   the JSON representation of the node
@@ -150,28 +325,29 @@ public Image get(CommandResult result)
 	private static Image getByJson(InternalDocker client, JsonNode json)
 	{
 		String id = json.get("Id").textValue();
-		Map<String, Set<String>> referenceToTags = new LinkedHashMap<>();
-		for (JsonNode node : json.get("RepoTags"))
-		{
-			String[] nameAndTag = SPLIT_ON_COLON.split(node.textValue());
-			assert that(nameAndTag, "nameAndTag").length().isEqualTo(2).elseThrow();
-			String name = nameAndTag[0];
-			String tag = nameAndTag[1];
-			if (!name.equals("<none>") && !tag.equals("<none>"))
-				referenceToTags.computeIfAbsent(name, _ -> new HashSet<>()).add(tag);
-		}
-		Map<String, String> nameToDigest = new LinkedHashMap<>();
-		for (JsonNode node : json.get("RepoDigests"))
-		{
-			String[] nameAndDigest = SPLIT_ON_AT_SIGN.split(node.textValue());
-			assert that(nameAndDigest, "nameAndDigest").length().isEqualTo(2).elseThrow();
-			String name = nameAndDigest[0];
-			String digest = nameAndDigest[1];
+		JsonNode repoTags = json.get("RepoTags");
+		JsonNode repoDigests = json.get("RepoDigests");
+		List<ImageReference> references = new ArrayList<>(repoTags.size() + repoDigests.size());
+		addReferences(repoTags, references);
+		addReferences(repoDigests, references);
+		return SharedSecrets.getImage(client, id, references);
+	}
 
-			if (!name.equals("<none>") && !digest.equals("<none>"))
-				nameToDigest.put(name, digest);
+	/**
+	 * Parses an image's tagged or digested references.
+	 *
+	 * @param json       the {@code RepoTags} or {@code RepoDigests} array
+	 * @param references is updated with the parsed references
+	 */
+	private static void addReferences(JsonNode json, List<ImageReference> references)
+	{
+		for (JsonNode node : json)
+		{
+			String reference = node.textValue();
+			// Untagged images are listed as "<none>:<none>" or "<none>@<none>"
+			if (!reference.startsWith("<none>") && !reference.endsWith("<none>"))
+				references.add(ImageReference.parse(reference));
 		}
-		return SharedSecrets.getImage(client, id, referenceToTags, nameToDigest);
 	}
 
 	/**
@@ -275,4 +451,16 @@ public void remove(CommandResult result) throws ResourceInUseException
 			throw result.unexpectedResponse();
 		}
 	}
-}
\ No newline at end of file
+
+	/**
+	 * A line of the output of {@code image ls --format json}.
+	 *
+	 * @param id         the image's ID
+	 * @param repository the name of the repository, or {@code <none>}
+	 * @param digest     the image's digest in the repository, or {@code <none>}
+	 * @param tag        the image's tag in the repository, or {@code <none>}
+	 */
+	public record ImageLine(String id, String repository, String digest, String tag)
+	{
+	}
+}
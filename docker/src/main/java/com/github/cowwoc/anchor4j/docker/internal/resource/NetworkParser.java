@@ -2,7 +2,6 @@
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.json.JsonMapper;
 import com.github.cowwoc.anchor4j.core.internal.client.CommandResult;
 import com.github.cowwoc.anchor4j.core.internal.resource.AbstractParser;
 import com.github.cowwoc.anchor4j.docker.internal.client.InternalDocker;
@@ -50,10 +49,9 @@ public Network get(CommandResult result)
 				return null;
 			throw result.unexpectedResponse();
 		}
-		JsonMapper jm = client.getJsonMapper();
 		try
 		{
-			JsonNode json = jm.readTree(result.stdout());
+			JsonNode json = readTree(result);
 			assert json.size() == 1 : json;
 			JsonNode network = json.get(0);
 
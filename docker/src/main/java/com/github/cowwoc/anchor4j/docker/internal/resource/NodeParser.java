@@ -1,8 +1,9 @@
 package com.github.cowwoc.anchor4j.docker.internal.resource;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.json.JsonMapper;
 import com.github.cowwoc.anchor4j.core.internal.client.CommandResult;
 import com.github.cowwoc.anchor4j.core.internal.resource.AbstractParser;
 import com.github.cowwoc.anchor4j.docker.client.Docker;
@@ -22,10 +23,15 @@
 import com.github.cowwoc.anchor4j.docker.resource.Task.State;
 
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.ConnectException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -43,6 +49,8 @@ public class NodeParser extends AbstractParser
 	private static final String DEMOTING_LAST_MANAGER = """
 		Error response from daemon: rpc error: code = FailedPrecondition desc = attempting to demote the last \
 		manager of the swarm""";
+	private static final Pattern BATCH_NOT_FOUND = Pattern.compile(
+		"^Error(?: response from daemon)?: (?:node ([^ ]+) not found|[Nn]o such node: ([^ ]+))$");
 	private static final Pattern UNIX_SOCKET_MISSING = Pattern.compile("""
 		Error response from daemon: rpc error: code = Unavailable desc = connection error: desc = \
 		"transport: Error while dialing: dial (unix .+?): connect: no such file or directory""");
@@ -69,72 +77,89 @@ private InternalDocker getClient()
 	/**
 	 * Lists all the nodes in the swarm.
 	 *
-	 * @param result the result of executing a command
-	 * @return the nodes in the swarm
-	 * @throws NullPointerException     if {@code filters} is null
-	 * @throws NotSwarmManagerException if the current node is not a swarm manager
+	 * @param stdout   the output of {@code node ls --format json}. The stream is not closed.
+	 * @param consumer consumes the nodes as they are read
+	 * @throws IOException if the stream cannot be read or contains unexpected values
 	 */
-	public List<NodeElement> listNodes(CommandResult result)
+	public void listNodes(InputStream stdout, Consumer<NodeElement> consumer) throws IOException
 	{
-		if (result.exitCode() != 0)
+		readJsonLines(stdout, this::readNodeElement, consumer);
+	}
+
+	/**
+	 * Reads a single element of the output of {@code node ls --format json}.
+	 *
+	 * @param json the parser, positioned at the start of the element
+	 * @return the node
+	 * @throws IOException if the stream cannot be read or contains unexpected values
+	 */
+	public NodeElement readNodeElement(JsonParser json) throws IOException
+	{
+		Availability availability = null;
+		String engineVersion = null;
+		String hostname = null;
+		String id = null;
+		String managerStatus = null;
+		Status status = null;
+		while (json.nextToken() == JsonToken.FIELD_NAME)
 		{
-			if (result.stderr().startsWith(NOT_SWARM_MANAGER))
-				throw new NotSwarmManagerException();
-			throw result.unexpectedResponse();
+			switch (json.currentName())
+			{
+				case "Availability" ->
+					availability = SharedSecrets.getNodeAvailabilityFromJson(nextTree(json));
+				case "EngineVersion" -> engineVersion = nextText(json);
+				case "Hostname" -> hostname = nextText(json);
+				case "ID" -> id = nextText(json);
+				case "ManagerStatus" -> managerStatus = nextText(json);
+				case "Status" -> status = SharedSecrets.getNodeStatusFromJson(nextTree(json));
+				default -> skipValue(json);
+			}
 		}
-		JsonMapper jm = client.getJsonMapper();
-		try
+
+		Type type;
+		boolean leader;
+		Reachability reachability;
+		// Workers have an empty manager status
+		if (managerStatus == null || managerStatus.isEmpty())
+		{
+			type = Type.WORKER;
+			leader = false;
+			reachability = Reachability.UNKNOWN;
+		}
+		else
 		{
-			String[] lines = SPLIT_LINES.split(result.stdout());
-			List<NodeElement> elements = new ArrayList<>(lines.length);
-			for (String line : lines)
+			type = Type.MANAGER;
+			switch (managerStatus)
 			{
-				if (line.isBlank())
-					continue;
-				JsonNode json = jm.readTree(line);
-				Availability availability = SharedSecrets.getNodeAvailabilityFromJson(json.get("Availability"));
-				String engineVersion = json.get("EngineVersion").textValue();
-				String hostname = json.get("Hostname").textValue();
-				String id = json.get("ID").textValue();
-
-				JsonNode managerStatusNode = json.get("ManagerStatus");
-				Type type;
-				boolean leader;
-				Reachability reachability;
-				if (managerStatusNode == null)
+				case "Leader" ->
 				{
-					type = Type.WORKER;
-					leader = false;
-					reachability = Reachability.UNKNOWN;
+					leader = true;
+					reachability = Reachability.REACHABLE;
 				}
-				else
+				case "Reachable" ->
 				{
-					type = Type.MANAGER;
-					String status = managerStatusNode.textValue();
-					switch (status)
-					{
-						case "Leader" ->
-						{
-							leader = true;
-							reachability = Reachability.REACHABLE;
-						}
-						case "Reachable" ->
-						{
-							leader = false;
-							reachability = Reachability.REACHABLE;
-						}
-						default -> throw new AssertionError("Unexpected value: " + status);
-					}
+					leader = false;
+					reachability = Reachability.REACHABLE;
 				}
-				Status status = SharedSecrets.getNodeStatusFromJson(json.get("Status"));
-				elements.add(new NodeElement(id, hostname, type, leader, status, reachability, availability,
-					engineVersion));
+				default -> throw new AssertionError("Unexpected value: " + managerStatus);
 			}
-			return elements;
 		}
-		catch (JsonProcessingException e)
+		return new NodeElement(id, hostname, type, leader, status, reachability, availability, engineVersion);
+	}
+
+	/**
+	 * Validates the result of listing nodes.
+	 *
+	 * @param result the result of executing a command
+	 * @throws NotSwarmManagerException if the current node is not a swarm manager
+	 */
+	public void checkListNodes(CommandResult result)
+	{
+		if (result.exitCode() != 0)
 		{
-			throw new AssertionError(e);
+			if (result.stderr().startsWith(NOT_SWARM_MANAGER))
+				throw new NotSwarmManagerException();
+			throw result.unexpectedResponse();
 		}
 	}
 
@@ -160,68 +185,97 @@ public Node get(CommandResult result) throws FileNotFoundException, ConnectExcep
 				throw new FileNotFoundException("No such file or directory: " + matcher.group(1));
 			throw result.unexpectedResponse();
 		}
-		JsonMapper jm = client.getJsonMapper();
 		try
 		{
-			JsonNode json = jm.readTree(result.stdout());
+			JsonNode json = readTree(result);
 			assert json.size() == 1 : json;
-			JsonNode node = json.get(0);
+			return getByJson(json.get(0));
+		}
+		catch (JsonProcessingException e)
+		{
+			throw new AssertionError(e);
+		}
+	}
 
-			String id = node.get("ID").textValue();
-			JsonNode spec = node.get("Spec");
-			Availability availability = Availability.valueOf(spec.get("Availability").textValue().
-				toUpperCase(Locale.ROOT));
-			Type type = SharedSecrets.getNodeTypeFromJson(spec.get("Role"));
-			JsonNode labelsNode = spec.get("Labels");
-			List<String> labels = new ArrayList<>(labelsNode.size());
-			for (JsonNode label : labelsNode)
-			{
-				String keyValue = label.textValue();
-				int separator = keyValue.indexOf('=');
-				if (separator == -1)
-					throw new IllegalArgumentException("Labels must follow the format: key=value.\n" +
-						"Actual: " + keyValue);
-				String key = keyValue.substring(0, separator);
-				requireThat(key, "key").matches("^[a-zA-Z0-9.-_]+$");
-				labels.add(keyValue);
-			}
-			// Reminder: spec.labels are used to constrain task scheduling (e.g., zone=us-east, role=worker) while
-			// description.engine.labels are informational (e.g., operation-system, version)
+	/**
+	 * Looks up multiple nodes by their IDs or hostnames.
+	 *
+	 * @param result  the result of executing a command
+	 * @param ids     the IDs or hostnames that were passed to the command, in order, without duplicates
+	 * @param found   is updated with a mapping from each ID or hostname to the node that it refers to
+	 * @param missing is updated with the IDs or hostnames that did not match any node
+	 * @throws NotSwarmManagerException if the current node is not a swarm manager
+	 * @throws FileNotFoundException    if the {@link Docker#getClientContext() referenced context} referenced a
+	 *                                  unix socket that was not found
+	 */
+	public void getAll(CommandResult result, List<String> ids, Map<String, Node> found, Set<String> missing)
+		throws FileNotFoundException
+	{
+		String stderr = result.stderr();
+		if (stderr.startsWith(NOT_SWARM_MANAGER))
+			throw new NotSwarmManagerException();
+		Matcher matcher = UNIX_SOCKET_MISSING.matcher(stderr);
+		if (matcher.matches())
+			throw new FileNotFoundException("No such file or directory: " + matcher.group(1));
+		getAll(result, ids, BATCH_NOT_FOUND, this::getByJson, found, missing);
+	}
 
-			JsonNode description = node.get("Description");
-			String hostname = description.get("Hostname").textValue();
+	/**
+	 * @param node the JSON representation of the node
+	 * @return the node
+	 */
+	private Node getByJson(JsonNode node)
+	{
+		String id = node.get("ID").textValue();
+		JsonNode spec = node.get("Spec");
+		Availability availability = Availability.valueOf(spec.get("Availability").textValue().
+			toUpperCase(Locale.ROOT));
+		Type type = SharedSecrets.getNodeTypeFromJson(spec.get("Role"));
+		JsonNode labelsNode = spec.get("Labels");
+		List<String> labels = new ArrayList<>(labelsNode.size());
+		for (JsonNode label : labelsNode)
+		{
+			String keyValue = label.textValue();
+			int separator = keyValue.indexOf('=');
+			if (separator == -1)
+				throw new IllegalArgumentException("Labels must follow the format: key=value.\n" +
+					"Actual: " + keyValue);
+			String key = keyValue.substring(0, separator);
+			requireThat(key, "key").matches("^[a-zA-Z0-9.-_]+$");
+			labels.add(keyValue);
+		}
+		// Reminder: spec.labels are used to constrain task scheduling (e.g., zone=us-east, role=worker) while
+		// description.engine.labels are informational (e.g., operation-system, version)
 
-			JsonNode engine = description.get("Engine");
-			String engineVersion = engine.get("EngineVersion").textValue();
+		JsonNode description = node.get("Description");
+		String hostname = description.get("Hostname").textValue();
 
-			JsonNode statusNode = node.get("Status");
-			Status status = SharedSecrets.getNodeStatusFromJson(statusNode.get("State"));
-			String address = statusNode.get("Addr").textValue();
+		JsonNode engine = description.get("Engine");
+		String engineVersion = engine.get("EngineVersion").textValue();
 
-			JsonNode managerStatusNode = node.get("ManagerStatus");
-			boolean leader;
-			Reachability reachability;
-			String managerAddress;
-			if (managerStatusNode == null)
-			{
-				// Worker
-				leader = false;
-				reachability = Reachability.UNKNOWN;
-				managerAddress = "";
-			}
-			else
-			{
-				leader = getBoolean(managerStatusNode, "Leader");
-				reachability = SharedSecrets.getNodeReachabilityFromJson(managerStatusNode.get("Reachability"));
-				managerAddress = managerStatusNode.get("Addr").textValue();
-			}
-			return SharedSecrets.getNode(getClient(), id, hostname, type, leader, status, reachability,
-				availability, managerAddress, address, labels, engineVersion);
+		JsonNode statusNode = node.get("Status");
+		Status status = SharedSecrets.getNodeStatusFromJson(statusNode.get("State"));
+		String address = statusNode.get("Addr").textValue();
+
+		JsonNode managerStatusNode = node.get("ManagerStatus");
+		boolean leader;
+		Reachability reachability;
+		String managerAddress;
+		if (managerStatusNode == null)
+		{
+			// Worker
+			leader = false;
+			reachability = Reachability.UNKNOWN;
+			managerAddress = "";
 		}
-		catch (JsonProcessingException e)
+		else
 		{
-			throw new AssertionError(e);
+			leader = getBoolean(managerStatusNode, "Leader");
+			reachability = SharedSecrets.getNodeReachabilityFromJson(managerStatusNode.get("Reachability"));
+			managerAddress = managerStatusNode.get("Addr").textValue();
 		}
+		return SharedSecrets.getNode(getClient(), id, hostname, type, leader, status, reachability,
+			availability, managerAddress, address, labels, engineVersion);
 	}
 
 	/**
@@ -263,11 +317,47 @@ public String update(CommandResult result)
 	/**
 	 * Lists the tasks that are running on a node.
 	 *
+	 * @param stdout   the output of {@code node ps --format json}. The stream is not closed.
+	 * @param consumer consumes the tasks as they are read
+	 * @throws IOException if the stream cannot be read or contains unexpected values
+	 */
+	public void listTasks(InputStream stdout, Consumer<Task> consumer) throws IOException
+	{
+		readJsonLines(stdout, this::readTask, consumer);
+	}
+
+	/**
+	 * Reads a single element of the output of {@code node ps} or {@code service ps}.
+	 *
+	 * @param json the parser, positioned at the start of the element
+	 * @return the task
+	 * @throws IOException if the stream cannot be read or contains unexpected values
+	 */
+	public Task readTask(JsonParser json) throws IOException
+	{
+		String id = null;
+		String name = null;
+		State state = null;
+		while (json.nextToken() == JsonToken.FIELD_NAME)
+		{
+			switch (json.currentName())
+			{
+				case "ID" -> id = nextText(json);
+				case "Name" -> name = nextText(json);
+				case "CurrentState" -> state = SharedSecrets.getTaskStateFromJson(nextTree(json));
+				default -> skipValue(json);
+			}
+		}
+		return SharedSecrets.createTask(id, name, state);
+	}
+
+	/**
+	 * Validates the result of listing a node's tasks.
+	 *
 	 * @param result the result of executing a command
-	 * @return the tasks
 	 * @throws NotSwarmManagerException if the current node is not a swarm manager
 	 */
-	public List<Task> listTasksByNode(CommandResult result)
+	public void checkListTasksByNode(CommandResult result)
 	{
 		if (result.exitCode() != 0)
 		{
@@ -275,40 +365,17 @@ public List<Task> listTasksByNode(CommandResult result)
 				throw new NotSwarmManagerException();
 			throw result.unexpectedResponse();
 		}
-
-		JsonMapper jm = client.getJsonMapper();
-		try
-		{
-			String[] lines = SPLIT_LINES.split(result.stdout());
-			List<Task> tasks = new ArrayList<>(lines.length);
-			for (String line : lines)
-			{
-				if (line.isBlank())
-					continue;
-				JsonNode json = jm.readTree(line);
-				String id = json.get("ID").textValue();
-				String name = json.get("Name").textValue();
-				State state = SharedSecrets.getTaskStateFromJson(json.get("CurrentState"));
-				tasks.add(SharedSecrets.createTask(id, name, state));
-			}
-			return tasks;
-		}
-		catch (JsonProcessingException e)
-		{
-			throw new AssertionError(e);
-		}
 	}
 
 	/**
-	 * Lists a service's tasks.
+	 * Validates the result of listing a service's tasks.
 	 *
 	 * @param result the result of executing a command
-	 * @return the tasks
 	 * @throws NotSwarmManagerException if the current node is not a swarm manager
 	 */
-	public List<Task> listTasksByService(CommandResult result)
+	public void checkListTasksByService(CommandResult result)
 	{
-		return listTasksByNode(result);
+		checkListTasksByNode(result);
 	}
 
 	/**
@@ -323,10 +390,9 @@ public String getNodeId(CommandResult result)
 		if (result.exitCode() != 0)
 			throw result.unexpectedResponse();
 
-		JsonMapper jm = client.getJsonMapper();
 		try
 		{
-			String id = jm.readTree(result.stdout()).textValue();
+			String id = readTree(result).textValue();
 			if (id.isEmpty())
 				throw new NotSwarmMemberException();
 			return id;
@@ -1,6 +1,7 @@
 package com.github.cowwoc.anchor4j.docker.internal.resource;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.github.cowwoc.anchor4j.core.resource.ImageReference;
 import com.github.cowwoc.anchor4j.docker.internal.client.InternalDocker;
 import com.github.cowwoc.anchor4j.docker.resource.Config;
 import com.github.cowwoc.anchor4j.docker.resource.ConfigCreator;
@@ -20,6 +21,7 @@
 import com.github.cowwoc.anchor4j.docker.resource.ImagePuller;
 import com.github.cowwoc.anchor4j.docker.resource.ImagePusher;
 import com.github.cowwoc.anchor4j.docker.resource.ImageRemover;
+import com.github.cowwoc.anchor4j.docker.resource.MergedLogGetter;
 import com.github.cowwoc.anchor4j.docker.resource.Network;
 import com.github.cowwoc.anchor4j.docker.resource.Network.Configuration;
 import com.github.cowwoc.anchor4j.docker.resource.Node;
@@ -41,8 +43,6 @@
 import java.net.URI;
 import java.nio.ByteBuffer;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
 
 import static com.github.cowwoc.requirements11.java.DefaultJavaValidators.that;
 
@@ -274,6 +274,25 @@ public static ContainerLogGetter getContainerLogs(InternalDocker client, String
 		return access.getLogs(client, id);
 	}
 
+	/**
+	 * Streams the merged logs of multiple containers.
+	 *
+	 * @param client the client configuration
+	 * @param ids    the IDs or names of the containers
+	 * @return the merged logs
+	 */
+	public static MergedLogGetter getMergedContainerLogs(InternalDocker client, List<String> ids)
+	{
+		ContainerAccess access = containerAccess;
+		if (access == null)
+		{
+			initialize(Container.class);
+			access = containerAccess;
+			assert access != null;
+		}
+		return access.getMergedLogs(client, ids);
+	}
+
 	/**
 	 * Looks up a container's status from its JSON representation.
 	 *
@@ -388,17 +407,14 @@ public static void setImageAccess(ImageAccess imageAccess)
 	/**
 	 * Creates a reference to an image.
 	 *
-	 * @param client            the client configuration
-	 * @param reference         the reference of the image
-	 * @param referenceToTags   a mapping from the image's name to its tags
-	 * @param referenceToDigest a mapping from the image's name to its digest
+	 * @param client     the client configuration
+	 * @param id         the image's ID
+	 * @param references the image's references. Each reference contains a tag or a digest.
 	 * @return an image
 	 * @throws NullPointerException     if any of the arguments are null
-	 * @throws IllegalArgumentException if {@code id}, the keys, or values of {@code referenceToTags} or
-	 *                                  {@code referenceToDigest} contain whitespace, or are empty
+	 * @throws IllegalArgumentException if {@code id} contains whitespace or is empty
 	 */
-	public static Image getImage(InternalDocker client, String reference,
-		Map<String, Set<String>> referenceToTags, Map<String, String> referenceToDigest)
+	public static Image getImage(InternalDocker client, String id, List<ImageReference> references)
 	{
 		ImageAccess access = imageAccess;
 		if (access == null)
@@ -407,7 +423,7 @@ public static Image getImage(InternalDocker client, String reference,
 			access = imageAccess;
 			assert access != null;
 		}
-		return access.get(client, reference, referenceToTags, referenceToDigest);
+		return access.get(client, id, references);
 	}
 
 	/**
@@ -0,0 +1,251 @@
+package com.github.cowwoc.anchor4j.docker.internal.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyFactory;
+import java.security.NoSuchAlgorithmException;
+import java.security.PrivateKey;
+import java.security.cert.Certificate;
+import java.security.cert.CertificateException;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+import java.security.spec.InvalidKeySpecException;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+/**
+ * Reads PEM-encoded certificates and private keys, such as the files referenced by a
+ * {@code ContextEndpoint}.
+ */
+public final class Pem
+{
+	private static final Pattern PEM_BLOCK = Pattern.compile(
+		"-----BEGIN ([A-Z0-9 ]+)-----([A-Za-z0-9+/=\\s]+)-----END \\1-----");
+	/**
+	 * The DER encoding of the {@code rsaEncryption} algorithm identifier.
+	 */
+	private static final byte[] RSA_ALGORITHM =
+		{
+			0x30, 0x0D, 0x06, 0x09, 0x2A, (byte) 0x86, 0x48, (byte) 0x86, (byte) 0xF7, 0x0D, 0x01, 0x01, 0x01, 0x05,
+			0x00
+		};
+	/**
+	 * The DER encoding of the {@code id-ecPublicKey} object identifier.
+	 */
+	private static final byte[] EC_PUBLIC_KEY =
+		{
+			0x06, 0x07, 0x2A, (byte) 0x86, 0x48, (byte) 0xCE, 0x3D, 0x02, 0x01
+		};
+	/**
+	 * The DER encoding of PKCS#8 version 0.
+	 */
+	private static final byte[] VERSION_0 = {0x02, 0x01, 0x00};
+	private static final byte SEQUENCE = 0x30;
+	private static final byte OCTET_STRING = 0x04;
+	private static final byte EC_PARAMETERS = (byte) 0xA0;
+
+	/**
+	 * Reads the certificates contained in a file.
+	 *
+	 * @param path the path of the file
+	 * @return the certificates, in the order that they appear in the file
+	 * @throws IOException if the file cannot be read or does not contain any certificates
+	 */
+	public static List<X509Certificate> readCertificates(Path path) throws IOException
+	{
+		try (InputStream in = Files.newInputStream(path))
+		{
+			CertificateFactory factory = CertificateFactory.getInstance("X.509");
+			Collection<? extends Certificate> certificates = factory.generateCertificates(in);
+			if (certificates.isEmpty())
+				throw new IOException("File does not contain any certificates: " + path);
+			List<X509Certificate> result = new ArrayList<>(certificates.size());
+			for (Certificate certificate : certificates)
+				result.add((X509Certificate) certificate);
+			return result;
+		}
+		catch (CertificateException e)
+		{
+			throw new IOException("Invalid certificate: " + path, e);
+		}
+	}
+
+	/**
+	 * Reads a private key in PKCS#8 ({@code BEGIN PRIVATE KEY}), PKCS#1 ({@code BEGIN RSA PRIVATE KEY}) or
+	 * SEC1 ({@code BEGIN EC PRIVATE KEY}) format.
+	 *
+	 * @param path the path of the file
+	 * @return the private key
+	 * @throws IOException if the file cannot be read or does not contain a supported private key
+	 */
+	public static PrivateKey readPrivateKey(Path path) throws IOException
+	{
+		String pem = Files.readString(path, US_ASCII);
+		Matcher matcher = PEM_BLOCK.matcher(pem);
+		while (matcher.find())
+		{
+			String label = matcher.group(1);
+			byte[] der = Base64.getMimeDecoder().decode(matcher.group(2));
+			byte[] pkcs8 = switch (label)
+			{
+				case "PRIVATE KEY" -> der;
+				case "RSA PRIVATE KEY" -> toPkcs8(RSA_ALGORITHM, der);
+				case "EC PRIVATE KEY" -> toPkcs8(getEcAlgorithm(der, path), der);
+				// Skip unrelated blocks, such as "EC PARAMETERS"
+				default -> null;
+			};
+			if (pkcs8 == null)
+				continue;
+			PKCS8EncodedKeySpec spec = new PKCS8EncodedKeySpec(pkcs8);
+			for (String algorithm : List.of("RSA", "EC", "EdDSA"))
+			{
+				try
+				{
+					return KeyFactory.getInstance(algorithm).generatePrivate(spec);
+				}
+				catch (InvalidKeySpecException | NoSuchAlgorithmException _)
+				{
+					// Try the next algorithm
+				}
+			}
+			throw new IOException("Unsupported private key algorithm: " + path);
+		}
+		throw new IOException("File does not contain a private key: " + path);
+	}
+
+	/**
+	 * Wraps a private key in a PKCS#8 {@code PrivateKeyInfo} structure.
+	 *
+	 * @param algorithm the DER encoding of the key's algorithm identifier
+	 * @param key       the DER encoding of the algorithm-specific private key
+	 * @return the DER encoding of the {@code PrivateKeyInfo}
+	 */
+	private static byte[] toPkcs8(byte[] algorithm, byte[] key)
+	{
+		ByteArrayOutputStream body = new ByteArrayOutputStream(key.length + 32);
+		body.writeBytes(VERSION_0);
+		body.writeBytes(algorithm);
+		writeTlv(body, OCTET_STRING, key);
+
+		ByteArrayOutputStream result = new ByteArrayOutputStream(body.size() + 4);
+		writeTlv(result, SEQUENCE, body.toByteArray());
+		return result.toByteArray();
+	}
+
+	/**
+	 * Returns the algorithm identifier of a SEC1 {@code ECPrivateKey}.
+	 *
+	 * @param der  the DER encoding of the {@code ECPrivateKey}
+	 * @param path the path of the file that contains the key
+	 * @return the DER encoding of the algorithm identifier
+	 * @throws IOException if the key does not specify its named curve
+	 */
+	private static byte[] getEcAlgorithm(byte[] der, Path path) throws IOException
+	{
+		// ECPrivateKey ::= SEQUENCE {
+		//   version        INTEGER,
+		//   privateKey     OCTET STRING,
+		//   parameters [0] ECParameters OPTIONAL,
+		//   publicKey  [1] BIT STRING OPTIONAL
+		// }
+		try
+		{
+			int[] offset = {0};
+			if (der[offset[0]++] != SEQUENCE)
+				throw new IOException("Malformed EC private key: " + path);
+			int end = readLength(der, offset);
+			end += offset[0];
+			while (offset[0] < end)
+			{
+				byte tag = der[offset[0]++];
+				int length = readLength(der, offset);
+				if (tag == EC_PARAMETERS)
+				{
+					// The parameters contain the named curve's object identifier
+					byte[] curve = new byte[length];
+					System.arraycopy(der, offset[0], curve, 0, length);
+
+					ByteArrayOutputStream body = new ByteArrayOutputStream(EC_PUBLIC_KEY.length + length);
+					body.writeBytes(EC_PUBLIC_KEY);
+					body.writeBytes(curve);
+					ByteArrayOutputStream result = new ByteArrayOutputStream(body.size() + 2);
+					writeTlv(result, SEQUENCE, body.toByteArray());
+					return result.toByteArray();
+				}
+				offset[0] += length;
+			}
+		}
+		catch (ArrayIndexOutOfBoundsException e)
+		{
+			throw new IOException("Malformed EC private key: " + path, e);
+		}
+		throw new IOException("EC private key does not specify its named curve: " + path);
+	}
+
+	/**
+	 * Reads the length of a DER value.
+	 *
+	 * @param der    the DER encoding
+	 * @param offset the offset of the length, updated to point to the value
+	 * @return the length of the value
+	 */
+	private static int readLength(byte[] der, int[] offset)
+	{
+		int first = der[offset[0]++] & 0xFF;
+		if (first < 0x80)
+			return first;
+		int numberOfBytes = first & 0x7F;
+		int length = 0;
+		for (int i = 0; i < numberOfBytes; ++i)
+			length = (length << 8) | (der[offset[0]++] & 0xFF);
+		return length;
+	}
+
+	/**
+	 * Writes a DER value.
+	 *
+	 * @param out   the stream to write into
+	 * @param tag   the value's tag
+	 * @param value the value's contents
+	 */
+	private static void writeTlv(ByteArrayOutputStream out, byte tag, byte[] value)
+	{
+		out.write(tag);
+		int length = value.length;
+		if (length < 0x80)
+			out.write(length);
+		else if (length <= 0xFF)
+		{
+			out.write(0x81);
+			out.write(length);
+		}
+		else if (length <= 0xFFFF)
+		{
+			out.write(0x82);
+			out.write(length >> 8);
+			out.write(length);
+		}
+		else
+		{
+			out.write(0x83);
+			out.write(length >> 16);
+			out.write(length >> 8);
+			out.write(length);
+		}
+		out.writeBytes(value);
+	}
+
+	private Pem()
+	{
+	}
+}
@@ -0,0 +1,62 @@
+package com.github.cowwoc.anchor4j.docker.resource;
+
+import static com.github.cowwoc.requirements11.java.DefaultJavaValidators.requireThat;
+
+/**
+ * Narrows down the configs returned by a list operation.
+ * <p>
+ * <b>Thread Safety</b>: This class is not thread-safe.
+ */
+public final class ConfigFilter extends ListFilter
+{
+	/**
+	 * Creates a filter that matches all configs.
+	 */
+	public ConfigFilter()
+	{
+	}
+
+	/**
+	 * Matches configs that have a label, regardless of its value.
+	 *
+	 * @param key the label's key
+	 * @return this
+	 * @throws NullPointerException     if {@code key} is null
+	 * @throws IllegalArgumentException if {@code key} contains whitespace or is empty
+	 */
+	public ConfigFilter label(String key)
+	{
+		addLabel(key);
+		return this;
+	}
+
+	/**
+	 * Matches configs that have a label with the specified value.
+	 *
+	 * @param key   the label's key
+	 * @param value the label's value
+	 * @return this
+	 * @throws NullPointerException     if any of the arguments are null
+	 * @throws IllegalArgumentException if {@code key} contains whitespace or is empty
+	 */
+	public ConfigFilter label(String key, String value)
+	{
+		addLabel(key, value);
+		return this;
+	}
+
+	/**
+	 * Matches configs whose name starts with a value.
+	 *
+	 * @param name a prefix of the config's name
+	 * @return this
+	 * @throws NullPointerException     if {@code name} is null
+	 * @throws IllegalArgumentException if {@code name} contains whitespace or is empty
+	 */
+	public ConfigFilter name(String name)
+	{
+		requireThat(name, "name").doesNotContainWhitespace().isNotEmpty();
+		add("name", name);
+		return this;
+	}
+}
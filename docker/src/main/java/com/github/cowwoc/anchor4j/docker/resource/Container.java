@@ -40,6 +40,12 @@ public ContainerLogGetter getLogs(InternalDocker client, String id)
 				return new ContainerLogGetter(client, id);
 			}
 
+			@Override
+			public MergedLogGetter getMergedLogs(InternalDocker client, List<String> ids)
+			{
+				return new MergedLogGetter(client, ids);
+			}
+
 			@Override
 			public ContainerCreator create(InternalDocker client, String imageId)
 			{
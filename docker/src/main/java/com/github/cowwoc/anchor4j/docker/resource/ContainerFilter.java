@@ -0,0 +1,140 @@
+package com.github.cowwoc.anchor4j.docker.resource;
+
+import com.github.cowwoc.anchor4j.docker.resource.Container.Status;
+
+import java.util.Locale;
+
+import static com.github.cowwoc.requirements11.java.DefaultJavaValidators.requireThat;
+
+/**
+ * Narrows down the containers returned by a list operation.
+ * <p>
+ * <b>Thread Safety</b>: This class is not thread-safe.
+ */
+public final class ContainerFilter extends ListFilter
+{
+	/**
+	 * Creates a filter that matches all containers.
+	 */
+	public ContainerFilter()
+	{
+	}
+
+	/**
+	 * Matches containers that have a label, regardless of its value.
+	 *
+	 * @param key the label's key
+	 * @return this
+	 * @throws NullPointerException     if {@code key} is null
+	 * @throws IllegalArgumentException if {@code key} contains whitespace or is empty
+	 */
+	public ContainerFilter label(String key)
+	{
+		addLabel(key);
+		return this;
+	}
+
+	/**
+	 * Matches containers that have a label with the specified value.
+	 *
+	 * @param key   the label's key
+	 * @param value the label's value
+	 * @return this
+	 * @throws NullPointerException     if any of the arguments are null
+	 * @throws IllegalArgumentException if {@code key} contains whitespace or is empty
+	 */
+	public ContainerFilter label(String key, String value)
+	{
+		addLabel(key, value);
+		return this;
+	}
+
+	/**
+	 * Matches containers with the specified status.
+	 *
+	 * @param status the container's status
+	 * @return this
+	 * @throws NullPointerException if {@code status} is null
+	 */
+	public ContainerFilter status(Status status)
+	{
+		requireThat(status, "status").isNotNull();
+		add("status", status.name().toLowerCase(Locale.ROOT));
+		return this;
+	}
+
+	/**
+	 * Matches containers that were created from an image or one of its descendants.
+	 *
+	 * @param imageId the image's ID or {@link Image reference}
+	 * @return this
+	 * @throws NullPointerException     if {@code imageId} is null
+	 * @throws IllegalArgumentException if {@code imageId} contains whitespace or is empty
+	 */
+	public ContainerFilter ancestor(String imageId)
+	{
+		requireThat(imageId, "imageId").doesNotContainWhitespace().isNotEmpty();
+		add("ancestor", imageId);
+		return this;
+	}
+
+	/**
+	 * Matches containers that were created before another container.
+	 *
+	 * @param id the other container's ID or name
+	 * @return this
+	 * @throws NullPointerException     if {@code id} is null
+	 * @throws IllegalArgumentException if {@code id} contains whitespace or is empty
+	 */
+	public ContainerFilter before(String id)
+	{
+		requireThat(id, "id").doesNotContainWhitespace().isNotEmpty();
+		add("before", id);
+		return this;
+	}
+
+	/**
+	 * Matches containers that were created after another container.
+	 *
+	 * @param id the other container's ID or name
+	 * @return this
+	 * @throws NullPointerException     if {@code id} is null
+	 * @throws IllegalArgumentException if {@code id} contains whitespace or is empty
+	 */
+	public ContainerFilter since(String id)
+	{
+		requireThat(id, "id").doesNotContainWhitespace().isNotEmpty();
+		add("since", id);
+		return this;
+	}
+
+	/**
+	 * Matches containers that are connected to a network.
+	 *
+	 * @param id the network's ID or name
+	 * @return this
+	 * @throws NullPointerException     if {@code id} is null
+	 * @throws IllegalArgumentException if {@code id} contains whitespace or is empty
+	 */
+	public ContainerFilter network(String id)
+	{
+		requireThat(id, "id").doesNotContainWhitespace().isNotEmpty();
+		add("network", id);
+		return this;
+	}
+
+	/**
+	 * Matches containers whose name contains a value.
+	 *
+	 * @param name a substring of the container's name
+	 * @return this
+	 * @throws NullPointerException     if {@code name} is null
+	 * @throws IllegalArgumentException if {@code name} contains whitespace or is empty
+	 */
+	public ContainerFilter name(String name)
+	{
+		requireThat(name, "name").doesNotContainWhitespace().isNotEmpty();
+		add("name", name);
+		return this;
+	}
+}
@@ -1,25 +1,50 @@
 package com.github.cowwoc.anchor4j.docker.resource;
 
+import com.github.cowwoc.anchor4j.core.internal.client.CommandRecorder;
+import com.github.cowwoc.anchor4j.core.internal.client.CommandResult;
+import com.github.cowwoc.anchor4j.core.internal.client.Processes;
 import com.github.cowwoc.anchor4j.core.internal.util.ToStringBuilder;
+import com.github.cowwoc.anchor4j.docker.client.Docker;
+import com.github.cowwoc.anchor4j.docker.exception.ResourceNotFoundException;
 import com.github.cowwoc.anchor4j.docker.internal.client.InternalDocker;
+import com.github.cowwoc.anchor4j.docker.internal.client.LogPublisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static com.github.cowwoc.requirements11.java.DefaultJavaValidators.requireThat;
 import static com.github.cowwoc.requirements11.java.DefaultJavaValidators.that;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
 
 /**
  * Retrieves a container's logs.
  */
 public final class ContainerLogGetter
 {
+	/**
+	 * The maximum number of bytes to read from the end of stderr when a command fails.
+	 */
+	private static final int MAXIMUM_DIAGNOSTICS_SIZE = 4096;
 	private final InternalDocker client;
 	private final String id;
 	private boolean follow;
@@ -112,6 +137,256 @@ public ContainerLogGetter linesFromEnd(int linesFromEnd)
 	 *                     request may resolve the issue.
 	 */
 	public LogStreams stream() throws IOException
+	{
+		List<String> arguments = getArguments(timestamps);
+		ProcessBuilder processBuilder = client.getProcessBuilder(arguments);
+		log.debug("Running: {}", processBuilder.command());
+		CommandRecorder recorder = CommandRecorder.forStream(arguments);
+		Process process;
+		try
+		{
+			process = recorder.start(processBuilder);
+		}
+		catch (IOException e)
+		{
+			recorder.failed(e);
+			throw e;
+		}
+		process.onExit().thenAccept(exited -> recorder.completed(exited.exitValue()));
+		return new LogStreams(process, recorder);
+	}
+
+	/**
+	 * Publishes the container's logs, one line at a time.
+	 * <p>
+	 * Each subscription runs a separate {@code docker container logs} process, which starts once the subscriber
+	 * requests records. Lines are only read while the subscriber has outstanding demand. The number of
+	 * processes that may run concurrently is limited by {@link Docker#setMaximumLogProcesses(int)};
+	 * subscriptions that exceed this limit wait until another subscription ends. Cancelling a subscription
+	 * terminates its process.
+	 * <p>
+	 * Records always contain a timestamp, regardless of whether {@link #timestamps()} was invoked. If the
+	 * container does not exist, subscribers are notified with a {@link ResourceNotFoundException}.
+	 *
+	 * @return the publisher
+	 */
+	public Flow.Publisher<LogRecord> publish()
+	{
+		return newPublisher();
+	}
+
+	/**
+	 * Returns a new publisher of the container's logs.
+	 *
+	 * @return the publisher
+	 */
+	LogPublisher newPublisher()
+	{
+		return new LogPublisher(client, id, getArguments(true));
+	}
+
+	/**
+	 * Writes the container's logs to files, blocking until the {@code docker container logs} process exits.
+	 * <p>
+	 * The process writes directly to the files, so the logs are never copied into the JVM's heap. Existing
+	 * files are overwritten. If the container does not exist, the error message is written to {@code stderr}.
+	 *
+	 * @param stdout the file to write the container's standard output to
+	 * @param stderr the file to write the container's standard error to
+	 * @throws NullPointerException      if any of the arguments are null
+	 * @throws IllegalArgumentException  if {@code stdout} and {@code stderr} refer to the same path
+	 * @throws ResourceNotFoundException if the container does not exist
+	 * @throws IOException               if an I/O error occurs. These errors are typically transient, and
+	 *                                   retrying the request may resolve the issue.
+	 * @throws InterruptedException      if the thread is interrupted before the operation completes. This can
+	 *                                   happen due to shutdown signals.
+	 */
+	public void writeTo(Path stdout, Path stderr) throws IOException, InterruptedException
+	{
+		requireThat(stdout, "stdout").isNotNull();
+		requireThat(stderr, "stderr").isNotNull().isNotEqualTo(stdout, "stdout");
+		ProcessBuilder processBuilder = client.getProcessBuilder(getArguments(timestamps)).
+			redirectOutput(stdout.toFile()).
+			redirectError(stderr.toFile());
+		log.debug("Running: {}", processBuilder.command());
+		Process process = processBuilder.start();
+		process.getOutputStream().close();
+		int exitCode = waitFor(process);
+		checkLogs(processBuilder, exitCode, stderr);
+	}
+
+	/**
+	 * Writes the container's logs to files, blocking until the {@code docker container logs} process exits.
+	 * <p>
+	 * Once a file reaches {@code maximumFileSize} bytes, the logs continue in a new file whose name consists
+	 * of the original name followed by {@code .1}, {@code .2} and so on. Concatenating the files in this order
+	 * reproduces the logs. Files are rotated at byte boundaries, so a line may be split across two files.
+	 * <p>
+	 * The logs are copied using {@link FileChannel#transferFrom(ReadableByteChannel, long, long)}, which
+	 * reuses a single temporary direct buffer per thread, so exporting large logs does not allocate heap
+	 * memory proportional to their size. Existing files are overwritten, but files left over from a previous
+	 * export that was rotated more times are not removed.
+	 *
+	 * @param stdout          the file to write the container's standard output to
+	 * @param stderr          the file to write the container's standard error to
+	 * @param maximumFileSize the maximum number of bytes to write to each file
+	 * @throws NullPointerException      if any of the arguments are null
+	 * @throws IllegalArgumentException  if:
+	 *                                   <ul>
+	 *                                     <li>{@code stdout} and {@code stderr} refer to the same path.</li>
+	 *                                     <li>{@code maximumFileSize} is not positive.</li>
+	 *                                   </ul>
+	 * @throws ResourceNotFoundException if the container does not exist
+	 * @throws IOException               if an I/O error occurs. These errors are typically transient, and
+	 *                                   retrying the request may resolve the issue.
+	 * @throws InterruptedException      if the thread is interrupted before the operation completes. This can
+	 *                                   happen due to shutdown signals.
+	 */
+	public void writeTo(Path stdout, Path stderr, long maximumFileSize) throws IOException, InterruptedException
+	{
+		requireThat(stdout, "stdout").isNotNull();
+		requireThat(stderr, "stderr").isNotNull().isNotEqualTo(stdout, "stdout");
+		requireThat(maximumFileSize, "maximumFileSize").isPositive();
+		ProcessBuilder processBuilder = client.getProcessBuilder(getArguments(timestamps));
+		log.debug("Running: {}", processBuilder.command());
+		Process process = processBuilder.start();
+		process.getOutputStream().close();
+
+		Queue<Throwable> exceptions = new ConcurrentLinkedQueue<>();
+		AtomicReference<Path> lastStderr = new AtomicReference<>(stderr);
+		Thread stderrThread = Thread.ofVirtual().start(() ->
+		{
+			try
+			{
+				lastStderr.set(copy(process.getErrorStream(), stderr, maximumFileSize));
+			}
+			catch (IOException | RuntimeException e)
+			{
+				exceptions.add(e);
+				process.destroy();
+			}
+		});
+		try
+		{
+			copy(process.getInputStream(), stdout, maximumFileSize);
+			stderrThread.join();
+		}
+		catch (ClosedByInterruptException _)
+		{
+			// Interrupting a thread that is blocked on a channel closes the channel
+			process.destroyForcibly();
+			throw new InterruptedException();
+		}
+		catch (IOException | InterruptedException | RuntimeException e)
+		{
+			process.destroyForcibly();
+			throw e;
+		}
+		int exitCode = waitFor(process);
+		Throwable exception = exceptions.poll();
+		if (exception != null)
+		{
+			if (exception instanceof IOException ioe)
+				throw ioe;
+			throw (RuntimeException) exception;
+		}
+		checkLogs(processBuilder, exitCode, lastStderr.get());
+	}
+
+	/**
+	 * Copies a stream into a sequence of files.
+	 *
+	 * @param in              the stream
+	 * @param path            the first file to write to
+	 * @param maximumFileSize the maximum number of bytes to write to each file
+	 * @return the last file that was written to
+	 * @throws IOException if an I/O error occurs
+	 */
+	private static Path copy(InputStream in, Path path, long maximumFileSize) throws IOException
+	{
+		try (ReadableByteChannel source = Channels.newChannel(in))
+		{
+			Path target = path;
+			int segment = 0;
+			while (true)
+			{
+				try (FileChannel out = FileChannel.open(target, CREATE, WRITE, TRUNCATE_EXISTING))
+				{
+					long position = 0;
+					while (position < maximumFileSize)
+					{
+						// transferFrom() returns 0 once the source reaches end-of-stream
+						long count = out.transferFrom(source, position, maximumFileSize - position);
+						if (count == 0)
+							return target;
+						position += count;
+					}
+				}
+				++segment;
+				target = path.resolveSibling(path.getFileName() + "." + segment);
+			}
+		}
+	}
+
+	/**
+	 * Waits for a process to exit, terminating it if the thread is interrupted.
+	 *
+	 * @param process the process
+	 * @return the exit code of the process
+	 * @throws InterruptedException if the thread is interrupted before the process exits
+	 */
+	private static int waitFor(Process process) throws InterruptedException
+	{
+		try
+		{
+			return process.waitFor();
+		}
+		catch (InterruptedException e)
+		{
+			process.destroyForcibly();
+			throw e;
+		}
+	}
+
+	/**
+	 * Checks the outcome of writing the logs to files.
+	 *
+	 * @param processBuilder the process that wrote the logs
+	 * @param exitCode       the exit code of the process
+	 * @param stderr         the last file that the process' standard error was written to
+	 * @throws ResourceNotFoundException if the container does not exist
+	 * @throws IOException               if an I/O error occurs
+	 */
+	private void checkLogs(ProcessBuilder processBuilder, int exitCode, Path stderr) throws IOException
+	{
+		if (exitCode == 0)
+			return;
+		// On failure, the error message of the docker executable is found at the end of stderr
+		String diagnostics;
+		try (FileChannel in = FileChannel.open(stderr, READ))
+		{
+			long size = in.size();
+			ByteBuffer tail = ByteBuffer.allocate((int) Math.min(size, MAXIMUM_DIAGNOSTICS_SIZE));
+			long start = size - tail.capacity();
+			while (tail.hasRemaining())
+			{
+				if (in.read(tail, start + tail.position()) == -1)
+					break;
+			}
+			diagnostics = new String(tail.array(), 0, tail.position(), UTF_8).strip();
+		}
+		CommandResult result = new CommandResult(processBuilder.command(),
+			Processes.getWorkingDirectory(processBuilder), "", diagnostics, exitCode);
+		client.getContainerParser().checkLogs(result);
+	}
+
+	/**
+	 * Returns the arguments of the {@code docker container logs} command.
+	 *
+	 * @param timestamps {@code true} to prefix each line with a timestamp
+	 * @return the arguments
+	 */
+	private List<String> getArguments(boolean timestamps)
 	{
 		// https://docs.docker.com/reference/cli/docker/container/logs/
 		List<String> arguments = new ArrayList<>(11);
@@ -137,10 +412,7 @@ public LogStreams stream() throws IOException
 		if (timestamps)
 			arguments.add("--timestamps");
 		arguments.add(id);
-		ProcessBuilder processBuilder = client.getProcessBuilder(arguments);
-		log.debug("Running: {}", processBuilder.command());
-		Process process = processBuilder.start();
-		return new LogStreams(process);
+		return arguments;
 	}
 
 	@Override
@@ -162,16 +434,26 @@ public String toString()
 	public static final class LogStreams
 	{
 		private final Process process;
+		private final CommandRecorder recorder;
+		private final InputStream stdout;
+		private final InputStream stderr;
+		private BufferedReader stdoutReader;
+		private BufferedReader stderrReader;
 
 		/**
 		 * Creates log streams.
 		 *
-		 * @param process the docker process
+		 * @param process  the docker process
+		 * @param recorder measures the process
 		 */
-		private LogStreams(Process process)
+		private LogStreams(Process process, CommandRecorder recorder)
 		{
 			assert process != null;
+			assert recorder != null;
 			this.process = process;
+			this.recorder = recorder;
+			this.stdout = recorder.track(process.getInputStream());
+			this.stderr = recorder.track(process.getErrorStream());
 		}
 
 		/**
@@ -181,7 +463,7 @@ private LogStreams(Process process)
 		 */
 		public InputStream getOutputStream()
 		{
-			return process.getInputStream();
+			return stdout;
 		}
 
 		/**
@@ -190,9 +472,11 @@ public InputStream getOutputStream()
 		 *
 		 * @return the output log
 		 */
-		public BufferedReader getOutputReader()
+		public synchronized BufferedReader getOutputReader()
 		{
-			return process.inputReader();
+			if (stdoutReader == null)
+				stdoutReader = recorder.trackReader(process.getInputStream());
+			return stdoutReader;
 		}
 
 		/**
@@ -202,7 +486,7 @@ public BufferedReader getOutputReader()
 		 */
 		public InputStream getErrorStream()
 		{
-			return process.getErrorStream();
+			return stderr;
 		}
 
 		/**
@@ -211,9 +495,11 @@ public InputStream getErrorStream()
 		 *
 		 * @return the error log
 		 */
-		public BufferedReader getErrorReader()
+		public synchronized BufferedReader getErrorReader()
 		{
-			return process.errorReader();
+			if (stderrReader == null)
+				stderrReader = recorder.trackReader(process.getErrorStream());
+			return stderrReader;
 		}
 
 		/**
@@ -224,7 +510,9 @@ public BufferedReader getErrorReader()
 		 */
 		public int waitFor() throws InterruptedException
 		{
-			return process.waitFor();
+			int exitCode = process.waitFor();
+			recorder.completed(exitCode);
+			return exitCode;
 		}
 	}
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.github.cowwoc.anchor4j.docker.resource;
 
+import com.github.cowwoc.anchor4j.core.internal.client.CommandRecorder;
 import com.github.cowwoc.anchor4j.core.internal.client.CommandResult;
 import com.github.cowwoc.anchor4j.core.internal.util.ToStringBuilder;
 import com.github.cowwoc.anchor4j.docker.exception.ResourceNotFoundException;
@@ -83,8 +84,20 @@ public ContainerStreams startAndAttachStreams(boolean attachInput, boolean attac
 
 		ProcessBuilder processBuilder = client.getProcessBuilder(arguments);
 		log.debug("Running: {}", processBuilder.command());
-		Process process = processBuilder.start();
-		return new ContainerStreams(process);
+		CommandRecorder recorder = CommandRecorder.forStream(arguments);
+		Process process;
+		try
+		{
+			process = recorder.start(processBuilder);
+		}
+		catch (IOException e)
+		{
+			recorder.failed(e);
+			throw e;
+		}
+		process.onExit().thenAccept(exited -> recorder.completed(exited.exitValue()));
+		return new ContainerStreams(process, recorder.track(process.getInputStream()),
+			recorder.track(process.getErrorStream()));
 	}
 
 	@Override
@@ -110,11 +123,23 @@ public static final class ContainerStreams implements AutoCloseable
 		 * @param process the docker process
 		 */
 		public ContainerStreams(Process process)
+		{
+			this(process, process.getInputStream(), process.getErrorStream());
+		}
+
+		/**
+		 * Creates a container's streams.
+		 *
+		 * @param process the docker process
+		 * @param stdout  the process' standard output stream
+		 * @param stderr  the process' standard error stream
+		 */
+		private ContainerStreams(Process process, InputStream stdout, InputStream stderr)
 		{
 			this.process = process;
 			this.stdin = process.getOutputStream();
-			this.stdout = process.getInputStream();
-			this.stderr = process.getErrorStream();
+			this.stdout = stdout;
+			this.stderr = stderr;
 		}
 
 		/**
@@ -0,0 +1,105 @@
+package com.github.cowwoc.anchor4j.docker.resource;
+
+import java.time.Instant;
+import java.util.Map;
+
+import static com.github.cowwoc.requirements11.java.DefaultJavaValidators.requireThat;
+
+/**
+ * A change that was reported by the Docker Engine.
+ * <p>
+ * <b>Thread Safety</b>: This class is immutable and thread-safe.
+ *
+ * @param type       the type of resource that changed
+ * @param action     the action that took place (e.g. {@code start}, {@code die}, {@code update})
+ * @param actorId    the ID of the resource that changed
+ * @param attributes additional information about the resource, such as its name or labels
+ * @param time       the time at which the event took place
+ */
+public record Event(Type type, String action, String actorId, Map<String, String> attributes, Instant time)
+{
+	/**
+	 * Creates an event.
+	 *
+	 * @param type       the type of resource that changed
+	 * @param action     the action that took place (e.g. {@code start}, {@code die}, {@code update})
+	 * @param actorId    the ID of the resource that changed
+	 * @param attributes additional information about the resource, such as its name or labels
+	 * @param time       the time at which the event took place
+	 * @throws NullPointerException if any of the arguments are null
+	 */
+	public Event
+	{
+		requireThat(type, "type").isNotNull();
+		requireThat(action, "action").isNotNull();
+		requireThat(actorId, "actorId").isNotNull();
+		requireThat(time, "time").isNotNull();
+		attributes = Map.copyOf(attributes);
+	}
+
+	/**
+	 * Indicates if the event refers to a resource.
+	 *
+	 * @param type the type of the resource
+	 * @param id   the resource's ID, a prefix of its ID, or its name
+	 * @return {@code true} if the event refers to the resource
+	 * @throws NullPointerException if any of the arguments are null
+	 */
+	public boolean refersTo(Type type, String id)
+	{
+		requireThat(type, "type").isNotNull();
+		requireThat(id, "id").isNotNull();
+		return this.type == type && (actorId.startsWith(id) || id.equals(attributes.get("name")));
+	}
+
+	/**
+	 * The types of resources that generate events.
+	 */
+	public enum Type
+	{
+		/**
+		 * A buildx builder.
+		 */
+		BUILDER,
+		/**
+		 * A swarm config.
+		 */
+		CONFIG,
+		/**
+		 * A container.
+		 */
+		CONTAINER,
+		/**
+		 * The Docker daemon.
+		 */
+		DAEMON,
+		/**
+		 * An image.
+		 */
+		IMAGE,
+		/**
+		 * A network.
+		 */
+		NETWORK,
+		/**
+		 * A swarm node.
+		 */
+		NODE,
+		/**
+		 * A plugin.
+		 */
+		PLUGIN,
+		/**
+		 * A swarm secret.
+		 */
+		SECRET,
+		/**
+		 * A swarm service.
+		 */
+		SERVICE,
+		/**
+		 * A volume.
+		 */
+		VOLUME
+	}
+}
@@ -0,0 +1,16 @@
+package com.github.cowwoc.anchor4j.docker.resource;
+
+/**
+ * A registration to receive events from the Docker Engine.
+ * <p>
+ * <b>Thread Safety</b>: This class is thread-safe.
+ */
+public interface EventSubscription extends AutoCloseable
+{
+	/**
+	 * Stops delivering events to the subscriber. If the subscription is already closed, this method has no
+	 * effect.
+	 */
+	@Override
+	void close();
+}
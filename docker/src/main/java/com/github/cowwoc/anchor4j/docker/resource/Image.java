@@ -1,13 +1,19 @@
 package com.github.cowwoc.anchor4j.docker.resource;
 
 import com.github.cowwoc.anchor4j.core.internal.util.ToStringBuilder;
+import com.github.cowwoc.anchor4j.core.resource.ImageReference;
 import com.github.cowwoc.anchor4j.docker.exception.ResourceNotFoundException;
 import com.github.cowwoc.anchor4j.docker.internal.client.InternalDocker;
 import com.github.cowwoc.anchor4j.docker.internal.resource.ImageAccess;
 import com.github.cowwoc.anchor4j.docker.internal.resource.SharedSecrets;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
@@ -49,10 +55,9 @@
 		SharedSecrets.setImageAccess(new ImageAccess()
 		{
 			@Override
-			public Image get(InternalDocker client, String id, Map<String, Set<String>> referenceToTags,
-				Map<String, String> referenceToDigest)
+			public Image get(InternalDocker client, String id, List<ImageReference> references)
 			{
-				return new Image(client, id, referenceToTags, referenceToDigest);
+				return new Image(client, id, references);
 			}
 
 			@Override
@@ -77,40 +82,72 @@ public ImageRemover remove(InternalDocker client, String reference)
 
 	private final InternalDocker client;
 	private final String id;
-	private final Map<String, Set<String>> referenceToTags;
-	private final Map<String, String> referenceToDigest;
+	/**
+	 * The image's tagged and digested references, sorted by their String representation.
+	 * <p>
+	 * The references are interned, so inspecting the same images repeatedly does not duplicate them. The
+	 * mappings from names to tags and digests are derived from them on first use.
+	 */
+	private final List<ImageReference> references;
+	/**
+	 * A mapping from the image's names to their tags, or {@code null} if it has not been derived yet.
+	 */
+	private volatile Map<String, Set<String>> referenceToTags;
+	/**
+	 * A mapping from the image's names to their digests, or {@code null} if it has not been derived yet.
+	 */
+	private volatile Map<String, String> referenceToDigest;
 
 	/**
 	 * Creates a reference to an image.
 	 *
-	 * @param client            the client configuration
-	 * @param id                the image's ID
-	 * @param referenceToTags   a mapping from the image's name to its tags
-	 * @param referenceToDigest a mapping from the image's name to its digest
+	 * @param client     the client configuration
+	 * @param id         the image's ID
+	 * @param references the image's references. Each reference contains a tag or a digest.
 	 * @throws NullPointerException     if any of the arguments are null
-	 * @throws IllegalArgumentException if:
-	 *                                  <ul>
-	 *                                    <li>any of the arguments, including map keys and values, contain
-	 *                                    whitespace.</li>
-	 *                                    <li>{@code id} or any of the map keys and values are empty.</li>
-	 *                                  </ul>
+	 * @throws IllegalArgumentException if {@code id} contains whitespace or is empty
 	 */
-	private Image(InternalDocker client, String id, Map<String, Set<String>> referenceToTags,
-		Map<String, String> referenceToDigest)
+	private Image(InternalDocker client, String id, List<ImageReference> references)
 	{
 		assert that(client, "client").isNotNull().elseThrow();
 		assert that(id, "id").doesNotContainWhitespace().isNotEmpty().elseThrow();
-		assert validateReferenceParameters(referenceToTags, referenceToDigest);
+		assert that(references, "references").isNotNull().elseThrow();
 		this.id = id;
 		this.client = client;
+		this.references = sortReferences(references);
+	}
 
-		// Create immutable copies of the tags
-		Map<String, Set<String>> nameToImmutableTags = new HashMap<>();
+	/**
+	 * Returns an immutable copy of an image's references, sorted by their String representation.
+	 *
+	 * @param references the image's references
+	 * @return the sorted references
+	 */
+	static List<ImageReference> sortReferences(List<ImageReference> references)
+	{
+		ImageReference[] sortedReferences = references.toArray(ImageReference[]::new);
+		Arrays.sort(sortedReferences, Comparator.comparing(ImageReference::toString));
+		return List.of(sortedReferences);
+	}
+
+	/**
+	 * Converts mappings from an image's names to its tags and digests into references.
+	 *
+	 * @param referenceToTags   a mapping from the image's reference to its tags
+	 * @param referenceToDigest a mapping from the image's reference to its digest
+	 * @return the image's references
+	 */
+	static List<ImageReference> toReferences(Map<String, Set<String>> referenceToTags,
+		Map<String, String> referenceToDigest)
+	{
+		assert validateReferenceParameters(referenceToTags, referenceToDigest);
+		List<ImageReference> references = new ArrayList<>();
 		for (Entry<String, Set<String>> entry : referenceToTags.entrySet())
-			nameToImmutableTags.put(entry.getKey(), Set.copyOf(entry.getValue()));
-		// Create an immutable copy of the outer map
-		this.referenceToTags = Map.copyOf(nameToImmutableTags);
-		this.referenceToDigest = Map.copyOf(referenceToDigest);
+			for (String tag : entry.getValue())
+				references.add(ImageReference.parse(entry.getKey() + ":" + tag));
+		for (Entry<String, String> entry : referenceToDigest.entrySet())
+			references.add(ImageReference.parse(entry.getKey() + "@" + entry.getValue()));
+		return references;
 	}
 
 	/**
@@ -161,7 +198,7 @@ public String getId()
 	 */
 	public Set<String> getReferences()
 	{
-		return referenceToTags.keySet();
+		return getReferenceToTags().keySet();
 	}
 
 	/**
@@ -176,7 +213,35 @@ public Set<String> getReferences()
 	 */
 	public Map<String, Set<String>> getReferenceToTags()
 	{
-		return referenceToTags;
+		// Threads that race to derive the map produce equal, immutable copies
+		Map<String, Set<String>> value = referenceToTags;
+		if (value == null)
+		{
+			value = toReferenceToTags(references);
+			referenceToTags = value;
+		}
+		return value;
+	}
+
+	/**
+	 * Returns a mapping from an image's names to their tags.
+	 *
+	 * @param references the image's references
+	 * @return an immutable map whose keys are the interned names of the references
+	 */
+	static Map<String, Set<String>> toReferenceToTags(List<ImageReference> references)
+	{
+		Map<String, Set<String>> nameToTags = new HashMap<>();
+		for (ImageReference reference : references)
+		{
+			String tag = reference.getTag();
+			if (tag != null)
+				nameToTags.computeIfAbsent(reference.getName(), _ -> new HashSet<>()).add(tag);
+		}
+		// Create immutable copies of the tags
+		for (Entry<String, Set<String>> entry : nameToTags.entrySet())
+			entry.setValue(Set.copyOf(entry.getValue()));
+		return Map.copyOf(nameToTags);
 	}
 
 	/**
@@ -189,7 +254,31 @@ public Map<String, Set<String>> getReferenceToTags()
 	 */
 	public Map<String, String> getReferenceToDigest()
 	{
-		return referenceToDigest;
+		Map<String, String> value = referenceToDigest;
+		if (value == null)
+		{
+			value = toReferenceToDigest(references);
+			referenceToDigest = value;
+		}
+		return value;
+	}
+
+	/**
+	 * Returns a mapping from an image's names to their digests.
+	 *
+	 * @param references the image's references
+	 * @return an immutable map whose keys are the interned names of the references
+	 */
+	static Map<String, String> toReferenceToDigest(List<ImageReference> references)
+	{
+		Map<String, String> nameToDigest = new HashMap<>();
+		for (ImageReference reference : references)
+		{
+			String digest = reference.getDigest();
+			if (digest != null)
+				nameToDigest.put(reference.getName(), digest);
+		}
+		return Map.copyOf(nameToDigest);
 	}
 
 	/**
@@ -225,14 +314,13 @@ public ImageRemover remover()
 	@Override
 	public int hashCode()
 	{
-		return Objects.hash(id, referenceToTags, referenceToDigest);
+		return Objects.hash(id, references);
 	}
 
 	@Override
 	public boolean equals(Object o)
 	{
-		return o instanceof Image other && other.id.equals(id) &&
-			other.referenceToTags.equals(referenceToTags) && other.referenceToDigest.equals(referenceToDigest);
+		return o instanceof Image other && other.id.equals(id) && other.references.equals(references);
 	}
 
 	@Override
@@ -240,8 +328,8 @@ public String toString()
 	{
 		return new ToStringBuilder(Image.class).
 			add("id", id).
-			add("referenceToTag", referenceToTags).
-			add("referenceToDigest", referenceToDigest).
+			add("referenceToTag", getReferenceToTags()).
+			add("referenceToDigest", getReferenceToDigest()).
 			toString();
 	}
 }
\ No newline at end of file
@@ -1,7 +1,9 @@
 package com.github.cowwoc.anchor4j.docker.resource;
 
+import com.github.cowwoc.anchor4j.core.resource.ImageReference;
 import com.github.cowwoc.anchor4j.docker.client.Docker;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -9,14 +11,27 @@
 
 /**
  * An element returned by {@link Docker#listImages()}.
+ * <p>
+ * The references are interned, so listing the same images repeatedly does not duplicate them.
  *
- * @param id                the image's ID
- * @param referenceToTags   a mapping from the image's reference to its tags
- * @param referenceToDigest a mapping from the image's reference to its digest
+ * @param id         the image's ID
+ * @param references the image's tagged and digested references, sorted by their String representation
  */
-public record ImageElement(String id, Map<String, Set<String>> referenceToTags,
-                           Map<String, String> referenceToDigest)
+public record ImageElement(String id, List<ImageReference> references)
 {
+	/**
+	 * Creates an image element.
+	 *
+	 * @param id         the image's ID
+	 * @param references the image's references. Each reference contains a tag or a digest.
+	 */
+	public ImageElement
+	{
+		assert that(id, "id").doesNotContainWhitespace().isNotEmpty().elseThrow();
+		assert that(references, "references").isNotNull().elseThrow();
+		references = Image.sortReferences(references);
+	}
+
 	/**
 	 * Creates an image element.
 	 *
@@ -27,10 +42,26 @@ public record ImageElement(String id, Map<String, Set<String>> referenceToTags,
 	public ImageElement(String id, Map<String, Set<String>> referenceToTags,
 		Map<String, String> referenceToDigest)
 	{
-		assert that(id, "id").doesNotContainWhitespace().isNotEmpty().elseThrow();
-		assert Image.validateReferenceParameters(referenceToTags, referenceToDigest);
-		this.id = id;
-		this.referenceToTags = Map.copyOf(referenceToTags);
-		this.referenceToDigest = Map.copyOf(referenceToDigest);
+		this(id, Image.toReferences(referenceToTags, referenceToDigest));
+	}
+
+	/**
+	 * Returns a mapping from the image's reference to its tags.
+	 *
+	 * @return an empty map if the image has no tags
+	 */
+	public Map<String, Set<String>> referenceToTags()
+	{
+		return Image.toReferenceToTags(references);
+	}
+
+	/**
+	 * Returns a mapping from the image's reference to its digest.
+	 *
+	 * @return an empty map if the image has not been pushed to any repositories
+	 */
+	public Map<String, String> referenceToDigest()
+	{
+		return Image.toReferenceToDigest(references);
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,105 @@
+package com.github.cowwoc.anchor4j.docker.resource;
+
+import static com.github.cowwoc.requirements11.java.DefaultJavaValidators.requireThat;
+
+/**
+ * Narrows down the images returned by a list operation.
+ * <p>
+ * <b>Thread Safety</b>: This class is not thread-safe.
+ */
+public final class ImageFilter extends ListFilter
+{
+	/**
+	 * Creates a filter that matches all images.
+	 */
+	public ImageFilter()
+	{
+	}
+
+	/**
+	 * Matches images that have a label, regardless of its value.
+	 *
+	 * @param key the label's key
+	 * @return this
+	 * @throws NullPointerException     if {@code key} is null
+	 * @throws IllegalArgumentException if {@code key} contains whitespace or is empty
+	 */
+	public ImageFilter label(String key)
+	{
+		addLabel(key);
+		return this;
+	}
+
+	/**
+	 * Matches images that have a label with the specified value.
+	 *
+	 * @param key   the label's key
+	 * @param value the label's value
+	 * @return this
+	 * @throws NullPointerException     if any of the arguments are null
+	 * @throws IllegalArgumentException if {@code key} contains whitespace or is empty
+	 */
+	public ImageFilter label(String key, String value)
+	{
+		addLabel(key, value);
+		return this;
+	}
+
+	/**
+	 * Matches images based on whether they are dangling (untagged and unreferenced by any other image).
+	 *
+	 * @param dangling {@code true} to match dangling images only, {@code false} to exclude them
+	 * @return this
+	 */
+	public ImageFilter dangling(boolean dangling)
+	{
+		add("dangling", String.valueOf(dangling));
+		return this;
+	}
+
+	/**
+	 * Matches images whose reference matches a pattern.
+	 *
+	 * @param pattern the {@link Image reference}, which may contain shell-style wildcards (e.g.
+	 *                {@code busybox:*})
+	 * @return this
+	 * @throws NullPointerException     if {@code pattern} is null
+	 * @throws IllegalArgumentException if {@code pattern} contains whitespace or is empty
+	 */
+	public ImageFilter reference(String pattern)
+	{
+		requireThat(pattern, "pattern").doesNotContainWhitespace().isNotEmpty();
+		add("reference", pattern);
+		return this;
+	}
+
+	/**
+	 * Matches images that were created before another image.
+	 *
+	 * @param id the other image's ID or {@link Image reference}
+	 * @return this
+	 * @throws NullPointerException     if {@code id} is null
+	 * @throws IllegalArgumentException if {@code id} contains whitespace or is empty
+	 */
+	public ImageFilter before(String id)
+	{
+		requireThat(id, "id").doesNotContainWhitespace().isNotEmpty();
+		add("before", id);
+		return this;
+	}
+
+	/**
+	 * Matches images that were created after another image.
+	 *
+	 * @param id the other image's ID or {@link Image reference}
+	 * @return this
+	 * @throws NullPointerException     if {@code id} is null
+	 * @throws IllegalArgumentException if {@code id} contains whitespace or is empty
+	 */
+	public ImageFilter since(String id)
+	{
+		requireThat(id, "id").doesNotContainWhitespace().isNotEmpty();
+		add("since", id);
+		return this;
+	}
+}
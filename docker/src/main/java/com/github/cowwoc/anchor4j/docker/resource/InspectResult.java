@@ -0,0 +1,34 @@
+package com.github.cowwoc.anchor4j.docker.resource;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static com.github.cowwoc.requirements11.java.DefaultJavaValidators.that;
+
+/**
+ * The result of looking up multiple resources at once.
+ *
+ * @param <T>     the type of resources
+ * @param found   a mapping from each ID that was requested to the resource that it refers to
+ * @param missing the IDs that did not match any resource
+ */
+public record InspectResult<T>(Map<String, T> found, Set<String> missing)
+{
+	/**
+	 * Creates a new instance.
+	 *
+	 * @param found   a mapping from each ID that was requested to the resource that it refers to
+	 * @param missing the IDs that did not match any resource
+	 */
+	public InspectResult
+	{
+		assert that(found, "found").isNotNull().elseThrow();
+		assert that(missing, "missing").isNotNull().elseThrow();
+		// Preserve the order in which the IDs were requested
+		found = Collections.unmodifiableMap(new LinkedHashMap<>(found));
+		missing = Collections.unmodifiableSet(new LinkedHashSet<>(missing));
+	}
+}
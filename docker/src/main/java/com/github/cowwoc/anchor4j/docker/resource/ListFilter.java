@@ -0,0 +1,96 @@
+package com.github.cowwoc.anchor4j.docker.resource;
+
+import com.github.cowwoc.anchor4j.core.internal.util.ToStringBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.github.cowwoc.requirements11.java.DefaultJavaValidators.requireThat;
+
+/**
+ * Conditions that are evaluated by the server to narrow down the results of a list operation.
+ * <p>
+ * Conditions with different keys must all match. Conditions with the same key match if any of them match.
+ * <p>
+ * <b>Thread Safety</b>: This class is not thread-safe.
+ */
+public abstract class ListFilter
+{
+	/**
+	 * Each condition in the format {@code key=value}.
+	 */
+	private final List<String> conditions = new ArrayList<>();
+
+	/**
+	 * Creates an empty filter.
+	 */
+	protected ListFilter()
+	{
+	}
+
+	/**
+	 * Adds a condition.
+	 *
+	 * @param key   the condition's key
+	 * @param value the condition's value
+	 * @throws NullPointerException     if any of the arguments are null
+	 * @throws IllegalArgumentException if {@code value} is empty
+	 */
+	protected void add(String key, String value)
+	{
+		requireThat(value, "value").isNotEmpty();
+		conditions.add(key + "=" + value);
+	}
+
+	/**
+	 * Adds a condition that matches resources by their label.
+	 *
+	 * @param key the label's key
+	 * @throws NullPointerException     if {@code key} is null
+	 * @throws IllegalArgumentException if {@code key} contains whitespace or is empty
+	 */
+	protected void addLabel(String key)
+	{
+		requireThat(key, "key").doesNotContainWhitespace().isNotEmpty();
+		add("label", key);
+	}
+
+	/**
+	 * Adds a condition that matches resources by their label.
+	 *
+	 * @param key   the label's key
+	 * @param value the label's value
+	 * @throws NullPointerException     if any of the arguments are null
+	 * @throws IllegalArgumentException if {@code key} contains whitespace or is empty
+	 */
+	protected void addLabel(String key, String value)
+	{
+		requireThat(key, "key").doesNotContainWhitespace().isNotEmpty();
+		requireThat(value, "value").isNotNull();
+		add("label", key + "=" + value);
+	}
+
+	/**
+	 * Returns the command-line representation of this filter.
+	 *
+	 * @return a {@code --filter} option for each condition
+	 */
+	public List<String> toCommandLine()
+	{
+		List<String> arguments = new ArrayList<>(conditions.size() * 2);
+		for (String condition : conditions)
+		{
+			arguments.add("--filter");
+			arguments.add(condition);
+		}
+		return arguments;
+	}
+
+	@Override
+	public String toString()
+	{
+		return new ToStringBuilder(getClass()).
+			add("conditions", conditions).
+			toString();
+	}
+}
@@ -0,0 +1,52 @@
+package com.github.cowwoc.anchor4j.docker.resource;
+
+import java.time.Instant;
+
+import static com.github.cowwoc.requirements11.java.DefaultJavaValidators.requireThat;
+
+/**
+ * A line that a container wrote to one of its output streams.
+ * <p>
+ * <b>Thread Safety</b>: This class is thread-safe, provided that {@code bytes} is not modified.
+ *
+ * @param containerId the ID or name of the container, as it was passed to {@code getContainerLogs()}
+ * @param source      the stream that the line was written to
+ * @param timestamp   the time that the line was written
+ * @param bytes       the contents of the line, excluding the line terminator. The array is owned by the
+ *                    record and must not be modified.
+ */
+public record LogRecord(String containerId, Source source, Instant timestamp, byte[] bytes)
+{
+	/**
+	 * Creates a new instance.
+	 *
+	 * @param containerId the ID or name of the container, as it was passed to {@code getContainerLogs()}
+	 * @param source      the stream that the line was written to
+	 * @param timestamp   the time that the line was written
+	 * @param bytes       the contents of the line, excluding the line terminator. The array is owned by the
+	 *                    record and must not be modified.
+	 * @throws NullPointerException if any of the arguments are null
+	 */
+	public LogRecord
+	{
+		requireThat(containerId, "containerId").isNotNull();
+		requireThat(source, "source").isNotNull();
+		requireThat(timestamp, "timestamp").isNotNull();
+		requireThat(bytes, "bytes").isNotNull();
+	}
+
+	/**
+	 * The streams that a container writes to.
+	 */
+	public enum Source
+	{
+		/**
+		 * The standard output stream.
+		 */
+		STDOUT,
+		/**
+		 * The standard error stream.
+		 */
+		STDERR
+	}
+}
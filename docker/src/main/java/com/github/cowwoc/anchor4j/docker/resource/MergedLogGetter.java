@@ -0,0 +1,211 @@
+package com.github.cowwoc.anchor4j.docker.resource;
+
+import com.github.cowwoc.anchor4j.core.internal.util.ToStringBuilder;
+import com.github.cowwoc.anchor4j.docker.internal.client.InternalDocker;
+import com.github.cowwoc.anchor4j.docker.internal.client.LogPublisher;
+import com.github.cowwoc.anchor4j.docker.internal.client.MergedLogPublisher;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Flow;
+
+import static com.github.cowwoc.requirements11.java.DefaultJavaValidators.requireThat;
+import static com.github.cowwoc.requirements11.java.DefaultJavaValidators.that;
+
+/**
+ * Retrieves the logs of multiple containers, merged in timestamp order.
+ */
+public final class MergedLogGetter
+{
+	private final InternalDocker client;
+	private final List<String> ids;
+	private boolean follow;
+	private Instant since;
+	private Instant until;
+	private int linesFromEnd = Integer.MAX_VALUE;
+	private Duration reorderWindow = Duration.ofSeconds(1);
+	private int bufferSize = 256;
+	private Duration processTimeout = Duration.ofSeconds(30);
+
+	/**
+	 * Creates an instance.
+	 *
+	 * @param client the client configuration
+	 * @param ids    the IDs or names of the containers
+	 */
+	MergedLogGetter(InternalDocker client, List<String> ids)
+	{
+		assert that(client, "client").isNotNull().elseThrow();
+		assert that(ids, "ids").isNotEmpty().elseThrow();
+		this.client = client;
+		this.ids = List.copyOf(ids);
+	}
+
+	/**
+	 * Indicates that log entries should be streamed in real-time as they are generated by the containers.
+	 *
+	 * @return this
+	 */
+	public MergedLogGetter follow()
+	{
+		this.follow = true;
+		return this;
+	}
+
+	/**
+	 * Configures the logs to only include entries since the specified time. Defaults to {@code null}.
+	 *
+	 * @param since the start time or {@code null} to omit
+	 * @return this
+	 */
+	public MergedLogGetter since(Instant since)
+	{
+		this.since = since;
+		return this;
+	}
+
+	/**
+	 * Configures the logs to only include entries until the specified time. Defaults to {@code null}.
+	 *
+	 * @param until the end time or {@code null} to omit
+	 * @return this
+	 */
+	public MergedLogGetter until(Instant until)
+	{
+		this.until = until;
+		return this;
+	}
+
+	/**
+	 * Configures the number of log lines to return per container, relative to the end of its logs. By
+	 * default, all lines are returned.
+	 *
+	 * @param linesFromEnd the number of lines or {@code Integer.MAX_VALUE} to return all lines
+	 * @return this
+	 * @throws IllegalArgumentException if {@code linesFromEnd} is negative
+	 */
+	public MergedLogGetter linesFromEnd(int linesFromEnd)
+	{
+		requireThat(linesFromEnd, "linesFromEnd").isNotNegative();
+		this.linesFromEnd = linesFromEnd;
+		return this;
+	}
+
+	/**
+	 * Configures the maximum amount of time that a record may be held back while waiting for an idle container
+	 * to produce a record with an earlier timestamp. Records that arrive later than this window are delivered
+	 * out of order. Defaults to 1 second.
+	 *
+	 * @param reorderWindow the maximum delay
+	 * @return this
+	 * @throws NullPointerException     if {@code reorderWindow} is null
+	 * @throws IllegalArgumentException if {@code reorderWindow} is negative
+	 */
+	public MergedLogGetter reorderWindow(Duration reorderWindow)
+	{
+		requireThat(reorderWindow, "reorderWindow").isGreaterThanOrEqualTo(Duration.ZERO);
+		this.reorderWindow = reorderWindow;
+		return this;
+	}
+
+	/**
+	 * Configures the maximum number of records to buffer per container. Defaults to {@code 256}.
+	 *
+	 * @param bufferSize the maximum number of records
+	 * @return this
+	 * @throws IllegalArgumentException if {@code bufferSize} is not positive
+	 */
+	public MergedLogGetter bufferSize(int bufferSize)
+	{
+		requireThat(bufferSize, "bufferSize").isPositive();
+		this.bufferSize = bufferSize;
+		return this;
+	}
+
+	/**
+	 * Configures the maximum amount of time to wait for the log processes of all containers when following the
+	 * logs. Defaults to 30 seconds.
+	 *
+	 * @param processTimeout the maximum amount of time to wait
+	 * @return this
+	 * @throws NullPointerException     if {@code processTimeout} is null
+	 * @throws IllegalArgumentException if {@code processTimeout} is negative
+	 * @see #publish()
+	 */
+	public MergedLogGetter processTimeout(Duration processTimeout)
+	{
+		requireThat(processTimeout, "processTimeout").isGreaterThanOrEqualTo(Duration.ZERO);
+		this.processTimeout = processTimeout;
+		return this;
+	}
+
+	/**
+	 * Publishes the merged logs, one line at a time.
+	 * <p>
+	 * Each container's logs are read by a separate {@code docker container logs} process. When following the
+	 * logs, every process runs until the subscription is cancelled, so the number of containers may not
+	 * exceed the limit set by {@link com.github.cowwoc.anchor4j.docker.client.Docker#setMaximumLogProcesses(int)}.
+	 * Otherwise, the logs of the containers that exceed it would never be read.
+	 * <p>
+	 * The limit is shared by all the client's log subscriptions. When following the logs, each subscription
+	 * waits until it can reserve a process for every container at once. If the processes cannot be reserved
+	 * within the {@link #processTimeout(Duration) timeout}, subscribers are notified with a
+	 * {@link java.util.concurrent.TimeoutException}.
+	 *
+	 * @return the publisher
+	 * @throws IllegalStateException if the logs are followed and the number of containers exceeds the maximum
+	 *                               number of log processes
+	 * @see ContainerLogGetter#publish()
+	 */
+	public Flow.Publisher<LogRecord> publish()
+	{
+		if (follow)
+		{
+			int maximumLogProcesses = client.getMaximumLogProcesses();
+			if (ids.size() > maximumLogProcesses)
+			{
+				throw new IllegalStateException("Following the logs of " + ids.size() + " containers requires " +
+					"as many log processes, but Docker.setMaximumLogProcesses() limits them to " +
+					maximumLogProcesses + ".\n" +
+					"ids: " + ids);
+			}
+		}
+		List<LogPublisher> sources = new ArrayList<>(ids.size());
+		for (String id : ids)
+		{
+			ContainerLogGetter getter = new ContainerLogGetter(client, id).
+				since(since).
+				until(until).
+				linesFromEnd(linesFromEnd);
+			if (follow)
+				getter.follow();
+			sources.add(getter.newPublisher());
+		}
+		Duration timeout;
+		if (follow)
+			timeout = processTimeout;
+		else
+		{
+			// Processes that are not followed exit once their logs are read, so each one acquires its own
+			timeout = null;
+		}
+		return new MergedLogPublisher(client, sources, timeout, reorderWindow, bufferSize);
+	}
+
+	@Override
+	public String toString()
+	{
+		return new ToStringBuilder().
+			add("ids", ids).
+			add("follow", follow).
+			add("since", since).
+			add("until", until).
+			add("linesFromEnd", linesFromEnd).
+			add("reorderWindow", reorderWindow).
+			add("bufferSize", bufferSize).
+			add("processTimeout", processTimeout).
+			toString();
+	}
+}
@@ -0,0 +1,78 @@
+package com.github.cowwoc.anchor4j.docker.resource;
+
+import com.github.cowwoc.anchor4j.docker.resource.Node.Type;
+
+import static com.github.cowwoc.requirements11.java.DefaultJavaValidators.requireThat;
+
+/**
+ * Narrows down the nodes returned by a list operation.
+ * <p>
+ * <b>Thread Safety</b>: This class is not thread-safe.
+ */
+public final class NodeFilter extends ListFilter
+{
+	/**
+	 * Creates a filter that matches all nodes.
+	 */
+	public NodeFilter()
+	{
+	}
+
+	/**
+	 * Matches nodes that have an engine label, regardless of its value.
+	 *
+	 * @param key the label's key
+	 * @return this
+	 * @throws NullPointerException     if {@code key} is null
+	 * @throws IllegalArgumentException if {@code key} contains whitespace or is empty
+	 */
+	public NodeFilter label(String key)
+	{
+		addLabel(key);
+		return this;
+	}
+
+	/**
+	 * Matches nodes that have an engine label with the specified value.
+	 *
+	 * @param key   the label's key
+	 * @param value the label's value
+	 * @return this
+	 * @throws NullPointerException     if any of the arguments are null
+	 * @throws IllegalArgumentException if {@code key} contains whitespace or is empty
+	 */
+	public NodeFilter label(String key, String value)
+	{
+		addLabel(key, value);
+		return this;
+	}
+
+	/**
+	 * Matches nodes with the specified role.
+	 *
+	 * @param type the node's role
+	 * @return this
+	 * @throws NullPointerException if {@code type} is null
+	 */
+	public NodeFilter role(Type type)
+	{
+		requireThat(type, "type").isNotNull();
+		add("role", type.toCommandLine());
+		return this;
+	}
+
+	/**
+	 * Matches nodes whose hostname starts with a value.
+	 *
+	 * @param name a prefix of the node's hostname
+	 * @return this
+	 * @throws NullPointerException     if {@code name} is null
+	 * @throws IllegalArgumentException if {@code name} contains whitespace or is empty
+	 */
+	public NodeFilter name(String name)
+	{
+		requireThat(name, "name").doesNotContainWhitespace().isNotEmpty();
+		add("name", name);
+		return this;
+	}
+}
@@ -0,0 +1,87 @@
+package com.github.cowwoc.anchor4j.docker.resource;
+
+import com.github.cowwoc.anchor4j.docker.resource.Task.State;
+
+import java.util.Locale;
+
+import static com.github.cowwoc.requirements11.java.DefaultJavaValidators.requireThat;
+
+/**
+ * Narrows down the tasks returned by a list operation.
+ * <p>
+ * <b>Thread Safety</b>: This class is not thread-safe.
+ */
+public final class TaskFilter extends ListFilter
+{
+	/**
+	 * Creates a filter that matches all tasks.
+	 */
+	public TaskFilter()
+	{
+	}
+
+	/**
+	 * Matches tasks that have a label, regardless of its value.
+	 *
+	 * @param key the label's key
+	 * @return this
+	 * @throws NullPointerException     if {@code key} is null
+	 * @throws IllegalArgumentException if {@code key} contains whitespace or is empty
+	 */
+	public TaskFilter label(String key)
+	{
+		addLabel(key);
+		return this;
+	}
+
+	/**
+	 * Matches tasks that have a label with the specified value.
+	 *
+	 * @param key   the label's key
+	 * @param value the label's value
+	 * @return this
+	 * @throws NullPointerException     if any of the arguments are null
+	 * @throws IllegalArgumentException if {@code key} contains whitespace or is empty
+	 */
+	public TaskFilter label(String key, String value)
+	{
+		addLabel(key, value);
+		return this;
+	}
+
+	/**
+	 * Matches tasks with the specified desired state.
+	 *
+	 * @param state the state that the orchestrator is driving the task towards. Docker only supports
+	 *              {@link State#RUNNING}, {@link State#SHUTDOWN} and {@link State#ACCEPTED}.
+	 * @return this
+	 * @throws NullPointerException     if {@code state} is null
+	 * @throws IllegalArgumentException if Docker does not support filtering by {@code state}
+	 */
+	public TaskFilter desiredState(State state)
+	{
+		requireThat(state, "state").isNotNull();
+		if (state != State.RUNNING && state != State.SHUTDOWN && state != State.ACCEPTED)
+		{
+			throw new IllegalArgumentException("state must be RUNNING, SHUTDOWN or ACCEPTED.\n" +
+				"Actual: " + state);
+		}
+		add("desired-state", state.name().toLowerCase(Locale.ROOT));
+		return this;
+	}
+
+	/**
+	 * Matches tasks whose name starts with a value.
+	 *
+	 * @param name a prefix of the task's name
+	 * @return this
+	 * @throws NullPointerException     if {@code name} is null
+	 * @throws IllegalArgumentException if {@code name} contains whitespace or is empty
+	 */
+	public TaskFilter name(String name)
+	{
+		requireThat(name, "name").doesNotContainWhitespace().isNotEmpty();
+		add("name", name);
+		return this;
+	}
+}
@@ -0,0 +1,43 @@
+package com.github.cowwoc.anchor4j.docker.test.client;
+
+import com.github.cowwoc.anchor4j.docker.client.Docker;
+import com.github.cowwoc.anchor4j.docker.resource.Event;
+import com.github.cowwoc.anchor4j.docker.resource.EventSubscription;
+import com.github.cowwoc.anchor4j.testsupport.FakeExecutable;
+import com.github.cowwoc.anchor4j.testsupport.Reply;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static com.github.cowwoc.requirements11.java.DefaultJavaValidators.requireThat;
+
+/**
+ * Restarts the {@code docker events} process, against a {@code FakeExecutable}.
+ */
+public final class EventSubscriptionIT
+{
+	@Test
+	public void restartDoesNotRedeliverLastEvent() throws IOException, InterruptedException
+	{
+		// The process exits after every event, and --since replays the event once it is restarted
+		String event = """
+			{"Type":"container","Action":"start","Actor":{"ID":"4c01db0b339c","Attributes":{}},\
+			"timeNano":1735689600000000000}
+			""";
+		try (FakeExecutable executable = FakeExecutable.docker().
+			on("events *", new Reply().stdout(event)).
+			build();
+		     Docker client = Docker.connect(executable.getPath()))
+		{
+			List<Event> events = new CopyOnWriteArrayList<>();
+			try (EventSubscription _ = client.subscribeToEvents(events::add))
+			{
+				while (executable.getInvocations().size() < 3)
+					Thread.sleep(10);
+			}
+			requireThat(events.size(), "events.size()").withContext(events, "events").isEqualTo(1);
+		}
+	}
+}
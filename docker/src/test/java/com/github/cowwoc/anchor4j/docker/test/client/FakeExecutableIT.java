@@ -0,0 +1,93 @@
+package com.github.cowwoc.anchor4j.docker.test.client;
+
+import com.github.cowwoc.anchor4j.docker.client.Docker;
+import com.github.cowwoc.anchor4j.docker.resource.ContainerElement;
+import com.github.cowwoc.anchor4j.testsupport.FakeExecutable;
+import com.github.cowwoc.anchor4j.testsupport.Reply;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.github.cowwoc.requirements11.java.DefaultJavaValidators.requireThat;
+
+/**
+ * Exercises clients against a {@code FakeExecutable}, without a Docker daemon.
+ */
+public final class FakeExecutableIT
+{
+	private static final String CONTAINER_LINE = """
+		{"ID":"4f66ad9a0b2e","Image":"nginx:1.27","Names":"frontend","State":"running","Status":"Up 2 hours"}
+		""";
+
+	@Test
+	public void replayOutput() throws IOException, InterruptedException
+	{
+		try (FakeExecutable executable = FakeExecutable.docker().
+			on("container ls *", new Reply().stdout(CONTAINER_LINE).repeatStdout(1000)).
+			build();
+		     Docker client = Docker.connect(executable.getPath()))
+		{
+			List<ContainerElement> containers = client.listContainers();
+			requireThat(containers, "containers").size().isEqualTo(1000);
+			requireThat(containers.getFirst(), "containers.getFirst()").
+				isEqualTo(new ContainerElement("4f66ad9a0b2e", "frontend"));
+			requireThat(executable.getInvocations(), "executable.getInvocations()").size().isEqualTo(1);
+		}
+	}
+
+	@Test
+	public void replayFailure() throws IOException, InterruptedException
+	{
+		try (FakeExecutable executable = FakeExecutable.docker().
+			otherwise(new Reply().stderr("Error response from daemon: internal error").exitCode(1)).
+			build();
+		     Docker client = Docker.connect(executable.getPath()))
+		{
+			AssertionError error = null;
+			try
+			{
+				client.listContainers();
+			}
+			catch (AssertionError e)
+			{
+				error = e;
+			}
+			requireThat(error, "error").isNotNull();
+			requireThat(error.getMessage(), "error.getMessage()").
+				contains("Error response from daemon: internal error");
+		}
+	}
+
+	@Test
+	public void concurrentCommands() throws IOException, InterruptedException, ExecutionException
+	{
+		Duration latency = Duration.ofMillis(200);
+		int numberOfCommands = 20;
+		try (FakeExecutable executable = FakeExecutable.docker().
+			on("container ls *", new Reply().stdout(CONTAINER_LINE).latency(latency)).
+			build();
+		     Docker client = Docker.connect(executable.getPath());
+		     ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor())
+		{
+			long start = System.nanoTime();
+			List<Future<List<ContainerElement>>> futures = new ArrayList<>(numberOfCommands);
+			for (int i = 0; i < numberOfCommands; ++i)
+				futures.add(executor.submit(() -> client.listContainers()));
+			for (Future<List<ContainerElement>> future : futures)
+				requireThat(future.get(), "future.get()").size().isEqualTo(1);
+			Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+			// The commands must overlap instead of running one after another
+			requireThat(elapsed, "elapsed").isLessThan(latency.multipliedBy(numberOfCommands / 2));
+			requireThat(executable.getInvocations(), "executable.getInvocations()").size().
+				isEqualTo(numberOfCommands);
+		}
+	}
+}
@@ -0,0 +1,99 @@
+package com.github.cowwoc.anchor4j.docker.test.client;
+
+import com.github.cowwoc.anchor4j.core.metrics.Histogram;
+import com.github.cowwoc.anchor4j.core.metrics.HistogramSnapshot;
+import org.testng.annotations.Test;
+
+import static com.github.cowwoc.requirements11.java.DefaultJavaValidators.requireThat;
+
+/**
+ * Validates the bucket boundaries of {@code Histogram}.
+ */
+public final class HistogramIT
+{
+	@Test
+	public void exactValues()
+	{
+		requireThat(getBucketHighestValue(0), "getBucketHighestValue(0)").isEqualTo(0L);
+		requireThat(getBucketHighestValue(1), "getBucketHighestValue(1)").isEqualTo(1L);
+		requireThat(getBucketHighestValue(127), "getBucketHighestValue(127)").isEqualTo(127L);
+	}
+
+	@Test
+	public void firstApproximateBuckets()
+	{
+		// Values between 128 and 255 are counted in buckets of width 2
+		requireThat(getBucketHighestValue(128), "getBucketHighestValue(128)").isEqualTo(129L);
+		requireThat(getBucketHighestValue(129), "getBucketHighestValue(129)").isEqualTo(129L);
+		requireThat(getBucketHighestValue(130), "getBucketHighestValue(130)").isEqualTo(131L);
+		requireThat(getBucketHighestValue(255), "getBucketHighestValue(255)").isEqualTo(255L);
+
+		// Values between 256 and 511 are counted in buckets of width 4
+		requireThat(getBucketHighestValue(256), "getBucketHighestValue(256)").isEqualTo(259L);
+		requireThat(getBucketHighestValue(259), "getBucketHighestValue(259)").isEqualTo(259L);
+		requireThat(getBucketHighestValue(260), "getBucketHighestValue(260)").isEqualTo(263L);
+	}
+
+	@Test
+	public void relativeError()
+	{
+		for (long value = 128; value < 1_000_000; value = value * 3 / 2)
+		{
+			long highestValue = getBucketHighestValue(value);
+			requireThat(highestValue, "highestValue").withContext(value, "value").
+				isGreaterThanOrEqualTo(value).
+				isLessThan(value + value / 64);
+		}
+	}
+
+	@Test
+	public void lastBucket()
+	{
+		requireThat(getBucketHighestValue(Long.MAX_VALUE), "getBucketHighestValue(Long.MAX_VALUE)").
+			isEqualTo(Long.MAX_VALUE);
+
+		Histogram histogram = new Histogram();
+		histogram.record(Long.MAX_VALUE);
+		requireThat(histogram.snapshot().getValueAtPercentile(100), "getValueAtPercentile(100)").
+			isEqualTo(Long.MAX_VALUE);
+	}
+
+	@Test
+	public void percentileRanks()
+	{
+		Histogram histogram = new Histogram();
+		for (long value = 1; value <= 100; ++value)
+			histogram.record(value);
+		HistogramSnapshot snapshot = histogram.snapshot();
+		requireThat(snapshot.getValueAtPercentile(0), "getValueAtPercentile(0)").isEqualTo(1L);
+		requireThat(snapshot.getValueAtPercentile(1), "getValueAtPercentile(1)").isEqualTo(1L);
+		requireThat(snapshot.getValueAtPercentile(50), "getValueAtPercentile(50)").isEqualTo(50L);
+		requireThat(snapshot.getValueAtPercentile(50.5), "getValueAtPercentile(50.5)").isEqualTo(51L);
+		requireThat(snapshot.getValueAtPercentile(100), "getValueAtPercentile(100)").isEqualTo(100L);
+	}
+
+	@Test
+	public void percentileDoesNotExceedMaximum()
+	{
+		// 128 and 129 share a bucket, but the percentile is capped by the largest value that was recorded
+		Histogram histogram = new Histogram();
+		histogram.record(128);
+		requireThat(histogram.snapshot().getValueAtPercentile(100), "getValueAtPercentile(100)").
+			isEqualTo(128L);
+	}
+
+	/**
+	 * Returns the largest value that is counted in the same bucket as a value.
+	 *
+	 * @param value a value
+	 * @return the largest value in the value's bucket
+	 */
+	private static long getBucketHighestValue(long value)
+	{
+		// The median of the value and Long.MAX_VALUE is the highest value of the first bucket
+		Histogram histogram = new Histogram();
+		histogram.record(value);
+		histogram.record(Long.MAX_VALUE);
+		return histogram.snapshot().getValueAtPercentile(50);
+	}
+}
@@ -0,0 +1,186 @@
+package com.github.cowwoc.anchor4j.docker.test.client;
+
+import com.github.cowwoc.anchor4j.core.internal.client.ImageReferenceValidator;
+import com.github.cowwoc.anchor4j.core.resource.ImageReference;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static com.github.cowwoc.requirements11.java.DefaultJavaValidators.requireThat;
+
+/**
+ * Compares {@code ImageReferenceValidator} to the regular expressions that it replaced.
+ */
+public final class ImageReferenceValidatorIT
+{
+	private static final String HEX_64 = "afcc7f1ac1b49db317a7196c902e61c6c3c4607d63599ee1a82d702d249a0ccb";
+	/**
+	 * The fragments that random references are built from.
+	 */
+	private static final List<String> FRAGMENTS = List.of("a", "z", "0", "9", "foo", "Bar", "localhost",
+		"example", "com", "5000", "65536", "2147483648", "0000000000080", ".", "..", "_", "__", "---", "-", "/",
+		"//", ":", "+", "sha256", "v1.0", "latest", "é", " ", HEX_64.substring(0, 31), HEX_64);
+
+	@Test
+	public void sameResultAsRegularExpressions()
+	{
+		Random random = new Random(0x5eed);
+		StringBuilder reference = new StringBuilder();
+		int compared = 0;
+		while (compared < 100_000)
+		{
+			reference.setLength(0);
+			int fragments = 1 + random.nextInt(10);
+			for (int i = 0; i < fragments; ++i)
+				reference.append(FRAGMENTS.get(random.nextInt(FRAGMENTS.size())));
+			String value = reference.toString();
+			if (isLegacyBug(value))
+				continue;
+			String expected = getError(() -> LegacyImageReferenceValidator.validate(value, "reference"));
+			String actual = getError(() -> ImageReferenceValidator.validate(value, "reference"));
+			requireThat(actual, "actual").withContext(value, "value").isEqualTo(expected, "expected");
+			++compared;
+		}
+	}
+
+	/**
+	 * @param value an image reference
+	 * @return {@code true} if the legacy validator is known to return the wrong result for the value
+	 */
+	private static boolean isLegacyBug(String value)
+	{
+		// Digests and IPv6 addresses contain colons, which the legacy validator mistook for ports or tags
+		if (value.indexOf('@') != -1 || value.indexOf('[') != -1)
+			return true;
+		int slash = value.indexOf('/');
+		if (slash != -1)
+		{
+			String hostAndPort = value.substring(0, slash);
+			// The legacy validator always treated the first component as a host, so it rejected namespaces that
+			// contain underscores
+			if (hostAndPort.indexOf('_') != -1)
+				return true;
+			int colon = hostAndPort.indexOf(':');
+			String host;
+			if (colon == -1)
+				host = hostAndPort;
+			else
+			{
+				host = hostAndPort.substring(0, colon);
+				// Integer.parseInt() accepts a leading sign
+				if (hostAndPort.startsWith("+", colon + 1) || hostAndPort.startsWith("-", colon + 1))
+					return true;
+			}
+			// String.split() discards trailing empty components
+			if (host.endsWith("."))
+				return true;
+		}
+		String rest = value.substring(slash + 1);
+		int colon = rest.indexOf(':');
+		String remoteName;
+		if (colon == -1)
+			remoteName = rest;
+		else
+			remoteName = rest.substring(0, colon);
+		return remoteName.endsWith("/");
+	}
+
+	/**
+	 * @param validation a validation
+	 * @return the error message, or {@code null} if the validation succeeded
+	 */
+	private static String getError(Runnable validation)
+	{
+		try
+		{
+			validation.run();
+			return null;
+		}
+		catch (IllegalArgumentException e)
+		{
+			return e.getMessage();
+		}
+	}
+
+	@Test
+	public void acceptDigest()
+	{
+		ImageReferenceValidator.validate("ghcr.io/nasa/rocket-ship@sha256:" + HEX_64, "reference");
+	}
+
+	@Test
+	public void acceptIpV6Host()
+	{
+		ImageReferenceValidator.validate("[::1]:5000/rocket-ship:1.0", "reference");
+	}
+
+	@Test
+	public void acceptUnderscoreInNamespace()
+	{
+		ImageReferenceValidator.validate("nasa_team/rocket-ship", "reference");
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void rejectTagAndDigest()
+	{
+		ImageReferenceValidator.validate("nasa/rocket-ship:1.0@sha256:" + HEX_64, "reference");
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void rejectTrailingSlash()
+	{
+		ImageReferenceValidator.validate("nasa/rocket-ship/", "reference");
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void rejectTrailingDotInHost()
+	{
+		ImageReferenceValidator.validate("example.com./rocket-ship", "reference");
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void rejectSignedPort()
+	{
+		ImageReferenceValidator.validate("example.com:+5000/rocket-ship", "reference");
+	}
+
+	@Test
+	public void parseComponents()
+	{
+		ImageReference reference = ImageReference.parse("example.com:5000/nasa/rocket-ship:1.0");
+		requireThat(reference.getDomain(), "getDomain()").isEqualTo("example.com:5000");
+		requireThat(reference.getPath(), "getPath()").isEqualTo("nasa/rocket-ship");
+		requireThat(reference.getName(), "getName()").isEqualTo("example.com:5000/nasa/rocket-ship");
+		requireThat(reference.getTag(), "getTag()").isEqualTo("1.0");
+		requireThat(reference.getDigest(), "getDigest()").isNull();
+
+		reference = ImageReference.parse("nasa/rocket-ship@sha256:" + HEX_64);
+		requireThat(reference.getDomain(), "getDomain()").isNull();
+		requireThat(reference.getPath(), "getPath()").isEqualTo("nasa/rocket-ship");
+		requireThat(reference.getTag(), "getTag()").isNull();
+		requireThat(reference.getDigest(), "getDigest()").isEqualTo("sha256:" + HEX_64);
+	}
+
+	@Test
+	public void parseLocalhost()
+	{
+		ImageReference reference = ImageReference.parse("localhost/rocket-ship");
+		requireThat(reference.getDomain(), "getDomain()").isEqualTo("localhost");
+		requireThat(reference.getPath(), "getPath()").isEqualTo("rocket-ship");
+
+		reference = ImageReference.parse("nasa_team/rocket-ship");
+		requireThat(reference.getDomain(), "getDomain()").isNull();
+		requireThat(reference.getPath(), "getPath()").isEqualTo("nasa_team/rocket-ship");
+	}
+
+	@Test
+	public void internReferences()
+	{
+		// Avoid compile-time constants, which the JVM interns
+		String value = new String("nasa/rocket-ship:1.0".toCharArray());
+		ImageReference first = ImageReference.parse(value);
+		ImageReference second = ImageReference.parse(new String(value.toCharArray()));
+		requireThat(second == first, "second == first").isTrue();
+	}
+}
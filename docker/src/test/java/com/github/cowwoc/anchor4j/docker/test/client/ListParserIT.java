@@ -0,0 +1,287 @@
+package com.github.cowwoc.anchor4j.docker.test.client;
+
+import com.github.cowwoc.anchor4j.core.metrics.CommandStatistics;
+import com.github.cowwoc.anchor4j.core.metrics.InMemoryCommandMetrics;
+import com.github.cowwoc.anchor4j.core.resource.ImageReference;
+import com.github.cowwoc.anchor4j.docker.client.Docker;
+import com.github.cowwoc.anchor4j.docker.internal.client.InternalDocker;
+import com.github.cowwoc.anchor4j.docker.internal.resource.ImageParser;
+import com.github.cowwoc.anchor4j.docker.resource.ConfigElement;
+import com.github.cowwoc.anchor4j.docker.resource.ContainerElement;
+import com.github.cowwoc.anchor4j.docker.resource.ImageElement;
+import com.github.cowwoc.anchor4j.docker.resource.Node.Availability;
+import com.github.cowwoc.anchor4j.docker.resource.Node.Reachability;
+import com.github.cowwoc.anchor4j.docker.resource.Node.Status;
+import com.github.cowwoc.anchor4j.docker.resource.Node.Type;
+import com.github.cowwoc.anchor4j.docker.resource.NodeElement;
+import com.github.cowwoc.anchor4j.docker.resource.Task;
+import com.github.cowwoc.anchor4j.docker.resource.Task.State;
+import com.github.cowwoc.anchor4j.testsupport.FakeExecutable;
+import com.github.cowwoc.anchor4j.testsupport.Reply;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import static com.github.cowwoc.requirements11.java.DefaultJavaValidators.requireThat;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Parses canned {@code --format json} output of the {@code docker} executable, without a Docker daemon.
+ */
+public final class ListParserIT
+{
+	private static final String NGINX_ID =
+		"sha256:53a18edff8091d5faff1e42b4d885bc5f0f897873b0b8f0ace236cd5930819b0";
+	private static final String NGINX_DIGEST =
+		"sha256:124b44bfc9ccd1f3cedf4b592d4d1e8bddb78b51ec2ed5056c52d3692baebc19";
+	private static final String DANGLING_ID =
+		"sha256:0b1e1a2a3c6f4d5e6f708192a3b4c5d6e7f8091a2b3c4d5e6f708192a3b4c5d6";
+	private static final String REDIS_ID =
+		"sha256:7faaec68323851b2265bddb239bd9476c7d4e4335e9fd88cbfcc1df374dded2f";
+
+	@Test
+	public void listContainers() throws IOException, InterruptedException
+	{
+		String stdout = """
+			{"Command":"\\"/docker-entrypoint.…\\"","CreatedAt":"2025-01-01 00:00:00 +0000 UTC",\
+			"ID":"4c01db0b339c","Image":"nginx","Labels":"","LocalVolumes":"0","Mounts":"","Names":"frontend",\
+			"Networks":"bridge","Ports":"80/tcp","RunningFor":"2 minutes ago","Size":"0B","State":"running",\
+			"Status":"Up 2 minutes"}
+			{"Command":"\\"redis-server\\"","CreatedAt":"2025-01-01 00:00:00 +0000 UTC","ID":"d7b2a3c4e5f6",\
+			"Image":"redis","Labels":"com.example.tier=cache","LocalVolumes":"1","Mounts":"a1b2c3",\
+			"Names":"cache","Networks":"bridge","Ports":"","RunningFor":"3 minutes ago","Size":"0B",\
+			"State":"exited","Status":"Exited (0) 1 minute ago"}
+			""";
+		try (FakeExecutable executable = FakeExecutable.docker().
+			on("container ls *", new Reply().stdout(stdout)).
+			build();
+		     Docker client = Docker.connect(executable.getPath()))
+		{
+			List<ContainerElement> containers = client.listContainers();
+			requireThat(containers, "containers").isEqualTo(List.of(
+				new ContainerElement("4c01db0b339c", "frontend"),
+				new ContainerElement("d7b2a3c4e5f6", "cache")));
+		}
+	}
+
+	@Test
+	public void listImages() throws IOException, InterruptedException
+	{
+		// One line per image reference. Untagged images are listed as "<none>".
+		String stdout = imageLine(NGINX_ID, "nginx", "latest", NGINX_DIGEST) +
+			imageLine(NGINX_ID, "nginx", "1.27", NGINX_DIGEST) +
+			imageLine(NGINX_ID, "registry.example.com/nginx", "latest", "<none>") +
+			imageLine(DANGLING_ID, "<none>", "<none>", "<none>") +
+			imageLine(REDIS_ID, "redis", "<none>", "sha256:" + "f".repeat(64));
+		List<ImageElement> expected = List.of(
+			new ImageElement(NGINX_ID,
+				Map.of("nginx", Set.of("latest", "1.27"), "registry.example.com/nginx", Set.of("latest")),
+				Map.of("nginx", NGINX_DIGEST)),
+			new ImageElement(DANGLING_ID, Map.of(), Map.of()),
+			new ImageElement(REDIS_ID, Map.of(), Map.of("redis", "sha256:" + "f".repeat(64))));
+		try (FakeExecutable executable = FakeExecutable.docker().
+			on("image ls *", new Reply().stdout(stdout)).
+			build();
+		     Docker client = Docker.connect(executable.getPath()))
+		{
+			List<ImageElement> images = client.listImages();
+			requireThat(images, "images").isEqualTo(expected);
+
+			// The streaming path must group the lines the same way
+			List<ImageElement> streamed;
+			try (Stream<ImageElement> stream = client.streamImages())
+			{
+				streamed = stream.toList();
+			}
+			requireThat(streamed, "streamImages()").isEqualTo(expected);
+
+			// Listing the same images again reuses the interned references and names
+			List<ImageReference> references = images.getFirst().references();
+			requireThat(streamed.getFirst().references().getFirst() == references.getFirst(), "sameReference").
+				isTrue();
+			requireThat(references.get(0).getName() == references.get(1).getName(), "sameName").isTrue();
+		}
+	}
+
+	@Test
+	public void closeImageStreamEarly() throws IOException, InterruptedException
+	{
+		String stdout = imageLine(NGINX_ID, "nginx", "latest", "<none>") +
+			imageLine(DANGLING_ID, "<none>", "<none>", "<none>") +
+			imageLine(REDIS_ID, "redis", "latest", "<none>");
+		try (FakeExecutable executable = FakeExecutable.docker().
+			on("image ls *", new Reply().stdout(stdout)).
+			build();
+		     Docker client = Docker.connect(executable.getPath()))
+		{
+			InMemoryCommandMetrics metrics = new InMemoryCommandMetrics();
+			client.setCommandMetrics(metrics);
+			try (Stream<ImageElement> stream = client.streamImages())
+			{
+				requireThat(stream.findFirst().orElseThrow().id(), "id").isEqualTo(NGINX_ID);
+			}
+
+			// Closing the stream before it is exhausted reports the command as cancelled, not failed
+			CommandStatistics statistics = metrics.snapshot().get("image ls");
+			requireThat(statistics, "statistics").isNotNull();
+			requireThat(statistics.count(), "statistics.count()").isEqualTo(1L);
+			requireThat(statistics.failures(), "statistics.failures()").isEqualTo(0L);
+		}
+	}
+
+	@Test
+	public void listImagesAsTheyAreRead() throws IOException, InterruptedException
+	{
+		try (FakeExecutable executable = FakeExecutable.docker().
+			otherwise(new Reply()).
+			build();
+		     InternalDocker client = (InternalDocker) Docker.connect(executable.getPath());
+		     PipedOutputStream out = new PipedOutputStream();
+		     PipedInputStream in = new PipedInputStream(out))
+		{
+			ImageParser parser = client.getImageParser();
+			BlockingQueue<ImageElement> images = new LinkedBlockingQueue<>();
+			AtomicReference<Throwable> error = new AtomicReference<>();
+			Thread thread = Thread.startVirtualThread(() ->
+			{
+				try
+				{
+					parser.list(in, images::add);
+				}
+				catch (IOException | RuntimeException e)
+				{
+					error.set(e);
+				}
+			});
+			out.write((imageLine(NGINX_ID, "nginx", "latest", "<none>") +
+				imageLine(NGINX_ID, "nginx", "1.27", "<none>")).getBytes(UTF_8));
+			out.flush();
+			requireThat(images.poll(1, TimeUnit.SECONDS), "images.poll()").isNull();
+
+			// The first image is complete once a line with a different ID is read
+			out.write(imageLine(REDIS_ID, "redis", "latest", "<none>").getBytes(UTF_8));
+			out.flush();
+			ImageElement nginx = images.poll(10, TimeUnit.SECONDS);
+			requireThat(nginx, "nginx").isNotNull();
+			requireThat(nginx.id(), "nginx.id()").isEqualTo(NGINX_ID);
+			requireThat(nginx.referenceToTags(), "nginx.referenceToTags()").
+				isEqualTo(Map.of("nginx", Set.of("latest", "1.27")));
+			requireThat(images, "images").isEmpty();
+
+			out.close();
+			requireThat(thread.join(Duration.ofSeconds(10)), "thread.join()").isTrue();
+			requireThat(error.get(), "error").isNull();
+			ImageElement redis = images.poll();
+			requireThat(redis, "redis").isNotNull();
+			requireThat(redis.id(), "redis.id()").isEqualTo(REDIS_ID);
+		}
+	}
+
+	/**
+	 * @param id         the image's ID
+	 * @param repository the image's repository
+	 * @param tag        the image's tag
+	 * @param digest     the image's digest
+	 * @return a line of the output of {@code image ls --format json --digests --no-trunc}
+	 */
+	private static String imageLine(String id, String repository, String tag, String digest)
+	{
+		return "{\"Containers\":\"N/A\",\"CreatedAt\":\"2025-01-01 00:00:00 +0000 UTC\"," +
+			"\"CreatedSince\":\"2 weeks ago\",\"Digest\":\"" + digest + "\",\"ID\":\"" + id + "\"," +
+			"\"Repository\":\"" + repository + "\",\"SharedSize\":\"N/A\",\"Size\":\"192MB\"," +
+			"\"Tag\":\"" + tag + "\",\"UniqueSize\":\"N/A\",\"VirtualSize\":\"192.5MB\"}\n";
+	}
+
+	@Test
+	public void listConfigs() throws IOException, InterruptedException
+	{
+		String stdout = """
+			{"CreatedAt":"2025-01-01 00:00:00 +0000 UTC","ID":"3ax7jd8gc2ckqm3qx0yrz6v5e","Labels":"",\
+			"Name":"settings","UpdatedAt":"2025-01-01 00:00:00 +0000 UTC"}
+			{"CreatedAt":"2025-01-02 00:00:00 +0000 UTC","ID":"9lrtkpv0ye81v5c1phv3p6xvo",\
+			"Labels":"com.example.env=prod","Name":"logging","UpdatedAt":"2025-01-02 00:00:00 +0000 UTC"}
+			""";
+		try (FakeExecutable executable = FakeExecutable.docker().
+			on("config ls *", new Reply().stdout(stdout)).
+			build();
+		     Docker client = Docker.connect(executable.getPath()))
+		{
+			List<ConfigElement> configs = client.listConfigs();
+			requireThat(configs, "configs").isEqualTo(List.of(
+				new ConfigElement("3ax7jd8gc2ckqm3qx0yrz6v5e", "settings"),
+				new ConfigElement("9lrtkpv0ye81v5c1phv3p6xvo", "logging")));
+		}
+	}
+
+	@Test
+	public void listNodes() throws IOException, InterruptedException
+	{
+		String stdout = """
+			{"Availability":"Active","EngineVersion":"28.0.1","Hostname":"manager1",\
+			"ID":"x8q4pzb3lz4v0o3ylhn5xq0gq","ManagerStatus":"Leader","Self":true,"Status":"Ready",\
+			"TLSStatus":"Ready"}
+			{"Availability":"Drain","EngineVersion":"28.0.1","Hostname":"manager2",\
+			"ID":"m1a2b3c4d5e6f7g8h9i0j1k2l","ManagerStatus":"Reachable","Self":false,"Status":"Ready",\
+			"TLSStatus":"Ready"}
+			{"Availability":"Pause","EngineVersion":"27.5.1","Hostname":"worker1",\
+			"ID":"w9v8u7t6s5r4q3p2o1n0m9l8k","ManagerStatus":"","Self":false,"Status":"Down",\
+			"TLSStatus":"Ready"}
+			""";
+		try (FakeExecutable executable = FakeExecutable.docker().
+			on("node ls *", new Reply().stdout(stdout)).
+			build();
+		     Docker client = Docker.connect(executable.getPath()))
+		{
+			List<NodeElement> nodes = client.listNodes();
+			requireThat(nodes, "nodes").isEqualTo(List.of(
+				new NodeElement("x8q4pzb3lz4v0o3ylhn5xq0gq", "manager1", Type.MANAGER, true, Status.READY,
+					Reachability.REACHABLE, Availability.ACTIVE, "28.0.1"),
+				new NodeElement("m1a2b3c4d5e6f7g8h9i0j1k2l", "manager2", Type.MANAGER, false, Status.READY,
+					Reachability.REACHABLE, Availability.DRAIN, "28.0.1"),
+				new NodeElement("w9v8u7t6s5r4q3p2o1n0m9l8k", "worker1", Type.WORKER, false, Status.DOWN,
+					Reachability.UNKNOWN, Availability.PAUSE, "27.5.1")));
+		}
+	}
+
+	@Test
+	public void listTasks() throws IOException, InterruptedException
+	{
+		String stdout = """
+			{"CurrentState":"Running 2 minutes ago","DesiredState":"Running","Error":"",\
+			"ID":"qvy4nb1dfm0bq2kx8k3gq1ceh","Image":"nginx:latest","Name":"web.1","Node":"manager1",\
+			"Ports":""}
+			{"CurrentState":"Shutdown 5 minutes ago","DesiredState":"Shutdown","Error":"",\
+			"ID":"p0o9i8u7y6t5r4e3w2q1a2s3d","Image":"nginx:latest","Name":"web.2","Node":"manager1",\
+			"Ports":""}
+			""";
+		try (FakeExecutable executable = FakeExecutable.docker().
+			on("node ps *", new Reply().stdout(stdout)).
+			build();
+		     Docker client = Docker.connect(executable.getPath()))
+		{
+			List<Task> tasks = client.listTasksByNode();
+			requireThat(tasks, "tasks").size().isEqualTo(2);
+
+			Task first = tasks.getFirst();
+			requireThat(first.getId(), "first.getId()").isEqualTo("qvy4nb1dfm0bq2kx8k3gq1ceh");
+			requireThat(first.getName(), "first.getName()").isEqualTo("web.1");
+			requireThat(first.getState(), "first.getState()").isEqualTo(State.RUNNING);
+
+			Task second = tasks.get(1);
+			requireThat(second.getId(), "second.getId()").isEqualTo("p0o9i8u7y6t5r4e3w2q1a2s3d");
+			requireThat(second.getName(), "second.getName()").isEqualTo("web.2");
+			requireThat(second.getState(), "second.getState()").isEqualTo(State.SHUTDOWN);
+		}
+	}
+}
@@ -0,0 +1,216 @@
+package com.github.cowwoc.anchor4j.docker.test.client;
+
+import com.github.cowwoc.anchor4j.docker.client.Docker;
+import com.github.cowwoc.anchor4j.docker.resource.LogRecord;
+import com.github.cowwoc.anchor4j.docker.resource.MergedLogGetter;
+import com.github.cowwoc.anchor4j.testsupport.FakeExecutable;
+import com.github.cowwoc.anchor4j.testsupport.Reply;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static com.github.cowwoc.requirements11.java.DefaultJavaValidators.requireThat;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Checks the limits of {@code MergedLogGetter}, without a Docker daemon.
+ */
+public final class MergedLogGetterIT
+{
+	@Test(expectedExceptions = IllegalStateException.class)
+	public void followMoreContainersThanLogProcesses() throws IOException
+	{
+		try (FakeExecutable executable = FakeExecutable.docker().
+			otherwise(new Reply()).
+			build();
+		     Docker client = Docker.connect(executable.getPath()))
+		{
+			client.setMaximumLogProcesses(2);
+			client.getContainerLogs(List.of("frontend", "backend", "database")).
+				follow().
+				publish();
+		}
+	}
+
+	@Test
+	public void followAsManyContainersAsLogProcesses() throws IOException
+	{
+		try (FakeExecutable executable = FakeExecutable.docker().
+			otherwise(new Reply()).
+			build();
+		     Docker client = Docker.connect(executable.getPath()))
+		{
+			client.setMaximumLogProcesses(3);
+			MergedLogGetter getter = client.getContainerLogs(List.of("frontend", "backend", "database")).
+				follow();
+			requireThat(getter.publish(), "getter.publish()").isNotNull();
+		}
+	}
+
+	@Test
+	public void readMoreContainersThanLogProcesses() throws IOException
+	{
+		try (FakeExecutable executable = FakeExecutable.docker().
+			on("container logs * frontend", new Reply().stdout("2025-01-01T00:00:01.000000000Z first\n")).
+			on("container logs * backend", new Reply().stdout("2025-01-01T00:00:02.000000000Z second\n")).
+			on("container logs * database", new Reply().stdout("2025-01-01T00:00:03.000000000Z third\n")).
+			build();
+		     Docker client = Docker.connect(executable.getPath()))
+		{
+			// Logs that are not followed release their processes once they are read
+			client.setMaximumLogProcesses(2);
+			List<LogRecord> records = collect(client.getContainerLogs(List.of("frontend", "backend", "database")).
+				publish());
+			List<String> lines = new ArrayList<>();
+			for (LogRecord logRecord : records)
+				lines.add(new String(logRecord.bytes(), UTF_8));
+			requireThat(lines, "lines").isEqualTo(List.of("first", "second", "third"));
+		}
+	}
+
+	@Test
+	public void followWhileLogProcessesAreInUse() throws IOException, InterruptedException
+	{
+		try (FakeExecutable executable = FakeExecutable.docker().
+			otherwise(new Reply().latency(Duration.ofMinutes(1))).
+			build();
+		     Docker client = Docker.connect(executable.getPath()))
+		{
+			client.setMaximumLogProcesses(3);
+			CompletableFuture<Void> first = new CompletableFuture<>();
+			Flow.Subscription subscription = subscribe(client.getContainerLogs(List.of("frontend", "backend")).
+				follow().
+				publish(), first);
+			try
+			{
+				while (executable.getInvocations().size() < 2)
+					Thread.sleep(10);
+
+				// Only one of the three processes is left, so the second merge must not start any of its processes
+				CompletableFuture<Void> second = new CompletableFuture<>();
+				subscribe(client.getContainerLogs(List.of("database", "cache")).
+					follow().
+					processTimeout(Duration.ofMillis(100)).
+					publish(), second);
+				try
+				{
+					second.get(10, TimeUnit.SECONDS);
+					throw new AssertionError("Expected a TimeoutException");
+				}
+				catch (ExecutionException e)
+				{
+					requireThat(e.getCause(), "e.getCause()").isInstanceOf(TimeoutException.class);
+				}
+				catch (TimeoutException e)
+				{
+					throw new AssertionError("The second merge waited for its processes forever", e);
+				}
+				requireThat(executable.getInvocations().size(), "invocations").isEqualTo(2);
+			}
+			finally
+			{
+				subscription.cancel();
+			}
+		}
+	}
+
+	/**
+	 * Subscribes to a publisher, requesting one record at a time.
+	 *
+	 * @param publisher the publisher
+	 * @param done      completed once the subscription ends
+	 * @return the subscription
+	 * @throws InterruptedException if the thread is interrupted while waiting for the subscription
+	 */
+	private static Flow.Subscription subscribe(Flow.Publisher<LogRecord> publisher, CompletableFuture<Void> done)
+		throws InterruptedException
+	{
+		BlockingQueue<Flow.Subscription> subscriptions = new LinkedBlockingQueue<>();
+		publisher.subscribe(new Flow.Subscriber<>()
+		{
+			private Flow.Subscription subscription;
+
+			@Override
+			public void onSubscribe(Flow.Subscription subscription)
+			{
+				this.subscription = subscription;
+				subscriptions.add(subscription);
+				subscription.request(1);
+			}
+
+			@Override
+			public void onNext(LogRecord item)
+			{
+				subscription.request(1);
+			}
+
+			@Override
+			public void onError(Throwable throwable)
+			{
+				done.completeExceptionally(throwable);
+			}
+
+			@Override
+			public void onComplete()
+			{
+				done.complete(null);
+			}
+		});
+		return subscriptions.take();
+	}
+
+	/**
+	 * Collects all the records of a publisher, requesting one record at a time.
+	 *
+	 * @param publisher the publisher
+	 * @return the records
+	 */
+	private static List<LogRecord> collect(Flow.Publisher<LogRecord> publisher)
+	{
+		List<LogRecord> records = new CopyOnWriteArrayList<>();
+		CompletableFuture<Void> done = new CompletableFuture<>();
+		publisher.subscribe(new Flow.Subscriber<>()
+		{
+			private Flow.Subscription subscription;
+
+			@Override
+			public void onSubscribe(Flow.Subscription subscription)
+			{
+				this.subscription = subscription;
+				subscription.request(1);
+			}
+
+			@Override
+			public void onNext(LogRecord item)
+			{
+				records.add(item);
+				subscription.request(1);
+			}
+
+			@Override
+			public void onError(Throwable throwable)
+			{
+				done.completeExceptionally(throwable);
+			}
+
+			@Override
+			public void onComplete()
+			{
+				done.complete(null);
+			}
+		});
+		done.join();
+		return records;
+	}
+}
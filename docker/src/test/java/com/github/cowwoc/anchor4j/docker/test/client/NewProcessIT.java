@@ -0,0 +1,61 @@
+package com.github.cowwoc.anchor4j.docker.test.client;
+
+import com.github.cowwoc.anchor4j.core.internal.client.CommandResult;
+import com.github.cowwoc.anchor4j.docker.client.Docker;
+import com.github.cowwoc.anchor4j.docker.internal.client.InternalDocker;
+import com.github.cowwoc.anchor4j.testsupport.FakeExecutable;
+import com.github.cowwoc.anchor4j.testsupport.Reply;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.github.cowwoc.requirements11.java.DefaultJavaValidators.requireThat;
+
+/**
+ * Runs commands in new processes, against a {@code FakeExecutable}.
+ */
+public final class NewProcessIT
+{
+	@Test
+	public void interruptLargeOutput() throws IOException, InterruptedException
+	{
+		// 64 MiB of output keeps the stdout reader busy after the command is interrupted
+		String line = "x".repeat(1023) + "\n";
+		String smallLine = "small output\n";
+		try (FakeExecutable executable = FakeExecutable.docker().
+			on("image save large", new Reply().stdout(line).repeatStdout(64 * 1024)).
+			on("image save small", new Reply().stdout(smallLine).repeatStdout(1000)).
+			build();
+		     InternalDocker client = (InternalDocker) Docker.connect(executable.getPath()))
+		{
+			AtomicReference<Throwable> error = new AtomicReference<>();
+			Thread thread = Thread.startVirtualThread(() ->
+			{
+				try
+				{
+					client.run(List.of("image", "save", "large"));
+				}
+				catch (IOException | InterruptedException | RuntimeException e)
+				{
+					error.set(e);
+				}
+			});
+			while (executable.getInvocations().isEmpty())
+				Thread.sleep(10);
+			thread.interrupt();
+			requireThat(thread.join(Duration.ofSeconds(10)), "thread.join()").isTrue();
+			requireThat(error.get(), "error").isInstanceOf(InterruptedException.class);
+
+			// Subsequent commands must not share an output buffer with the interrupted command
+			String expected = smallLine.repeat(1000).strip();
+			for (int i = 0; i < 20; ++i)
+			{
+				CommandResult result = client.run(List.of("image", "save", "small"));
+				requireThat(result.stdout(), "result.stdout()").isEqualTo(expected);
+			}
+		}
+	}
+}
@@ -0,0 +1,200 @@
+package com.github.cowwoc.anchor4j.docker.test.client;
+
+import com.github.cowwoc.anchor4j.core.internal.util.Paths;
+import com.github.cowwoc.anchor4j.docker.internal.util.Pem;
+import org.bouncycastle.asn1.ASN1Encodable;
+import org.bouncycastle.asn1.ASN1BitString;
+import org.bouncycastle.asn1.pkcs.PrivateKeyInfo;
+import org.bouncycastle.asn1.x509.SubjectPublicKeyInfo;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.RSAPrivateCrtKey;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Base64;
+
+import static com.github.cowwoc.requirements11.java.DefaultJavaValidators.requireThat;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+/**
+ * Reads generated private keys using {@code Pem}.
+ */
+public final class PemIT
+{
+	@Test
+	public void readRsaPkcs8() throws IOException, GeneralSecurityException
+	{
+		RSAPrivateCrtKey key = (RSAPrivateCrtKey) generateKeyPair("RSA", null).getPrivate();
+		PrivateKey actual = read(toPem("PRIVATE KEY", key.getEncoded()));
+		assertEqual(actual, key);
+	}
+
+	@Test
+	public void readRsaPkcs1() throws IOException, GeneralSecurityException
+	{
+		RSAPrivateCrtKey key = (RSAPrivateCrtKey) generateKeyPair("RSA", null).getPrivate();
+		// A 2048-bit key is longer than 255 bytes, so its length is encoded using two bytes
+		byte[] pkcs1 = PrivateKeyInfo.getInstance(key.getEncoded()).parsePrivateKey().toASN1Primitive().
+			getEncoded();
+		PrivateKey actual = read(toPem("RSA PRIVATE KEY", pkcs1));
+		assertEqual(actual, key);
+	}
+
+	/**
+	 * @param actual   the key that was read
+	 * @param expected the key that was written
+	 */
+	private static void assertEqual(PrivateKey actual, RSAPrivateCrtKey expected)
+	{
+		requireThat(actual, "actual").isInstanceOf(RSAPrivateCrtKey.class);
+		RSAPrivateCrtKey rsaKey = (RSAPrivateCrtKey) actual;
+		requireThat(rsaKey.getModulus(), "getModulus()").isEqualTo(expected.getModulus());
+		requireThat(rsaKey.getPrivateExponent(), "getPrivateExponent()").
+			isEqualTo(expected.getPrivateExponent());
+	}
+
+	@Test
+	public void readEcPkcs8() throws IOException, GeneralSecurityException
+	{
+		ECPrivateKey key = (ECPrivateKey) generateKeyPair("EC", "secp256r1").getPrivate();
+		PrivateKey actual = read(toPem("PRIVATE KEY", key.getEncoded()));
+		assertEqual(actual, key);
+	}
+
+	@Test
+	public void readEcSec1() throws IOException, GeneralSecurityException
+	{
+		KeyPair keyPair = generateKeyPair("EC", "secp256r1");
+		PrivateKey actual = read(toPem("EC PRIVATE KEY", toSec1(keyPair, true)));
+		assertEqual(actual, (ECPrivateKey) keyPair.getPrivate());
+	}
+
+	@Test
+	public void readEcSec1WithLongLength() throws IOException, GeneralSecurityException
+	{
+		// A P-384 key is longer than 127 bytes, so its length is encoded using an extra byte
+		KeyPair keyPair = generateKeyPair("EC", "secp384r1");
+		byte[] sec1 = toSec1(keyPair, true);
+		requireThat(sec1[1] & 0xFF, "length").isEqualTo(0x81);
+		PrivateKey actual = read(toPem("EC PRIVATE KEY", sec1));
+		assertEqual(actual, (ECPrivateKey) keyPair.getPrivate());
+	}
+
+	@Test
+	public void skipEcParameters() throws IOException, GeneralSecurityException
+	{
+		// "openssl ecparam -genkey" writes the curve's parameters ahead of the key
+		KeyPair keyPair = generateKeyPair("EC", "secp521r1");
+		byte[] curve = PrivateKeyInfo.getInstance(keyPair.getPrivate().getEncoded()).getPrivateKeyAlgorithm().
+			getParameters().toASN1Primitive().getEncoded();
+		PrivateKey actual = read(toPem("EC PARAMETERS", curve) +
+			toPem("EC PRIVATE KEY", toSec1(keyPair, true)));
+		assertEqual(actual, (ECPrivateKey) keyPair.getPrivate());
+	}
+
+	@Test(expectedExceptions = IOException.class)
+	public void rejectEcSec1WithoutCurve() throws IOException, GeneralSecurityException
+	{
+		KeyPair keyPair = generateKeyPair("EC", "secp256r1");
+		read(toPem("EC PRIVATE KEY", toSec1(keyPair, false)));
+	}
+
+	@Test(expectedExceptions = IOException.class)
+	public void rejectMissingKey() throws IOException
+	{
+		read(toPem("CERTIFICATE REQUEST", new byte[]{0x30, 0x00}));
+	}
+
+	/**
+	 * @param actual   the key that was read
+	 * @param expected the key that was written
+	 */
+	private static void assertEqual(PrivateKey actual, ECPrivateKey expected)
+	{
+		requireThat(actual, "actual").isInstanceOf(ECPrivateKey.class);
+		ECPrivateKey ecKey = (ECPrivateKey) actual;
+		requireThat(ecKey.getS(), "getS()").isEqualTo(expected.getS());
+		requireThat(ecKey.getParams().getCurve(), "getParams().getCurve()").
+			isEqualTo(expected.getParams().getCurve());
+	}
+
+	/**
+	 * Generates a key pair.
+	 *
+	 * @param algorithm the key's algorithm
+	 * @param curve     the name of the elliptic curve, or {@code null} if the algorithm is not {@code EC}
+	 * @return the key pair
+	 * @throws GeneralSecurityException if the key pair cannot be generated
+	 */
+	private static KeyPair generateKeyPair(String algorithm, String curve) throws GeneralSecurityException
+	{
+		KeyPairGenerator generator = KeyPairGenerator.getInstance(algorithm);
+		if (curve == null)
+			generator.initialize(2048);
+		else
+			generator.initialize(new ECGenParameterSpec(curve));
+		return generator.generateKeyPair();
+	}
+
+	/**
+	 * Converts an EC private key to the SEC1 format that OpenSSL writes.
+	 *
+	 * @param keyPair      the EC key pair
+	 * @param includeCurve {@code true} to include the key's named curve
+	 * @return the DER encoding of the SEC1 {@code ECPrivateKey}
+	 * @throws IOException if the key cannot be encoded
+	 */
+	private static byte[] toSec1(KeyPair keyPair, boolean includeCurve) throws IOException
+	{
+		ECPrivateKey key = (ECPrivateKey) keyPair.getPrivate();
+		int orderBitLength = key.getParams().getOrder().bitLength();
+		ASN1BitString publicKey = SubjectPublicKeyInfo.getInstance(keyPair.getPublic().getEncoded()).
+			getPublicKeyData();
+		ASN1Encodable curve = null;
+		if (includeCurve)
+			curve = PrivateKeyInfo.getInstance(key.getEncoded()).getPrivateKeyAlgorithm().getParameters();
+		return new org.bouncycastle.asn1.sec.ECPrivateKey(orderBitLength, key.getS(), publicKey, curve).
+			getEncoded();
+	}
+
+	/**
+	 * @param label the label of the PEM block
+	 * @param der   the DER encoding of the block's contents
+	 * @return the PEM block
+	 */
+	private static String toPem(String label, byte[] der)
+	{
+		return "-----BEGIN " + label + "-----\n" +
+			Base64.getMimeEncoder(64, new byte[]{'\n'}).encodeToString(der) + "\n" +
+			"-----END " + label + "-----\n";
+	}
+
+	/**
+	 * Reads a private key from a file.
+	 *
+	 * @param pem the contents of the file
+	 * @return the private key
+	 * @throws IOException if the file cannot be written or does not contain a supported private key
+	 */
+	private static PrivateKey read(String pem) throws IOException
+	{
+		Path directory = Files.createTempDirectory("anchor4j");
+		try
+		{
+			Path path = directory.resolve("key.pem");
+			Files.writeString(path, pem, US_ASCII);
+			return Pem.readPrivateKey(path);
+		}
+		finally
+		{
+			Paths.deleteRecursively(directory);
+		}
+	}
+}
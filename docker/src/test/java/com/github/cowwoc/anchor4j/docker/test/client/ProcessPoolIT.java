@@ -0,0 +1,202 @@
+package com.github.cowwoc.anchor4j.docker.test.client;
+
+import com.github.cowwoc.anchor4j.core.internal.client.CommandResult;
+import com.github.cowwoc.anchor4j.core.metrics.CommandStatistics;
+import com.github.cowwoc.anchor4j.core.metrics.InMemoryCommandMetrics;
+import com.github.cowwoc.anchor4j.docker.client.Docker;
+import com.github.cowwoc.anchor4j.docker.internal.client.InternalDocker;
+import com.github.cowwoc.anchor4j.testsupport.FakeExecutable;
+import com.github.cowwoc.anchor4j.testsupport.Reply;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.github.cowwoc.requirements11.java.DefaultJavaValidators.requireThat;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Runs commands in pooled helper processes, against a {@code FakeExecutable}.
+ */
+public final class ProcessPoolIT
+{
+	@Test
+	public void quoteArguments() throws IOException, InterruptedException
+	{
+		String argument = "it's a \"quoted\" $HOME `pwd` \\ * argument";
+		try (FakeExecutable executable = FakeExecutable.docker().
+			otherwise(new Reply()).
+			build();
+		     InternalDocker client = connect(executable))
+		{
+			client.run(List.of("container", "inspect", argument));
+			requireThat(executable.getInvocations(), "executable.getInvocations()").
+				isEqualTo(List.of("container inspect " + argument));
+			assertRanInPool(client, "container inspect");
+		}
+	}
+
+	@Test
+	public void separateConsecutiveCommands() throws IOException, InterruptedException
+	{
+		try (FakeExecutable executable = FakeExecutable.docker().
+			on("container inspect first", new Reply().stdout("first\n").stderr("warning\n")).
+			on("container inspect second", new Reply().stdout("second\n")).
+			build();
+		     InternalDocker client = connect(executable))
+		{
+			// A single helper process runs both commands, so each command's output must end at its marker
+			for (int i = 0; i < 3; ++i)
+			{
+				CommandResult first = client.run(List.of("container", "inspect", "first"));
+				requireThat(first.stdout(), "first.stdout()").isEqualTo("first");
+				requireThat(first.stderr(), "first.stderr()").isEqualTo("warning");
+
+				CommandResult second = client.run(List.of("container", "inspect", "second"));
+				requireThat(second.stdout(), "second.stdout()").isEqualTo("second");
+				requireThat(second.stderr(), "second.stderr()").isEmpty();
+			}
+			assertRanInPool(client, "container inspect");
+		}
+	}
+
+	@Test
+	public void outputWithoutTrailingNewline() throws IOException, InterruptedException
+	{
+		try (FakeExecutable executable = FakeExecutable.docker().
+			on("image ls without", new Reply().stdout("no newline")).
+			on("image ls with", new Reply().stdout("newline\n")).
+			on("image ls empty", new Reply()).
+			build();
+		     InternalDocker client = connect(executable))
+		{
+			// The raw bytes must match the command's output exactly
+			requireThat(getStdout(client, "without"), "without").isEqualTo("no newline");
+			requireThat(getStdout(client, "with"), "with").isEqualTo("newline\n");
+			requireThat(getStdout(client, "empty"), "empty").isEmpty();
+			assertRanInPool(client, "image ls");
+		}
+	}
+
+	/**
+	 * @param client   the client
+	 * @param argument the argument that selects the reply
+	 * @return the raw stdout of {@code image ls <argument>}
+	 */
+	private static String getStdout(InternalDocker client, String argument)
+		throws IOException, InterruptedException
+	{
+		CommandResult result = client.run(List.of("image", "ls", argument));
+		try (InputStream in = result.stdoutAsStream())
+		{
+			return new String(in.readAllBytes(), UTF_8);
+		}
+	}
+
+	@Test
+	public void nonZeroExitCode() throws IOException, InterruptedException
+	{
+		try (FakeExecutable executable = FakeExecutable.docker().
+			otherwise(new Reply().stderr("Error: No such object: missing\n").exitCode(42)).
+			build();
+		     InternalDocker client = connect(executable))
+		{
+			CommandResult result = client.run(List.of("container", "inspect", "missing"));
+			requireThat(result.exitCode(), "result.exitCode()").isEqualTo(42);
+			requireThat(result.stdout(), "result.stdout()").isEmpty();
+			requireThat(result.stderr(), "result.stderr()").isEqualTo("Error: No such object: missing");
+			assertRanInPool(client, "container inspect");
+		}
+	}
+
+	@Test
+	public void blockingCommandsAreNotPooled() throws IOException, InterruptedException
+	{
+		try (FakeExecutable executable = FakeExecutable.docker().
+			otherwise(new Reply().stdout("0\n")).
+			build();
+		     InternalDocker client = connect(executable))
+		{
+			client.run(List.of("container", "wait", "frontend"));
+			CommandStatistics statistics = getStatistics(client, "container wait");
+			requireThat(statistics.spawnTime().getMinimum(), "spawnTime.getMinimum()").isPositive();
+		}
+	}
+
+	@Test
+	public void interruptKillsCommand() throws IOException, InterruptedException
+	{
+		// A unique latency identifies the fake's sleep process
+		Duration latency = Duration.ofSeconds(37);
+		try (FakeExecutable executable = FakeExecutable.docker().
+			otherwise(new Reply().latency(latency)).
+			build();
+		     InternalDocker client = connect(executable))
+		{
+			AtomicReference<Throwable> error = new AtomicReference<>();
+			Thread thread = Thread.startVirtualThread(() ->
+			{
+				try
+				{
+					client.run(List.of("container", "inspect", "slow"));
+				}
+				catch (IOException | InterruptedException | RuntimeException e)
+				{
+					error.set(e);
+				}
+			});
+			while (executable.getInvocations().isEmpty())
+				Thread.sleep(10);
+			thread.interrupt();
+			requireThat(thread.join(Duration.ofSeconds(5)), "thread.join()").isTrue();
+			requireThat(error.get(), "error").isInstanceOf(InterruptedException.class);
+
+			long survivors = ProcessHandle.current().descendants().
+				filter(process -> process.info().commandLine().orElse("").contains("sleep 37")).
+				filter(ProcessHandle::isAlive).
+				count();
+			requireThat(survivors, "survivors").isZero();
+		}
+	}
+
+	/**
+	 * @param executable the fake executable
+	 * @return a client that runs its commands in a single pooled helper process
+	 * @throws IOException if an I/O error occurs
+	 */
+	private static InternalDocker connect(FakeExecutable executable) throws IOException
+	{
+		InternalDocker client = (InternalDocker) Docker.connect(executable.getPath());
+		client.setProcessPoolSize(1);
+		client.setCommandMetrics(new InMemoryCommandMetrics());
+		return client;
+	}
+
+	/**
+	 * Asserts that a command ran in a pooled helper process instead of spawning a new process.
+	 *
+	 * @param client the client
+	 * @param verb   the command's verb
+	 */
+	private static void assertRanInPool(InternalDocker client, String verb)
+	{
+		CommandStatistics statistics = getStatistics(client, verb);
+		requireThat(statistics.spawnTime().getMaximum(), "spawnTime.getMaximum()").isZero();
+	}
+
+	/**
+	 * @param client the client
+	 * @param verb   the command's verb
+	 * @return the command's statistics
+	 */
+	private static CommandStatistics getStatistics(InternalDocker client, String verb)
+	{
+		InMemoryCommandMetrics metrics = (InMemoryCommandMetrics) client.getCommandMetrics();
+		CommandStatistics statistics = metrics.snapshot().get(verb);
+		requireThat(statistics, "statistics").withContext(metrics.snapshot().keySet(), "verbs").isNotNull();
+		return statistics;
+	}
+}
@@ -0,0 +1,23 @@
+package com.github.cowwoc.anchor4j.docker.test.client;
+
+import com.github.cowwoc.anchor4j.docker.resource.Task.State;
+import com.github.cowwoc.anchor4j.docker.resource.TaskFilter;
+import org.testng.annotations.Test;
+
+/**
+ * Validates the arguments of {@code TaskFilter}.
+ */
+public final class TaskFilterIT
+{
+	@Test
+	public void supportedDesiredStates()
+	{
+		new TaskFilter().desiredState(State.RUNNING).desiredState(State.SHUTDOWN).desiredState(State.ACCEPTED);
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void unsupportedDesiredState()
+	{
+		new TaskFilter().desiredState(State.FAILED);
+	}
+}
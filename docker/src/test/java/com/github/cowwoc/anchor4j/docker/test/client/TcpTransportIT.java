@@ -0,0 +1,424 @@
+package com.github.cowwoc.anchor4j.docker.test.client;
+
+import com.github.cowwoc.anchor4j.core.internal.util.Paths;
+import com.github.cowwoc.anchor4j.docker.internal.client.EngineResponse;
+import com.github.cowwoc.anchor4j.docker.internal.client.TcpTransport;
+import org.bouncycastle.asn1.x500.X500Name;
+import org.bouncycastle.asn1.x509.BasicConstraints;
+import org.bouncycastle.asn1.x509.Extension;
+import org.bouncycastle.asn1.x509.GeneralName;
+import org.bouncycastle.asn1.x509.GeneralNames;
+import org.bouncycastle.cert.X509v3CertificateBuilder;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateConverter;
+import org.bouncycastle.cert.jcajce.JcaX509v3CertificateBuilder;
+import org.bouncycastle.openssl.jcajce.JcaPEMWriter;
+import org.bouncycastle.operator.ContentSigner;
+import org.bouncycastle.operator.OperatorCreationException;
+import org.bouncycastle.operator.jcajce.JcaContentSignerBuilder;
+import org.testng.annotations.Test;
+
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLHandshakeException;
+import javax.net.ssl.SSLServerSocket;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.TrustManagerFactory;
+import javax.net.ssl.X509ExtendedTrustManager;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.math.BigInteger;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.KeyStore;
+import java.security.PrivateKey;
+import java.security.cert.CertificateException;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.github.cowwoc.requirements11.java.DefaultJavaValidators.requireThat;
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Exercises {@code TcpTransport} against a stub Docker Engine that requires mutual TLS.
+ */
+public final class TcpTransportIT
+{
+	private static final ByteBuffer EMPTY_BODY = ByteBuffer.allocate(0);
+
+	@Test
+	public void resumeSession() throws IOException, InterruptedException, GeneralSecurityException,
+		OperatorCreationException
+	{
+		try (Certificates certificates = new Certificates();
+		     StubEngine engine = new StubEngine(certificates);
+		     // Disable connection reuse so that every request performs a handshake
+		     TcpTransport transport = new TcpTransport("localhost", engine.getPort(), certificates.getCa(),
+			     certificates.getClientCertificate(), certificates.getClientKey(), 0))
+		{
+			for (int i = 0; i < 3; ++i)
+			{
+				EngineResponse response = transport.send("GET", "/containers/abc/json", EMPTY_BODY);
+				requireThat(response.statusCode(), "response.statusCode()").isEqualTo(200);
+				requireThat(response.body(), "response.body()").isEqualTo("{\"Id\":\"abc\"}");
+			}
+			requireThat(engine.getNumberOfConnections(), "engine.getNumberOfConnections()").isEqualTo(3);
+			// Only full handshakes verify the client's certificate. Resumed sessions skip it.
+			requireThat(engine.getNumberOfFullHandshakes(), "engine.getNumberOfFullHandshakes()").isEqualTo(1);
+		}
+	}
+
+	@Test(expectedExceptions = SSLHandshakeException.class)
+	public void verifyHostname() throws IOException, InterruptedException, GeneralSecurityException,
+		OperatorCreationException
+	{
+		try (Certificates certificates = new Certificates();
+		     StubEngine engine = new StubEngine(certificates);
+		     // The server's certificate is only valid for "localhost"
+		     TcpTransport transport = new TcpTransport("127.0.0.1", engine.getPort(), certificates.getCa(),
+			     certificates.getClientCertificate(), certificates.getClientKey(), 1))
+		{
+			transport.send("GET", "/containers/abc/json", EMPTY_BODY);
+		}
+	}
+
+	/**
+	 * A certificate authority that issues a server certificate for {@code localhost} and a client
+	 * certificate. The CA's certificate and the client's files are written to a temporary directory.
+	 */
+	private static final class Certificates implements AutoCloseable
+	{
+		private final Path directory;
+		private final X509Certificate caCertificate;
+		private final KeyPair serverKeyPair;
+		private final X509Certificate serverCertificate;
+		private final AtomicInteger serialNumber = new AtomicInteger();
+
+		/**
+		 * Generates the certificates.
+		 *
+		 * @throws IOException               if the files cannot be written
+		 * @throws GeneralSecurityException  if the keys or certificates cannot be generated
+		 * @throws OperatorCreationException if the certificates cannot be signed
+		 */
+		Certificates() throws IOException, GeneralSecurityException, OperatorCreationException
+		{
+			this.directory = Files.createTempDirectory("anchor4j");
+			KeyPair caKeyPair = generateKeyPair();
+			X500Name caName = new X500Name("CN=Docker CA");
+			this.caCertificate = createCertificate(caName, caKeyPair, caName, caKeyPair.getPrivate(), true);
+
+			this.serverKeyPair = generateKeyPair();
+			this.serverCertificate = createCertificate(new X500Name("CN=docker-server"), serverKeyPair, caName,
+				caKeyPair.getPrivate(), false);
+
+			KeyPair clientKeyPair = generateKeyPair();
+			X509Certificate clientCertificate = createCertificate(new X500Name("CN=docker-client"),
+				clientKeyPair, caName, caKeyPair.getPrivate(), false);
+
+			writePem(getCa(), caCertificate);
+			writePem(getClientCertificate(), clientCertificate);
+			// JcaPEMWriter writes RSA keys in PKCS#1 format, like "openssl genrsa" does
+			writePem(getClientKey(), clientKeyPair.getPrivate());
+		}
+
+		/**
+		 * @return a new RSA key pair
+		 * @throws GeneralSecurityException if the key pair cannot be generated
+		 */
+		private static KeyPair generateKeyPair() throws GeneralSecurityException
+		{
+			KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+			generator.initialize(2048);
+			return generator.generateKeyPair();
+		}
+
+		/**
+		 * Creates a certificate.
+		 *
+		 * @param subject    the name of the certificate's owner
+		 * @param keyPair    the owner's key pair
+		 * @param issuer     the name of the certificate's issuer
+		 * @param issuerKey  the issuer's private key
+		 * @param isCa       {@code true} if the certificate belongs to a certificate authority
+		 * @return the certificate
+		 * @throws IOException               if the certificate's extensions cannot be encoded
+		 * @throws CertificateException      if the certificate cannot be converted
+		 * @throws OperatorCreationException if the certificate cannot be signed
+		 */
+		private X509Certificate createCertificate(X500Name subject, KeyPair keyPair, X500Name issuer,
+			PrivateKey issuerKey, boolean isCa)
+			throws IOException, CertificateException, OperatorCreationException
+		{
+			Instant now = Instant.now();
+			X509v3CertificateBuilder builder = new JcaX509v3CertificateBuilder(issuer,
+				BigInteger.valueOf(serialNumber.incrementAndGet()), Date.from(now.minus(Duration.ofHours(1))),
+				Date.from(now.plus(Duration.ofDays(1))), subject, keyPair.getPublic());
+			builder.addExtension(Extension.basicConstraints, true, new BasicConstraints(isCa));
+			if (!isCa)
+			{
+				builder.addExtension(Extension.subjectAlternativeName, false,
+					new GeneralNames(new GeneralName(GeneralName.dNSName, "localhost")));
+			}
+			ContentSigner signer = new JcaContentSignerBuilder("SHA256withRSA").build(issuerKey);
+			return new JcaX509CertificateConverter().getCertificate(builder.build(signer));
+		}
+
+		/**
+		 * @param path  the path of the file to write
+		 * @param value the object to write in PEM format
+		 * @throws IOException if the file cannot be written
+		 */
+		private static void writePem(Path path, Object value) throws IOException
+		{
+			try (Writer out = Files.newBufferedWriter(path, UTF_8);
+			     JcaPEMWriter writer = new JcaPEMWriter(out))
+			{
+				writer.writeObject(value);
+			}
+		}
+
+		/**
+		 * @return the path of the CA's certificate
+		 */
+		public Path getCa()
+		{
+			return directory.resolve("ca.pem");
+		}
+
+		/**
+		 * @return the path of the client's certificate
+		 */
+		public Path getClientCertificate()
+		{
+			return directory.resolve("cert.pem");
+		}
+
+		/**
+		 * @return the path of the client's private key
+		 */
+		public Path getClientKey()
+		{
+			return directory.resolve("key.pem");
+		}
+
+		@Override
+		public void close() throws IOException
+		{
+			Paths.deleteRecursively(directory);
+		}
+	}
+
+	/**
+	 * A minimal HTTP/1.1 server that mimics the Docker Engine API over mutual TLS.
+	 */
+	private static final class StubEngine implements AutoCloseable
+	{
+		private final ServerSocket server;
+		private final AtomicInteger numberOfConnections = new AtomicInteger();
+		private final AtomicInteger numberOfFullHandshakes = new AtomicInteger();
+
+		/**
+		 * Starts the server.
+		 *
+		 * @param certificates the server's certificates
+		 * @throws IOException              if an I/O error occurs
+		 * @throws GeneralSecurityException if TLS cannot be initialized
+		 */
+		StubEngine(Certificates certificates) throws IOException, GeneralSecurityException
+		{
+			char[] password = new char[0];
+			KeyStore keyStore = KeyStore.getInstance("PKCS12");
+			keyStore.load(null, null);
+			keyStore.setKeyEntry("server", certificates.serverKeyPair.getPrivate(), password,
+				new X509Certificate[]{certificates.serverCertificate, certificates.caCertificate});
+			KeyManagerFactory keyManagerFactory = KeyManagerFactory.getInstance(
+				KeyManagerFactory.getDefaultAlgorithm());
+			keyManagerFactory.init(keyStore, password);
+
+			KeyStore trustStore = KeyStore.getInstance("PKCS12");
+			trustStore.load(null, null);
+			trustStore.setCertificateEntry("ca", certificates.caCertificate);
+			TrustManagerFactory trustManagerFactory = TrustManagerFactory.getInstance(
+				TrustManagerFactory.getDefaultAlgorithm());
+			trustManagerFactory.init(trustStore);
+			X509ExtendedTrustManager trustManager = new CountingTrustManager(
+				(X509ExtendedTrustManager) trustManagerFactory.getTrustManagers()[0], numberOfFullHandshakes);
+
+			SSLContext sslContext = SSLContext.getInstance("TLS");
+			sslContext.init(keyManagerFactory.getKeyManagers(), new TrustManager[]{trustManager}, null);
+			SSLServerSocket sslServer = (SSLServerSocket) sslContext.getServerSocketFactory().
+				createServerSocket(0);
+			sslServer.setNeedClientAuth(true);
+			this.server = sslServer;
+			Thread.startVirtualThread(this::acceptConnections);
+		}
+
+		/**
+		 * @return the port that the server listens on
+		 */
+		public int getPort()
+		{
+			return server.getLocalPort();
+		}
+
+		/**
+		 * @return the number of connections that the server accepted
+		 */
+		public int getNumberOfConnections()
+		{
+			return numberOfConnections.get();
+		}
+
+		/**
+		 * @return the number of handshakes that verified the client's certificate
+		 */
+		public int getNumberOfFullHandshakes()
+		{
+			return numberOfFullHandshakes.get();
+		}
+
+		private void acceptConnections()
+		{
+			while (!server.isClosed())
+			{
+				try
+				{
+					Socket socket = server.accept();
+					numberOfConnections.incrementAndGet();
+					Thread.startVirtualThread(() -> serve(socket));
+				}
+				catch (IOException _)
+				{
+					// The server was closed
+					return;
+				}
+			}
+		}
+
+		/**
+		 * Responds to requests until the client closes the connection.
+		 *
+		 * @param socket the connection
+		 */
+		private void serve(Socket socket)
+		{
+			try (socket;
+			     BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(),
+				     ISO_8859_1));
+			     OutputStream out = socket.getOutputStream())
+			{
+				while (true)
+				{
+					String requestLine = in.readLine();
+					if (requestLine == null)
+						return;
+					// Skip the headers
+					String header = in.readLine();
+					while (header != null && !header.isEmpty())
+						header = in.readLine();
+
+					String body = "{\"Id\":\"abc\"}";
+					String response = "HTTP/1.1 200 OK\r\n" +
+						"Content-Type: application/json\r\n" +
+						"Content-Length: " + body.getBytes(UTF_8).length + "\r\n" +
+						"\r\n" +
+						body;
+					out.write(response.getBytes(UTF_8));
+					out.flush();
+				}
+			}
+			catch (IOException _)
+			{
+				// The client disconnected or the handshake failed
+			}
+		}
+
+		@Override
+		public void close() throws IOException
+		{
+			server.close();
+		}
+	}
+
+	/**
+	 * Counts the number of times that client certificates are verified.
+	 */
+	private static final class CountingTrustManager extends X509ExtendedTrustManager
+	{
+		private final X509ExtendedTrustManager delegate;
+		private final AtomicInteger count;
+
+		/**
+		 * @param delegate the trust manager that verifies certificates
+		 * @param count    the counter to increment whenever a client certificate is verified
+		 */
+		CountingTrustManager(X509ExtendedTrustManager delegate, AtomicInteger count)
+		{
+			this.delegate = delegate;
+			this.count = count;
+		}
+
+		@Override
+		public void checkClientTrusted(X509Certificate[] chain, String authType, Socket socket)
+			throws CertificateException
+		{
+			count.incrementAndGet();
+			delegate.checkClientTrusted(chain, authType, socket);
+		}
+
+		@Override
+		public void checkClientTrusted(X509Certificate[] chain, String authType, SSLEngine engine)
+			throws CertificateException
+		{
+			count.incrementAndGet();
+			delegate.checkClientTrusted(chain, authType, engine);
+		}
+
+		@Override
+		public void checkClientTrusted(X509Certificate[] chain, String authType) throws CertificateException
+		{
+			count.incrementAndGet();
+			delegate.checkClientTrusted(chain, authType);
+		}
+
+		@Override
+		public void checkServerTrusted(X509Certificate[] chain, String authType, Socket socket)
+			throws CertificateException
+		{
+			delegate.checkServerTrusted(chain, authType, socket);
+		}
+
+		@Override
+		public void checkServerTrusted(X509Certificate[] chain, String authType, SSLEngine engine)
+			throws CertificateException
+		{
+			delegate.checkServerTrusted(chain, authType, engine);
+		}
+
+		@Override
+		public void checkServerTrusted(X509Certificate[] chain, String authType) throws CertificateException
+		{
+			delegate.checkServerTrusted(chain, authType);
+		}
+
+		@Override
+		public X509Certificate[] getAcceptedIssuers()
+		{
+			return delegate.getAcceptedIssuers();
+		}
+	}
+}
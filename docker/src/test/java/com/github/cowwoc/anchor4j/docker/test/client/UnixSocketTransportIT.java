@@ -0,0 +1,215 @@
+package com.github.cowwoc.anchor4j.docker.test.client;
+
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.github.cowwoc.anchor4j.core.internal.client.CommandResult;
+import com.github.cowwoc.anchor4j.core.internal.util.Paths;
+import com.github.cowwoc.anchor4j.docker.internal.client.EngineResponse;
+import com.github.cowwoc.anchor4j.docker.internal.client.UnixSocketTransport;
+import org.testng.annotations.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.github.cowwoc.requirements11.java.DefaultJavaValidators.requireThat;
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Exercises {@code UnixSocketTransport} against a stub Docker Engine.
+ */
+public final class UnixSocketTransportIT
+{
+	private static final ByteBuffer EMPTY_BODY = ByteBuffer.allocate(0);
+
+	@Test
+	public void reuseConnection() throws IOException, InterruptedException
+	{
+		try (StubEngine engine = new StubEngine();
+		     UnixSocketTransport transport = new UnixSocketTransport(engine.getSocket(), 1))
+		{
+			for (int i = 0; i < 3; ++i)
+			{
+				EngineResponse response = transport.send("GET", "/containers/abc/json", EMPTY_BODY);
+				requireThat(response.statusCode(), "response.statusCode()").isEqualTo(200);
+				requireThat(response.body(), "response.body()").isEqualTo("{\"Id\":\"abc\"}");
+			}
+			requireThat(engine.getNumberOfConnections(), "engine.getNumberOfConnections()").isEqualTo(1);
+		}
+	}
+
+	@Test
+	public void chunkedResponse() throws IOException, InterruptedException
+	{
+		try (StubEngine engine = new StubEngine();
+		     UnixSocketTransport transport = new UnixSocketTransport(engine.getSocket(), 1))
+		{
+			EngineResponse response = transport.send("GET", "/chunked", EMPTY_BODY);
+			requireThat(response.statusCode(), "response.statusCode()").isEqualTo(200);
+			requireThat(response.body(), "response.body()").isEqualTo("{\"Id\":\"chunked\"}");
+
+			// The connection must remain usable after a chunked response
+			response = transport.send("GET", "/containers/abc/json", EMPTY_BODY);
+			requireThat(response.statusCode(), "response.statusCode()").isEqualTo(200);
+			requireThat(engine.getNumberOfConnections(), "engine.getNumberOfConnections()").isEqualTo(1);
+		}
+	}
+
+	@Test
+	public void errorResponse() throws IOException, InterruptedException
+	{
+		try (StubEngine engine = new StubEngine();
+		     UnixSocketTransport transport = new UnixSocketTransport(engine.getSocket(), 1))
+		{
+			EngineResponse response = transport.send("GET", "/containers/missing/json", EMPTY_BODY);
+			requireThat(response.statusCode(), "response.statusCode()").isEqualTo(404);
+
+			CommandResult result = response.toInspectResult(List.of("GET", "/containers/missing/json"),
+				JsonMapper.builder().build());
+			requireThat(result.exitCode(), "result.exitCode()").isEqualTo(1);
+			requireThat(result.stderr(), "result.stderr()").
+				isEqualTo("Error response from daemon: No such container: missing");
+		}
+	}
+
+	/**
+	 * A minimal HTTP/1.1 server that mimics the Docker Engine API over a Unix domain socket.
+	 */
+	private static final class StubEngine implements AutoCloseable
+	{
+		private final Path directory;
+		private final Path socket;
+		private final ServerSocketChannel server;
+		private final AtomicInteger numberOfConnections = new AtomicInteger();
+
+		/**
+		 * Starts the server.
+		 *
+		 * @throws IOException if an I/O error occurs
+		 */
+		StubEngine() throws IOException
+		{
+			this.directory = Files.createTempDirectory("anchor4j");
+			this.socket = directory.resolve("docker.sock");
+			this.server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+			server.bind(UnixDomainSocketAddress.of(socket));
+			Thread.startVirtualThread(this::acceptConnections);
+		}
+
+		/**
+		 * @return the path of the server's socket
+		 */
+		public Path getSocket()
+		{
+			return socket;
+		}
+
+		/**
+		 * @return the number of connections that the server accepted
+		 */
+		public int getNumberOfConnections()
+		{
+			return numberOfConnections.get();
+		}
+
+		private void acceptConnections()
+		{
+			while (server.isOpen())
+			{
+				try
+				{
+					SocketChannel channel = server.accept();
+					numberOfConnections.incrementAndGet();
+					Thread.startVirtualThread(() -> serve(channel));
+				}
+				catch (IOException _)
+				{
+					// The server was closed
+					return;
+				}
+			}
+		}
+
+		/**
+		 * Responds to requests until the client closes the connection.
+		 *
+		 * @param channel the connection
+		 */
+		private void serve(SocketChannel channel)
+		{
+			try (channel;
+			     BufferedReader in = new BufferedReader(new InputStreamReader(Channels.newInputStream(channel),
+				     ISO_8859_1));
+			     OutputStream out = Channels.newOutputStream(channel))
+			{
+				while (true)
+				{
+					String requestLine = in.readLine();
+					if (requestLine == null)
+						return;
+					// Skip the headers
+					String header = in.readLine();
+					while (header != null && !header.isEmpty())
+						header = in.readLine();
+
+					String path = requestLine.split(" ")[1];
+					String response = switch (path)
+					{
+						case "/containers/abc/json" -> withContentLength(200, "{\"Id\":\"abc\"}");
+						case "/chunked" -> """
+							HTTP/1.1 200 OK\r
+							Content-Type: application/json\r
+							Transfer-Encoding: chunked\r
+							\r
+							6\r
+							{"Id":\r
+							a\r
+							"chunked"}\r
+							0\r
+							\r
+							""";
+						default -> withContentLength(404, "{\"message\":\"No such container: missing\"}");
+					};
+					out.write(response.getBytes(UTF_8));
+					out.flush();
+				}
+			}
+			catch (IOException _)
+			{
+				// The client disconnected
+			}
+		}
+
+		/**
+		 * @param statusCode the HTTP status code
+		 * @param body       the response body
+		 * @return a response whose body length is specified by the {@code Content-Length} header
+		 */
+		private static String withContentLength(int statusCode, String body)
+		{
+			return "HTTP/1.1 " + statusCode + " Stub\r\n" +
+				"Content-Type: application/json\r\n" +
+				"Content-Length: " + body.getBytes(UTF_8).length + "\r\n" +
+				"\r\n" +
+				body;
+		}
+
+		@Override
+		public void close() throws IOException
+		{
+			server.close();
+			Paths.deleteRecursively(directory);
+		}
+	}
+}
@@ -5,12 +5,14 @@
 import com.github.cowwoc.anchor4j.docker.exception.ResourceInUseException;
 import com.github.cowwoc.anchor4j.docker.resource.Config;
 import com.github.cowwoc.anchor4j.docker.resource.ConfigElement;
+import com.github.cowwoc.anchor4j.docker.resource.InspectResult;
 import com.github.cowwoc.anchor4j.docker.resource.SwarmCreator.WelcomePackage;
 import com.github.cowwoc.anchor4j.docker.test.IntegrationTestContainer;
 import org.testng.annotations.Test;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.TimeoutException;
 
 import static com.github.cowwoc.requirements11.java.DefaultJavaValidators.requireThat;
@@ -94,6 +96,23 @@ public void list() throws IOException, InterruptedException, TimeoutException
 		it.onSuccess();
 	}
 
+	@Test
+	public void getMultiple() throws IOException, InterruptedException, TimeoutException
+	{
+		IntegrationTestContainer it = new IntegrationTestContainer();
+		Docker client = it.getClient();
+		client.createSwarm().create();
+
+		Config config = client.createConfig().create(it.getName(), "key=value");
+		String missingConfig = "anchor4j-missing";
+		InspectResult<Config> result = client.getConfigs(List.of(config.getId(), missingConfig,
+			config.getName()));
+		requireThat(result.found().keySet(), "found").containsExactly(Set.of(config.getId(), config.getName()));
+		requireThat(result.found().get(config.getName()).getId(), "id").isEqualTo(config.getId());
+		requireThat(result.missing(), "missing").containsExactly(Set.of(missingConfig));
+		it.onSuccess();
+	}
+
 	@Test(expectedExceptions = NotSwarmManagerException.class)
 	public void listNotSwarmManager() throws IOException, InterruptedException, TimeoutException
 	{
@@ -2,28 +2,51 @@
 
 import com.github.cowwoc.anchor4j.core.internal.client.CommandResult;
 import com.github.cowwoc.anchor4j.core.internal.client.Processes;
+import com.github.cowwoc.anchor4j.docker.client.AsyncDocker;
+import com.github.cowwoc.anchor4j.docker.client.CacheStatistics;
 import com.github.cowwoc.anchor4j.docker.client.Docker;
 import com.github.cowwoc.anchor4j.docker.exception.ResourceInUseException;
 import com.github.cowwoc.anchor4j.docker.exception.ResourceNotFoundException;
 import com.github.cowwoc.anchor4j.docker.resource.Container;
 import com.github.cowwoc.anchor4j.docker.resource.Container.Status;
 import com.github.cowwoc.anchor4j.docker.resource.ContainerElement;
+import com.github.cowwoc.anchor4j.docker.resource.ContainerFilter;
 import com.github.cowwoc.anchor4j.docker.resource.ContainerLogGetter.LogStreams;
+import com.github.cowwoc.anchor4j.docker.resource.Event;
+import com.github.cowwoc.anchor4j.docker.resource.EventSubscription;
+import com.github.cowwoc.anchor4j.docker.resource.InspectResult;
+import com.github.cowwoc.anchor4j.docker.resource.LogRecord;
 import com.github.cowwoc.anchor4j.docker.test.IntegrationTestContainer;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import org.testng.annotations.Test;
 
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.StringJoiner;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.stream.Stream;
 
 import static com.github.cowwoc.anchor4j.docker.test.resource.ImageIT.EXISTING_IMAGE;
 import static com.github.cowwoc.anchor4j.docker.test.resource.ImageIT.MISSING_IMAGE;
 import static com.github.cowwoc.requirements11.java.DefaultJavaValidators.requireThat;
+import static java.nio.charset.StandardCharsets.UTF_8;
 
 public final class ContainerIT
 {
@@ -123,6 +146,42 @@ public void list() throws IOException, InterruptedException, TimeoutException
 		it.onSuccess();
 	}
 
+	@Test
+	public void stream() throws IOException, InterruptedException, TimeoutException
+	{
+		IntegrationTestContainer it = new IntegrationTestContainer();
+		Docker client = it.getClient();
+		String imageId = client.pullImage(EXISTING_IMAGE).pull();
+		String containerId1 = client.createContainer(imageId).create();
+		String containerId2 = client.createContainer(imageId).create();
+		try (Stream<ContainerElement> containers = client.streamContainers())
+		{
+			List<String> ids = containers.map(ContainerElement::id).toList();
+			requireThat(ids, "ids").containsExactly(List.of(containerId1, containerId2));
+		}
+		// Closing the stream before it is exhausted must not block
+		try (Stream<ContainerElement> containers = client.streamContainers())
+		{
+			requireThat(containers.findFirst().isPresent(), "isPresent").isTrue();
+		}
+		it.onSuccess();
+	}
+
+	@Test
+	public void listWithFilter() throws IOException, InterruptedException, TimeoutException
+	{
+		IntegrationTestContainer it = new IntegrationTestContainer();
+		Docker client = it.getClient();
+		String imageId = client.pullImage(EXISTING_IMAGE).pull();
+		String containerId = client.createContainer(imageId).name(it.getName()).create();
+		client.createContainer(imageId).create();
+		List<ContainerElement> containers = client.listContainers(new ContainerFilter().name(it.getName()).
+			status(Status.CREATED));
+		requireThat(containers.stream().map(ContainerElement::id).toList(), "containers").
+			containsExactly(List.of(containerId));
+		it.onSuccess();
+	}
+
 	@Test
 	public void get() throws IOException, InterruptedException, TimeoutException
 	{
@@ -136,6 +195,119 @@ public void get() throws IOException, InterruptedException, TimeoutException
 		it.onSuccess();
 	}
 
+	@Test
+	public void getMultiple() throws IOException, InterruptedException, TimeoutException
+	{
+		IntegrationTestContainer it = new IntegrationTestContainer();
+		Docker client = it.getClient();
+		String imageId = client.pullImage(EXISTING_IMAGE).pull();
+		String containerId1 = client.createContainer(imageId).create();
+		String containerId2 = client.createContainer(imageId).create();
+		InspectResult<Container> result = client.getContainers(List.of(containerId1, MISSING_CONTAINER,
+			containerId2, containerId1));
+		requireThat(result.found().keySet(), "found").containsExactly(Set.of(containerId1, containerId2));
+		requireThat(result.found().get(containerId1).getId(), "id").isEqualTo(containerId1);
+		requireThat(result.missing(), "missing").containsExactly(Set.of(MISSING_CONTAINER));
+		it.onSuccess();
+	}
+
+	@Test
+	public void getCached() throws IOException, InterruptedException, TimeoutException
+	{
+		IntegrationTestContainer it = new IntegrationTestContainer();
+		Docker client = it.getClient();
+		client.setInspectCache(Duration.ofMinutes(1), 100);
+		String imageId = client.pullImage(EXISTING_IMAGE).pull();
+		String containerId;
+		CountDownLatch created = new CountDownLatch(1);
+		try (EventSubscription _ = client.subscribeToEvents(event ->
+		{
+			if (event.type() == Event.Type.CONTAINER && event.action().equals("create"))
+				created.countDown();
+		}))
+		{
+			containerId = client.createContainer(imageId).arguments(KEEP_ALIVE).create();
+			// Wait for the event to invalidate the cache before populating it
+			requireThat(created.await(30, TimeUnit.SECONDS), "receivedCreateEvent").isTrue();
+		}
+		Container first = client.getContainer(containerId);
+		Container second = client.getContainer(containerId);
+		requireThat(second == first, "second == first").isTrue();
+		CacheStatistics statistics = client.getInspectCacheStatistics();
+		requireThat(statistics.misses(), "misses").isEqualTo(1L);
+		requireThat(statistics.hits(), "hits").isEqualTo(1L);
+
+		// Commands that modify resources invalidate the cache
+		client.startContainer(containerId).start();
+		Container started = client.getContainer(containerId);
+		requireThat(started.getStatus(), "status").isEqualTo(Status.RUNNING);
+		it.onSuccess();
+	}
+
+	@Test
+	public void getAsync() throws IOException, InterruptedException, TimeoutException
+	{
+		IntegrationTestContainer it = new IntegrationTestContainer();
+		Docker client = it.getClient();
+		String imageId = client.pullImage(EXISTING_IMAGE).pull();
+		String containerId1 = client.createContainer(imageId).create();
+		String containerId2 = client.createContainer(imageId).create();
+		AsyncDocker async = client.async().setMaximumConcurrency(1);
+		CompletableFuture<Container> container1 = async.getContainer(containerId1);
+		CompletableFuture<Container> container2 = async.getContainer(containerId2);
+		CompletableFuture<Container> missing = async.getContainer(MISSING_CONTAINER);
+		requireThat(container1.join().getId(), "container1").isEqualTo(containerId1);
+		requireThat(container2.join().getId(), "container2").isEqualTo(containerId2);
+		requireThat(missing.join(), "missing").isNull();
+		it.onSuccess();
+	}
+
+	@Test
+	public void cancelAsync() throws IOException, InterruptedException, TimeoutException
+	{
+		IntegrationTestContainer it = new IntegrationTestContainer();
+		Docker client = it.getClient();
+		String imageId = client.pullImage(EXISTING_IMAGE).pull();
+		String containerId = client.createContainer(imageId).arguments(KEEP_ALIVE).create();
+		client.startContainer(containerId).start();
+		CompletableFuture<Integer> exitCode = client.async().waitUntilContainerStops(containerId);
+		String commandLine = "container wait " + containerId;
+		requireThat(waitForProcess(commandLine, true), "started").isTrue();
+
+		requireThat(exitCode.cancel(true), "cancelled").isTrue();
+		requireThat(exitCode.isCancelled(), "isCancelled").isTrue();
+		// The cancellation must terminate the "docker container wait" process
+		requireThat(waitForProcess(commandLine, false), "terminated").isTrue();
+		// The container is unaffected by the cancellation
+		requireThat(client.getContainer(containerId).getStatus(), "status").isEqualTo(Status.RUNNING);
+		it.onSuccess();
+	}
+
+	/**
+	 * Waits until a process that was spawned by the JVM starts or exits.
+	 *
+	 * @param commandLine a substring of the process' command line
+	 * @param alive       {@code true} to wait until the process is running, {@code false} to wait until it exits
+	 * @return {@code false} if the process did not reach the desired state within 10 seconds
+	 * @throws InterruptedException if the thread is interrupted before the operation completes
+	 */
+	@SuppressWarnings("BusyWait")
+	private static boolean waitForProcess(String commandLine, boolean alive) throws InterruptedException
+	{
+		Instant deadline = Instant.now().plusSeconds(10);
+		while (true)
+		{
+			boolean running = ProcessHandle.current().descendants().
+				filter(ProcessHandle::isAlive).
+				anyMatch(process -> process.info().commandLine().orElse("").contains(commandLine));
+			if (running == alive)
+				return true;
+			if (Instant.now().isAfter(deadline))
+				return false;
+			Thread.sleep(50);
+		}
+	}
+
 	@Test
 	public void getMissing() throws IOException, InterruptedException, TimeoutException
 	{
@@ -160,6 +332,26 @@ public void start() throws IOException, InterruptedException, TimeoutException
 		it.onSuccess();
 	}
 
+	@Test
+	public void waitUntilContainerStatus() throws IOException, InterruptedException, TimeoutException
+	{
+		IntegrationTestContainer it = new IntegrationTestContainer();
+		Docker client = it.getClient();
+		String imageId = client.pullImage(EXISTING_IMAGE).pull();
+		String containerId = client.createContainer(imageId).create();
+		List<Event> events = new CopyOnWriteArrayList<>();
+		try (EventSubscription _ = client.subscribeToEvents(events::add))
+		{
+			client.startContainer(containerId).start();
+			Container container = client.waitUntilContainerStatus(containerId, Status.EXITED,
+				Instant.now().plusSeconds(30));
+			requireThat(container.getStatus(), "status").isEqualTo(Status.EXITED);
+		}
+		requireThat(events.stream().anyMatch(event -> event.refersTo(Event.Type.CONTAINER, containerId) &&
+			event.action().equals("die")), "receivedDieEvent").isTrue();
+		it.onSuccess();
+	}
+
 	@Test
 	public void alreadyStarted() throws IOException, InterruptedException, TimeoutException
 	{
@@ -340,4 +532,190 @@ public void getContainerLogs() throws IOException, InterruptedException, Timeout
 		}
 		it.onSuccess();
 	}
+
+	@Test
+	public void recordFlightRecorderEvents() throws IOException, InterruptedException, TimeoutException
+	{
+		IntegrationTestContainer it = new IntegrationTestContainer();
+		Docker client = it.getClient();
+		String imageId = client.pullImage(EXISTING_IMAGE).pull();
+		List<String> command = List.of("sh", "-c", "echo This is stdout");
+		String containerId = client.createContainer(imageId).arguments(command).create();
+
+		Path recordingPath = Files.createTempFile("anchor4j", ".jfr");
+		try (Recording recording = new Recording())
+		{
+			recording.enable("com.github.cowwoc.anchor4j.Command").withThreshold(Duration.ZERO);
+			recording.enable("com.github.cowwoc.anchor4j.Stream").withThreshold(Duration.ZERO);
+			recording.start();
+
+			client.startContainer(containerId).start();
+			client.waitUntilContainerStops(containerId);
+			LogStreams containerLogs = client.getContainerLogs(containerId).stream();
+			try (BufferedReader stdoutReader = containerLogs.getOutputReader())
+			{
+				while (stdoutReader.readLine() != null)
+				{
+					// Discard the logs
+				}
+			}
+			int exitCode = containerLogs.waitFor();
+			requireThat(exitCode, "exitCode").isEqualTo(0);
+
+			recording.stop();
+			recording.dump(recordingPath);
+			List<RecordedEvent> events = RecordingFile.readAllEvents(recordingPath);
+			Set<String> verbs = new HashSet<>();
+			RecordedEvent logs = null;
+			for (RecordedEvent event : events)
+			{
+				String name = event.getEventType().getName();
+				if (name.equals("com.github.cowwoc.anchor4j.Command"))
+					verbs.add(event.getString("verb"));
+				else if (name.equals("com.github.cowwoc.anchor4j.Stream"))
+					logs = event;
+			}
+			requireThat(verbs, "verbs").withContext(events, "events").contains("container start");
+			requireThat(logs, "logs").withContext(events, "events").isNotNull();
+			requireThat(logs.getString("verb"), "logs.verb").isEqualTo("container logs");
+			requireThat(logs.getLong("bytesRead"), "logs.bytesRead").
+				isEqualTo((long) "This is stdout\n".length());
+			requireThat(logs.getInt("exitCode"), "logs.exitCode").isEqualTo(0);
+		}
+		finally
+		{
+			Files.deleteIfExists(recordingPath);
+		}
+		it.onSuccess();
+	}
+
+	@Test
+	public void writeContainerLogs() throws IOException, InterruptedException, TimeoutException
+	{
+		IntegrationTestContainer it = new IntegrationTestContainer();
+		Docker client = it.getClient();
+		String imageId = client.pullImage(EXISTING_IMAGE).pull();
+		List<String> command = List.of("sh", "-c", "echo This is stdout; echo This is stderr >&2");
+		String containerId = client.createContainer(imageId).arguments(command).create();
+		client.startContainer(containerId).start();
+		client.waitUntilContainerStops(containerId);
+
+		Path directory = Files.createTempDirectory("anchor4j");
+		try
+		{
+			Path stdout = directory.resolve("stdout.log");
+			Path stderr = directory.resolve("stderr.log");
+			client.getContainerLogs(containerId).writeTo(stdout, stderr, 8);
+
+			// "This is stdout\n" is 15 bytes long
+			requireThat(Files.readString(stdout), "stdout").isEqualTo("This is ");
+			requireThat(Files.readString(directory.resolve("stdout.log.1")), "stdout.1").isEqualTo("stdout\n");
+			requireThat(Files.readString(stderr), "stderr").isEqualTo("This is ");
+			requireThat(Files.readString(directory.resolve("stderr.log.1")), "stderr.1").isEqualTo("stderr\n");
+		}
+		finally
+		{
+			try (Stream<Path> files = Files.list(directory))
+			{
+				for (Path file : files.toList())
+					Files.delete(file);
+			}
+			Files.delete(directory);
+		}
+		it.onSuccess();
+	}
+
+	@Test
+	public void publishContainerLogs() throws IOException, InterruptedException, TimeoutException
+	{
+		IntegrationTestContainer it = new IntegrationTestContainer();
+		Docker client = it.getClient();
+		String imageId = client.pullImage(EXISTING_IMAGE).pull();
+		List<String> command = List.of("sh", "-c", "echo This is stdout; echo This is stderr >&2");
+		String containerId = client.createContainer(imageId).arguments(command).create();
+		client.startContainer(containerId).start();
+
+		List<LogRecord> records = collect(client.getContainerLogs(containerId).follow().publish());
+
+		requireThat(records.size(), "records.size()").isEqualTo(2);
+		for (LogRecord logRecord : records)
+		{
+			String line = new String(logRecord.bytes(), UTF_8);
+			switch (logRecord.source())
+			{
+				case STDOUT -> requireThat(line, "stdout").isEqualTo("This is stdout");
+				case STDERR -> requireThat(line, "stderr").isEqualTo("This is stderr");
+			}
+		}
+		it.onSuccess();
+	}
+
+	@Test
+	public void publishMergedContainerLogs() throws IOException, InterruptedException, TimeoutException
+	{
+		IntegrationTestContainer it = new IntegrationTestContainer();
+		Docker client = it.getClient();
+		String imageId = client.pullImage(EXISTING_IMAGE).pull();
+		String containerId1 = client.createContainer(imageId).
+			arguments("sh", "-c", "echo first; sleep 2; echo third").create();
+		String containerId2 = client.createContainer(imageId).
+			arguments("sh", "-c", "sleep 1; echo second").create();
+		client.startContainer(containerId1).start();
+		client.startContainer(containerId2).start();
+		client.waitUntilContainerStops(containerId1);
+		client.waitUntilContainerStops(containerId2);
+
+		List<LogRecord> records = collect(client.getContainerLogs(List.of(containerId1, containerId2)).
+			publish());
+		List<String> lines = new ArrayList<>();
+		for (LogRecord logRecord : records)
+			lines.add(new String(logRecord.bytes(), UTF_8));
+		requireThat(lines, "lines").isEqualTo(List.of("first", "second", "third"));
+		requireThat(records.get(1).containerId(), "records.get(1).containerId()").isEqualTo(containerId2);
+		it.onSuccess();
+	}
+
+	/**
+	 * Collects all the records of a publisher, requesting one record at a time.
+	 *
+	 * @param publisher the publisher
+	 * @return the records
+	 */
+	private static List<LogRecord> collect(Flow.Publisher<LogRecord> publisher)
+	{
+		List<LogRecord> records = new CopyOnWriteArrayList<>();
+		CompletableFuture<Void> done = new CompletableFuture<>();
+		publisher.subscribe(new Flow.Subscriber<>()
+		{
+			private Flow.Subscription subscription;
+
+			@Override
+			public void onSubscribe(Flow.Subscription subscription)
+			{
+				this.subscription = subscription;
+				subscription.request(1);
+			}
+
+			@Override
+			public void onNext(LogRecord item)
+			{
+				records.add(item);
+				subscription.request(1);
+			}
+
+			@Override
+			public void onError(Throwable throwable)
+			{
+				done.completeExceptionally(throwable);
+			}
+
+			@Override
+			public void onComplete()
+			{
+				done.complete(null);
+			}
+		});
+		done.join();
+		return records;
+	}
 }
\ No newline at end of file
@@ -1,6 +1,8 @@
 package com.github.cowwoc.anchor4j.docker.test.resource;
 
 import com.github.cowwoc.anchor4j.core.internal.util.Paths;
+import com.github.cowwoc.anchor4j.core.metrics.CommandStatistics;
+import com.github.cowwoc.anchor4j.core.metrics.InMemoryCommandMetrics;
 import com.github.cowwoc.anchor4j.core.resource.BuilderCreator.Driver;
 import com.github.cowwoc.anchor4j.core.resource.DefaultBuildListener;
 import com.github.cowwoc.anchor4j.core.resource.ImageBuilder;
@@ -10,6 +12,7 @@
 import com.github.cowwoc.anchor4j.docker.exception.ResourceNotFoundException;
 import com.github.cowwoc.anchor4j.docker.resource.Image;
 import com.github.cowwoc.anchor4j.docker.resource.ImageElement;
+import com.github.cowwoc.anchor4j.docker.resource.InspectResult;
 import com.github.cowwoc.anchor4j.docker.test.IntegrationTestContainer;
 import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
 import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
@@ -195,6 +198,23 @@ public void getMissing() throws IOException, InterruptedException, TimeoutExcept
 		it.onSuccess();
 	}
 
+	@Test
+	public void getMultiple() throws IOException, InterruptedException, TimeoutException
+	{
+		IntegrationTestContainer it = new IntegrationTestContainer();
+		Docker client = it.getClient();
+		String id = client.pullImage(EXISTING_IMAGE).pull();
+		// The daemon reports untagged references with an implicit ":latest" tag
+		String missingDockerHubImage = "anchor4j-missing";
+		InspectResult<Image> result = client.getImages(List.of(id, MISSING_IMAGE, EXISTING_IMAGE,
+			missingDockerHubImage, MISSING_IMAGE + ":1.0"));
+		requireThat(result.found().keySet(), "found").containsExactly(Set.of(id, EXISTING_IMAGE));
+		requireThat(result.found().get(EXISTING_IMAGE).getId(), "id").isEqualTo(id);
+		requireThat(result.missing(), "missing").containsExactly(Set.of(MISSING_IMAGE, missingDockerHubImage,
+			MISSING_IMAGE + ":1.0"));
+		it.onSuccess();
+	}
+
 	@Test
 	public void buildAndExportToDocker() throws IOException, InterruptedException, TimeoutException
 	{
@@ -207,6 +227,140 @@ public void buildAndExportToDocker() throws IOException, InterruptedException, T
 		it.onSuccess();
 	}
 
+	@Test
+	public void recordCommandMetrics() throws IOException, InterruptedException, TimeoutException
+	{
+		IntegrationTestContainer it = new IntegrationTestContainer();
+		Docker client = it.getClient();
+		InMemoryCommandMetrics metrics = new InMemoryCommandMetrics();
+		client.setCommandMetrics(metrics);
+
+		Path buildContext = Path.of("src/test/resources");
+		client.buildImage().export(Exporter.dockerImage().build()).build(buildContext);
+		client.listImages();
+
+		Map<String, CommandStatistics> verbToStatistics = metrics.snapshot();
+		CommandStatistics build = verbToStatistics.get("buildx build");
+		requireThat(build, "build").withContext(verbToStatistics, "verbToStatistics").isNotNull();
+		requireThat(build.count(), "build.count()").isEqualTo(1L);
+		requireThat(build.failures(), "build.failures()").isEqualTo(0L);
+		requireThat(build.wallTime().getCount(), "build.wallTime().getCount()").isEqualTo(1L);
+		requireThat(build.outputBytes(), "build.outputBytes()").isPositive();
+		requireThat(verbToStatistics.size(), "verbToStatistics.size()").
+			withContext(verbToStatistics, "verbToStatistics").isGreaterThan(1);
+		it.onSuccess();
+	}
+
+	@Test
+	public void buildSkipsUnchangedContext() throws IOException, InterruptedException, TimeoutException
+	{
+		IntegrationTestContainer it = new IntegrationTestContainer();
+		Docker client = it.getClient();
+		Path buildContext = Files.createTempDirectory("anchor4j");
+		try
+		{
+			Files.writeString(buildContext.resolve("Dockerfile"), "FROM scratch\nCOPY file.txt .\n");
+			Files.writeString(buildContext.resolve("file.txt"), "version 1");
+			Files.writeString(buildContext.resolve(".dockerignore"), "ignored.txt\n");
+			Path index = buildContext.resolve("ignored.txt");
+
+			String id1 = client.buildImage().export(Exporter.dockerImage().build()).skipIfUnchanged(index).
+				build(buildContext);
+
+			TestBuildListener listener = new TestBuildListener();
+			String id2 = client.buildImage().export(Exporter.dockerImage().build()).skipIfUnchanged(index).
+				listener(listener).build(buildContext);
+			requireThat(listener.buildStarted.get(), "buildStarted").isFalse();
+			requireThat(id2, "id2").isEqualTo(id1, "id1");
+
+			Files.writeString(buildContext.resolve("file.txt"), "version 2");
+			listener = new TestBuildListener();
+			String id3 = client.buildImage().export(Exporter.dockerImage().build()).skipIfUnchanged(index).
+				listener(listener).build(buildContext);
+			requireThat(listener.buildStarted.get(), "buildStarted").isTrue();
+			requireThat(id3, "id3").isNotEqualTo(id1, "id1");
+		}
+		finally
+		{
+			Paths.deleteRecursively(buildContext);
+		}
+		it.onSuccess();
+	}
+
+	@Test
+	public void buildDoesNotSkipMovedReference() throws IOException, InterruptedException, TimeoutException
+	{
+		IntegrationTestContainer it = new IntegrationTestContainer();
+		Docker client = it.getClient();
+		Path buildContext = Files.createTempDirectory("anchor4j");
+		try
+		{
+			Files.writeString(buildContext.resolve("Dockerfile"), "FROM scratch\nCOPY file.txt .\n");
+			Files.writeString(buildContext.resolve("file.txt"), "version 1");
+			Files.writeString(buildContext.resolve(".dockerignore"), "ignored.txt\n");
+			Path index = buildContext.resolve("ignored.txt");
+			String reference = "anchor4j-skip:latest";
+
+			String id1 = client.buildImage().reference(reference).export(Exporter.dockerImage().build()).
+				skipIfUnchanged(index).build(buildContext);
+
+			// Move the reference to a different image
+			String otherId = client.pullImage(EXISTING_IMAGE).pull();
+			client.tagImage(otherId, reference);
+
+			TestBuildListener listener = new TestBuildListener();
+			String id2 = client.buildImage().reference(reference).export(Exporter.dockerImage().build()).
+				skipIfUnchanged(index).listener(listener).build(buildContext);
+			requireThat(listener.buildStarted.get(), "buildStarted").isTrue();
+			requireThat(id2, "id2").isEqualTo(id1, "id1");
+			requireThat(client.getImage(reference).getId(), "client.getImage(reference).getId()").
+				isEqualTo(id2, "id2");
+		}
+		finally
+		{
+			Paths.deleteRecursively(buildContext);
+		}
+		it.onSuccess();
+	}
+
+	@Test
+	public void buildSkipsUnchangedContextWithMultipleExporters()
+		throws IOException, InterruptedException, TimeoutException
+	{
+		IntegrationTestContainer it = new IntegrationTestContainer();
+		Docker client = it.getClient();
+		Path buildContext = Files.createTempDirectory("anchor4j");
+		Path contents = Files.createTempDirectory("anchor4j");
+		try
+		{
+			Files.writeString(buildContext.resolve("Dockerfile"), "FROM scratch\nCOPY file.txt .\n");
+			Files.writeString(buildContext.resolve("file.txt"), "version 1");
+			Files.writeString(buildContext.resolve(".dockerignore"), "ignored.txt\n");
+			Path index = buildContext.resolve("ignored.txt");
+
+			// The last exporter does not output an image
+			String id1 = client.buildImage().export(Exporter.dockerImage().build()).
+				export(Exporter.contents(contents.toString()).directory().build()).
+				skipIfUnchanged(index).
+				build(buildContext);
+			requireThat(id1, "id1").isNotNull();
+
+			TestBuildListener listener = new TestBuildListener();
+			String id2 = client.buildImage().export(Exporter.dockerImage().build()).
+				export(Exporter.contents(contents.toString()).directory().build()).
+				skipIfUnchanged(index).
+				listener(listener).build(buildContext);
+			requireThat(listener.buildStarted.get(), "buildStarted").isFalse();
+			requireThat(id2, "id2").isEqualTo(id1, "id1");
+		}
+		finally
+		{
+			Paths.deleteRecursively(contents);
+			Paths.deleteRecursively(buildContext);
+		}
+		it.onSuccess();
+	}
+
 	@Test
 	public void buildWithCustomDockerfile() throws IOException, InterruptedException, TimeoutException
 	{
@@ -5,6 +5,7 @@
 import com.github.cowwoc.anchor4j.docker.exception.LastManagerException;
 import com.github.cowwoc.anchor4j.docker.exception.NotSwarmManagerException;
 import com.github.cowwoc.anchor4j.docker.exception.ResourceInUseException;
+import com.github.cowwoc.anchor4j.docker.resource.InspectResult;
 import com.github.cowwoc.anchor4j.docker.resource.JoinToken;
 import com.github.cowwoc.anchor4j.docker.resource.Node;
 import com.github.cowwoc.anchor4j.docker.resource.Node.Type;
@@ -15,6 +16,7 @@
 import java.io.IOException;
 import java.net.ConnectException;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.TimeoutException;
 
 import static com.github.cowwoc.requirements11.java.DefaultJavaValidators.requireThat;
@@ -92,6 +94,22 @@ public void getNodeNotInSwarm() throws IOException, InterruptedException, Timeou
 		}
 	}
 
+	@Test
+	public void getNodes() throws IOException, InterruptedException, TimeoutException
+	{
+		IntegrationTestContainer manager = new IntegrationTestContainer("manager");
+		Docker client = manager.getClient();
+		WelcomePackage welcomePackage = client.createSwarm().create();
+
+		String missingNode = "anchor4j-missing";
+		InspectResult<Node> result = client.getNodes(List.of(missingNode, welcomePackage.nodeId()));
+		requireThat(result.found().keySet(), "found").containsExactly(Set.of(welcomePackage.nodeId()));
+		requireThat(result.found().get(welcomePackage.nodeId()).getId(), "id").
+			isEqualTo(welcomePackage.nodeId());
+		requireThat(result.missing(), "missing").containsExactly(Set.of(missingNode));
+		manager.onSuccess();
+	}
+
 	@Test
 	public void managerLeaveSwarm() throws IOException, InterruptedException, TimeoutException
 	{
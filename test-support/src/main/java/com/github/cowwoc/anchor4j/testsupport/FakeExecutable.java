@@ -0,0 +1,316 @@
+package com.github.cowwoc.anchor4j.testsupport;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static com.github.cowwoc.requirements11.java.DefaultJavaValidators.requireThat;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * A shell script that stands in for the {@code docker} or {@code buildx} executable, so that clients can be
+ * benchmarked and load-tested without a Docker daemon.
+ * <p>
+ * The script replays a recorded {@link Reply} for each pattern of arguments. For example:
+ * <pre>{@code
+ * try (FakeExecutable executable = FakeExecutable.docker().
+ *   on("container ls *", new Reply().stdout(containerLine).repeatStdout(10_000)).
+ *   on("container inspect *", new Reply().stderr("Error response from daemon: No such container: web").
+ *     exitCode(1)).
+ *   build())
+ * {
+ *   Docker client = Docker.connect(executable.getPath());
+ *   ...
+ * }
+ * }</pre>
+ * The script requires a POSIX shell, {@code cat} and a {@code sleep} command that accepts fractional
+ * seconds.
+ * <p>
+ * <b>Thread Safety</b>: This class is immutable and thread-safe. The script may be invoked concurrently.
+ */
+public final class FakeExecutable implements AutoCloseable
+{
+	private static final String INVOCATIONS = "invocations.log";
+	private final Path directory;
+	private final Path executable;
+
+	/**
+	 * Creates a new instance.
+	 *
+	 * @param directory  the directory that contains the script and its recorded output
+	 * @param executable the path of the script
+	 */
+	private FakeExecutable(Path directory, Path executable)
+	{
+		this.directory = directory;
+		this.executable = executable;
+	}
+
+	/**
+	 * Returns a builder for a fake {@code docker} executable, for use with {@code Docker.connect(Path)}.
+	 *
+	 * @return the builder
+	 */
+	public static Builder docker()
+	{
+		return new Builder("docker");
+	}
+
+	/**
+	 * Returns a builder for a fake standalone {@code buildx} executable, for use with
+	 * {@code BuildX.connect(Path)}.
+	 *
+	 * @return the builder
+	 */
+	public static Builder buildx()
+	{
+		return new Builder("docker-buildx");
+	}
+
+	/**
+	 * Returns the path of the executable.
+	 *
+	 * @return the path
+	 */
+	public Path getPath()
+	{
+		return executable;
+	}
+
+	/**
+	 * Returns the arguments of each invocation so far, in the order that the invocations started.
+	 *
+	 * @return the arguments of each invocation, separated by spaces
+	 * @throws IOException if the log of invocations cannot be read
+	 */
+	public List<String> getInvocations() throws IOException
+	{
+		try
+		{
+			return Files.readAllLines(directory.resolve(INVOCATIONS), UTF_8);
+		}
+		catch (NoSuchFileException _)
+		{
+			return List.of();
+		}
+	}
+
+	/**
+	 * Deletes the executable and its recorded output.
+	 *
+	 * @throws IOException if the files cannot be deleted
+	 */
+	@Override
+	public void close() throws IOException
+	{
+		try (Stream<Path> files = Files.walk(directory))
+		{
+			for (Path file : files.sorted(Comparator.reverseOrder()).toList())
+				Files.delete(file);
+		}
+	}
+
+	/**
+	 * Builds a fake executable.
+	 * <p>
+	 * <b>Thread Safety</b>: This class is not thread-safe.
+	 */
+	public static final class Builder
+	{
+		private final String name;
+		private final List<String> patterns = new ArrayList<>();
+		private final List<Reply> replies = new ArrayList<>();
+		private Reply otherwise = new Reply().
+			stderr("unknown command").
+			exitCode(127);
+
+		/**
+		 * Creates a new instance.
+		 *
+		 * @param name the filename of the executable
+		 */
+		private Builder(String name)
+		{
+			this.name = name;
+		}
+
+		/**
+		 * Replays a reply when the executable is invoked with matching arguments. Patterns are evaluated in the
+		 * order that they were added, and the first match wins.
+		 * <p>
+		 * The pattern is matched against the arguments, separated by spaces, excluding the executable. For
+		 * example, {@code docker --context remote container ls} is matched against
+		 * {@code --context remote container ls}. Within the pattern, {@code *} matches any sequence of
+		 * characters and {@code ?} matches any single character. All other characters match themselves.
+		 * <p>
+		 * The reply is copied, so subsequent changes to it have no effect.
+		 *
+		 * @param pattern the pattern of the arguments
+		 * @param reply   the reply
+		 * @return this
+		 * @throws NullPointerException     if any of the arguments are null
+		 * @throws IllegalArgumentException if {@code pattern} contains a newline
+		 */
+		public Builder on(String pattern, Reply reply)
+		{
+			requireThat(pattern, "pattern").doesNotContain("\n");
+			requireThat(reply, "reply").isNotNull();
+			patterns.add(pattern);
+			replies.add(copyOf(reply));
+			return this;
+		}
+
+		/**
+		 * Sets the reply to replay when the arguments do not match any pattern. By default, the executable
+		 * writes {@code unknown command} to stderr and exits with code {@code 127}.
+		 *
+		 * @param reply the reply
+		 * @return this
+		 * @throws NullPointerException if {@code reply} is null
+		 */
+		public Builder otherwise(Reply reply)
+		{
+			requireThat(reply, "reply").isNotNull();
+			this.otherwise = copyOf(reply);
+			return this;
+		}
+
+		/**
+		 * @param reply a reply
+		 * @return a copy of the reply
+		 */
+		private static Reply copyOf(Reply reply)
+		{
+			return new Reply().
+				stdout(reply.stdout()).
+				stderr(reply.stderr()).
+				exitCode(reply.exitCode()).
+				latency(reply.latency()).
+				repeatStdout(reply.repetitions());
+		}
+
+		/**
+		 * Writes the executable to a new temporary directory.
+		 *
+		 * @return the executable
+		 * @throws IOException if the executable cannot be written
+		 */
+		public FakeExecutable build() throws IOException
+		{
+			Path directory = Files.createTempDirectory("anchor4j-fake-");
+			StringBuilder script = new StringBuilder(256);
+			script.append("#!/bin/sh\n").
+				append("printf '%s\\n' \"$*\" >> ").append(quote(directory.resolve(INVOCATIONS))).append('\n').
+				append("case \"$*\" in\n");
+			for (int i = 0; i < patterns.size(); ++i)
+			{
+				script.append(toCasePattern(patterns.get(i))).append(")\n");
+				appendReply(script, replies.get(i), directory, "reply-" + i);
+			}
+			script.append("*)\n");
+			appendReply(script, otherwise, directory, "otherwise");
+			script.append("esac\n");
+
+			Path executable = directory.resolve(name);
+			Files.writeString(executable, script, UTF_8);
+			Files.setPosixFilePermissions(executable, PosixFilePermissions.fromString("rwxr-xr-x"));
+			return new FakeExecutable(directory, executable);
+		}
+
+		/**
+		 * Records a reply and appends the commands that replay it to a script.
+		 *
+		 * @param script    the script
+		 * @param reply     the reply
+		 * @param directory the directory to write the recorded output to
+		 * @param name      the prefix of the files that contain the recorded output
+		 * @throws IOException if the output cannot be written
+		 */
+		private static void appendReply(StringBuilder script, Reply reply, Path directory, String name)
+			throws IOException
+		{
+			if (!reply.latency().isZero())
+			{
+				script.append("\tsleep ").
+					append(BigDecimal.valueOf(reply.latency().toNanos(), 9).stripTrailingZeros().toPlainString()).
+					append('\n');
+			}
+			if (!reply.stdout().isEmpty())
+			{
+				// The output is repeated ahead of time so that replaying it only costs a single cat process
+				Path stdout = directory.resolve(name + ".stdout");
+				try (BufferedWriter out = Files.newBufferedWriter(stdout, UTF_8))
+				{
+					for (int i = 0; i < reply.repetitions(); ++i)
+						out.write(reply.stdout());
+				}
+				script.append("\tcat ").append(quote(stdout)).append('\n');
+			}
+			if (!reply.stderr().isEmpty())
+			{
+				Path stderr = directory.resolve(name + ".stderr");
+				Files.writeString(stderr, reply.stderr(), UTF_8);
+				script.append("\tcat ").append(quote(stderr)).append(" >&2\n");
+			}
+			script.append("\texit ").append(reply.exitCode()).append("\n\t;;\n");
+		}
+
+		/**
+		 * Converts a pattern to a {@code case} pattern of the POSIX shell.
+		 *
+		 * @param pattern a pattern in which {@code *} and {@code ?} are wildcards
+		 * @return the shell pattern, in which all other characters are quoted
+		 */
+		private static String toCasePattern(String pattern)
+		{
+			if (pattern.isEmpty())
+				return "''";
+			StringBuilder result = new StringBuilder(pattern.length() + 8);
+			StringBuilder literal = new StringBuilder();
+			for (int i = 0; i < pattern.length(); ++i)
+			{
+				char character = pattern.charAt(i);
+				if (character == '*' || character == '?')
+				{
+					if (!literal.isEmpty())
+					{
+						result.append(quote(literal.toString()));
+						literal.setLength(0);
+					}
+					result.append(character);
+				}
+				else
+					literal.append(character);
+			}
+			if (!literal.isEmpty())
+				result.append(quote(literal.toString()));
+			return result.toString();
+		}
+
+		/**
+		 * @param path a path
+		 * @return the path, quoted for the POSIX shell
+		 */
+		private static String quote(Path path)
+		{
+			return quote(path.toString());
+		}
+
+		/**
+		 * @param value a value
+		 * @return the value, quoted for the POSIX shell
+		 */
+		private static String quote(String value)
+		{
+			return "'" + value.replace("'", "'\\''") + "'";
+		}
+	}
+}
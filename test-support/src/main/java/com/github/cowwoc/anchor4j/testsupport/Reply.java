@@ -0,0 +1,150 @@
+package com.github.cowwoc.anchor4j.testsupport;
+
+import java.time.Duration;
+
+import static com.github.cowwoc.requirements11.java.DefaultJavaValidators.requireThat;
+
+/**
+ * The output that a {@link FakeExecutable} replays when it is invoked with matching arguments.
+ * <p>
+ * <b>Thread Safety</b>: This class is not thread-safe.
+ */
+public final class Reply
+{
+	private String stdout = "";
+	private String stderr = "";
+	private int exitCode;
+	private Duration latency = Duration.ZERO;
+	private int repetitions = 1;
+
+	/**
+	 * Creates a reply that writes nothing and exits with code {@code 0}.
+	 */
+	public Reply()
+	{
+	}
+
+	/**
+	 * Sets the standard output stream of the executable. Defaults to an empty string.
+	 *
+	 * @param stdout the output
+	 * @return this
+	 * @throws NullPointerException if {@code stdout} is null
+	 */
+	public Reply stdout(String stdout)
+	{
+		requireThat(stdout, "stdout").isNotNull();
+		this.stdout = stdout;
+		return this;
+	}
+
+	/**
+	 * Returns the standard output stream of the executable.
+	 *
+	 * @return the output, before it is repeated
+	 */
+	public String stdout()
+	{
+		return stdout;
+	}
+
+	/**
+	 * Sets the standard error stream of the executable. Defaults to an empty string.
+	 *
+	 * @param stderr the output
+	 * @return this
+	 * @throws NullPointerException if {@code stderr} is null
+	 */
+	public Reply stderr(String stderr)
+	{
+		requireThat(stderr, "stderr").isNotNull();
+		this.stderr = stderr;
+		return this;
+	}
+
+	/**
+	 * Returns the standard error stream of the executable.
+	 *
+	 * @return the output
+	 */
+	public String stderr()
+	{
+		return stderr;
+	}
+
+	/**
+	 * Sets the exit code of the executable. Defaults to {@code 0}.
+	 *
+	 * @param exitCode the exit code
+	 * @return this
+	 * @throws IllegalArgumentException if {@code exitCode} is not between {@code 0} and {@code 255}
+	 */
+	public Reply exitCode(int exitCode)
+	{
+		requireThat(exitCode, "exitCode").isBetween(0, true, 255, true);
+		this.exitCode = exitCode;
+		return this;
+	}
+
+	/**
+	 * Returns the exit code of the executable.
+	 *
+	 * @return the exit code
+	 */
+	public int exitCode()
+	{
+		return exitCode;
+	}
+
+	/**
+	 * Sets the amount of time that the executable waits before writing its output. Defaults to
+	 * {@code Duration.ZERO}.
+	 *
+	 * @param latency the delay
+	 * @return this
+	 * @throws NullPointerException     if {@code latency} is null
+	 * @throws IllegalArgumentException if {@code latency} is negative
+	 */
+	public Reply latency(Duration latency)
+	{
+		requireThat(latency, "latency").isGreaterThanOrEqualTo(Duration.ZERO);
+		this.latency = latency;
+		return this;
+	}
+
+	/**
+	 * Returns the amount of time that the executable waits before writing its output.
+	 *
+	 * @return the delay
+	 */
+	public Duration latency()
+	{
+		return latency;
+	}
+
+	/**
+	 * Repeats the standard output stream, to simulate hosts with many resources. For example, if
+	 * {@code stdout} contains a single line of {@code container ls --format json}, repeating it {@code 10_000}
+	 * times simulates a host with 10,000 containers. Defaults to {@code 1}.
+	 *
+	 * @param repetitions the number of times to write {@code stdout}
+	 * @return this
+	 * @throws IllegalArgumentException if {@code repetitions} is not positive
+	 */
+	public Reply repeatStdout(int repetitions)
+	{
+		requireThat(repetitions, "repetitions").isPositive();
+		this.repetitions = repetitions;
+		return this;
+	}
+
+	/**
+	 * Returns the number of times that the standard output stream is written.
+	 *
+	 * @return the number of repetitions
+	 */
+	public int repetitions()
+	{
+		return repetitions;
+	}
+}
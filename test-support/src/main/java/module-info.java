@@ -0,0 +1,9 @@
+/**
+ * Test fixtures that let clients run without a Docker daemon.
+ */
+module com.github.cowwoc.anchor4j.testsupport
+{
+	requires com.github.cowwoc.requirements11.java;
+
+	exports com.github.cowwoc.anchor4j.testsupport;
+}